@@ -173,12 +173,17 @@ public class ManageRegisteredServicesMultiActionController extends AbstractManag
         }
         for (int i = 0; i < id.length; i++) {
             final long svcId = id[i];
-            final RegisteredService svc = this.servicesManager.findServiceBy(svcId);
-            if (svc == null) {
+            final RegisteredService registeredService = this.servicesManager.findServiceBy(svcId);
+            if (registeredService == null) {
                 throw new IllegalArgumentException("Service id " + svcId + " cannot be found.");
             }
-            svc.setEvaluationOrder(i);
-            this.servicesManager.save(svc);
+            try {
+                final RegisteredService svc = registeredService.clone();
+                svc.setEvaluationOrder(i);
+                this.servicesManager.save(svc);
+            } catch (final CloneNotSupportedException e) {
+                throw new IllegalArgumentException("Service id " + svcId + " cannot be updated.", e);
+            }
         }
         final Map<String, Object> model = new HashMap<>();
         model.put(STATUS, HttpServletResponse.SC_OK);
@@ -23,6 +23,9 @@ public class Status {
     /** Generic ERROR status. */
     public static final Status ERROR = new Status(StatusCode.ERROR);
 
+    /** Generic TIMEOUT status. */
+    public static final Status TIMEOUT = new Status(StatusCode.TIMEOUT);
+
     /** Status code. */
     private StatusCode code;
 
@@ -7,6 +7,9 @@ package org.apereo.cas.monitor;
  * @since 3.5.0
  */
 public enum StatusCode {
+
+    /** The check did not complete in time, so the state of what it checks is not known. */
+    TIMEOUT(504),
     
     /** The error. */
     ERROR(500),
@@ -0,0 +1,61 @@
+package org.apereo.cas.services;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * This is {@link RegisteredServiceChanges}, the services that were saved
+ * and deleted in a service registry since a given watermark.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class RegisteredServiceChanges {
+
+    private final long watermark;
+
+    private final Collection<RegisteredService> savedServices;
+
+    private final Collection<Long> deletedServiceIds;
+
+    /**
+     * Instantiates a new set of changes.
+     *
+     * @param watermark         the watermark as of which the changes were collected
+     * @param savedServices     the services that were added or modified
+     * @param deletedServiceIds the ids of the services that were deleted
+     */
+    public RegisteredServiceChanges(final long watermark,
+                                    final Collection<RegisteredService> savedServices,
+                                    final Collection<Long> deletedServiceIds) {
+        this.watermark = watermark;
+        this.savedServices = Collections.unmodifiableCollection(savedServices);
+        this.deletedServiceIds = Collections.unmodifiableCollection(deletedServiceIds);
+    }
+
+    /**
+     * Gets the watermark to ask for the next changes with.
+     *
+     * @return the watermark
+     */
+    public long getWatermark() {
+        return this.watermark;
+    }
+
+    public Collection<RegisteredService> getSavedServices() {
+        return this.savedServices;
+    }
+
+    public Collection<Long> getDeletedServiceIds() {
+        return this.deletedServiceIds;
+    }
+
+    /**
+     * Whether nothing has changed.
+     *
+     * @return true if no service was saved or deleted
+     */
+    public boolean isEmpty() {
+        return this.savedServices.isEmpty() && this.deletedServiceIds.isEmpty();
+    }
+}
@@ -35,4 +35,12 @@ public interface ResourceBasedServiceRegistryDao extends ServiceRegistryDao {
      * @return the registered service
      */
     RegisteredService load(File file);
+
+    /**
+     * Remove the service defined by the given file, once the file no longer exists.
+     *
+     * @param file the file
+     * @return true if the file defined a known service, false otherwise.
+     */
+    boolean remove(File file);
 }
@@ -1,6 +1,7 @@
 package org.apereo.cas.services;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Registry of all RegisteredServices.
@@ -50,4 +51,30 @@ public interface ServiceRegistryDao {
      * @since 5.0.0
      */
     long size();
+
+    /**
+     * Gets the current watermark of the registry, from which changes may be asked for
+     * once all services have been loaded.
+     * Take the watermark before loading services, so that no change is missed.
+     *
+     * @return the watermark
+     * @since 5.0.0
+     */
+    default long getWatermark() {
+        return 0;
+    }
+
+    /**
+     * Gets the services that were saved or deleted since the given watermark.
+     * A service may be reported more than once, and is reported as it is now
+     * rather than once per change. Registries that cannot tell what has changed
+     * return empty, in which case all services must be loaded again.
+     *
+     * @param watermark the watermark of the registry, or of the last changes
+     * @return the changes, or empty if the registry does not keep track of changes
+     * @since 5.0.0
+     */
+    default Optional<RegisteredServiceChanges> getChangesSince(final long watermark) {
+        return Optional.empty();
+    }
 }
@@ -49,6 +49,8 @@ public interface ServicesManager {
 
     /**
      * Find a RegisteredService by matching with the supplied id.
+     * Implementations may hand out instances that are shared with other callers;
+     * clone the result before modifying it.
      *
      * @param id the id to match with.
      * @return the RegisteredService that matches the supplied service.
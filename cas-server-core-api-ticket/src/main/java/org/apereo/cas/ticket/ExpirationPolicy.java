@@ -1,6 +1,7 @@
 package org.apereo.cas.ticket;
 
 import java.io.Serializable;
+import java.time.ZonedDateTime;
 
 /**
  * Strategy that determines if the ticket is expired. Implementations of the
@@ -21,6 +22,18 @@ public interface ExpirationPolicy extends Serializable {
      */
     boolean isExpired(TicketState ticketState);
 
+    /**
+     * Gets the time at which a ticket in the given state expires, unless its state changes before then.
+     * Once that time has passed, {@link #isExpired(TicketState)} must consider the ticket expired.
+     * Registries that store this time can find expired tickets without reading them.
+     *
+     * @param ticketState The snapshot of the current ticket state
+     * @return the expiration time, or null if the policy cannot tell it in advance.
+     */
+    default ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return null;
+    }
+
     /**
      * Describes the time duration where this policy should consider the item alive.
      * Once this time passes, the item is considered expired and dead.
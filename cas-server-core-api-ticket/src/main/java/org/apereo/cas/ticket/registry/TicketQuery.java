@@ -0,0 +1,110 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+
+import java.util.function.Predicate;
+
+/**
+ * Describes which tickets to visit when streaming the contents of a {@link TicketRegistry}.
+ * A query narrows tickets down by type and by an arbitrary predicate, and carries the
+ * number of tickets registries should fetch from their backing store at a time.
+ * Registries may use the type to skip storage that cannot hold matching tickets;
+ * the predicate is always evaluated in memory.
+ * <p>
+ * Queries are immutable; the {@code with*} methods return modified copies.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public final class TicketQuery {
+
+    /**
+     * Default number of tickets fetched at a time.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    private final Class<? extends Ticket> type;
+
+    private final Predicate<? super Ticket> predicate;
+
+    private final int pageSize;
+
+    private TicketQuery(final Class<? extends Ticket> type, final Predicate<? super Ticket> predicate, final int pageSize) {
+        this.type = type;
+        this.predicate = predicate;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Query that matches all tickets.
+     *
+     * @return the query
+     */
+    public static TicketQuery all() {
+        return ofType(Ticket.class);
+    }
+
+    /**
+     * Query that matches tickets of the given type.
+     *
+     * @param type the ticket type
+     * @return the query
+     */
+    public static TicketQuery ofType(final Class<? extends Ticket> type) {
+        return new TicketQuery(type, t -> true, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Copy of this query that additionally requires tickets to match the given predicate.
+     *
+     * @param predicate the predicate
+     * @return the query
+     */
+    public TicketQuery withPredicate(final Predicate<? super Ticket> predicate) {
+        final Predicate<? super Ticket> current = this.predicate;
+        return new TicketQuery(this.type, t -> current.test(t) && predicate.test(t), this.pageSize);
+    }
+
+    /**
+     * Copy of this query with the given page size.
+     *
+     * @param pageSize the number of tickets to fetch at a time
+     * @return the query
+     */
+    public TicketQuery withPageSize(final int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return new TicketQuery(this.type, this.predicate, pageSize);
+    }
+
+    public Class<? extends Ticket> getType() {
+        return this.type;
+    }
+
+    public int getPageSize() {
+        return this.pageSize;
+    }
+
+    /**
+     * Whether tickets of the given concrete class may match the type of this query.
+     * Registries that partition storage by ticket class use this to skip partitions
+     * whose class is unrelated to the type of this query.
+     *
+     * @param ticketClass the ticket class held by a partition
+     * @return true if the partition may contain matching tickets
+     */
+    public boolean mayMatch(final Class<?> ticketClass) {
+        return this.type.isAssignableFrom(ticketClass) || ticketClass.isAssignableFrom(this.type);
+    }
+
+    /**
+     * Whether the given ticket matches the type and predicate of this query.
+     *
+     * @param ticket the ticket
+     * @return true if the ticket matches
+     */
+    public boolean matches(final Ticket ticket) {
+        return ticket != null && this.type.isInstance(ticket) && this.predicate.test(ticket);
+    }
+}
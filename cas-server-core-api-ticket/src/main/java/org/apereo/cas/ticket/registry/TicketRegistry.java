@@ -1,8 +1,12 @@
 package org.apereo.cas.ticket.registry;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 
 /**
  * Interface for a registry that stores tickets. The underlying registry can be
@@ -52,6 +56,33 @@ public interface TicketRegistry {
      */
     boolean deleteTicket(String ticketId);
 
+    /**
+     * Remove the given tickets from the registry, along with the tickets that
+     * depend on them, as {@link #deleteTicket(String)} does.
+     * Registries backed by external storage should override this operation so that
+     * all tickets are removed in as few round trips to the storage as possible.
+     *
+     * @param ticketIds the ids of the tickets to delete
+     * @return the number of tickets removed
+     */
+    default int deleteTickets(final Collection<String> ticketIds) {
+        return (int) ticketIds.stream().filter(this::deleteTicket).count();
+    }
+
+    /**
+     * Remove the given tickets from the registry, along with the tickets that depend on them,
+     * as {@link #deleteTickets(Collection)} does for their ids. Registries may use the tickets
+     * as given instead of retrieving them again.
+     *
+     * @param tickets the tickets to delete
+     * @return the number of tickets removed
+     */
+    default int deleteTickets(final Iterable<? extends Ticket> tickets) {
+        final Collection<String> ticketIds = new ArrayList<>();
+        tickets.forEach(ticket -> ticketIds.add(ticket.getId()));
+        return deleteTickets(ticketIds);
+    }
+
     /**
      * Retrieve all tickets from the registry.
      *
@@ -60,6 +91,82 @@ public interface TicketRegistry {
      */
     Collection<Ticket> getTickets();
 
+    /**
+     * Stream the tickets that match the given query.
+     * Registries backed by external storage should override this operation to fetch
+     * tickets lazily, {@link TicketQuery#getPageSize()} at a time, so that visiting the
+     * whole registry runs in constant memory. The returned stream may hold resources
+     * and should be closed once consumed. Tickets added or removed while the stream is
+     * consumed may or may not be visited.
+     *
+     * @param query the query
+     * @return stream of matching tickets. Tickets might or might not be valid i.e. expired.
+     */
+    default Stream<Ticket> stream(final TicketQuery query) {
+        return getTickets().stream().filter(query::matches);
+    }
+
+    /**
+     * Retrieve the ticket-granting tickets, i.e. the single sign-on sessions, that were issued to the given principal.
+     * Registries that keep a secondary index of principal ids should override this operation so that only
+     * the sessions of the principal are visited.
+     *
+     * @param principalId the principal id
+     * @return ticket-granting tickets of the principal. Tickets might or might not be valid i.e. expired.
+     */
+    default Collection<TicketGrantingTicket> getTicketGrantingTickets(final String principalId) {
+        final TicketQuery query = TicketQuery.ofType(TicketGrantingTicket.class).withPredicate(t -> {
+            final TicketGrantingTicket tgt = (TicketGrantingTicket) t;
+            return tgt.getAuthentication() != null && tgt.getAuthentication().getPrincipal() != null
+                    && principalId.equals(tgt.getAuthentication().getPrincipal().getId());
+        });
+        try (Stream<Ticket> tickets = stream(query)) {
+            return tickets.map(TicketGrantingTicket.class::cast).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Retrieve up to {@code maxCount} tickets that are expired and due for removal.
+     * By default, all tickets are visited to find those that are expired, so callers should
+     * ask for all the tickets they mean to remove at once rather than a batch at a time.
+     * Registries that keep track of ticket expiration deadlines should override
+     * this operation so that only tickets due for expiry are visited.
+     *
+     * @param maxCount the maximum number of tickets to return
+     * @return expired tickets
+     */
+    default Collection<Ticket> getExpiredTickets(final int maxCount) {
+        try (Stream<Ticket> tickets = stream(TicketQuery.all().withPredicate(Ticket::isExpired))) {
+            return tickets.limit(maxCount).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Indicates whether the registry keeps track of ticket expiration deadlines, so that
+     * {@link #getExpiredTickets(int)} only visits tickets due for expiry. Callers may then
+     * ask for expired tickets a batch at a time; otherwise, every request scans all tickets.
+     *
+     * @return true if expired tickets are found without scanning all tickets; by default false.
+     */
+    default boolean isExpirationIndexed() {
+        return false;
+    }
+
+    /**
+     * Remove up to {@code maxCount} expired service tickets without retrieving them.
+     * Unlike ticket-granting tickets, service tickets need nothing done before they are removed.
+     * Registries that store ticket expiration deadlines in a form they can query should override
+     * this operation to find and remove expired service tickets by their deadline alone;
+     * {@link #getExpiredTickets(int)} then need not return them. Callers are expected to ask again
+     * until fewer than {@code maxCount} tickets are removed.
+     *
+     * @param maxCount the maximum number of tickets to remove
+     * @return the number of tickets removed; by default none.
+     */
+    default int deleteExpiredServiceTickets(final int maxCount) {
+        return 0;
+    }
+
     /**
      * Update the received ticket.
      *
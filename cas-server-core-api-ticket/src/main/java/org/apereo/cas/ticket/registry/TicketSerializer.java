@@ -0,0 +1,35 @@
+package org.apereo.cas.ticket.registry;
+
+/**
+ * Turns tickets, and the objects they reference, into bytes and back.
+ * Registries use a serializer whenever tickets leave the JVM in encoded form,
+ * so the choice of implementation determines both the cost of a round trip
+ * to the backing store and the size of what is stored.
+ * <p>
+ * Implementations must be safe for concurrent use. Bytes produced by one
+ * implementation can only be read back by the same implementation.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public interface TicketSerializer {
+
+    /**
+     * Serialize an object.
+     *
+     * @param object the object
+     * @return the serialized bytes
+     */
+    byte[] serialize(Object object);
+
+    /**
+     * Deserialize an object and check that it is of the expected type.
+     *
+     * @param <T>   the type parameter
+     * @param bytes the serialized bytes
+     * @param type  the expected type
+     * @return the object
+     * @throws ClassCastException if the object is not of the expected type
+     */
+    <T> T deserialize(byte[] bytes, Class<T> type);
+}
@@ -12,10 +12,12 @@ import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyTicket;
+import org.apereo.cas.ticket.registry.TicketQuery;
 import org.apereo.cas.validation.Assertion;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * CAS viewed as a set of services to generate and validate Tickets.
@@ -95,6 +97,18 @@ public interface CentralAuthenticationService {
      */
     Collection<Ticket> getTickets(Predicate<Ticket> predicate);
 
+    /**
+     * Stream the tickets of the underlying ticket registry that match the given query.
+     * Unlike {@link #getTickets(Predicate)}, tickets are not collected up front;
+     * the registry fetches them lazily as the stream is consumed. The stream
+     * should be closed once consumed.
+     *
+     * @param query the query
+     * @return the tickets
+     * @since 5.0.0
+     */
+    Stream<Ticket> getTickets(TicketQuery query);
+
     /**
      * Grant a {@link ServiceTicket} that may be used to access the given service
      * by authenticating the given credentials.
@@ -196,13 +196,27 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
             return cachedAttributes;
         }
 
+        final Map<String, Object> finalAttributes = retrievePrincipalAttributes(p);
+        addPrincipalAttributes(p.getId(), finalAttributes);
+        return finalAttributes;
+    }
+
+    /**
+     * Retrieve the attributes of the principal from the attribute repository,
+     * and merge them with those the principal already has according to the merging strategy.
+     * Nothing is cached.
+     *
+     * @param p the principal
+     * @return the principal attributes
+     */
+    protected Map<String, Object> retrievePrincipalAttributes(final Principal p) {
         final Map<String, List<Object>> sourceAttributes = retrievePersonAttributesToPrincipalAttributes(p.getId());
         LOGGER.debug("Found [{}] attributes for principal [{}] from the attribute repository.",
                 sourceAttributes.size(), p.getId());
 
         if (this.mergingStrategy == null || this.mergingStrategy.getAttributeMerger() == null) {
             LOGGER.debug("No merging strategy found, so attributes retrieved from the repository will be used instead.");
-            return convertAttributesToPrincipalAttributesAndCache(p, sourceAttributes);
+            return convertPersonAttributesToPrincipalAttributes(sourceAttributes);
         }
 
         final Map<String, List<Object>> principalAttributes = convertPrincipalAttributesToPersonAttributes(p);
@@ -212,21 +226,7 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
         final Map<String, List<Object>> mergedAttributes =
                 this.mergingStrategy.getAttributeMerger().mergeAttributes(principalAttributes, sourceAttributes);
 
-        return convertAttributesToPrincipalAttributesAndCache(p, mergedAttributes);
-    }
-
-    /**
-     * Convert attributes to principal attributes and cache.
-     *
-     * @param p the p
-     * @param sourceAttributes the source attributes
-     * @return the map
-     */
-    private Map<String, Object> convertAttributesToPrincipalAttributesAndCache(final Principal p,
-                                                        final Map<String, List<Object>> sourceAttributes) {
-        final Map<String, Object> finalAttributes = convertPersonAttributesToPrincipalAttributes(sourceAttributes);
-        addPrincipalAttributes(p.getId(), finalAttributes);
-        return finalAttributes;
+        return convertPersonAttributesToPrincipalAttributes(mergedAttributes);
     }
 
     /**
@@ -249,7 +249,12 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
         this.attributeRepository = attributeRepository;
     }
 
-    private IPersonAttributeDao getAttributeRepository() {
+    /**
+     * Gets the attribute repository, which if not set is looked up in the application context.
+     *
+     * @return the attribute repository, or null if none can be found
+     */
+    protected IPersonAttributeDao getAttributeRepository() {
         if (this.attributeRepository == null) {
             final ApplicationContext context = ApplicationContextProvider.getApplicationContext();
             if (context != null) {
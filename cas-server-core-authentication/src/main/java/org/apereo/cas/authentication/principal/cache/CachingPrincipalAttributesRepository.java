@@ -1,12 +1,18 @@
 package org.apereo.cas.authentication.principal.cache;
 
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
 import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.authentication.principal.PrincipalFactory;
+import org.apereo.cas.authentication.principal.cache.PrincipalAttributesCacheManager.PrincipalAttributesKey;
+import org.apereo.cas.util.ApplicationContextProvider;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
+import com.google.common.base.Throwables;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apereo.services.persondir.IPersonAttributeDao;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -16,6 +22,12 @@ import java.util.concurrent.TimeUnit;
 /**
  * Wrapper around an attribute repository where attributes cached for a configurable period
  * based on google guava's caching library.
+ * <p>
+ * The cache is obtained from the {@link PrincipalAttributesCacheManager} defined in the
+ * application context, if any, so that it is shared by all repositories configured the same way.
+ * Attributes of a principal are retrieved from the attribute repository once, however many
+ * requests for them arrive at the same time, and are refreshed in the background ahead of their expiration.
+ * Principals without any attributes are cached as well.
  * @author Misagh Moayyed
  * @since 4.2
  */
@@ -23,11 +35,15 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
     private static final long serialVersionUID = 6350244643948535906L;
     private static final long DEFAULT_MAXIMUM_CACHE_SIZE = 1000;
 
+    private static final String CACHE_MANAGER_BEAN_NAME = "principalAttributesCacheManager";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(CachingPrincipalAttributesRepository.class);
-    
-    private transient Cache<String, Map<String, Object>> cache;
-    private transient PrincipalAttributesCacheLoader cacheLoader =
-            new PrincipalAttributesCacheLoader();
+
+    private static final PrincipalFactory PRINCIPAL_FACTORY = new DefaultPrincipalFactory();
+
+    private transient volatile PrincipalAttributesCacheManager cacheManager;
+
+    private transient boolean sharedCacheManager;
 
     private long maxCacheSize = DEFAULT_MAXIMUM_CACHE_SIZE;
 
@@ -36,8 +52,6 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
      */
     private CachingPrincipalAttributesRepository() {
         super();
-        this.cache = CacheBuilder.newBuilder().maximumSize(this.maxCacheSize)
-                .expireAfterWrite(getExpiration(), TimeUnit.valueOf(getTimeUnit())).build(this.cacheLoader);
     }
 
     /**
@@ -62,39 +76,100 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
                                                 final long expiryDuration) {
         super(expiryDuration, timeUnit);
         this.maxCacheSize = maxCacheSize;
+    }
 
-        this.cache = CacheBuilder.newBuilder().maximumSize(maxCacheSize)
-                .expireAfterWrite(getExpiration(), TimeUnit.valueOf(getTimeUnit())).build(this.cacheLoader);
+    /**
+     * Sets the cache manager from which the cache is obtained,
+     * instead of the one defined in the application context.
+     *
+     * @param cacheManager the cache manager
+     */
+    public void setCacheManager(final PrincipalAttributesCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+        this.sharedCacheManager = true;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes(final Principal p) {
+        final IPersonAttributeDao attributeRepository = getAttributeRepository();
+        if (attributeRepository == null) {
+            LOGGER.debug("No attribute repository is defined for [{}]. Returning default principal attributes for {}",
+                    getClass().getName(), p.getId());
+            return new HashMap<>();
+        }
+
+        try {
+            return getCache(attributeRepository).getUnchecked(newKey(p));
+        } catch (final UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
     }
 
     @Override
     protected void addPrincipalAttributes(final String id, final Map<String, Object> attributes) {
-        this.cache.put(id, attributes);
+        getCache(getAttributeRepository()).put(newKey(PRINCIPAL_FACTORY.createPrincipal(id)), attributes);
         LOGGER.debug("Cached attributes for {}", id);
     }
 
     @Override
     protected Map<String, Object> getPrincipalAttributes(final Principal p) {
-        try {
-            return this.cache.get(p.getId(), () -> {
-                LOGGER.debug("No cached attributes could be found for {}", p.getId());
-                return new HashMap<>();
-            });
-        } catch (final Exception e) {
-            LOGGER.error(e.getMessage(), e);
+        final Map<String, Object> cached = getCache(getAttributeRepository()).getIfPresent(newKey(p));
+        if (cached == null) {
+            LOGGER.debug("No cached attributes could be found for {}", p.getId());
+            return new HashMap<>();
         }
-        return null;
+        return cached;
     }
 
     @Override
     public void close() throws IOException {
-        this.cache.cleanUp();
+        final PrincipalAttributesCacheManager manager = this.cacheManager;
+        if (manager != null && !this.sharedCacheManager) {
+            this.cacheManager = null;
+            manager.close();
+        }
     }
 
-    private static class PrincipalAttributesCacheLoader extends CacheLoader<String, Map<String, Object>> {
-        @Override
-        public Map<String, Object> load(final String key) throws Exception {
-            return new HashMap<>();
+    /**
+     * Gets the cache for attributes retrieved from the given attribute repository with the
+     * settings of this repository. Its name identifies those settings.
+     *
+     * @param attributeRepository the attribute repository
+     * @return the cache
+     */
+    private LoadingCache<PrincipalAttributesKey, Map<String, Object>> getCache(final IPersonAttributeDao attributeRepository) {
+        final String name = getClass().getSimpleName() + '[' + getExpiration() + ' ' + getTimeUnit()
+                + ", maxCacheSize=" + this.maxCacheSize
+                + ", mergingStrategy=" + getMergingStrategy()
+                + ", attributeRepository=" + (attributeRepository == null ? null
+                : attributeRepository.getClass().getSimpleName() + '@' + Integer.toHexString(System.identityHashCode(attributeRepository)))
+                + ']';
+        return getCacheManager().getCache(name, this.maxCacheSize, getExpiration(), TimeUnit.valueOf(getTimeUnit()));
+    }
+
+    private PrincipalAttributesKey newKey(final Principal p) {
+        return new PrincipalAttributesKey(p, this::retrievePrincipalAttributes);
+    }
+
+    private PrincipalAttributesCacheManager getCacheManager() {
+        PrincipalAttributesCacheManager manager = this.cacheManager;
+        if (manager == null) {
+            synchronized (this) {
+                manager = this.cacheManager;
+                if (manager == null) {
+                    final ApplicationContext context = ApplicationContextProvider.getApplicationContext();
+                    if (context != null && context.containsBean(CACHE_MANAGER_BEAN_NAME)) {
+                        manager = context.getBean(CACHE_MANAGER_BEAN_NAME, PrincipalAttributesCacheManager.class);
+                        this.sharedCacheManager = true;
+                    } else {
+                        LOGGER.debug("No principal attributes cache manager is defined, so attributes are cached by this repository alone");
+                        manager = new PrincipalAttributesCacheManager();
+                        this.sharedCacheManager = false;
+                    }
+                    this.cacheManager = manager;
+                }
+            }
         }
+        return manager;
     }
 }
@@ -0,0 +1,183 @@
+package org.apereo.cas.authentication.principal.cache;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apereo.cas.authentication.principal.Principal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * This is {@link PrincipalAttributesCacheManager}.
+ * <p>
+ * Holds the caches of principal attributes, one per distinct cache configuration,
+ * so that every service whose attribute release policy is configured the same way
+ * shares the same cache, and keeps it when service definitions are reloaded.
+ * <p>
+ * Entries are loaded at most once at a time per principal; concurrent requests for the
+ * same principal wait for that load instead of querying the attribute repository again.
+ * Caches are keyed by {@link PrincipalAttributesKey}, which carries what is needed to load
+ * the attributes of the principal. Once three quarters of an entry's lifetime has passed,
+ * the next request for it triggers a refresh on the refresh executor, and is answered
+ * with the current attributes meanwhile.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class PrincipalAttributesCacheManager implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrincipalAttributesCacheManager.class);
+
+    private static final int REFRESH_AHEAD_NUMERATOR = 3;
+
+    private static final int REFRESH_AHEAD_DENOMINATOR = 4;
+
+    private final ConcurrentMap<String, LoadingCache<PrincipalAttributesKey, Map<String, Object>>> caches = new ConcurrentHashMap<>();
+
+    private final ExecutorService refreshExecutor;
+
+    private final Ticker ticker;
+
+    /**
+     * Instantiates a new cache manager with a single background refresh thread.
+     */
+    public PrincipalAttributesCacheManager() {
+        this(1);
+    }
+
+    /**
+     * Instantiates a new cache manager.
+     *
+     * @param refreshThreads the maximum number of entries refreshed concurrently
+     */
+    public PrincipalAttributesCacheManager(final int refreshThreads) {
+        this(newRefreshExecutor(refreshThreads), Ticker.systemTicker());
+    }
+
+    /**
+     * Instantiates a new cache manager.
+     *
+     * @param refreshExecutor the executor that refreshes entries, shut down when the manager is closed
+     * @param ticker          the time source that entries expire and are refreshed by
+     */
+    public PrincipalAttributesCacheManager(final ExecutorService refreshExecutor, final Ticker ticker) {
+        this.refreshExecutor = refreshExecutor;
+        this.ticker = ticker;
+    }
+
+    private static ExecutorService newRefreshExecutor(final int refreshThreads) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+                .setNameFormat("principal-attributes-refresh-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Gets the cache with the given name, creating it if needed.
+     * Caches are created with the settings passed by the first caller for a name,
+     * so names must identify the settings.
+     *
+     * @param name       the cache name
+     * @param maxSize    the maximum number of principals cached
+     * @param expiration the time after which cached attributes are retrieved again
+     * @param timeUnit   the time unit of the expiration
+     * @return the cache
+     */
+    public LoadingCache<PrincipalAttributesKey, Map<String, Object>> getCache(final String name, final long maxSize,
+                                                                              final long expiration, final TimeUnit timeUnit) {
+        return this.caches.computeIfAbsent(name, k -> {
+            LOGGER.debug("Creating principal attributes cache [{}]", name);
+            final long expirationNanos = timeUnit.toNanos(expiration);
+            return CacheBuilder.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(expirationNanos, TimeUnit.NANOSECONDS)
+                    .refreshAfterWrite(Math.max(1, expirationNanos / REFRESH_AHEAD_DENOMINATOR * REFRESH_AHEAD_NUMERATOR),
+                            TimeUnit.NANOSECONDS)
+                    .ticker(this.ticker)
+                    .recordStats()
+                    .build(CacheLoader.asyncReloading(new PrincipalAttributesCacheLoader(), this.refreshExecutor));
+        });
+    }
+
+    /**
+     * Gets the hit, miss and load time statistics of every cache, by cache name.
+     *
+     * @return the statistics
+     */
+    public Map<String, CacheStats> getStatistics() {
+        final Map<String, CacheStats> statistics = new TreeMap<>();
+        this.caches.forEach((name, cache) -> statistics.put(name, cache.stats()));
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        this.caches.values().forEach(LoadingCache::invalidateAll);
+        this.refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Identifies the principal whose attributes are cached, and carries what is needed to retrieve them.
+     * Keys are equal when their principal ids are.
+     */
+    public static class PrincipalAttributesKey {
+        private final Principal principal;
+        private final Function<Principal, Map<String, Object>> source;
+
+        /**
+         * Instantiates a new key.
+         *
+         * @param principal the principal whose attributes are cached
+         * @param source    retrieves the attributes of a principal
+         */
+        public PrincipalAttributesKey(final Principal principal, final Function<Principal, Map<String, Object>> source) {
+            this.principal = principal;
+            this.source = source;
+        }
+
+        public Principal getPrincipal() {
+            return this.principal;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof PrincipalAttributesKey
+                    && this.principal.getId().equals(((PrincipalAttributesKey) obj).principal.getId());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.principal.getId().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return this.principal.getId();
+        }
+    }
+
+    /**
+     * Retrieves the attributes of the principal of a key. Wrapped so that refreshes run on the refresh executor.
+     */
+    private static class PrincipalAttributesCacheLoader extends CacheLoader<PrincipalAttributesKey, Map<String, Object>> {
+        @Override
+        public Map<String, Object> load(final PrincipalAttributesKey key) {
+            LOGGER.debug("Retrieving attributes for [{}]", key);
+            return key.source.apply(key.principal);
+        }
+    }
+}
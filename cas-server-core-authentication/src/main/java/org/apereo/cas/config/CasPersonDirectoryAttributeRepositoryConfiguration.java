@@ -4,6 +4,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.authentication.principal.cache.PrincipalAttributesCacheManager;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.services.persondir.IPersonAttributeDao;
@@ -98,5 +99,10 @@ public class CasPersonDirectoryAttributeRepositoryConfiguration {
 
         return dao;
     }
+
+    @Bean
+    public PrincipalAttributesCacheManager principalAttributesCacheManager() {
+        return new PrincipalAttributesCacheManager();
+    }
 }
 
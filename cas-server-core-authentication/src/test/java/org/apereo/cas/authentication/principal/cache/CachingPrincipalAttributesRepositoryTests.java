@@ -1,5 +1,26 @@
 package org.apereo.cas.authentication.principal.cache;
 
+import com.google.common.base.Ticker;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.services.persondir.IPersonAttributeDao;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
 /**
  * Handles tests for {@link CachingPrincipalAttributesRepository}.
  * @author Misagh Moayyed
@@ -13,4 +34,108 @@ public class CachingPrincipalAttributesRepositoryTests extends AbstractCachingPr
         repo.setAttributeRepository(this.dao);
         return repo;
     }
+
+    @Test
+    public void verifyAttributesRetrievedOnceForConcurrentRequests() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final IPersonAttributes person = mock(IPersonAttributes.class);
+        when(person.getAttributes()).thenReturn(Collections.singletonMap("mail", Collections.<Object>singletonList("casuser@example.org")));
+        final IPersonAttributeDao slowDao = mock(IPersonAttributeDao.class);
+        when(slowDao.getPerson("casuser")).thenAnswer(invocation -> {
+            latch.await();
+            return person;
+        });
+
+        final PrincipalAttributesCacheManager manager = new PrincipalAttributesCacheManager();
+        final CachingPrincipalAttributesRepository repo = new CachingPrincipalAttributesRepository(TimeUnit.MINUTES.name(), 5);
+        repo.setAttributeRepository(slowDao);
+        repo.setCacheManager(manager);
+        final Principal p = new DefaultPrincipalFactory().createPrincipal("casuser");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Map<String, Object>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> repo.getAttributes(p)));
+            }
+            latch.countDown();
+            for (final Future<Map<String, Object>> result : results) {
+                assertEquals("casuser@example.org", result.get().get("mail"));
+            }
+        } finally {
+            executor.shutdown();
+            manager.close();
+        }
+        verify(slowDao, times(1)).getPerson("casuser");
+        assertEquals(1, manager.getStatistics().size());
+        assertEquals(1, manager.getStatistics().values().iterator().next().loadCount());
+    }
+
+    @Test
+    public void verifyPrincipalWithoutAttributesIsCachedAndShared() throws Exception {
+        final IPersonAttributeDao emptyDao = mock(IPersonAttributeDao.class);
+        final PrincipalAttributesCacheManager manager = new PrincipalAttributesCacheManager();
+        final Principal p = new DefaultPrincipalFactory().createPrincipal("casuser");
+
+        try {
+            for (int i = 0; i < 2; i++) {
+                final CachingPrincipalAttributesRepository repo = new CachingPrincipalAttributesRepository(TimeUnit.MINUTES.name(), 5);
+                repo.setAttributeRepository(emptyDao);
+                repo.setCacheManager(manager);
+                assertTrue(repo.getAttributes(p).isEmpty());
+                assertTrue(repo.getAttributes(p).isEmpty());
+            }
+        } finally {
+            manager.close();
+        }
+        verify(emptyDao, times(1)).getPerson("casuser");
+        assertEquals(3, manager.getStatistics().values().iterator().next().hitCount());
+    }
+
+    @Test
+    public void verifyCachedAttributesAreReturnedWhileRefreshing() throws Exception {
+        final IPersonAttributes before = mock(IPersonAttributes.class);
+        when(before.getAttributes()).thenReturn(Collections.singletonMap("mail", Collections.<Object>singletonList("before@example.org")));
+        final IPersonAttributes after = mock(IPersonAttributes.class);
+        when(after.getAttributes()).thenReturn(Collections.singletonMap("mail", Collections.<Object>singletonList("after@example.org")));
+        final CountDownLatch refreshing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final IPersonAttributeDao slowDao = mock(IPersonAttributeDao.class);
+        when(slowDao.getPerson("casuser")).thenReturn(before).thenAnswer(invocation -> {
+            refreshing.countDown();
+            release.await();
+            return after;
+        });
+
+        final AtomicLong nanos = new AtomicLong();
+        final Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+        final PrincipalAttributesCacheManager manager = new PrincipalAttributesCacheManager(refreshExecutor, ticker);
+        final CachingPrincipalAttributesRepository repo = new CachingPrincipalAttributesRepository(TimeUnit.SECONDS.name(), 4);
+        repo.setAttributeRepository(slowDao);
+        repo.setCacheManager(manager);
+        final Principal p = new DefaultPrincipalFactory().createPrincipal("casuser");
+
+        try {
+            assertEquals("before@example.org", repo.getAttributes(p).get("mail"));
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(3200));
+            assertEquals("before@example.org", repo.getAttributes(p).get("mail"));
+            assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+            assertEquals("before@example.org", repo.getAttributes(p).get("mail"));
+
+            release.countDown();
+            // the refresh executor runs one task at a time, so the refresh is done once this one runs
+            refreshExecutor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+            assertEquals("after@example.org", repo.getAttributes(p).get("mail"));
+        } finally {
+            release.countDown();
+            manager.close();
+        }
+        verify(slowDao, times(2)).getPerson("casuser");
+    }
 }
@@ -24,6 +24,8 @@ public class MonitorProperties {
     private Jdbc jdbc = new Jdbc();
     
     private Ldap ldap = new Ldap();
+
+    private HealthCheck healthCheck = new HealthCheck();
     
     public Jdbc getJdbc() {
         return jdbc;
@@ -73,6 +75,44 @@ public class MonitorProperties {
         this.ldap = ldap;
     }
 
+    public HealthCheck getHealthCheck() {
+        return healthCheck;
+    }
+
+    public void setHealthCheck(final HealthCheck healthCheck) {
+        this.healthCheck = healthCheck;
+    }
+
+    public static class HealthCheck {
+        private int threads = 8;
+        private long timeout = 5000;
+        private long refreshInterval = 15000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(final int threads) {
+            this.threads = threads;
+        }
+
+        public long getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(final long timeout) {
+            this.timeout = timeout;
+        }
+
+        public long getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(final long refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+    }
+
     public static class St {
         @NestedConfigurationProperty
         private Warn warn = new Warn(5000);
@@ -0,0 +1,50 @@
+package org.apereo.cas.configuration.model.core.services;
+
+/**
+ * Configuration properties class for service.registry.remoteEndpoint.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class RemoteEndpointAccessProperties {
+
+    private long maxCachedDecisions = 10000;
+
+    private int maxConcurrentRequests = 20;
+
+    private int failureThreshold = 5;
+
+    private long circuitOpenDuration = 30;
+
+    public long getMaxCachedDecisions() {
+        return maxCachedDecisions;
+    }
+
+    public void setMaxCachedDecisions(final long maxCachedDecisions) {
+        this.maxCachedDecisions = maxCachedDecisions;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(final int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(final int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public long getCircuitOpenDuration() {
+        return circuitOpenDuration;
+    }
+
+    public void setCircuitOpenDuration(final long circuitOpenDuration) {
+        this.circuitOpenDuration = circuitOpenDuration;
+    }
+}
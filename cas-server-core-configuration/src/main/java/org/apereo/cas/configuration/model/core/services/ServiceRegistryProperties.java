@@ -30,14 +30,25 @@ public class ServiceRegistryProperties extends AbstractConfigProperties {
     @NestedConfigurationProperty
     private CouchbaseServiceRegistryProperties couchbase = new CouchbaseServiceRegistryProperties();
 
+    @NestedConfigurationProperty
+    private RemoteEndpointAccessProperties remoteEndpoint = new RemoteEndpointAccessProperties();
+
     private boolean initFromJson = true;
 
     private int startDelay = 15000;
     
     private int repeatInterval = 120000;
 
+    private long fullReloadInterval = 3600000;
+
     private boolean watcherEnabled = true;
 
+    private int loaderParallelism = Runtime.getRuntime().availableProcessors();
+
+    private long lookupCacheSize = 10000;
+
+    private long lookupCacheExpireInSeconds = 300;
+
     /**
      * Instantiates a new Service registry properties.
      */
@@ -61,6 +72,30 @@ public class ServiceRegistryProperties extends AbstractConfigProperties {
         this.watcherEnabled = watcherEnabled;
     }
 
+    public int getLoaderParallelism() {
+        return loaderParallelism;
+    }
+
+    public void setLoaderParallelism(final int loaderParallelism) {
+        this.loaderParallelism = loaderParallelism;
+    }
+
+    public long getLookupCacheSize() {
+        return lookupCacheSize;
+    }
+
+    public void setLookupCacheSize(final long lookupCacheSize) {
+        this.lookupCacheSize = lookupCacheSize;
+    }
+
+    public long getLookupCacheExpireInSeconds() {
+        return lookupCacheExpireInSeconds;
+    }
+
+    public void setLookupCacheExpireInSeconds(final long lookupCacheExpireInSeconds) {
+        this.lookupCacheExpireInSeconds = lookupCacheExpireInSeconds;
+    }
+
     public int getStartDelay() {
         return startDelay;
     }
@@ -77,6 +112,14 @@ public class ServiceRegistryProperties extends AbstractConfigProperties {
         this.repeatInterval = repeatInterval;
     }
 
+    public long getFullReloadInterval() {
+        return fullReloadInterval;
+    }
+
+    public void setFullReloadInterval(final long fullReloadInterval) {
+        this.fullReloadInterval = fullReloadInterval;
+    }
+
     public JpaServiceRegistryProperties getJpa() {
         return jpa;
     }
@@ -108,4 +151,12 @@ public class ServiceRegistryProperties extends AbstractConfigProperties {
     public void setCouchbase(final CouchbaseServiceRegistryProperties couchbase) {
         this.couchbase = couchbase;
     }
+
+    public RemoteEndpointAccessProperties getRemoteEndpoint() {
+        return remoteEndpoint;
+    }
+
+    public void setRemoteEndpoint(final RemoteEndpointAccessProperties remoteEndpoint) {
+        this.remoteEndpoint = remoteEndpoint;
+    }
 }
@@ -11,6 +11,11 @@ public class SloProperties {
     
     private boolean asynchronous = true;
     private boolean disabled;
+    private int dispatcherThreads = 10;
+    private int dispatcherQueueCapacity = 10000;
+    private int maxConnectionsPerHost = 4;
+    private int retryAttempts = 3;
+    private long retryBackoff = 1000;
 
     public boolean isAsynchronous() {
         return asynchronous;
@@ -20,6 +25,46 @@ public class SloProperties {
         this.asynchronous = asynchronous;
     }
 
+    public int getDispatcherThreads() {
+        return dispatcherThreads;
+    }
+
+    public void setDispatcherThreads(final int dispatcherThreads) {
+        this.dispatcherThreads = dispatcherThreads;
+    }
+
+    public int getDispatcherQueueCapacity() {
+        return dispatcherQueueCapacity;
+    }
+
+    public void setDispatcherQueueCapacity(final int dispatcherQueueCapacity) {
+        this.dispatcherQueueCapacity = dispatcherQueueCapacity;
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public void setMaxConnectionsPerHost(final int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    public int getRetryAttempts() {
+        return retryAttempts;
+    }
+
+    public void setRetryAttempts(final int retryAttempts) {
+        this.retryAttempts = retryAttempts;
+    }
+
+    public long getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(final long retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
     public boolean isDisabled() {
         return disabled;
     }
@@ -43,6 +43,15 @@ public class TicketRegistryProperties extends CryptographyProperties {
     
     private InMemory inMemory = new InMemory();
     private Cleaner cleaner = new Cleaner();
+    private String serializer = "JAVA";
+
+    public String getSerializer() {
+        return serializer;
+    }
+
+    public void setSerializer(final String serializer) {
+        this.serializer = serializer;
+    }
 
     public InMemory getInMemory() {
         return inMemory;
@@ -150,6 +159,7 @@ public class TicketRegistryProperties extends CryptographyProperties {
         private boolean enabled = true;
         private long startDelay = 10000;
         private long repeatInterval = 60000;
+        private int batchSize = 1000;
 
         private String appId = "cas-ticket-registry-cleaner";
 
@@ -184,5 +194,13 @@ public class TicketRegistryProperties extends CryptographyProperties {
         public void setRepeatInterval(final long repeatInterval) {
             this.repeatInterval = repeatInterval;
         }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
     }
 }
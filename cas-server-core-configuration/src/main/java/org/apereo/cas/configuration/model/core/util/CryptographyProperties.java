@@ -45,6 +45,8 @@ public class CryptographyProperties {
     public static class Encryption {
         private String key = "";
         private int keySize = 16;
+        private boolean authenticated;
+        private boolean compress;
 
         public String getKey() {
             return key;
@@ -61,6 +63,22 @@ public class CryptographyProperties {
         public void setKeySize(final int keySize) {
             this.keySize = keySize;
         }
+
+        public boolean isAuthenticated() {
+            return authenticated;
+        }
+
+        public void setAuthenticated(final boolean authenticated) {
+            this.authenticated = authenticated;
+        }
+
+        public boolean isCompress() {
+            return compress;
+        }
+
+        public void setCompress(final boolean compress) {
+            this.compress = compress;
+        }
     }
 
     /**
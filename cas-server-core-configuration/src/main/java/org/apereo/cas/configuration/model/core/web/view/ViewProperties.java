@@ -11,6 +11,15 @@ public class ViewProperties {
     
     private Cas2 cas2 = new Cas2();
     private Cas3 cas3 = new Cas3();
+    private boolean streamValidationResponses;
+
+    public boolean isStreamValidationResponses() {
+        return streamValidationResponses;
+    }
+
+    public void setStreamValidationResponses(final boolean streamValidationResponses) {
+        this.streamValidationResponses = streamValidationResponses;
+    }
 
     public Cas2 getCas2() {
         return cas2;
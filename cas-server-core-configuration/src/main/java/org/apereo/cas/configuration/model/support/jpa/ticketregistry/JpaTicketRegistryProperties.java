@@ -15,6 +15,8 @@ public class JpaTicketRegistryProperties extends AbstractJpaProperties {
     public static final int DEFAULT_LOCK_TIMEOUT = 3600;
     
     private boolean jpaLockingTgtEnabled = true;
+
+    private boolean jpaOptimisticLockingEnabled;
     
     private int jpaLockingTimeout = DEFAULT_LOCK_TIMEOUT;
     
@@ -30,6 +32,14 @@ public class JpaTicketRegistryProperties extends AbstractJpaProperties {
         this.jpaLockingTgtEnabled = jpaLockingTgtEnabled;
     }
 
+    public boolean isJpaOptimisticLockingEnabled() {
+        return jpaOptimisticLockingEnabled;
+    }
+
+    public void setJpaOptimisticLockingEnabled(final boolean jpaOptimisticLockingEnabled) {
+        this.jpaOptimisticLockingEnabled = jpaOptimisticLockingEnabled;
+    }
+
     public int getJpaLockingTimeout() {
         return jpaLockingTimeout;
     }
@@ -63,6 +63,8 @@ public class X509Properties {
     private int revocationPolicyThreshold = 172800;
     private boolean checkAll;
     private int refreshIntervalSeconds = 3600;
+    private int crlRefreshAheadSeconds = 300;
+    private int crlMaxIdleSeconds = 86400;
     private String principalDescriptor;
     private boolean throwOnFetchFailure;
     private PrincipalTypes principalType;
@@ -195,6 +197,22 @@ public class X509Properties {
         this.refreshIntervalSeconds = refreshIntervalSeconds;
     }
 
+    public int getCrlRefreshAheadSeconds() {
+        return crlRefreshAheadSeconds;
+    }
+
+    public void setCrlRefreshAheadSeconds(final int crlRefreshAheadSeconds) {
+        this.crlRefreshAheadSeconds = crlRefreshAheadSeconds;
+    }
+
+    public int getCrlMaxIdleSeconds() {
+        return crlMaxIdleSeconds;
+    }
+
+    public void setCrlMaxIdleSeconds(final int crlMaxIdleSeconds) {
+        this.crlMaxIdleSeconds = crlMaxIdleSeconds;
+    }
+
     public boolean isCheckAll() {
         return checkAll;
     }
@@ -24,6 +24,8 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
     private HttpClient httpClient;
     
     private boolean asynchronous = true;
+
+    private SingleLogoutMessageDispatcher dispatcher;
     
     private LogoutMessageCreator logoutMessageBuilder = new SamlCompliantLogoutMessageCreator();
     
@@ -45,6 +47,16 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
         this.asynchronous = asyncCallbacks;
     }
 
+    /**
+     * Set the dispatcher that sends messages when they are sent asynchronously.
+     * Without one, asynchronous messages are handed to the http client without waiting for a response.
+     *
+     * @param dispatcher the dispatcher
+     */
+    public void setDispatcher(final SingleLogoutMessageDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
     /**
      * Handle logout for slo service.
      *
@@ -95,6 +107,11 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
             final SingleLogoutService logoutService = request.getService();
             logoutService.setLoggedOutAlready(true);
 
+            if (this.asynchronous && this.dispatcher != null) {
+                LOGGER.debug("Queueing logout request for [{}] to [{}]", logoutService.getId(), request.getLogoutUrl());
+                return this.dispatcher.dispatch(new LogoutHttpMessage(request.getLogoutUrl(), logoutRequest, false), request.getTicketId());
+            }
+
             LOGGER.debug("Sending logout request for [{}] to [{}]", logoutService.getId(), request.getLogoutUrl());
             final LogoutHttpMessage msg = new LogoutHttpMessage(request.getLogoutUrl(), logoutRequest, this.asynchronous);
             LOGGER.debug("Prepared logout message to send is [{}]", msg);
@@ -141,6 +158,10 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
         return this.httpClient;
     }
 
+    public SingleLogoutMessageDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
     public boolean isAsynchronous() {
         return this.asynchronous;
     }
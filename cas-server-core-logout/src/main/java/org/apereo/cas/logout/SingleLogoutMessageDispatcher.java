@@ -0,0 +1,226 @@
+package org.apereo.cas.logout;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link SingleLogoutMessageDispatcher}.
+ * <p>
+ * Sends back-channel logout messages on its own threads, so that whoever logs out
+ * a ticket-granting ticket does not wait for the services it was used for to respond.
+ * Messages wait in a bounded queue; once it is full, further messages are refused.
+ * No more than a given number of messages are sent to the same host at a time,
+ * and messages that cannot be delivered are sent again a number of times, waiting twice
+ * as long before each attempt. A message that logs out the same ticket at the same endpoint
+ * as one still waiting to be delivered is dropped. Messages whose next attempt cannot be
+ * queued are dropped as well, and counted apart from those refused when first dispatched.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class SingleLogoutMessageDispatcher implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SingleLogoutMessageDispatcher.class);
+
+    private static final long HOST_BUSY_DELAY = 100;
+
+    private final HttpClient httpClient;
+
+    private final ThreadPoolExecutor senders;
+
+    private final ScheduledExecutorService retryScheduler;
+
+    private final ConcurrentMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private int maxConnectionsPerHost = 4;
+
+    private int maxAttempts = 3;
+
+    private long retryBackoff = 1000;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder retriesDropped = new LongAdder();
+
+    /**
+     * Instantiates a new dispatcher.
+     *
+     * @param httpClient    the http client that sends messages
+     * @param threads       the number of messages sent concurrently
+     * @param queueCapacity the number of messages that may wait to be sent
+     */
+    public SingleLogoutMessageDispatcher(final HttpClient httpClient, final int threads, final int queueCapacity) {
+        this.httpClient = httpClient;
+        this.senders = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("slo-dispatcher-%d").setDaemon(true).build());
+        this.senders.allowCoreThreadTimeOut(true);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("slo-dispatcher-retry").setDaemon(true).build());
+    }
+
+    /**
+     * Queue a message to be sent. The asynchronous flag of the message should not be set,
+     * so that the dispatcher learns whether it was delivered.
+     *
+     * @param message  the message
+     * @param ticketId the id of the ticket the message logs out
+     * @return true if the message was queued or one for the same ticket and endpoint is already waiting;
+     * false if the queue is full.
+     */
+    public boolean dispatch(final HttpMessage message, final String ticketId) {
+        final String key = message.getUrl().toExternalForm() + '\n' + ticketId;
+        if (!this.pending.add(key)) {
+            LOGGER.debug("A logout message for [{}] to [{}] is already waiting to be sent", ticketId, message.getUrl());
+            this.duplicates.increment();
+            return true;
+        }
+        if (!submit(new Delivery(key, message, 1))) {
+            LOGGER.warn("Logout message to [{}] could not be queued; the queue is full", message.getUrl());
+            this.rejected.increment();
+            return false;
+        }
+        this.queued.increment();
+        return true;
+    }
+
+    /**
+     * Gets the number of messages queued, sent, retried, failed after all attempts,
+     * refused because the queue was full, dropped as duplicates, and dropped because
+     * their next attempt could not be queued, along with the number that are waiting to be sent now.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("queued", this.queued.sum());
+        statistics.put("sent", this.sent.sum());
+        statistics.put("retried", this.retried.sum());
+        statistics.put("failed", this.failed.sum());
+        statistics.put("rejected", this.rejected.sum());
+        statistics.put("duplicates", this.duplicates.sum());
+        statistics.put("retriesDropped", this.retriesDropped.sum());
+        statistics.put("pending", (long) this.pending.size());
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        this.retryScheduler.shutdownNow();
+        this.senders.shutdown();
+    }
+
+    private boolean submit(final Delivery delivery) {
+        try {
+            this.senders.execute(() -> deliver(delivery));
+            return true;
+        } catch (final RejectedExecutionException e) {
+            LOGGER.trace(e.getMessage(), e);
+            this.pending.remove(delivery.key);
+            return false;
+        }
+    }
+
+    private void schedule(final Delivery delivery, final long delay) {
+        try {
+            this.retryScheduler.schedule(() -> {
+                if (!submit(delivery)) {
+                    dropRetry(delivery);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.trace(e.getMessage(), e);
+            this.pending.remove(delivery.key);
+            dropRetry(delivery);
+        }
+    }
+
+    private void dropRetry(final Delivery delivery) {
+        LOGGER.warn("Logout message to [{}] was dropped before attempt {}; the dispatcher is full or shut down",
+                delivery.message.getUrl(), delivery.attempt);
+        this.retriesDropped.increment();
+    }
+
+    private void deliver(final Delivery delivery) {
+        final Semaphore permits = this.hostPermits.computeIfAbsent(delivery.message.getUrl().getHost(),
+                host -> new Semaphore(this.maxConnectionsPerHost));
+        if (!permits.tryAcquire()) {
+            schedule(delivery, HOST_BUSY_DELAY);
+            return;
+        }
+
+        boolean delivered = false;
+        try {
+            delivered = this.httpClient.sendMessageToEndPoint(delivery.message);
+        } catch (final Exception e) {
+            LOGGER.debug(e.getMessage(), e);
+        } finally {
+            permits.release();
+        }
+
+        if (delivered) {
+            LOGGER.debug("Sent logout message to [{}]", delivery.message.getUrl());
+            this.sent.increment();
+            this.pending.remove(delivery.key);
+        } else if (delivery.attempt < this.maxAttempts) {
+            final long delay = this.retryBackoff << (delivery.attempt - 1);
+            LOGGER.debug("Logout message to [{}] was not delivered; retrying in {} ms", delivery.message.getUrl(), delay);
+            this.retried.increment();
+            schedule(new Delivery(delivery.key, delivery.message, delivery.attempt + 1), delay);
+        } else {
+            LOGGER.warn("Logout message to [{}] was not delivered after {} attempts", delivery.message.getUrl(), delivery.attempt);
+            this.failed.increment();
+            this.pending.remove(delivery.key);
+        }
+    }
+
+    public void setMaxConnectionsPerHost(final int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    public void setMaxAttempts(final int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public void setRetryBackoff(final long retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * A message, and which attempt at sending it this is.
+     */
+    private static class Delivery {
+        private final String key;
+        private final HttpMessage message;
+        private final int attempt;
+
+        Delivery(final String key, final HttpMessage message, final int attempt) {
+            this.key = key;
+            this.message = message;
+            this.attempt = attempt;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.apereo.cas.logout;
+
+import org.apereo.cas.monitor.Monitor;
+import org.apereo.cas.monitor.Status;
+import org.apereo.cas.monitor.StatusCode;
+
+import java.util.Map;
+
+/**
+ * Reports the statistics of a {@link SingleLogoutMessageDispatcher}.
+ * The status is a warning if messages were refused or dropped, or failed after all attempts,
+ * since the dispatcher was last observed.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class SingleLogoutMessageDispatcherMonitor implements Monitor<Status> {
+
+    private final SingleLogoutMessageDispatcher dispatcher;
+
+    private long lostBefore;
+
+    /**
+     * Instantiates a new monitor.
+     *
+     * @param dispatcher the dispatcher
+     */
+    public SingleLogoutMessageDispatcherMonitor(final SingleLogoutMessageDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public String getName() {
+        return SingleLogoutMessageDispatcherMonitor.class.getSimpleName();
+    }
+
+    @Override
+    public synchronized Status observe() {
+        final Map<String, Long> statistics = this.dispatcher.getStatistics();
+        final long lost = statistics.get("rejected") + statistics.get("retriesDropped") + statistics.get("failed");
+        final StatusCode code = lost > this.lostBefore ? StatusCode.WARN : StatusCode.OK;
+        this.lostBefore = lost;
+        return new Status(code, statistics.toString());
+    }
+}
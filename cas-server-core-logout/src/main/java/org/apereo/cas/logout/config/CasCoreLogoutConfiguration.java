@@ -7,8 +7,11 @@ import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.logout.LogoutManagerImpl;
 import org.apereo.cas.logout.LogoutMessageCreator;
 import org.apereo.cas.logout.SamlCompliantLogoutMessageCreator;
+import org.apereo.cas.logout.SingleLogoutMessageDispatcher;
+import org.apereo.cas.logout.SingleLogoutMessageDispatcherMonitor;
 import org.apereo.cas.logout.SingleLogoutServiceLogoutUrlBuilder;
 import org.apereo.cas.logout.SingleLogoutServiceMessageHandler;
+import org.apereo.cas.monitor.Monitor;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.util.http.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,9 +57,25 @@ public class CasCoreLogoutConfiguration {
         handler.setLogoutMessageBuilder(logoutBuilder());
         handler.setSingleLogoutServiceLogoutUrlBuilder(defaultSingleLogoutServiceLogoutUrlBuilder());
         handler.setServicesManager(servicesManager);
+        handler.setDispatcher(singleLogoutMessageDispatcher());
         return handler;
     }
 
+    @Bean
+    public SingleLogoutMessageDispatcher singleLogoutMessageDispatcher() {
+        final SingleLogoutMessageDispatcher dispatcher = new SingleLogoutMessageDispatcher(this.httpClient,
+                casProperties.getSlo().getDispatcherThreads(), casProperties.getSlo().getDispatcherQueueCapacity());
+        dispatcher.setMaxConnectionsPerHost(casProperties.getSlo().getMaxConnectionsPerHost());
+        dispatcher.setMaxAttempts(casProperties.getSlo().getRetryAttempts());
+        dispatcher.setRetryBackoff(casProperties.getSlo().getRetryBackoff());
+        return dispatcher;
+    }
+
+    @Bean
+    public Monitor singleLogoutMessageDispatcherMonitor() {
+        return new SingleLogoutMessageDispatcherMonitor(singleLogoutMessageDispatcher());
+    }
+
     @RefreshScope
     @Bean
     public LogoutManager logoutManager() {
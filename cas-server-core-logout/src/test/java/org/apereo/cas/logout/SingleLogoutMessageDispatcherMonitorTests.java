@@ -0,0 +1,40 @@
+package org.apereo.cas.logout;
+
+import org.apereo.cas.monitor.StatusCode;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Handles tests for {@link SingleLogoutMessageDispatcherMonitor}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class SingleLogoutMessageDispatcherMonitorTests {
+
+    @Test
+    public void verifyWarningOnlyWhenMessagesWereLostSinceLastObserved() {
+        final SingleLogoutMessageDispatcher dispatcher = mock(SingleLogoutMessageDispatcher.class);
+        when(dispatcher.getStatistics()).thenReturn(statistics(0), statistics(1), statistics(1));
+        final SingleLogoutMessageDispatcherMonitor monitor = new SingleLogoutMessageDispatcherMonitor(dispatcher);
+
+        assertEquals(StatusCode.OK, monitor.observe().getCode());
+        assertEquals(StatusCode.WARN, monitor.observe().getCode());
+        assertEquals(StatusCode.OK, monitor.observe().getCode());
+        assertTrue(monitor.observe().getDescription().contains("retriesDropped=1"));
+    }
+
+    private static Map<String, Long> statistics(final long retriesDropped) {
+        final Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("sent", 10L);
+        statistics.put("failed", 0L);
+        statistics.put("rejected", 0L);
+        statistics.put("retriesDropped", retriesDropped);
+        return statistics;
+    }
+}
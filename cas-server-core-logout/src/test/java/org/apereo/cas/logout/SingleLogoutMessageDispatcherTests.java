@@ -0,0 +1,84 @@
+package org.apereo.cas.logout;
+
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Handles tests for {@link SingleLogoutMessageDispatcher}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class SingleLogoutMessageDispatcherTests {
+
+    @Test
+    public void verifyUndeliveredMessageIsRetried() throws Exception {
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(false).thenAnswer(invocation -> {
+            delivered.countDown();
+            return true;
+        });
+
+        final SingleLogoutMessageDispatcher dispatcher = new SingleLogoutMessageDispatcher(client, 2, 10);
+        dispatcher.setRetryBackoff(10);
+        try {
+            assertTrue(dispatcher.dispatch(new LogoutHttpMessage(new URL("https://www.example.org/logout"), "ST-1", false), "ST-1"));
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.close();
+        }
+        verify(client, times(2)).sendMessageToEndPoint(any(HttpMessage.class));
+        assertEquals(1, dispatcher.getStatistics().get("retried").longValue());
+    }
+
+    @Test
+    public void verifyPendingMessageForSameTicketIsSentOnce() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+
+        final SingleLogoutMessageDispatcher dispatcher = new SingleLogoutMessageDispatcher(client, 2, 10);
+        try {
+            final URL url = new URL("https://www.example.org/logout");
+            assertTrue(dispatcher.dispatch(new LogoutHttpMessage(url, "<LogoutRequest ID=\"1\">ST-1", false), "ST-1"));
+            assertTrue(dispatcher.dispatch(new LogoutHttpMessage(url, "<LogoutRequest ID=\"2\">ST-1", false), "ST-1"));
+            assertTrue(dispatcher.dispatch(new LogoutHttpMessage(url, "<LogoutRequest ID=\"3\">ST-2", false), "ST-2"));
+            release.countDown();
+        } finally {
+            dispatcher.close();
+        }
+        assertEquals(2, dispatcher.getStatistics().get("queued").longValue());
+        assertEquals(1, dispatcher.getStatistics().get("duplicates").longValue());
+    }
+
+    @Test
+    public void verifyRetryThatCannotBeQueuedIsCountedAsDropped() throws Exception {
+        final HttpClient client = mock(HttpClient.class);
+        final SingleLogoutMessageDispatcher dispatcher = new SingleLogoutMessageDispatcher(client, 1, 10);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenAnswer(invocation -> {
+            dispatcher.close();
+            return false;
+        });
+
+        assertTrue(dispatcher.dispatch(new LogoutHttpMessage(new URL("https://www.example.org/logout"), "ST-1", false), "ST-1"));
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (dispatcher.getStatistics().get("retriesDropped") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, dispatcher.getStatistics().get("retriesDropped").longValue());
+        assertEquals(0, dispatcher.getStatistics().get("rejected").longValue());
+        assertEquals(0, dispatcher.getStatistics().get("pending").longValue());
+    }
+}
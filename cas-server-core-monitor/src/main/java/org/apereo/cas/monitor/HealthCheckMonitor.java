@@ -1,25 +1,114 @@
 package org.apereo.cas.monitor;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Simple health check monitor that reports the overall health as the greatest reported
  * {@link StatusCode} of an arbitrary number of individual checks.
+ * <p>
+ * Checks run at the same time on a bounded number of threads. A check that does not complete
+ * within the configured timeout is reported as {@link StatusCode#TIMEOUT}, and is not started again
+ * until it completes, so that a hung check holds no more than one thread.
+ * When a refresh interval is set, the health is checked once when first observed and then again in the
+ * background at that interval, and observing it returns the last result without waiting for any check.
  *
  * @author Marvin S. Addison
  * @since 3.5.0
  */
-public class HealthCheckMonitor implements Monitor<HealthStatus> {
+public class HealthCheckMonitor implements Monitor<HealthStatus>, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HealthCheckMonitor.class);
+
+    private static final int DEFAULT_THREADS = 8;
+
+    private static final int QUEUE_CAPACITY = 100;
+
     /**
      * Individual monitors that comprise health check.
      */
     private Collection<Monitor> monitors = Collections.emptySet();
 
-    public void setMonitors(final Collection monitors) {
+    private final ThreadPoolExecutor checkers;
+
+    private final ScheduledExecutorService refreshScheduler;
+
+    private final ConcurrentMap<Monitor, Check> running = new ConcurrentHashMap<>();
+
+    private long timeout = 5000;
+
+    private long refreshInterval;
+
+    private volatile HealthStatus lastStatus;
+
+    private boolean refreshScheduled;
+
+    /**
+     * Instantiates a new monitor that runs up to eight checks at a time.
+     */
+    public HealthCheckMonitor() {
+        this(DEFAULT_THREADS);
+    }
+
+    /**
+     * Instantiates a new monitor.
+     *
+     * @param threads the number of checks run at the same time
+     */
+    public HealthCheckMonitor(final int threads) {
+        this.checkers = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                new ThreadFactoryBuilder().setNameFormat("health-check-%d").setDaemon(true).build());
+        this.checkers.allowCoreThreadTimeOut(true);
+        this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("health-check-refresh").setDaemon(true).build());
+    }
+
+    /**
+     * Sets the monitors that are checked. The last result, if any, is discarded.
+     *
+     * @param monitors the monitors
+     */
+    public synchronized void setMonitors(final Collection monitors) {
         this.monitors = monitors;
+        this.lastStatus = null;
+    }
+
+    /**
+     * Sets how long, in milliseconds, a check may take before it is reported as timed out.
+     *
+     * @param timeout the timeout
+     */
+    public void setTimeout(final long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sets how often, in milliseconds, the health is checked in the background.
+     * If zero or less, the health is checked every time it is observed.
+     *
+     * @param refreshInterval the refresh interval
+     */
+    public void setRefreshInterval(final long refreshInterval) {
+        this.refreshInterval = refreshInterval;
     }
 
     @Override
@@ -29,23 +118,124 @@ public class HealthCheckMonitor implements Monitor<HealthStatus> {
 
     @Override
     public HealthStatus observe() {
-        final Map<String, Status> results = new LinkedHashMap<>(this.monitors.size());
-        final StatusCode[] code = {StatusCode.UNKNOWN};
-        final Status[] result = new Status[1];
-        this.monitors.stream().forEach(monitor -> {
-            try {
-                result[0] = monitor.observe();
-                final StatusCode resCode = result[0].getCode();
-                if (resCode.value() > code[0].value()) {
-                    code[0] = resCode;
+        if (this.refreshInterval <= 0) {
+            return check();
+        }
+        HealthStatus status = this.lastStatus;
+        if (status == null) {
+            synchronized (this) {
+                status = this.lastStatus;
+                if (status == null) {
+                    status = check();
+                    this.lastStatus = status;
+                    scheduleRefresh();
                 }
-            } catch (final Exception e) {
-                code[0] = StatusCode.ERROR;
-                result[0] = new Status(code[0], e.getClass().getSimpleName() + ": " + e.getMessage());
             }
-            results.put(monitor.getName(), result[0]);
-        });
+        }
+        return status;
+    }
+
+    @Override
+    public void close() {
+        this.refreshScheduler.shutdownNow();
+        this.checkers.shutdownNow();
+    }
+
+    private void scheduleRefresh() {
+        if (!this.refreshScheduled) {
+            this.refreshScheduler.scheduleWithFixedDelay(this::refresh, this.refreshInterval, this.refreshInterval, TimeUnit.MILLISECONDS);
+            this.refreshScheduled = true;
+        }
+    }
+
+    private void refresh() {
+        try {
+            this.lastStatus = check();
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Start all checks, then wait for each of them until the timeout has passed since they were started.
+     */
+    private HealthStatus check() {
+        final Collection<Monitor> toCheck = this.monitors;
+        final Map<Monitor, Future<Status>> futures = new LinkedHashMap<>(toCheck.size());
+        final Map<String, Status> results = new LinkedHashMap<>(toCheck.size());
+        for (final Monitor monitor : toCheck) {
+            final Check previous = this.running.get(monitor);
+            if (previous != null && previous.isRunning()) {
+                results.put(monitor.getName(), new Status(StatusCode.TIMEOUT,
+                        "The previous check has not completed after more than " + this.timeout + " ms"));
+                continue;
+            }
+            try {
+                final Check check = new Check(monitor);
+                check.future = this.checkers.submit(check);
+                this.running.put(monitor, check);
+                futures.put(monitor, check.future);
+            } catch (final RejectedExecutionException e) {
+                LOGGER.warn("Health check [{}] could not be started", monitor.getName());
+                results.put(monitor.getName(), new Status(StatusCode.ERROR, e.getClass().getSimpleName() + ": " + e.getMessage()));
+            }
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeout);
+        futures.forEach((monitor, future) -> results.put(monitor.getName(), getResult(monitor, future, deadline)));
+
+        StatusCode code = StatusCode.UNKNOWN;
+        for (final Status result : results.values()) {
+            if (result.getCode().value() > code.value()) {
+                code = result.getCode();
+            }
+        }
+        return new HealthStatus(code, results);
+    }
+
+    private Status getResult(final Monitor monitor, final Future<Status> future, final long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            LOGGER.warn("Health check [{}] did not complete within {} ms", monitor.getName(), this.timeout);
+            future.cancel(true);
+            return new Status(StatusCode.TIMEOUT, "No result within " + this.timeout + " ms");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            return new Status(StatusCode.ERROR, cause.getClass().getSimpleName() + ": " + cause.getMessage());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new Status(StatusCode.UNKNOWN, "Interrupted while waiting for a result");
+        }
+    }
+
+    /**
+     * A check of a monitor, which tells whether it is still queued or running
+     * even after it was cancelled because it did not complete in time.
+     */
+    private static class Check implements Callable<Status> {
+        private final Monitor monitor;
+        private volatile Future<Status> future;
+        private volatile boolean started;
+        private volatile boolean finished;
+
+        Check(final Monitor monitor) {
+            this.monitor = monitor;
+        }
+
+        @Override
+        public Status call() throws Exception {
+            this.started = true;
+            try {
+                return this.monitor.observe();
+            } finally {
+                this.finished = true;
+            }
+        }
 
-        return new HealthStatus(code[0], results);
+        boolean isRunning() {
+            return this.started ? !this.finished : !this.future.isDone();
+        }
     }
 }
@@ -48,8 +48,10 @@ public class CasCoreMonitorConfiguration {
                 .map(Map.Entry::getValue)
                 .collect(Collectors.toSet());
 
-        final HealthCheckMonitor bean = new HealthCheckMonitor();
+        final HealthCheckMonitor bean = new HealthCheckMonitor(casProperties.getMonitor().getHealthCheck().getThreads());
         bean.setMonitors(monitors);
+        bean.setTimeout(casProperties.getMonitor().getHealthCheck().getTimeout());
+        bean.setRefreshInterval(casProperties.getMonitor().getHealthCheck().getRefreshInterval());
         return bean;
     }
 
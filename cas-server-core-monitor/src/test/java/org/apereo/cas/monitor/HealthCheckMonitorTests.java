@@ -1,10 +1,15 @@
 package org.apereo.cas.monitor;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -25,6 +30,11 @@ public class HealthCheckMonitorTests {
         this.monitor = new HealthCheckMonitor();
     }
 
+    @After
+    public void tearDown() throws Exception {
+        this.monitor.close();
+    }
+
     @Test
     public void verifyObserveUnknown() throws Exception {
         assertEquals(StatusCode.UNKNOWN, this.monitor.observe().getCode());
@@ -67,9 +77,155 @@ public class HealthCheckMonitorTests {
         assertEquals(StatusCode.ERROR, this.monitor.observe().getCode());
     }
 
+    @Test
+    public void verifyMonitorsObservedConcurrently() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(3);
+        this.monitor.setMonitors(Arrays.asList(
+                new LatchMonitor("first", latch), new LatchMonitor("second", latch), new LatchMonitor("third", latch)));
+        final HealthStatus status = this.monitor.observe();
+        assertEquals(StatusCode.OK, status.getCode());
+        assertEquals(3, status.getDetails().size());
+    }
+
+    @Test
+    public void verifyTimeout() throws Exception {
+        final CountDownLatch hung = new CountDownLatch(1);
+        final AtomicInteger observations = new AtomicInteger();
+        final Monitor hangs = new Monitor() {
+            @Override
+            public String getName() {
+                return "Hangs";
+            }
+
+            @Override
+            public Status observe() {
+                observations.incrementAndGet();
+                try {
+                    hung.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Status.OK;
+            }
+        };
+        this.monitor.setTimeout(100);
+        this.monitor.setMonitors(Arrays.asList(hangs, new MemoryMonitor()));
+
+        final long start = System.currentTimeMillis();
+        final HealthStatus status = this.monitor.observe();
+        assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(5));
+        assertEquals(StatusCode.TIMEOUT, status.getCode());
+        assertEquals(StatusCode.TIMEOUT, status.getDetails().get("Hangs").getCode());
+        assertEquals(StatusCode.OK, status.getDetails().get(MemoryMonitor.class.getSimpleName()).getCode());
+        assertEquals(1, observations.get());
+        hung.countDown();
+    }
+
+    @Test
+    public void verifyHungMonitorIsNotObservedAgain() throws Exception {
+        final AtomicInteger observations = new AtomicInteger();
+        final Monitor ignoresInterrupts = new Monitor() {
+            @Override
+            public String getName() {
+                return "IgnoresInterrupts";
+            }
+
+            @Override
+            public Status observe() {
+                observations.incrementAndGet();
+                final long until = System.currentTimeMillis() + 1000;
+                while (System.currentTimeMillis() < until) {
+                    Thread.yield();
+                }
+                return Status.OK;
+            }
+        };
+        this.monitor.setTimeout(50);
+        this.monitor.setMonitors(Collections.singleton(ignoresInterrupts));
+        assertEquals(StatusCode.TIMEOUT, this.monitor.observe().getCode());
+        assertEquals(StatusCode.TIMEOUT, this.monitor.observe().getCode());
+        assertEquals(1, observations.get());
+    }
+
+    @Test
+    public void verifyCachedStatus() throws Exception {
+        final AtomicInteger observations = new AtomicInteger();
+        final Monitor counts = new Monitor() {
+            @Override
+            public String getName() {
+                return "Counts";
+            }
+
+            @Override
+            public Status observe() {
+                observations.incrementAndGet();
+                return Status.OK;
+            }
+        };
+        this.monitor.setRefreshInterval(TimeUnit.MINUTES.toMillis(1));
+        this.monitor.setMonitors(Collections.singleton(counts));
+        final HealthStatus status = this.monitor.observe();
+        assertEquals(StatusCode.OK, status.getCode());
+        assertSame(status, this.monitor.observe());
+        assertEquals(1, observations.get());
+    }
+
+    @Test
+    public void verifyCachedStatusRefreshedInBackground() throws Exception {
+        final AtomicInteger observations = new AtomicInteger();
+        final Monitor counts = new Monitor() {
+            @Override
+            public String getName() {
+                return "Counts";
+            }
+
+            @Override
+            public Status observe() {
+                return observations.incrementAndGet() == 1 ? Status.WARN : Status.OK;
+            }
+        };
+        this.monitor.setRefreshInterval(50);
+        this.monitor.setMonitors(Collections.singleton(counts));
+        assertEquals(StatusCode.WARN, this.monitor.observe().getCode());
+        final long until = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (this.monitor.observe().getCode() != StatusCode.OK && System.currentTimeMillis() < until) {
+            Thread.sleep(10);
+        }
+        assertEquals(StatusCode.OK, this.monitor.observe().getCode());
+    }
+
     private SessionMonitor newSessionMonitor() {
         final SessionMonitor sessionMonitor = new SessionMonitor();
         sessionMonitor.setTicketRegistry(new DefaultTicketRegistry());
         return sessionMonitor;
     }
+
+    /**
+     * Reports OK only once all monitors sharing its latch are being observed at the same time.
+     */
+    private static class LatchMonitor implements Monitor<Status> {
+        private final String name;
+        private final CountDownLatch latch;
+
+        LatchMonitor(final String name, final CountDownLatch latch) {
+            this.name = name;
+            this.latch = latch;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public Status observe() {
+            this.latch.countDown();
+            try {
+                return this.latch.await(2, TimeUnit.SECONDS) ? Status.OK : Status.ERROR;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Status.ERROR;
+            }
+        }
+    }
 }
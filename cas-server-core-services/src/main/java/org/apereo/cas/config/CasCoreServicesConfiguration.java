@@ -11,13 +11,16 @@ import org.apereo.cas.authentication.support.CasAttributeEncoder;
 import org.apereo.cas.authentication.support.DefaultCasAttributeEncoder;
 import org.apereo.cas.authentication.support.NoOpCasAttributeEncoder;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.services.RemoteEndpointAccessProperties;
 import org.apereo.cas.services.AbstractResourceBasedServiceRegistryDao;
 import org.apereo.cas.services.DefaultServicesManagerImpl;
 import org.apereo.cas.services.InMemoryServiceRegistryDaoImpl;
 import org.apereo.cas.services.RegisteredServiceCipherExecutor;
+import org.apereo.cas.services.RemoteEndpointServiceAccessManager;
 import org.apereo.cas.services.ServiceRegistryDao;
 import org.apereo.cas.services.ServiceRegistryInitializer;
 import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.util.http.HttpClient;
 import org.apereo.cas.util.services.DefaultRegisteredServiceCipherExecutor;
 import org.apereo.cas.util.services.RegisteredServiceJsonSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,6 +54,10 @@ public class CasCoreServicesConfiguration {
     @Autowired
     private ApplicationContext context;
 
+    @Autowired(required = false)
+    @Qualifier("noRedirectHttpClient")
+    private HttpClient noRedirectHttpClient;
+
     @RefreshScope
     @Bean
     public MultifactorTriggerSelectionStrategy defaultMultifactorTriggerSelectionStrategy() {
@@ -93,11 +100,27 @@ public class CasCoreServicesConfiguration {
         return new DefaultRegisteredServiceCipherExecutor();
     }
 
+    @Bean
+    public RemoteEndpointServiceAccessManager remoteEndpointServiceAccessManager() {
+        final RemoteEndpointAccessProperties remote = casProperties.getServiceRegistry().getRemoteEndpoint();
+        final RemoteEndpointServiceAccessManager m = new RemoteEndpointServiceAccessManager(remote.getMaxCachedDecisions());
+        m.setMaxConcurrentRequests(remote.getMaxConcurrentRequests());
+        m.setFailureThreshold(remote.getFailureThreshold());
+        m.setCircuitOpenDuration(remote.getCircuitOpenDuration());
+        if (this.noRedirectHttpClient != null) {
+            m.setHttpClient(this.noRedirectHttpClient);
+        }
+        return m;
+    }
+
     @Bean
     public ServicesManager servicesManager(@Qualifier("serviceRegistryDao")
                                            final ServiceRegistryDao serviceRegistryDao) {
         final DefaultServicesManagerImpl impl = new DefaultServicesManagerImpl();
         impl.setServiceRegistryDao(serviceRegistryDao);
+        impl.setLookupCacheSize(casProperties.getServiceRegistry().getLookupCacheSize());
+        impl.setLookupCacheExpireInSeconds(casProperties.getServiceRegistry().getLookupCacheExpireInSeconds());
+        impl.setFullReloadInterval(casProperties.getServiceRegistry().getFullReloadInterval());
         return impl;
     }
 
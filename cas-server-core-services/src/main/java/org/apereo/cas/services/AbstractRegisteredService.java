@@ -1,5 +1,6 @@
 package org.apereo.cas.services;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import org.apache.commons.lang3.builder.CompareToBuilder;
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -125,6 +126,13 @@ public abstract class AbstractRegisteredService implements RegisteredService, Co
     @JoinTable(name="RegisteredServiceImpl_Props")
     private Map<String, DefaultRegisteredServiceProperty> properties = new HashMap<>();
 
+    /**
+     * When the service was last saved, in milliseconds since the epoch.
+     * Recorded by service registries that look for changed services by it.
+     */
+    @Column(name = "last_modified", nullable = true)
+    private Long lastModified;
+
     @Override
     public long getId() {
         return this.id;
@@ -363,7 +371,9 @@ public abstract class AbstractRegisteredService implements RegisteredService, Co
         this.setRequiredHandlers(source.getRequiredHandlers());
         this.setProperties(source.getProperties());
         this.setMultifactorPolicy(source.getMultifactorPolicy());
-
+        if (source instanceof AbstractRegisteredService) {
+            this.setLastModified(((AbstractRegisteredService) source).getLastModified());
+        }
     }
 
     /**
@@ -483,4 +493,19 @@ public abstract class AbstractRegisteredService implements RegisteredService, Co
     public void setMultifactorPolicy(final RegisteredServiceMultifactorPolicy multifactorPolicy) {
         this.multifactorPolicy = multifactorPolicy;
     }
+
+    /**
+     * Gets when the service was last saved, as recorded by the service registry.
+     *
+     * @return milliseconds since the epoch, or 0 if not recorded
+     */
+    @JsonIgnore
+    public long getLastModified() {
+        return this.lastModified == null ? 0 : this.lastModified;
+    }
+
+    @JsonIgnore
+    public void setLastModified(final long lastModified) {
+        this.lastModified = lastModified;
+    }
 }
@@ -1,5 +1,7 @@
 package org.apereo.cas.services;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.util.LockedOutputStream;
@@ -13,22 +15,38 @@ import org.springframework.core.io.Resource;
 import org.springframework.util.Assert;
 
 import javax.annotation.PreDestroy;
-import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.Watchable;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * This is {@link AbstractResourceBasedServiceRegistryDao}.
+ * <p>
+ * When the directory is watched, every service that is saved, modified or deleted,
+ * whether through this registry or by changing its file, is recorded along with
+ * a sequence number, so that changes can be picked up without loading all
+ * service definitions again.
+ * <p>
+ * Service definition files are parsed in parallel. Every file that is read is indexed
+ * by its modification time, size and content hash, and is not parsed again while those
+ * stay the same; a copy of the service it defined is returned instead. Services loaded from
+ * files that were not parsed again are not recorded as changed.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -46,6 +64,28 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
      * Map of service ID to registered service.
      */
     private Map<Long, RegisteredService> serviceMap = new ConcurrentHashMap<>();
+
+    /**
+     * Map of service definition file to the id of the service it defines.
+     */
+    private Map<File, Long> serviceIdsByFile = new ConcurrentHashMap<>();
+
+    /**
+     * Map of service id to the last change recorded for it; guarded by itself.
+     */
+    private final Map<Long, ServiceChange> changes = new HashMap<>();
+
+    private long watermark;
+
+    private boolean trackingChanges;
+
+    /**
+     * Map of service definition file to what was last read from it. The services held here
+     * are never handed out; copies of them are.
+     */
+    private final Map<File, ServiceDefinitionFile> definitionFiles = new ConcurrentHashMap<>();
+
+    private int loaderParallelism = Runtime.getRuntime().availableProcessors();
     
     /**
      * The Registered service json serializer.
@@ -96,6 +136,7 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
         Assert.isTrue(this.serviceRegistryDirectory.toFile().isDirectory(), this.serviceRegistryDirectory + " is not a directory");
         this.registeredServiceSerializer = registeredServiceJsonSerializer;
 
+        this.trackingChanges = enableWatcher;
         if (enableWatcher) {
 
             LOGGER.info("Watching service registry directory at {}", configDirectory);
@@ -117,6 +158,15 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
         this.serviceRegistryWatcherThread.interrupt();
     }
 
+    /**
+     * Sets the maximum number of service definition files parsed concurrently.
+     *
+     * @param loaderParallelism the number of threads
+     */
+    public void setLoaderParallelism(final int loaderParallelism) {
+        this.loaderParallelism = loaderParallelism;
+    }
+
     @Override
     public long size() {
         return this.serviceMap.size();
@@ -141,6 +191,8 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
                 LOGGER.warn("Failed to delete service definition file [{}]", f.getCanonicalPath());
             } else {
                 this.serviceMap.remove(service.getId());
+                this.definitionFiles.remove(f);
+                recordChange(service.getId(), null);
                 LOGGER.debug("Successfully deleted service definition file [{}]", f.getCanonicalPath());
             }
             return result;
@@ -152,41 +204,123 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
     @Override
     public synchronized List<RegisteredService> load() {
         final Map<Long, RegisteredService> temp = new ConcurrentHashMap<>();
-        final int[] errorCount = {0};
-        final Collection<File> c = FileUtils.listFiles(this.serviceRegistryDirectory.toFile(), new String[]{getExtension()}, true);
-        c.stream().filter(file -> file.length() > 0).forEach(file -> {
-            final RegisteredService service = load(file);
-            if (service == null) {
+        final Map<File, Long> tempIdsByFile = new ConcurrentHashMap<>();
+        int errorCount = 0;
+        final long start = System.nanoTime();
+        final List<File> files = FileUtils.listFiles(this.serviceRegistryDirectory.toFile(), new String[]{getExtension()}, true)
+                .stream().filter(file -> file.length() > 0).collect(Collectors.toList());
+        final List<ServiceDefinitionFile> definitions = readFiles(files);
+
+        int parsed = 0;
+        final Set<Long> changedIds = new HashSet<>();
+        ServiceDefinitionFile slowest = null;
+        for (int i = 0; i < files.size(); i++) {
+            final File file = files.get(i);
+            final ServiceDefinitionFile definition = definitions.get(i);
+            if (definition == null) {
                 LOGGER.warn("Could not load service definition from file {}", file);
-                errorCount[0]++;
-            } else {
-                if (temp.containsKey(service.getId())) {
-                    LOGGER.warn("Found a service definition [{}] with a duplicate id [{}]. "
-                                    + "This will overwrite previous service definitions and is likely a "
-                                    + "configuration problem. Make sure all services have a unique id and try again.",
-                            service.getServiceId(), service.getId());
+                errorCount++;
+                continue;
+            }
+            if (definition.parseTime >= 0) {
+                parsed++;
+                changedIds.add(definition.service.getId());
+                if (slowest == null || definition.parseTime > slowest.parseTime) {
+                    slowest = definition;
                 }
-                temp.put(service.getId(), service);
             }
-        });
+            final RegisteredService service = definition.service;
+            if (temp.containsKey(service.getId())) {
+                LOGGER.warn("Found a service definition [{}] with a duplicate id [{}]. "
+                                + "This will overwrite previous service definitions and is likely a "
+                                + "configuration problem. Make sure all services have a unique id and try again.",
+                        service.getServiceId(), service.getId());
+            }
+            temp.put(service.getId(), service);
+            tempIdsByFile.put(file, service.getId());
+        }
+        this.definitionFiles.keySet().retainAll(new HashSet<>(files));
 
-        if (errorCount[0] == 0) {
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (slowest != null) {
+            LOGGER.info("Read {} service definition files in {} ms: {} parsed, {} unchanged. Slowest to parse was [{}] at {} ms",
+                    files.size(), elapsed, parsed, files.size() - errorCount - parsed, slowest.file.getName(), slowest.parseTime);
+        } else {
+            LOGGER.debug("Read {} service definition files in {} ms; none needed to be parsed", files.size(), elapsed);
+        }
+
+        if (errorCount == 0) {
+            recordChanges(this.serviceMap, temp, changedIds);
             this.serviceMap = temp;
+            this.serviceIdsByFile = tempIdsByFile;
         } else {
             LOGGER.warn("{} errors encountered when loading service definitions. New definitions are not loaded until errors are "
-                    + "corrected", errorCount[0]);
+                    + "corrected", errorCount);
+            tempIdsByFile.forEach((file, id) -> {
+                if (changedIds.contains(id)) {
+                    this.definitionFiles.remove(file);
+                }
+            });
         }
         return new ArrayList(this.serviceMap.values());
     }
 
     /**
-     * Load registered service from file.
+     * Read service definition files in parallel.
+     *
+     * @param files the files
+     * @return what was read from each file, in the same order, with null for files that could not be read
+     */
+    private List<ServiceDefinitionFile> readFiles(final List<File> files) {
+        if (files.size() <= 1 || this.loaderParallelism <= 1) {
+            return files.stream().map(this::readFile).collect(Collectors.toList());
+        }
+        final ForkJoinPool pool = new ForkJoinPool(Math.min(this.loaderParallelism, files.size()));
+        try {
+            final List<ForkJoinTask<ServiceDefinitionFile>> tasks = files.stream()
+                    .map(file -> pool.submit(() -> readFile(file)))
+                    .collect(Collectors.toList());
+            return tasks.stream().map(ForkJoinTask::join).collect(Collectors.toList());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Load registered service from file. If the file used to define a service with another id,
+     * that service is removed.
      *
      * @param file the file
      * @return the registered service, or null if file cannot be read, is not found, is empty or parsing error occurs.
      */
     @Override
     public RegisteredService load(final File file) {
+        final ServiceDefinitionFile definition = readFile(file);
+        if (definition == null) {
+            return null;
+        }
+        final long id = definition.service.getId();
+        final Long previousId = this.serviceIdsByFile.put(file, id);
+        if (previousId != null && previousId != id && !this.serviceIdsByFile.containsValue(previousId)) {
+            LOGGER.debug("[{}] now defines service [{}] instead of [{}]", file.getName(), id, previousId);
+            this.serviceMap.remove(previousId);
+            recordChange(previousId, null);
+        }
+        return definition.service;
+    }
+
+    /**
+     * Read the service defined by a file, unless the file is known not to have changed since it was last read.
+     * The file is assumed unchanged if its modification time and size are the same, unless it was modified
+     * so shortly before it was last read that another change within the same clock tick could have been missed.
+     * Otherwise it is read, and only parsed if its content hash differs.
+     * The service returned is a copy of the one kept for the file, so that changes made to it are not seen
+     * when the file is read again.
+     *
+     * @param file the file
+     * @return what was read from the file, or null if it cannot be read, is not found, is empty or parsing error occurs.
+     */
+    private ServiceDefinitionFile readFile(final File file) {
         if (!file.canRead()) {
             LOGGER.warn("[{}] is not readable. Check file permissions", file.getName());
             return null;
@@ -197,13 +331,39 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
             return null;
         }
 
-        if (file.length() == 0) {
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+        if (length == 0) {
             LOGGER.debug("[{}] appears to be empty so no service definition will be loaded", file.getName());
             return null;
         }
 
-        try (final BufferedInputStream in = new BufferedInputStream(new FileInputStream(file))) {
-            return this.registeredServiceSerializer.from(in);
+        try {
+            final ServiceDefinitionFile previous = this.definitionFiles.get(file);
+            if (previous != null && previous.isUnchanged(lastModified, length)) {
+                LOGGER.trace("[{}] has not been modified since it was last read", file.getName());
+                return previous.copy(-1);
+            }
+
+            final long readAt = System.currentTimeMillis();
+            final byte[] content = FileUtils.readFileToByteArray(file);
+            final HashCode hash = Hashing.sha256().hashBytes(content);
+            final ServiceDefinitionFile definition;
+            if (previous != null && previous.hash.equals(hash)) {
+                LOGGER.trace("[{}] has the same content as when it was last read", file.getName());
+                definition = new ServiceDefinitionFile(file, lastModified, content.length, readAt, hash, previous.service, -1);
+            } else {
+                final long start = System.nanoTime();
+                final RegisteredService service = this.registeredServiceSerializer.from(new ByteArrayInputStream(content));
+                final long parseTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                LOGGER.debug("Parsed service definition file [{}] in {} ms", file.getName(), parseTime);
+                if (service == null) {
+                    return null;
+                }
+                definition = new ServiceDefinitionFile(file, lastModified, content.length, readAt, hash, service, parseTime);
+            }
+            this.definitionFiles.put(file, definition);
+            return definition.copy(definition.parseTime);
         } catch (final Exception e) {
             LOGGER.error("Error reading configuration file {}", file.getName(), e);
         }
@@ -225,6 +385,9 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
                 LOGGER.debug("Found existing service definition by id [{}]. Saving...", service.getId());
             }
             this.serviceMap.put(service.getId(), service);
+            this.serviceIdsByFile.put(f, service.getId());
+            this.definitionFiles.remove(f);
+            recordChange(service.getId(), service);
             LOGGER.debug("Saved service to [{}]", f.getCanonicalPath());
         } catch (final IOException e) {
             throw new IllegalArgumentException("IO error opening file stream.", e);
@@ -269,5 +432,123 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
     @Override
     public void update(final RegisteredService service) {
         this.serviceMap.put(service.getId(), service);
+        recordChange(service.getId(), service);
+    }
+
+    @Override
+    public boolean remove(final File file) {
+        this.definitionFiles.remove(file);
+        final Long id = this.serviceIdsByFile.remove(file);
+        if (id == null) {
+            return false;
+        }
+        this.serviceMap.remove(id);
+        recordChange(id, null);
+        LOGGER.debug("Removed service definition with id [{}] as [{}] no longer exists", id, file);
+        return true;
+    }
+
+    @Override
+    public long getWatermark() {
+        synchronized (this.changes) {
+            return this.watermark;
+        }
+    }
+
+    @Override
+    public Optional<RegisteredServiceChanges> getChangesSince(final long watermark) {
+        if (!this.trackingChanges) {
+            return Optional.empty();
+        }
+        synchronized (this.changes) {
+            final List<RegisteredService> saved = new ArrayList<>();
+            final List<Long> deleted = new ArrayList<>();
+            this.changes.forEach((id, change) -> {
+                if (change.sequence > watermark) {
+                    if (change.service == null) {
+                        deleted.add(id);
+                    } else {
+                        saved.add(change.service);
+                    }
+                }
+            });
+            return Optional.of(new RegisteredServiceChanges(this.watermark, saved, deleted));
+        }
+    }
+
+    /**
+     * Record a change to a service.
+     *
+     * @param id      the service id
+     * @param service the service as it is now, or null if it was deleted
+     */
+    private void recordChange(final long id, final RegisteredService service) {
+        synchronized (this.changes) {
+            this.changes.put(id, new ServiceChange(++this.watermark, service));
+        }
+    }
+
+    /**
+     * Record the differences between the services previously and now loaded. Services are compared by
+     * whether their file changed, since the services previously loaded may have been modified since.
+     *
+     * @param previous   the previous services
+     * @param current    the current services
+     * @param changedIds the ids of the services whose file was parsed again
+     */
+    private void recordChanges(final Map<Long, RegisteredService> previous, final Map<Long, RegisteredService> current,
+                               final Set<Long> changedIds) {
+        current.forEach((id, service) -> {
+            if (changedIds.contains(id) || !previous.containsKey(id)) {
+                recordChange(id, service);
+            }
+        });
+        previous.keySet().stream().filter(id -> !current.containsKey(id)).forEach(id -> recordChange(id, null));
+    }
+
+    /**
+     * The last change to a service, and its sequence number.
+     */
+    private static class ServiceChange {
+        private final long sequence;
+        private final RegisteredService service;
+
+        ServiceChange(final long sequence, final RegisteredService service) {
+            this.sequence = sequence;
+            this.service = service;
+        }
+    }
+
+    /**
+     * What was last read from a service definition file, and how long it took to parse.
+     */
+    private static class ServiceDefinitionFile {
+        private final File file;
+        private final long lastModified;
+        private final long length;
+        private final long readAt;
+        private final HashCode hash;
+        private final RegisteredService service;
+        private final long parseTime;
+
+        ServiceDefinitionFile(final File file, final long lastModified, final long length, final long readAt,
+                              final HashCode hash, final RegisteredService service, final long parseTime) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.readAt = readAt;
+            this.hash = hash;
+            this.service = service;
+            this.parseTime = parseTime;
+        }
+
+        boolean isUnchanged(final long lastModified, final long length) {
+            return this.lastModified == lastModified && this.length == length
+                    && this.readAt - this.lastModified > TimeUnit.SECONDS.toMillis(2);
+        }
+
+        ServiceDefinitionFile copy(final long parseTime) throws CloneNotSupportedException {
+            return new ServiceDefinitionFile(this.file, this.lastModified, this.length, this.readAt, this.hash, this.service.clone(), parseTime);
+        }
     }
 }
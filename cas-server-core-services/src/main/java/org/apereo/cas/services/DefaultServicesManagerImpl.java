@@ -1,6 +1,9 @@
 package org.apereo.cas.services;
 
 import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.support.events.CasRegisteredServiceDeletedEvent;
 import org.apereo.cas.support.events.CasRegisteredServiceSavedEvent;
@@ -16,11 +19,11 @@ import org.springframework.scheduling.annotation.Scheduled;
 
 import javax.annotation.PostConstruct;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.Optional;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -35,6 +38,12 @@ public class DefaultServicesManagerImpl implements ServicesManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultServicesManagerImpl.class);
 
+    private static final long DEFAULT_LOOKUP_CACHE_SIZE = 10000;
+
+    private static final long DEFAULT_LOOKUP_CACHE_EXPIRE_IN_SECONDS = 300;
+
+    private static final long DEFAULT_FULL_RELOAD_INTERVAL = 3600000;
+
     private ServiceRegistryDao serviceRegistryDao;
 
     @Autowired
@@ -42,6 +51,26 @@ public class DefaultServicesManagerImpl implements ServicesManager {
 
     private ConcurrentMap<Long, RegisteredService> services = new ConcurrentHashMap<>();
 
+    private long lookupCacheSize = DEFAULT_LOOKUP_CACHE_SIZE;
+
+    private long lookupCacheExpireInSeconds = DEFAULT_LOOKUP_CACHE_EXPIRE_IN_SECONDS;
+
+    /**
+     * The services snapshot and the lookup cache built on top of it; always replaced together.
+     */
+    private volatile ServiceLookup lookup = new ServiceLookup(RegisteredServicesSnapshot.empty(), null);
+
+    private CacheStats retiredLookupCacheStats = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    private long fullReloadInterval = DEFAULT_FULL_RELOAD_INTERVAL;
+
+    /**
+     * Watermark of the service registry as of the services last loaded or synchronized.
+     */
+    private long watermark;
+
+    private long lastFullReload;
+
     public DefaultServicesManagerImpl() {
     }
 
@@ -58,6 +87,41 @@ public class DefaultServicesManagerImpl implements ServicesManager {
         this.serviceRegistryDao = serviceRegistryDao;
     }
 
+    /**
+     * Sets the maximum number of service urls whose matching result is cached.
+     * A value of zero disables the lookup cache.
+     *
+     * @param lookupCacheSize the lookup cache size
+     */
+    public void setLookupCacheSize(final long lookupCacheSize) {
+        this.lookupCacheSize = lookupCacheSize;
+    }
+
+    public void setLookupCacheExpireInSeconds(final long lookupCacheExpireInSeconds) {
+        this.lookupCacheExpireInSeconds = lookupCacheExpireInSeconds;
+    }
+
+    /**
+     * Sets the number of milliseconds after which all services are loaded again,
+     * even if the service registry keeps track of changes.
+     *
+     * @param fullReloadInterval the full reload interval
+     */
+    public void setFullReloadInterval(final long fullReloadInterval) {
+        this.fullReloadInterval = fullReloadInterval;
+    }
+
+    /**
+     * Gets the hit, miss and eviction counters of the lookup cache,
+     * accumulated across reloads of the services.
+     *
+     * @return the lookup cache stats
+     */
+    public synchronized CacheStats getLookupCacheStats() {
+        final Cache<String, Optional<Long>> cache = this.lookup.cache;
+        return cache == null ? this.retiredLookupCacheStats : this.retiredLookupCacheStats.plus(cache.stats());
+    }
+
     @Audit(action = "DELETE_SERVICE", actionResolverName = "DELETE_SERVICE_ACTION_RESOLVER",
             resourceResolverName = "DELETE_SERVICE_RESOURCE_RESOLVER")
     @Override
@@ -69,6 +133,7 @@ public class DefaultServicesManagerImpl implements ServicesManager {
 
         this.serviceRegistryDao.delete(r);
         this.services.remove(id);
+        publishSnapshot();
 
         publishEvent(new CasRegisteredServiceDeletedEvent(this, r));
         return r;
@@ -77,31 +142,46 @@ public class DefaultServicesManagerImpl implements ServicesManager {
 
     @Override
     public RegisteredService findServiceBy(final Service service) {
-        final TreeSet<RegisteredService> c = convertToTreeSet();
-        return c.stream().filter(r -> r.matches(service)).findFirst().orElse(null);
+        final ServiceLookup current = this.lookup;
+        if (current.cache == null || service == null || service.getId() == null) {
+            return current.snapshot.findServiceBy(service);
+        }
+
+        try {
+            final Optional<Long> id = current.cache.get(service.getId(), () -> {
+                final RegisteredService match = current.snapshot.findServiceBy(service);
+                LOGGER.debug("Caching lookup result [{}] for service [{}]", match, service.getId());
+                return match == null ? Optional.empty() : Optional.of(match.getId());
+            });
+            if (!id.isPresent()) {
+                return null;
+            }
+            final RegisteredService r = current.snapshot.findServiceBy(id.get());
+            if (r != null) {
+                return r;
+            }
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+        return current.snapshot.findServiceBy(service);
     }
 
     @Override
     public Collection<RegisteredService> findServiceBy(final Predicate<RegisteredService> predicate) {
-        final Collection<RegisteredService> c = convertToTreeSet();
-        final Iterator<RegisteredService> it = c.iterator();
-        while (it.hasNext()) {
-            if (!predicate.apply(it.next())) {
-                it.remove();
-            }
-        }
-        return c;
+        return this.lookup.snapshot.getServices().stream()
+                .filter(predicate::apply)
+                .collect(Collectors.toCollection(TreeSet::new));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned instance is shared with all other callers and is not copied;
+     * it must be cloned before it is modified.
+     */
     @Override
     public RegisteredService findServiceBy(final long id) {
-        final RegisteredService r = this.services.get(id);
-
-        try {
-            return r == null ? null : r.clone();
-        } catch (final CloneNotSupportedException e) {
-            return r;
-        }
+        return this.lookup.snapshot.findServiceBy(id);
     }
 
     /**
@@ -110,12 +190,21 @@ public class DefaultServicesManagerImpl implements ServicesManager {
      * @return the tree set
      */
     public TreeSet<RegisteredService> convertToTreeSet() {
-        return new TreeSet<>(this.services.values());
+        return new TreeSet<>(this.lookup.snapshot.getServices());
     }
 
     @Override
     public Collection<RegisteredService> getAllServices() {
-        return Collections.unmodifiableCollection(convertToTreeSet());
+        return this.lookup.snapshot.getServices();
+    }
+
+    /**
+     * Gets the current immutable snapshot of all registered services.
+     *
+     * @return the snapshot
+     */
+    public RegisteredServicesSnapshot getSnapshot() {
+        return this.lookup.snapshot;
     }
 
     @Override
@@ -129,6 +218,7 @@ public class DefaultServicesManagerImpl implements ServicesManager {
     public synchronized RegisteredService save(final RegisteredService registeredService) {
         final RegisteredService r = this.serviceRegistryDao.save(registeredService);
         this.services.put(r.getId(), r);
+        publishSnapshot();
         publishEvent(new CasRegisteredServiceSavedEvent(this, r));
         return r;
     }
@@ -136,21 +226,102 @@ public class DefaultServicesManagerImpl implements ServicesManager {
     /**
      * Load services that are provided by the DAO.
      */
-    @Scheduled(initialDelayString = "${cas.serviceRegistry.startDelay:20000}",
-            fixedDelayString = "${cas.serviceRegistry.repeatInterval:60000}")
     @Override
     @PostConstruct
-    public void load() {
+    public synchronized void load() {
         LOGGER.debug("Loading services from {}", this.serviceRegistryDao);
+        final long currentWatermark = this.serviceRegistryDao.getWatermark();
         this.services = this.serviceRegistryDao.load().stream()
                 .collect(Collectors.toConcurrentMap(r -> {
                     LOGGER.debug("Adding registered service {}", r.getServiceId());
                     return r.getId();
                 }, r -> r, (r, s) -> s == null ? r : s == null ? r : s));
+        this.watermark = currentWatermark;
+        this.lastFullReload = System.currentTimeMillis();
+        publishSnapshot();
         LOGGER.info("Loaded {} services from {}.", this.services.size(),
                 this.serviceRegistryDao);
 
     }
+
+    /**
+     * Apply the services saved and deleted in the DAO since services were last loaded
+     * or synchronized. All services are loaded instead if the DAO does not keep track
+     * of changes, or if it is time for a full reload. A new snapshot is only published
+     * if something has changed.
+     */
+    @Scheduled(initialDelayString = "${cas.serviceRegistry.startDelay:20000}",
+            fixedDelayString = "${cas.serviceRegistry.repeatInterval:60000}")
+    public synchronized void loadChanges() {
+        if (System.currentTimeMillis() - this.lastFullReload >= this.fullReloadInterval) {
+            load();
+            return;
+        }
+        final Optional<RegisteredServiceChanges> result = this.serviceRegistryDao.getChangesSince(this.watermark);
+        if (!result.isPresent()) {
+            load();
+            return;
+        }
+
+        final RegisteredServiceChanges changes = result.get();
+        int changed = 0;
+        for (final RegisteredService r : changes.getSavedServices()) {
+            if (isChanged(this.services.get(r.getId()), r)) {
+                LOGGER.debug("Updating registered service {}", r.getServiceId());
+                this.services.put(r.getId(), r);
+                changed++;
+            }
+        }
+        for (final Long id : changes.getDeletedServiceIds()) {
+            if (this.services.remove(id) != null) {
+                LOGGER.debug("Removing registered service with id {}", id);
+                changed++;
+            }
+        }
+        this.watermark = changes.getWatermark();
+        if (changed > 0) {
+            publishSnapshot();
+            LOGGER.info("Applied {} changed services from {}.", changed, this.serviceRegistryDao);
+        }
+    }
+
+    /**
+     * Whether a service reported as saved differs from the one currently loaded. Services may be reported
+     * again although they have not changed, as new instances; they are compared by content, and by when they
+     * were last saved if the registry records that.
+     */
+    private static boolean isChanged(final RegisteredService current, final RegisteredService saved) {
+        if (current == null || !current.equals(saved)) {
+            return true;
+        }
+        return current instanceof AbstractRegisteredService && saved instanceof AbstractRegisteredService
+                && ((AbstractRegisteredService) current).getLastModified() != ((AbstractRegisteredService) saved).getLastModified();
+    }
+
+    /**
+     * Build a new snapshot of the current services map, along with an empty lookup cache.
+     * Lookups continue to use the previous snapshot and cache until both are swapped at once,
+     * so a cached result can never outlive the services it was computed from.
+     */
+    private synchronized void publishSnapshot() {
+        final ServiceLookup previous = this.lookup;
+        final RegisteredServicesSnapshot snapshot =
+                new RegisteredServicesSnapshot(previous.snapshot.getVersion() + 1, this.services.values());
+        final RegisteredServiceMatchingIndex index = snapshot.getMatchingIndex();
+        Cache<String, Optional<Long>> cache = null;
+        if (this.lookupCacheSize > 0) {
+            cache = CacheBuilder.newBuilder().maximumSize(this.lookupCacheSize)
+                    .expireAfterWrite(this.lookupCacheExpireInSeconds, TimeUnit.SECONDS).recordStats().build();
+        }
+
+        this.lookup = new ServiceLookup(snapshot, cache);
+        if (previous.cache != null) {
+            this.retiredLookupCacheStats = this.retiredLookupCacheStats.plus(previous.cache.stats());
+        }
+        LOGGER.debug("Published services snapshot version {} with {} services; "
+                        + "{} service definitions cannot be bucketed by scheme and host",
+                snapshot.getVersion(), index.size(), index.getFallbackSize());
+    }
     
     /**
      * Handle services manager refresh event.
@@ -159,7 +330,7 @@ public class DefaultServicesManagerImpl implements ServicesManager {
      */
     @EventListener
     protected void handleRefreshEvent(final CasRegisteredServicesRefreshEvent event) {
-        load();
+        loadChanges();
     }
     
     private void publishEvent(final ApplicationEvent event) {
@@ -167,4 +338,18 @@ public class DefaultServicesManagerImpl implements ServicesManager {
             this.eventPublisher.publishEvent(event);
         }
     }
+
+    /**
+     * Services snapshot paired with the cache of service url to matched service id
+     * (or the absence of a match) computed against that snapshot.
+     */
+    private static final class ServiceLookup {
+        private final RegisteredServicesSnapshot snapshot;
+        private final Cache<String, Optional<Long>> cache;
+
+        ServiceLookup(final RegisteredServicesSnapshot snapshot, final Cache<String, Optional<Long>> cache) {
+            this.snapshot = snapshot;
+            this.cache = cache;
+        }
+    }
 }
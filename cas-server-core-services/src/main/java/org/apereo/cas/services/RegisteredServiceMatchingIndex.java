@@ -0,0 +1,288 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.authentication.principal.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Precompiled, immutable index of registered services used to locate the
+ * definition that matches a given {@link Service}.
+ * <p>
+ * Regular expression based definitions whose {@code serviceId} starts with a literal
+ * {@code scheme://host} prefix (i.e. {@code ^https://www\.example\.org/.*}) are bucketed
+ * by that prefix. All other definitions are kept in a fallback list that is always
+ * evaluated. A lookup only examines the bucket of the service's own scheme and host
+ * along with the fallback list, merging both in evaluation order so the outcome is
+ * identical to a linear scan of all definitions. Lookups do not allocate.
+ * <p>
+ * Instances are built once per change to the services map and are safe to share
+ * between threads.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public final class RegisteredServiceMatchingIndex {
+
+    private static final RegisteredService[] NO_SERVICES = new RegisteredService[0];
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private static final String SCHEME_SEPARATOR = "://";
+
+    private static final int HASH_MULTIPLIER = 31;
+
+    /**
+     * All services in evaluation order; buckets and the fallback list refer to positions in this array.
+     */
+    private final RegisteredService[] ordered;
+
+    /**
+     * Sorted hash codes of the bucket keys; parallel to {@link #keys} and {@link #buckets}.
+     */
+    private final int[] hashes;
+
+    private final String[] keys;
+
+    private final int[][] buckets;
+
+    private final int[] fallback;
+
+    /**
+     * Instantiates a new index for the given services.
+     *
+     * @param services the registered services
+     */
+    public RegisteredServiceMatchingIndex(final Collection<RegisteredService> services) {
+        this.ordered = new TreeSet<>(services).toArray(NO_SERVICES);
+
+        final Map<String, List<Integer>> bucketed = new HashMap<>();
+        final List<Integer> unbucketed = new ArrayList<>();
+        for (int i = 0; i < this.ordered.length; i++) {
+            final RegisteredService r = this.ordered[i];
+            final List<String> prefixes = r instanceof RegexRegisteredService
+                    ? extractLiteralPrefixes(r.getServiceId()) : Collections.emptyList();
+            if (prefixes.isEmpty()) {
+                unbucketed.add(i);
+            } else {
+                for (final String prefix : prefixes) {
+                    bucketed.computeIfAbsent(prefix, k -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+
+        final List<String> sortedKeys = new ArrayList<>(bucketed.keySet());
+        sortedKeys.sort((k1, k2) -> Integer.compare(k1.hashCode(), k2.hashCode()));
+
+        this.hashes = new int[sortedKeys.size()];
+        this.keys = sortedKeys.toArray(new String[sortedKeys.size()]);
+        this.buckets = new int[sortedKeys.size()][];
+        for (int i = 0; i < this.keys.length; i++) {
+            this.hashes[i] = this.keys[i].hashCode();
+            this.buckets[i] = toArray(bucketed.get(this.keys[i]));
+        }
+        this.fallback = toArray(unbucketed);
+    }
+
+    /**
+     * Find the first registered service, in evaluation order, that matches the given service.
+     *
+     * @param service the service
+     * @return the matching registered service, or null
+     */
+    public RegisteredService findServiceBy(final Service service) {
+        if (service == null || this.ordered.length == 0) {
+            return null;
+        }
+        final int[] candidates = service.getId() == null ? NO_POSITIONS : findBucket(service.getId());
+
+        int i = 0;
+        int j = 0;
+        while (i < candidates.length || j < this.fallback.length) {
+            final int next;
+            if (j >= this.fallback.length || i < candidates.length && candidates[i] < this.fallback[j]) {
+                next = candidates[i++];
+            } else {
+                next = this.fallback[j++];
+            }
+            if (this.ordered[next].matches(service)) {
+                return this.ordered[next];
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return this.ordered.length;
+    }
+
+    /**
+     * Number of definitions that could not be bucketed and are evaluated on every lookup.
+     *
+     * @return the fallback size
+     */
+    public int getFallbackSize() {
+        return this.fallback.length;
+    }
+
+    private int[] findBucket(final String id) {
+        final int schemeEnd = id.indexOf(SCHEME_SEPARATOR);
+        if (schemeEnd <= 0) {
+            return NO_POSITIONS;
+        }
+        int end = schemeEnd + SCHEME_SEPARATOR.length();
+        while (end < id.length()) {
+            final char c = id.charAt(end);
+            if (c == '/' || c == ':' || c == '?' || c == '#') {
+                break;
+            }
+            end++;
+        }
+
+        int hash = 0;
+        for (int i = 0; i < end; i++) {
+            hash = HASH_MULTIPLIER * hash + toLowerCase(id.charAt(i));
+        }
+
+        int pos = Arrays.binarySearch(this.hashes, hash);
+        if (pos < 0) {
+            return NO_POSITIONS;
+        }
+        while (pos > 0 && this.hashes[pos - 1] == hash) {
+            pos--;
+        }
+        for (; pos < this.hashes.length && this.hashes[pos] == hash; pos++) {
+            final String key = this.keys[pos];
+            if (key.length() == end && key.regionMatches(true, 0, id, 0, end)) {
+                return this.buckets[pos];
+            }
+        }
+        return NO_POSITIONS;
+    }
+
+    private static int[] toArray(final List<Integer> positions) {
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Extract the literal, lower-cased {@code scheme://host} prefixes that any service
+     * matched by the given pattern must start with. The optional {@code s} of
+     * {@code https?://} produces two prefixes. An empty list is returned if the pattern
+     * cannot be proven to require a fixed scheme and host.
+     *
+     * @param pattern the service id pattern
+     * @return the prefixes, or an empty list
+     */
+    static List<String> extractLiteralPrefixes(final String pattern) {
+        if (pattern == null || pattern.isEmpty() || hasTopLevelAlternation(pattern)) {
+            return Collections.emptyList();
+        }
+
+        int pos = pattern.charAt(0) == '^' ? 1 : 0;
+        final StringBuilder scheme = new StringBuilder();
+        boolean optionalSecure = false;
+        while (pos < pattern.length() && isAsciiLetter(pattern.charAt(pos))) {
+            final char c = pattern.charAt(pos);
+            if (isQuantifiedAt(pattern, pos + 1)) {
+                if ((c == 's' || c == 'S') && pattern.charAt(pos + 1) == '?'
+                        && scheme.length() > 0 && pattern.startsWith(SCHEME_SEPARATOR, pos + 2)) {
+                    optionalSecure = true;
+                    pos += 2;
+                    break;
+                }
+                return Collections.emptyList();
+            }
+            scheme.append(toLowerCase(c));
+            pos++;
+        }
+        if (scheme.length() == 0 || !pattern.startsWith(SCHEME_SEPARATOR, pos)) {
+            return Collections.emptyList();
+        }
+        pos += SCHEME_SEPARATOR.length();
+
+        final StringBuilder host = new StringBuilder();
+        while (pos < pattern.length()) {
+            final char c = pattern.charAt(pos);
+            final int length;
+            final char literal;
+            if (c == '\\' && pos + 1 < pattern.length() && pattern.charAt(pos + 1) == '.') {
+                literal = '.';
+                length = 2;
+            } else if (isAsciiLetter(c) || c >= '0' && c <= '9' || c == '-' || c == '_') {
+                literal = toLowerCase(c);
+                length = 1;
+            } else {
+                break;
+            }
+            if (isQuantifiedAt(pattern, pos + length)) {
+                return Collections.emptyList();
+            }
+            host.append(literal);
+            pos += length;
+        }
+        if (host.length() == 0 || !isHostTerminatedAt(pattern, pos)) {
+            return Collections.emptyList();
+        }
+
+        final String suffix = SCHEME_SEPARATOR + host;
+        if (optionalSecure) {
+            return Arrays.asList(scheme + suffix, scheme + "s" + suffix);
+        }
+        return Collections.singletonList(scheme + suffix);
+    }
+
+    private static boolean isHostTerminatedAt(final String pattern, final int pos) {
+        if (pos == pattern.length() || pos == pattern.length() - 1 && pattern.charAt(pos) == '$') {
+            return true;
+        }
+        final char c = pattern.charAt(pos);
+        if (c == '\\' && pos + 1 < pattern.length() && pattern.charAt(pos + 1) == '/') {
+            return !isQuantifiedAt(pattern, pos + 2);
+        }
+        return (c == '/' || c == ':') && !isQuantifiedAt(pattern, pos + 1);
+    }
+
+    private static boolean isQuantifiedAt(final String pattern, final int pos) {
+        if (pos >= pattern.length()) {
+            return false;
+        }
+        final char c = pattern.charAt(pos);
+        return c == '?' || c == '*' || c == '+' || c == '{';
+    }
+
+    private static boolean hasTopLevelAlternation(final String pattern) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAsciiLetter(final char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static char toLowerCase(final char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
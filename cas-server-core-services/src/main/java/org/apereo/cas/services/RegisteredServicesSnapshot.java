@@ -0,0 +1,103 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.authentication.principal.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Immutable, versioned snapshot of the registered services known to the services manager.
+ * <p>
+ * A new snapshot is built every time the services are loaded, saved or deleted and then
+ * published atomically; readers never observe a partially updated registry and
+ * receive the snapshot's instances as-is rather than per-call copies. The services held by a snapshot
+ * are shared between all callers and must be treated as read-only; callers that
+ * need to modify a definition are to {@link RegisteredService#clone()} it and
+ * save the copy back through the services manager.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public final class RegisteredServicesSnapshot {
+
+    private final long version;
+
+    private final Map<Long, RegisteredService> servicesById;
+
+    private final List<RegisteredService> orderedServices;
+
+    private final RegisteredServiceMatchingIndex matchingIndex;
+
+    /**
+     * Instantiates a new snapshot.
+     *
+     * @param version  the version of this snapshot
+     * @param services the registered services
+     */
+    public RegisteredServicesSnapshot(final long version, final Collection<RegisteredService> services) {
+        this.version = version;
+
+        final Map<Long, RegisteredService> byId = new HashMap<>(services.size());
+        services.forEach(r -> byId.put(r.getId(), r));
+        this.servicesById = Collections.unmodifiableMap(byId);
+
+        final RegisteredService[] ordered = new TreeSet<>(services).toArray(new RegisteredService[services.size()]);
+        this.orderedServices = Collections.unmodifiableList(Arrays.asList(ordered));
+        this.matchingIndex = new RegisteredServiceMatchingIndex(this.orderedServices);
+    }
+
+    /**
+     * Creates an empty snapshot.
+     *
+     * @return the snapshot
+     */
+    public static RegisteredServicesSnapshot empty() {
+        return new RegisteredServicesSnapshot(0, Collections.emptyList());
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Find a registered service by its id.
+     *
+     * @param id the id
+     * @return the registered service, or null
+     */
+    public RegisteredService findServiceBy(final long id) {
+        return this.servicesById.get(id);
+    }
+
+    /**
+     * Find the first registered service, in evaluation order, that matches the given service.
+     *
+     * @param service the service
+     * @return the registered service, or null
+     */
+    public RegisteredService findServiceBy(final Service service) {
+        return this.matchingIndex.findServiceBy(service);
+    }
+
+    /**
+     * All registered services in evaluation order, as an unmodifiable list.
+     *
+     * @return the services
+     */
+    public List<RegisteredService> getServices() {
+        return this.orderedServices;
+    }
+
+    public RegisteredServiceMatchingIndex getMatchingIndex() {
+        return this.matchingIndex;
+    }
+
+    public int size() {
+        return this.orderedServices.size();
+    }
+}
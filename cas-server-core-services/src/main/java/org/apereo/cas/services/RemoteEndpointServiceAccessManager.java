@@ -0,0 +1,313 @@
+package org.apereo.cas.services;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apereo.cas.util.ApplicationContextProvider;
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.apache.http.client.methods.HttpGet;
+import org.jasig.cas.client.util.URIBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.StringUtils;
+
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link RemoteEndpointServiceAccessManager}.
+ * <p>
+ * Asks the endpoints of {@link RemoteEndpointServiceAccessStrategy} instances whether principals
+ * may access services, and keeps what they answered for as long as the strategy allows,
+ * so that the same principal is not sent to the endpoint again for every ticket it obtains or validates.
+ * Decisions are kept per endpoint, acceptable response codes and principal, and are shared by all
+ * services configured with the same endpoint; they outlive service definition reloads.
+ * <p>
+ * Every endpoint has its own circuit breaker. Once an endpoint fails to answer, or answers with a server error,
+ * a number of times in a row, it is not asked anything for a while, and access is decided by the
+ * fail-open policy of the strategy instead. A single request is then let through to find out whether
+ * the endpoint has recovered. No more than a given number of requests are sent to the same endpoint at a time;
+ * requests beyond that are decided by the fail-open policy as well.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class RemoteEndpointServiceAccessManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteEndpointServiceAccessManager.class);
+
+    private static final String HTTP_CLIENT_BEAN_NAME = "noRedirectHttpClient";
+
+    private static final int SERVER_ERROR = 500;
+
+    private static final int NO_RESPONSE = -1;
+
+    private static final long DEFAULT_MAX_CACHED_DECISIONS = 10000;
+
+    private final Cache<String, Decision> decisions;
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private volatile HttpClient httpClient;
+
+    private int maxConcurrentRequests = 20;
+
+    private int failureThreshold = 5;
+
+    private long circuitOpenDuration = 30;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /**
+     * Instantiates a new manager that keeps up to ten thousand decisions.
+     */
+    public RemoteEndpointServiceAccessManager() {
+        this(DEFAULT_MAX_CACHED_DECISIONS);
+    }
+
+    /**
+     * Instantiates a new manager.
+     *
+     * @param maxCachedDecisions the maximum number of decisions kept
+     */
+    public RemoteEndpointServiceAccessManager(final long maxCachedDecisions) {
+        this.decisions = CacheBuilder.newBuilder()
+                .maximumSize(maxCachedDecisions)
+                .expireAfterWrite(1, TimeUnit.DAYS)
+                .build();
+    }
+
+    /**
+     * Decide whether the principal may access services protected by the strategy.
+     *
+     * @param strategy  the strategy
+     * @param principal the principal id
+     * @return true if access is allowed
+     */
+    public boolean isAccessAllowed(final RemoteEndpointServiceAccessStrategy strategy, final String principal) {
+        final String key = strategy.getEndpointUrl() + '\n' + strategy.getAcceptableResponseCodes() + '\n' + principal;
+        final boolean cacheable = strategy.getPositiveDecisionTimeToLive() > 0 || strategy.getNegativeDecisionTimeToLive() > 0;
+        if (cacheable) {
+            final Decision decision = this.decisions.getIfPresent(key);
+            if (decision != null && decision.expiresAt > System.currentTimeMillis()) {
+                this.cacheHits.increment();
+                return decision.allowed;
+            }
+            this.cacheMisses.increment();
+        }
+
+        final Endpoint endpoint = this.endpoints.computeIfAbsent(strategy.getEndpointUrl(),
+                k -> new Endpoint(this.maxConcurrentRequests));
+        if (!endpoint.allowRequest(System.currentTimeMillis())) {
+            endpoint.shortCircuited.increment();
+            LOGGER.warn("Endpoint [{}] is failing and is not asked about [{}]; access is {}", strategy.getEndpointUrl(),
+                    principal, strategy.isFailOpen() ? "allowed" : "denied");
+            return strategy.isFailOpen();
+        }
+        if (!endpoint.permits.tryAcquire()) {
+            endpoint.throttled.increment();
+            endpoint.endTrial();
+            LOGGER.warn("Too many requests are waiting for endpoint [{}] to answer about [{}]; access is {}",
+                    strategy.getEndpointUrl(), principal, strategy.isFailOpen() ? "allowed" : "denied");
+            return strategy.isFailOpen();
+        }
+
+        int responseCode = NO_RESPONSE;
+        final long start = System.nanoTime();
+        try {
+            final URIBuilder builder = new URIBuilder(strategy.getEndpointUrl());
+            builder.addParameter("username", principal);
+            responseCode = getResponseCode(builder.build().toURL());
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        } finally {
+            endpoint.permits.release();
+            endpoint.recordLatency(System.nanoTime() - start);
+        }
+
+        if (responseCode == NO_RESPONSE || responseCode >= SERVER_ERROR) {
+            endpoint.recordFailure(System.currentTimeMillis(), this.failureThreshold, TimeUnit.SECONDS.toMillis(this.circuitOpenDuration));
+            LOGGER.warn("Endpoint [{}] did not answer about [{}]; access is {}", strategy.getEndpointUrl(),
+                    principal, strategy.isFailOpen() ? "allowed" : "denied");
+            return strategy.isFailOpen();
+        }
+        endpoint.recordSuccess();
+
+        final boolean allowed = StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(strategy.getAcceptableResponseCodes()))
+                .contains(String.valueOf(responseCode));
+        LOGGER.debug("Endpoint [{}] answered [{}] about [{}]", strategy.getEndpointUrl(), responseCode, principal);
+        final long timeToLive = allowed ? strategy.getPositiveDecisionTimeToLive() : strategy.getNegativeDecisionTimeToLive();
+        if (timeToLive > 0) {
+            this.decisions.put(key, new Decision(allowed, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeToLive)));
+        }
+        return allowed;
+    }
+
+    /**
+     * Gets the number of decisions found and not found among those kept, and the number kept now.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("hits", this.cacheHits.sum());
+        statistics.put("misses", this.cacheMisses.sum());
+        statistics.put("size", this.decisions.size());
+        return statistics;
+    }
+
+    /**
+     * Gets, by endpoint url, the number of requests sent, the number that failed, the number
+     * not sent because the circuit was open or too many requests were outstanding, the average and
+     * maximum time in milliseconds the endpoint took to answer, and whether its circuit is open now (1) or not (0).
+     *
+     * @return the statistics
+     */
+    public Map<String, Map<String, Long>> getEndpointStatistics() {
+        final Map<String, Map<String, Long>> statistics = new TreeMap<>();
+        this.endpoints.forEach((url, endpoint) -> statistics.put(url, endpoint.getStatistics()));
+        return statistics;
+    }
+
+    /**
+     * Forget all decisions.
+     */
+    public void clear() {
+        this.decisions.invalidateAll();
+    }
+
+    /**
+     * The wrapped client is used where possible, since the client itself
+     * does not tell a denial from a failure when the response code is not one it accepts.
+     */
+    private int getResponseCode(final URL url) throws Exception {
+        final HttpClient client = getHttpClient();
+        final org.apache.http.client.HttpClient wrapped = client.getWrappedHttpClient();
+        if (wrapped != null) {
+            return wrapped.execute(new HttpGet(url.toURI()), response -> response.getStatusLine().getStatusCode());
+        }
+        final HttpMessage message = client.sendMessageToEndPoint(url);
+        LOGGER.debug("Message received from {} is {}", url, message);
+        return message != null ? message.getResponseCode() : NO_RESPONSE;
+    }
+
+    private HttpClient getHttpClient() {
+        HttpClient client = this.httpClient;
+        if (client == null) {
+            final ApplicationContext context = ApplicationContextProvider.getApplicationContext();
+            client = context.getBean(HTTP_CLIENT_BEAN_NAME, HttpClient.class);
+            this.httpClient = client;
+        }
+        return client;
+    }
+
+    public void setHttpClient(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public void setMaxConcurrentRequests(final int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public void setFailureThreshold(final int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public void setCircuitOpenDuration(final long circuitOpenDuration) {
+        this.circuitOpenDuration = circuitOpenDuration;
+    }
+
+    /**
+     * Whether access was allowed, and until when that holds.
+     */
+    private static class Decision {
+        private final boolean allowed;
+        private final long expiresAt;
+
+        Decision(final boolean allowed, final long expiresAt) {
+            this.allowed = allowed;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * The circuit breaker, request limit and latency of an endpoint.
+     */
+    private static class Endpoint {
+        private final Semaphore permits;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicBoolean trialInProgress = new AtomicBoolean();
+        private volatile long openUntil;
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder shortCircuited = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final AtomicLong maxLatency = new AtomicLong();
+
+        Endpoint(final int maxConcurrentRequests) {
+            this.permits = new Semaphore(maxConcurrentRequests);
+        }
+
+        /**
+         * Requests are let through while the circuit is closed; once it has been open
+         * for long enough, a single request at a time is let through to try the endpoint.
+         */
+        boolean allowRequest(final long now) {
+            final long until = this.openUntil;
+            if (until == 0) {
+                return true;
+            }
+            return now >= until && this.trialInProgress.compareAndSet(false, true);
+        }
+
+        void endTrial() {
+            this.trialInProgress.set(false);
+        }
+
+        void recordSuccess() {
+            this.consecutiveFailures.set(0);
+            this.openUntil = 0;
+            endTrial();
+        }
+
+        void recordFailure(final long now, final int threshold, final long openDuration) {
+            this.failures.increment();
+            if (this.consecutiveFailures.incrementAndGet() >= threshold || this.openUntil != 0) {
+                this.openUntil = now + openDuration;
+            }
+            endTrial();
+        }
+
+        void recordLatency(final long nanos) {
+            this.requests.increment();
+            this.totalLatency.add(nanos);
+            this.maxLatency.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Long> getStatistics() {
+            final long count = this.requests.sum();
+            final Map<String, Long> statistics = new LinkedHashMap<>();
+            statistics.put("requests", count);
+            statistics.put("failures", this.failures.sum());
+            statistics.put("shortCircuited", this.shortCircuited.sum());
+            statistics.put("throttled", this.throttled.sum());
+            statistics.put("averageLatency", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.totalLatency.sum() / count));
+            statistics.put("maxLatency", TimeUnit.NANOSECONDS.toMillis(this.maxLatency.get()));
+            statistics.put("open", this.openUntil != 0 ? 1L : 0L);
+            return statistics;
+        }
+    }
+}
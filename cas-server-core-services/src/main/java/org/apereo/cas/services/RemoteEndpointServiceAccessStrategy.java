@@ -3,15 +3,11 @@ package org.apereo.cas.services;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apereo.cas.util.http.HttpClient;
-import org.jasig.cas.client.util.URIBuilder;
 import org.apereo.cas.util.ApplicationContextProvider;
-import org.apereo.cas.util.http.HttpMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.StringUtils;
+import org.springframework.context.ApplicationContext;
 
-import java.net.URL;
 import java.util.Map;
 
 /**
@@ -19,6 +15,12 @@ import java.util.Map;
  * to a remote endpoint, passing the CAS principal id to determine if access is allowed.
  * If the status code returned in the final response is not accepted by the policy here,
  * access shall be denied.
+ * <p>
+ * Answers of the endpoint are kept for {@link #getPositiveDecisionTimeToLive()} seconds when access
+ * is allowed, and for {@link #getNegativeDecisionTimeToLive()} seconds when it is denied.
+ * Both default to zero, so that the endpoint is asked every time unless a service opts in.
+ * When the endpoint cannot be asked, access is allowed only if {@link #isFailOpen()}.
+ * See {@link RemoteEndpointServiceAccessManager}.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -29,25 +31,28 @@ public class RemoteEndpointServiceAccessStrategy extends DefaultRegisteredServic
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RemoteEndpointServiceAccessStrategy.class);
 
+    private static final String ACCESS_MANAGER_BEAN_NAME = "remoteEndpointServiceAccessManager";
+
+    private static final RemoteEndpointServiceAccessManager DEFAULT_ACCESS_MANAGER = new RemoteEndpointServiceAccessManager();
+
     private String endpointUrl;
 
     private String acceptableResponseCodes;
 
+    private long positiveDecisionTimeToLive;
+
+    private long negativeDecisionTimeToLive;
+
+    private boolean failOpen;
+
+    private transient volatile RemoteEndpointServiceAccessManager accessManager;
+
     @Override
     public boolean doPrincipalAttributesAllowServiceAccess(final String principal,
                                                            final Map<String, Object> principalAttributes) {
         try {
             if (super.doPrincipalAttributesAllowServiceAccess(principal, principalAttributes)) {
-                final HttpClient client = ApplicationContextProvider.getApplicationContext()
-                        .getBean("noRedirectHttpClient", HttpClient.class);
-
-                final URIBuilder builder = new URIBuilder(this.endpointUrl);
-                builder.addParameter("username", principal);
-                final URL url = builder.build().toURL();
-                final HttpMessage message = client.sendMessageToEndPoint(url);
-                LOGGER.debug("Message received from {} is {}", url, message);
-                return message != null && StringUtils.commaDelimitedListToSet(this.acceptableResponseCodes)
-                        .contains(message.getResponseCode());
+                return getAccessManager().isAccessAllowed(this, principal);
             }
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
@@ -56,6 +61,31 @@ public class RemoteEndpointServiceAccessStrategy extends DefaultRegisteredServic
         return false;
     }
 
+    /**
+     * Sets the manager that asks the endpoint and keeps its answers,
+     * instead of the one defined in the application context.
+     *
+     * @param accessManager the access manager
+     */
+    public void setAccessManager(final RemoteEndpointServiceAccessManager accessManager) {
+        this.accessManager = accessManager;
+    }
+
+    private RemoteEndpointServiceAccessManager getAccessManager() {
+        RemoteEndpointServiceAccessManager manager = this.accessManager;
+        if (manager == null) {
+            final ApplicationContext context = ApplicationContextProvider.getApplicationContext();
+            if (context != null && context.containsBean(ACCESS_MANAGER_BEAN_NAME)) {
+                manager = context.getBean(ACCESS_MANAGER_BEAN_NAME, RemoteEndpointServiceAccessManager.class);
+            } else {
+                LOGGER.debug("No remote endpoint access manager is defined; using a default one");
+                manager = DEFAULT_ACCESS_MANAGER;
+            }
+            this.accessManager = manager;
+        }
+        return manager;
+    }
+
     public String getEndpointUrl() {
         return endpointUrl;
     }
@@ -72,6 +102,30 @@ public class RemoteEndpointServiceAccessStrategy extends DefaultRegisteredServic
         this.acceptableResponseCodes = acceptableResponseCodes;
     }
 
+    public long getPositiveDecisionTimeToLive() {
+        return positiveDecisionTimeToLive;
+    }
+
+    public void setPositiveDecisionTimeToLive(final long positiveDecisionTimeToLive) {
+        this.positiveDecisionTimeToLive = positiveDecisionTimeToLive;
+    }
+
+    public long getNegativeDecisionTimeToLive() {
+        return negativeDecisionTimeToLive;
+    }
+
+    public void setNegativeDecisionTimeToLive(final long negativeDecisionTimeToLive) {
+        this.negativeDecisionTimeToLive = negativeDecisionTimeToLive;
+    }
+
+    public boolean isFailOpen() {
+        return failOpen;
+    }
+
+    public void setFailOpen(final boolean failOpen) {
+        this.failOpen = failOpen;
+    }
+
 
     @Override
     public boolean equals(final Object obj) {
@@ -89,6 +143,9 @@ public class RemoteEndpointServiceAccessStrategy extends DefaultRegisteredServic
                 .appendSuper(super.equals(obj))
                 .append(this.endpointUrl, rhs.endpointUrl)
                 .append(this.acceptableResponseCodes, rhs.acceptableResponseCodes)
+                .append(this.positiveDecisionTimeToLive, rhs.positiveDecisionTimeToLive)
+                .append(this.negativeDecisionTimeToLive, rhs.negativeDecisionTimeToLive)
+                .append(this.failOpen, rhs.failOpen)
                 .isEquals();
     }
 
@@ -98,6 +155,9 @@ public class RemoteEndpointServiceAccessStrategy extends DefaultRegisteredServic
                 .appendSuper(super.hashCode())
                 .append(endpointUrl)
                 .append(acceptableResponseCodes)
+                .append(positiveDecisionTimeToLive)
+                .append(negativeDecisionTimeToLive)
+                .append(failOpen)
                 .toHashCode();
     }
 
@@ -108,6 +168,9 @@ public class RemoteEndpointServiceAccessStrategy extends DefaultRegisteredServic
                 .appendSuper(super.toString())
                 .append("endpointUrl", endpointUrl)
                 .append("acceptableResponseCodes", acceptableResponseCodes)
+                .append("positiveDecisionTimeToLive", positiveDecisionTimeToLive)
+                .append("negativeDecisionTimeToLive", negativeDecisionTimeToLive)
+                .append("failOpen", failOpen)
                 .toString();
     }
 }
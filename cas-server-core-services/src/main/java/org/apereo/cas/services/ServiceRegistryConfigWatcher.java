@@ -116,7 +116,7 @@ class ServiceRegistryConfigWatcher implements Runnable, Closeable {
                 if (kind.name().equals(ENTRY_CREATE.name()) && file.exists()) {
                     handleCreateEvent(file);
                 } else if (kind.name().equals(ENTRY_DELETE.name())) {
-                    handleDeleteEvent();
+                    handleDeleteEvent(file);
                 } else if (kind.name().equals(ENTRY_MODIFY.name()) && file.exists()) {
                     handleModifyEvent(file);
                 }
@@ -149,10 +149,16 @@ class ServiceRegistryConfigWatcher implements Runnable, Closeable {
     }
 
     /**
-     * Handle delete event.
+     * Handle delete event. All service definitions are loaded again
+     * if the file is not known to define any service.
+     *
+     * @param file the file
      */
-    private void handleDeleteEvent() {
-        this.serviceRegistryDao.load();
+    private void handleDeleteEvent(final File file) {
+        if (!this.serviceRegistryDao.remove(file)) {
+            LOGGER.debug("[{}] did not define any known service. Reloading all service definitions...", file);
+            this.serviceRegistryDao.load();
+        }
         this.applicationEventPublisher.publishEvent(new CasRegisteredServicesRefreshEvent(this));
     }
 
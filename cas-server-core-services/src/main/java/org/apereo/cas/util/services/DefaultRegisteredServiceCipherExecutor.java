@@ -1,18 +1,41 @@
 package org.apereo.cas.util.services;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.services.RegisteredService;
+import org.apereo.cas.services.RegisteredServicePublicKey;
+import org.apereo.cas.support.events.CasRegisteredServiceDeletedEvent;
+import org.apereo.cas.support.events.CasRegisteredServiceSavedEvent;
+import org.apereo.cas.support.events.CasRegisteredServicesRefreshEvent;
 import org.apereo.cas.util.EncodingUtils;
 import org.apereo.cas.services.RegisteredServiceCipherExecutor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ResourceUtils;
 
 import javax.crypto.Cipher;
+import java.io.IOException;
 import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Default cipher implementation based on public keys.
+ * <p>
+ * Public keys are read once per location and algorithm, and kept in memory.
+ * Once the refresh interval has passed since a key was read, the next request for it
+ * checks whether the key file was modified, and reads it again if so or if that cannot be told.
+ * All keys are read again once service definitions are reloaded, saved or deleted.
+ * Each thread initializes its own cipher for a key once and reuses it afterwards.
  *
  * @author Misagh Moayyed
  * @since 4.1
@@ -20,9 +43,62 @@ import java.security.PublicKey;
 public class DefaultRegisteredServiceCipherExecutor implements RegisteredServiceCipherExecutor {
     private static final String UTF8_ENCODING = "UTF-8";
 
+    private static final long DEFAULT_REFRESH_INTERVAL = 60;
+
     /** Logger instance. **/
     protected transient Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    private final LoadingCache<RegisteredServicePublicKey, CachedPublicKey> publicKeys;
+
+    /**
+     * Instantiates a new cipher executor that checks public keys for modification every minute.
+     */
+    public DefaultRegisteredServiceCipherExecutor() {
+        this(DEFAULT_REFRESH_INTERVAL);
+    }
+
+    /**
+     * Instantiates a new cipher executor.
+     *
+     * @param refreshInterval the number of seconds after which public keys are checked for modification
+     */
+    public DefaultRegisteredServiceCipherExecutor(final long refreshInterval) {
+        this.publicKeys = CacheBuilder.newBuilder()
+                .refreshAfterWrite(refreshInterval, TimeUnit.SECONDS)
+                .expireAfterAccess(1, TimeUnit.DAYS)
+                .build(new PublicKeyCacheLoader());
+    }
+
+    /**
+     * Forget all public keys once service definitions are reloaded.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRefreshEvent(final CasRegisteredServicesRefreshEvent event) {
+        this.publicKeys.invalidateAll();
+    }
+
+    /**
+     * Forget all public keys once a service definition is saved.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleSavedEvent(final CasRegisteredServiceSavedEvent event) {
+        this.publicKeys.invalidateAll();
+    }
+
+    /**
+     * Forget all public keys once a service definition is deleted.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleDeletedEvent(final CasRegisteredServiceDeletedEvent event) {
+        this.publicKeys.invalidateAll();
+    }
+
     /**
      * Encrypt using the given cipher associated with the service,
      * and encode the data in base 64.
@@ -58,15 +134,35 @@ public class DefaultRegisteredServiceCipherExecutor implements RegisteredService
      */
     protected byte[] encodeInternal(final String data, final PublicKey publicKey,
                                     final RegisteredService registeredService) {
-        try {
+        final CachedPublicKey cached = registeredService.getPublicKey() != null
+                ? this.publicKeys.getIfPresent(registeredService.getPublicKey()) : null;
+        if (cached == null || cached.getPublicKey() != publicKey) {
             final Cipher cipher = initializeCipherBasedOnServicePublicKey(publicKey, registeredService);
-            if (cipher != null) {
-                return cipher.doFinal(data.getBytes(UTF8_ENCODING));
+            return cipher != null ? encrypt(cipher, data) : null;
+        }
+
+        Cipher cipher = cached.getCipher();
+        if (cipher == null) {
+            cipher = initializeCipherBasedOnServicePublicKey(publicKey, registeredService);
+            if (cipher == null) {
+                return null;
             }
+            cached.setCipher(cipher);
+        }
+        try {
+            return encrypt(cipher, data);
+        } catch (final RuntimeException e) {
+            cached.setCipher(null);
+            throw e;
+        }
+    }
+
+    private static byte[] encrypt(final Cipher cipher, final String data) {
+        try {
+            return cipher.doFinal(data.getBytes(UTF8_ENCODING));
         } catch (final Exception e) {
             throw Throwables.propagate(e);
         }
-        return null;
     }
 
     /**
@@ -82,7 +178,7 @@ public class DefaultRegisteredServiceCipherExecutor implements RegisteredService
                     registeredService);
             return null;
         }
-        final PublicKey publicKey = registeredService.getPublicKey().createInstance();
+        final PublicKey publicKey = this.publicKeys.getUnchecked(registeredService.getPublicKey()).getPublicKey();
         if (publicKey == null) {
             logger.debug("No public key instance created for service [{}]. No encoding will take place.",
                     registeredService);
@@ -116,4 +212,75 @@ public class DefaultRegisteredServiceCipherExecutor implements RegisteredService
         }
         return null;
     }
+
+    /**
+     * A public key, the modification time of the file it was read from,
+     * and the cipher each thread initialized with it.
+     */
+    private static class CachedPublicKey {
+        private final PublicKey publicKey;
+        private final long lastModified;
+        private final ThreadLocal<Cipher> ciphers = new ThreadLocal<>();
+
+        CachedPublicKey(final PublicKey publicKey, final long lastModified) {
+            this.publicKey = publicKey;
+            this.lastModified = lastModified;
+        }
+
+        PublicKey getPublicKey() {
+            return this.publicKey;
+        }
+
+        long getLastModified() {
+            return this.lastModified;
+        }
+
+        Cipher getCipher() {
+            return this.ciphers.get();
+        }
+
+        void setCipher(final Cipher cipher) {
+            if (cipher == null) {
+                this.ciphers.remove();
+            } else {
+                this.ciphers.set(cipher);
+            }
+        }
+    }
+
+    /**
+     * Reads public keys, and reads them again on refresh only if their file was modified.
+     */
+    private class PublicKeyCacheLoader extends CacheLoader<RegisteredServicePublicKey, CachedPublicKey> {
+        @Override
+        public CachedPublicKey load(final RegisteredServicePublicKey key) throws Exception {
+            logger.debug("Reading public key [{}]", key);
+            final long lastModified = getLastModified(key);
+            return new CachedPublicKey(key.createInstance(), lastModified);
+        }
+
+        @Override
+        public ListenableFuture<CachedPublicKey> reload(final RegisteredServicePublicKey key, final CachedPublicKey oldValue) {
+            final long lastModified = getLastModified(key);
+            if (lastModified != 0 && lastModified == oldValue.getLastModified()) {
+                return Futures.immediateFuture(oldValue);
+            }
+            try {
+                return Futures.immediateFuture(load(key));
+            } catch (final Exception e) {
+                throw Throwables.propagate(e);
+            }
+        }
+
+        private long getLastModified(final RegisteredServicePublicKey key) {
+            try {
+                final Resource resource = key.getLocation().startsWith(ResourceUtils.CLASSPATH_URL_PREFIX)
+                        ? new ClassPathResource(StringUtils.removeStart(key.getLocation(), ResourceUtils.CLASSPATH_URL_PREFIX))
+                        : new FileSystemResource(key.getLocation());
+                return resource.lastModified();
+            } catch (final IOException e) {
+                return 0;
+            }
+        }
+    }
 }
@@ -15,12 +15,15 @@ import org.apereo.cas.services.DefaultServicesManagerImplTests;
 import org.apereo.cas.services.InMemoryServiceRegistryDaoImplTests;
 import org.apereo.cas.services.PrincipalAttributeRegisteredServiceUsernameProviderTests;
 import org.apereo.cas.services.RegexRegisteredServiceTests;
+import org.apereo.cas.services.RegisteredServiceMatchingIndexTests;
+import org.apereo.cas.services.RemoteEndpointServiceAccessManagerTests;
 import org.apereo.cas.services.RegisteredServiceAuthenticationHandlerResolverTests;
 import org.apereo.cas.services.SimpleServiceTests;
 import org.apereo.cas.services.TimeBasedRegisteredServiceAccessStrategyTests;
 import org.apereo.cas.services.UnauthorizedProxyingExceptionTests;
 import org.apereo.cas.services.UnauthorizedServiceExceptionTests;
 import org.apereo.cas.services.UnauthorizedSsoServiceExceptionTests;
+import org.apereo.cas.util.services.DefaultRegisteredServiceCipherExecutorTests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -41,6 +44,8 @@ import org.junit.runners.Suite;
         InMemoryServiceRegistryDaoImplTests.class,
         PrincipalAttributeRegisteredServiceUsernameProviderTests.class,
         RegexRegisteredServiceTests.class,
+        RegisteredServiceMatchingIndexTests.class,
+        RemoteEndpointServiceAccessManagerTests.class,
         RegisteredServiceAuthenticationHandlerResolverTests.class,
         SimpleServiceTests.class,
         TimeBasedRegisteredServiceAccessStrategyTests.class,
@@ -51,6 +56,7 @@ import org.junit.runners.Suite;
         ShibbolethCompatiblePersistentIdGeneratorTests.class,
         SimpleWebApplicationServiceImplTests.class, 
         WebApplicationServiceFactoryTests.class,
-        DefaultCasAttributeEncoderTests.class})
+        DefaultCasAttributeEncoderTests.class,
+        DefaultRegisteredServiceCipherExecutorTests.class})
 public class AllTestsSuite {
 }
@@ -10,6 +10,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.springframework.core.io.ClassPathResource;
 
+import java.io.File;
 import java.net.URI;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -47,6 +48,51 @@ public abstract class AbstractResourceBasedServiceRegistryDaoTests {
         assertEquals(this.dao.load().size(), 2);
     }
     
+    @Test
+    public void checkUnchangedServiceFilesAreNotParsedAgain() throws Exception {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setName("checkUnchangedServiceFilesAreNotParsedAgain");
+        r.setServiceId("^https://unchanged.example.org");
+        this.dao.save(r);
+
+        final File file = ((AbstractResourceBasedServiceRegistryDao) this.dao).makeFile(r);
+        assertTrue(file.setLastModified(System.currentTimeMillis() - 10000));
+        final RegisteredService loaded = this.dao.load().stream().filter(s -> s.getId() == r.getId()).findFirst().get();
+        ((AbstractRegisteredService) loaded).setDescription("modified without saving");
+        final RegisteredService unchanged = this.dao.load().stream().filter(s -> s.getId() == r.getId()).findFirst().get();
+        assertNotSame(loaded, unchanged);
+        assertNull(unchanged.getDescription());
+
+        r.setDescription("changed");
+        this.dao.save(r);
+        final RegisteredService reloaded = this.dao.load().stream().filter(s -> s.getId() == r.getId()).findFirst().get();
+        assertNotSame(loaded, reloaded);
+        assertEquals("changed", reloaded.getDescription());
+    }
+
+    @Test
+    public void checkServiceIsRemovedWhenItsFileDefinesAnotherService() throws Exception {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setName("checkServiceIsRemovedWhenItsFileDefinesAnotherService");
+        r.setServiceId("^https://old.example.org");
+        this.dao.save(r);
+        final RegexRegisteredService r2 = new RegexRegisteredService();
+        r2.setName("checkServiceIsRemovedWhenItsFileDefinesAnotherService2");
+        r2.setServiceId("^https://new.example.org");
+        this.dao.save(r2);
+
+        final AbstractResourceBasedServiceRegistryDao resourceDao = (AbstractResourceBasedServiceRegistryDao) this.dao;
+        final File file = resourceDao.makeFile(r);
+        final File file2 = resourceDao.makeFile(r2);
+        FileUtils.copyFile(file2, file, false);
+        FileUtils.forceDelete(file2);
+        resourceDao.remove(file2);
+
+        assertEquals(r2.getId(), resourceDao.load(file).getId());
+        assertNull(this.dao.findServiceById(r.getId()));
+        FileUtils.forceDelete(file);
+    }
+
     @Test
     public void checkSaveMethodWithNonExistentServiceAndNoAttributes() {
         final RegexRegisteredService r = new RegexRegisteredService();
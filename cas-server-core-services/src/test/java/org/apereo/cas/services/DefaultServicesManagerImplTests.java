@@ -7,10 +7,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  *
@@ -195,6 +198,132 @@ public class DefaultServicesManagerImplTests {
 
     }
 
+    @Test
+    public void verifyLookupCacheIsInvalidatedOnChange() {
+        final SimpleService service = new SimpleService("https://www.cached.edu/app");
+        assertNull(this.defaultServicesManagerImpl.findServiceBy(service));
+        assertNull(this.defaultServicesManagerImpl.findServiceBy(service));
+        assertEquals(1, this.defaultServicesManagerImpl.getLookupCacheStats().hitCount());
+
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(3000);
+        r.setName("cached");
+        r.setServiceId("^https://www\\.cached\\.edu/.*");
+        this.defaultServicesManagerImpl.save(r);
+        assertEquals(r, this.defaultServicesManagerImpl.findServiceBy(service));
+
+        this.defaultServicesManagerImpl.delete(r.getId());
+        assertNull(this.defaultServicesManagerImpl.findServiceBy(service));
+        assertEquals(3, this.defaultServicesManagerImpl.getLookupCacheStats().missCount());
+    }
+
+    @Test
+    public void verifySnapshotIsSharedAndReplacedOnChange() {
+        final RegisteredServicesSnapshot snapshot = this.defaultServicesManagerImpl.getSnapshot();
+        assertSame(this.defaultServicesManagerImpl.findServiceBy(2500), this.defaultServicesManagerImpl.findServiceBy(2500));
+        assertSame(snapshot.getServices(), this.defaultServicesManagerImpl.getAllServices());
+
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(4000);
+        r.setName("snapshot");
+        r.setServiceId("snapshot");
+        this.defaultServicesManagerImpl.save(r);
+
+        final RegisteredServicesSnapshot updated = this.defaultServicesManagerImpl.getSnapshot();
+        assertEquals(snapshot.getVersion() + 1, updated.getVersion());
+        assertEquals(1, snapshot.size());
+        assertEquals(2, updated.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void verifyAllServicesAreUnmodifiable() {
+        this.defaultServicesManagerImpl.getAllServices().clear();
+    }
+
+    @Test
+    public void verifyChangesAreAppliedWithoutFullReload() {
+        final RegexRegisteredService r = newService(100, "https://app1.example.org");
+        final ServiceRegistryDao dao = mock(ServiceRegistryDao.class);
+        when(dao.getWatermark()).thenReturn(5L);
+        when(dao.load()).thenReturn(Collections.singletonList(r));
+        final DefaultServicesManagerImpl manager = new DefaultServicesManagerImpl(dao);
+        manager.load();
+        final long version = manager.getSnapshot().getVersion();
+
+        when(dao.getChangesSince(5L)).thenReturn(Optional.of(
+                new RegisteredServiceChanges(6L, Collections.singletonList(r), Collections.emptyList())));
+        manager.loadChanges();
+        assertEquals(version, manager.getSnapshot().getVersion());
+
+        final RegexRegisteredService added = newService(200, "https://app2.example.org");
+        when(dao.getChangesSince(6L)).thenReturn(Optional.of(
+                new RegisteredServiceChanges(8L, Collections.singletonList(added), Collections.singletonList(100L))));
+        manager.loadChanges();
+        assertNull(manager.findServiceBy(100));
+        assertSame(added, manager.findServiceBy(200));
+        assertEquals(1, manager.getAllServices().size());
+
+        verify(dao, times(1)).load();
+        verify(dao).getChangesSince(6L);
+    }
+
+    @Test
+    public void verifyCopiesOfUnchangedServicesAreNotApplied() {
+        final RegexRegisteredService r = newService(100, "https://app1.example.org");
+        r.setLastModified(1000);
+        final ServiceRegistryDao dao = mock(ServiceRegistryDao.class);
+        when(dao.getWatermark()).thenReturn(5L);
+        when(dao.load()).thenReturn(Collections.singletonList(r));
+        final DefaultServicesManagerImpl manager = new DefaultServicesManagerImpl(dao);
+        manager.load();
+        final long version = manager.getSnapshot().getVersion();
+
+        when(dao.getChangesSince(5L)).thenReturn(Optional.of(
+                new RegisteredServiceChanges(6L, Collections.singletonList(r.clone()), Collections.emptyList())));
+        manager.loadChanges();
+        assertEquals(version, manager.getSnapshot().getVersion());
+        assertSame(r, manager.findServiceBy(100));
+
+        final RegexRegisteredService saved = (RegexRegisteredService) r.clone();
+        saved.setLastModified(2000);
+        when(dao.getChangesSince(6L)).thenReturn(Optional.of(
+                new RegisteredServiceChanges(7L, Collections.singletonList(saved), Collections.emptyList())));
+        manager.loadChanges();
+        assertNotEquals(version, manager.getSnapshot().getVersion());
+        assertSame(saved, manager.findServiceBy(100));
+    }
+
+    @Test
+    public void verifyFullReloadWhenChangesAreNotTracked() {
+        final ServiceRegistryDao dao = mock(ServiceRegistryDao.class);
+        when(dao.getChangesSince(anyLong())).thenReturn(Optional.empty());
+        when(dao.load()).thenReturn(Collections.singletonList(newService(100, "https://app1.example.org")));
+        final DefaultServicesManagerImpl manager = new DefaultServicesManagerImpl(dao);
+        manager.load();
+        manager.loadChanges();
+        verify(dao, times(2)).load();
+    }
+
+    @Test
+    public void verifyFullReloadAfterInterval() {
+        final ServiceRegistryDao dao = mock(ServiceRegistryDao.class);
+        when(dao.load()).thenReturn(Collections.singletonList(newService(100, "https://app1.example.org")));
+        final DefaultServicesManagerImpl manager = new DefaultServicesManagerImpl(dao);
+        manager.setFullReloadInterval(0);
+        manager.load();
+        manager.loadChanges();
+        verify(dao, times(2)).load();
+        verify(dao, never()).getChangesSince(anyLong());
+    }
+
+    private static RegexRegisteredService newService(final long id, final String serviceId) {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(id);
+        r.setName("service" + id);
+        r.setServiceId(serviceId);
+        return r;
+    }
+
     private static class SimpleService implements Service {
 
         /**
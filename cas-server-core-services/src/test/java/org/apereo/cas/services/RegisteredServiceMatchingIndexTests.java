@@ -0,0 +1,69 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.mock.MockService;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for {@link RegisteredServiceMatchingIndex}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class RegisteredServiceMatchingIndexTests {
+
+    @Test
+    public void verifyLiteralPrefixes() {
+        assertEquals(Collections.singletonList("https://www.example.org"),
+                RegisteredServiceMatchingIndex.extractLiteralPrefixes("^https://www\\.example\\.org/.*"));
+        assertEquals(Collections.singletonList("https://app.example.org"),
+                RegisteredServiceMatchingIndex.extractLiteralPrefixes("^HTTPS://App\\.Example\\.org:8443/.*"));
+        assertEquals(Arrays.asList("http://example.org", "https://example.org"),
+                RegisteredServiceMatchingIndex.extractLiteralPrefixes("^https?://example\\.org/.*"));
+        assertEquals(Collections.singletonList("imaps://mail.example.org"),
+                RegisteredServiceMatchingIndex.extractLiteralPrefixes("imaps://mail\\.example\\.org"));
+    }
+
+    @Test
+    public void verifyPatternsThatCannotBeBucketed() {
+        assertTrue(RegisteredServiceMatchingIndex.extractLiteralPrefixes("^(https|imaps)://.*").isEmpty());
+        assertTrue(RegisteredServiceMatchingIndex.extractLiteralPrefixes("https*://([A-Za-z0-9_-]+\\.)+vt\\.edu/.*").isEmpty());
+        assertTrue(RegisteredServiceMatchingIndex.extractLiteralPrefixes("^https://www.example.org/.*").isEmpty());
+        assertTrue(RegisteredServiceMatchingIndex.extractLiteralPrefixes("^https://a\\.org/.*|^https://b\\.org/.*").isEmpty());
+        assertTrue(RegisteredServiceMatchingIndex.extractLiteralPrefixes("^https://example\\.orgs?/.*").isEmpty());
+        assertTrue(RegisteredServiceMatchingIndex.extractLiteralPrefixes("testService").isEmpty());
+    }
+
+    @Test
+    public void verifyEvaluationOrderAcrossBucketAndFallback() {
+        final RegisteredService bucketed = newService(1, "^https://www\\.example\\.org/.*", 10);
+        final RegisteredService catchAll = newService(2, "^https://.*", 5);
+        final RegisteredService other = newService(3, "^https://other\\.example\\.org/.*", 1);
+
+        final RegisteredServiceMatchingIndex index =
+                new RegisteredServiceMatchingIndex(Arrays.asList(bucketed, catchAll, other));
+        assertEquals(1, index.getFallbackSize());
+        assertEquals(catchAll, index.findServiceBy(new MockService("https://www.example.org/app")));
+
+        catchAll.setEvaluationOrder(20);
+        final RegisteredServiceMatchingIndex reordered =
+                new RegisteredServiceMatchingIndex(Arrays.asList(bucketed, catchAll, other));
+        assertEquals(bucketed, reordered.findServiceBy(new MockService("HTTPS://WWW.EXAMPLE.ORG/app")));
+        assertEquals(other, reordered.findServiceBy(new MockService("https://other.example.org/")));
+        assertEquals(catchAll, reordered.findServiceBy(new MockService("https://unknown.example.org/")));
+        assertNull(reordered.findServiceBy(new MockService("imaps://www.example.org/")));
+    }
+
+    private static RegexRegisteredService newService(final long id, final String serviceId, final int order) {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(id);
+        r.setName("service" + id);
+        r.setServiceId(serviceId);
+        r.setEvaluationOrder(order);
+        return r;
+    }
+}
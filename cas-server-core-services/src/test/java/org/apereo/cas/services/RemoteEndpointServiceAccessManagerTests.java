@@ -0,0 +1,128 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link RemoteEndpointServiceAccessManagerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class RemoteEndpointServiceAccessManagerTests {
+
+    private final StubHttpClient httpClient = new StubHttpClient();
+
+    private RemoteEndpointServiceAccessManager manager;
+
+    private RemoteEndpointServiceAccessStrategy strategy;
+
+    @Before
+    public void setUp() {
+        this.manager = new RemoteEndpointServiceAccessManager();
+        this.manager.setHttpClient(this.httpClient);
+        this.manager.setFailureThreshold(2);
+        this.manager.setCircuitOpenDuration(60);
+
+        this.strategy = new RemoteEndpointServiceAccessStrategy();
+        this.strategy.setEndpointUrl("https://authz.example.org/check");
+        this.strategy.setAcceptableResponseCodes("200, 202");
+        this.strategy.setAccessManager(this.manager);
+    }
+
+    @Test
+    public void verifyDecisionsAreCached() {
+        this.strategy.setPositiveDecisionTimeToLive(60);
+        this.strategy.setNegativeDecisionTimeToLive(10);
+        this.httpClient.responseCode = 202;
+        assertTrue(this.strategy.doPrincipalAttributesAllowServiceAccess("casuser", new HashMap<>()));
+        assertTrue(this.strategy.doPrincipalAttributesAllowServiceAccess("casuser", new HashMap<>()));
+        assertEquals(1, this.httpClient.requests.get());
+
+        this.httpClient.responseCode = 403;
+        assertFalse(this.strategy.doPrincipalAttributesAllowServiceAccess("someone", new HashMap<>()));
+        assertFalse(this.strategy.doPrincipalAttributesAllowServiceAccess("someone", new HashMap<>()));
+        assertEquals(2, this.httpClient.requests.get());
+
+        assertEquals(2L, this.manager.getStatistics().get("hits").longValue());
+        assertEquals(2L, this.manager.getStatistics().get("misses").longValue());
+    }
+
+    @Test
+    public void verifyDecisionsAreNotCachedByDefault() {
+        this.httpClient.responseCode = 200;
+        assertTrue(this.strategy.doPrincipalAttributesAllowServiceAccess("casuser", new HashMap<>()));
+        assertTrue(this.strategy.doPrincipalAttributesAllowServiceAccess("casuser", new HashMap<>()));
+        assertEquals(2, this.httpClient.requests.get());
+
+        this.httpClient.responseCode = 403;
+        assertFalse(this.strategy.doPrincipalAttributesAllowServiceAccess("casuser", new HashMap<>()));
+        assertEquals(3, this.httpClient.requests.get());
+    }
+
+    @Test
+    public void verifyFailingEndpointIsNotAskedAndFailsClosed() {
+        this.httpClient.responseCode = -1;
+        assertFalse(this.strategy.doPrincipalAttributesAllowServiceAccess("user1", new HashMap<>()));
+        assertFalse(this.strategy.doPrincipalAttributesAllowServiceAccess("user2", new HashMap<>()));
+        assertFalse(this.strategy.doPrincipalAttributesAllowServiceAccess("user3", new HashMap<>()));
+        assertEquals(2, this.httpClient.requests.get());
+
+        final Long open = this.manager.getEndpointStatistics().get(this.strategy.getEndpointUrl()).get("open");
+        assertEquals(1L, open.longValue());
+    }
+
+    @Test
+    public void verifyFailingEndpointFailsOpen() {
+        this.strategy.setFailOpen(true);
+        this.httpClient.responseCode = 503;
+        assertTrue(this.strategy.doPrincipalAttributesAllowServiceAccess("user1", new HashMap<>()));
+        assertTrue(this.strategy.doPrincipalAttributesAllowServiceAccess("user2", new HashMap<>()));
+        assertTrue(this.strategy.doPrincipalAttributesAllowServiceAccess("user3", new HashMap<>()));
+        assertEquals(2, this.httpClient.requests.get());
+    }
+
+    private static class StubHttpClient implements HttpClient {
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile int responseCode;
+
+        @Override
+        public boolean sendMessageToEndPoint(final HttpMessage message) {
+            return false;
+        }
+
+        @Override
+        public HttpMessage sendMessageToEndPoint(final URL url) {
+            this.requests.incrementAndGet();
+            if (this.responseCode < 0) {
+                return null;
+            }
+            final HttpMessage message = new HttpMessage(url, "");
+            message.setResponseCode(this.responseCode);
+            return message;
+        }
+
+        @Override
+        public boolean isValidEndPoint(final String url) {
+            return false;
+        }
+
+        @Override
+        public boolean isValidEndPoint(final URL url) {
+            return false;
+        }
+
+        @Override
+        public org.apache.http.client.HttpClient getWrappedHttpClient() {
+            return null;
+        }
+    }
+}
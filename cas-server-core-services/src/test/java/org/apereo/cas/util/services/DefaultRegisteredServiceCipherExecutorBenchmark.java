@@ -0,0 +1,104 @@
+package org.apereo.cas.util.services;
+
+import org.apereo.cas.services.RegexRegisteredService;
+import org.apereo.cas.services.RegisteredServicePublicKeyImpl;
+import org.apereo.cas.util.EncodingUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the attribute encryption done when validating a ticket for a service
+ * that has a public key, where the credential and the proxy-granting ticket are encrypted.
+ * Compares {@link DefaultRegisteredServiceCipherExecutor} with reading the public key
+ * and initializing a cipher for every value. Run with {@code main} from the test classpath.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class DefaultRegisteredServiceCipherExecutorBenchmark {
+
+    private static final String CREDENTIAL = "P@ssw0rd";
+
+    private static final String PROXY_GRANTING_TICKET = "PGT-1-7FlzyDxHpfmkGDuhdsa2ZqWJNRLqtUlBWiCmFKpHUTs4NokZ1A-cas.example.org";
+
+    private DefaultRegisteredServiceCipherExecutor executor;
+
+    private RegexRegisteredService service;
+
+    /**
+     * Build the executor and the service.
+     */
+    @Setup
+    public void setup() {
+        this.executor = new DefaultRegisteredServiceCipherExecutor();
+        this.service = new RegexRegisteredService();
+        this.service.setServiceId("^https://encrypted.example.org.*");
+        this.service.setName("encrypted");
+        this.service.setPublicKey(new RegisteredServicePublicKeyImpl("classpath:keys/RSA1024Public.key", "RSA"));
+    }
+
+    /**
+     * Encrypt the values released on validation with the cipher executor.
+     *
+     * @return the encrypted proxy-granting ticket
+     */
+    @Benchmark
+    public String encodeWithCipherExecutor() {
+        this.executor.encode(CREDENTIAL, this.service);
+        return this.executor.encode(PROXY_GRANTING_TICKET, this.service);
+    }
+
+    /**
+     * Encrypt the values released on validation, reading the public key
+     * and initializing a cipher for each of them.
+     *
+     * @return the encrypted proxy-granting ticket
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public String encodeReadingPublicKeyEachTime() throws Exception {
+        encodeReadingPublicKey(CREDENTIAL);
+        return encodeReadingPublicKey(PROXY_GRANTING_TICKET);
+    }
+
+    private String encodeReadingPublicKey(final String data) throws Exception {
+        final PublicKey publicKey = this.service.getPublicKey().createInstance();
+        final Cipher cipher = Cipher.getInstance(publicKey.getAlgorithm());
+        cipher.init(Cipher.ENCRYPT_MODE, publicKey);
+        return EncodingUtils.encodeBase64(cipher.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args the arguments
+     * @throws RunnerException the runner exception
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DefaultRegisteredServiceCipherExecutorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
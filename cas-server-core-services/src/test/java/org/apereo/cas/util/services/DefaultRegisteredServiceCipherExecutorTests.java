@@ -0,0 +1,97 @@
+package org.apereo.cas.util.services;
+
+import org.apereo.cas.services.RegexRegisteredService;
+import org.apereo.cas.services.RegisteredServicePublicKeyImpl;
+import org.apereo.cas.support.events.CasRegisteredServicesRefreshEvent;
+import org.apereo.cas.util.EncodingUtils;
+import org.apereo.cas.util.PrivateKeyFactoryBean;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link DefaultRegisteredServiceCipherExecutorTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class DefaultRegisteredServiceCipherExecutorTests {
+
+    private static final String DATA = "PGT-1234567";
+
+    private final AtomicInteger publicKeysRead = new AtomicInteger();
+
+    private RegexRegisteredService service;
+
+    @Before
+    public void setUp() {
+        this.service = new RegexRegisteredService();
+        this.service.setServiceId("^https://encrypted.example.org.*");
+        this.service.setName("encrypted");
+        this.service.setPublicKey(new RegisteredServicePublicKeyImpl("classpath:keys/RSA1024Public.key", "RSA") {
+            private static final long serialVersionUID = -6397458196373485512L;
+
+            @Override
+            public PublicKey createInstance() throws Exception {
+                publicKeysRead.incrementAndGet();
+                return super.createInstance();
+            }
+        });
+    }
+
+    @Test
+    public void verifyEncodedValuesDecryptFromManyThreads() throws Exception {
+        final DefaultRegisteredServiceCipherExecutor executor = new DefaultRegisteredServiceCipherExecutor();
+        final ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(threads.submit(() -> executor.encode(DATA, this.service)));
+            }
+            for (final Future<String> result : results) {
+                assertEquals(DATA, decrypt(result.get()));
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(1, this.publicKeysRead.get());
+    }
+
+    @Test
+    public void verifyPublicKeyReadAgainOnceServicesAreReloaded() throws Exception {
+        final DefaultRegisteredServiceCipherExecutor executor = new DefaultRegisteredServiceCipherExecutor();
+        assertEquals(DATA, decrypt(executor.encode(DATA, this.service)));
+        assertEquals(DATA, decrypt(executor.encode(DATA, this.service)));
+        assertEquals(1, this.publicKeysRead.get());
+
+        executor.handleRefreshEvent(new CasRegisteredServicesRefreshEvent(this));
+        assertEquals(DATA, decrypt(executor.encode(DATA, this.service)));
+        assertEquals(2, this.publicKeysRead.get());
+    }
+
+    private static String decrypt(final String encoded) throws Exception {
+        assertNotNull(encoded);
+        final PrivateKeyFactoryBean factory = new PrivateKeyFactoryBean();
+        factory.setAlgorithm("RSA");
+        factory.setLocation(new ClassPathResource("keys/RSA1024Private.p8"));
+        factory.setSingleton(false);
+        final PrivateKey privateKey = factory.getObject();
+
+        final Cipher cipher = Cipher.getInstance(privateKey.getAlgorithm());
+        cipher.init(Cipher.DECRYPT_MODE, privateKey);
+        return new String(cipher.doFinal(EncodingUtils.decodeBase64(encoded)), StandardCharsets.UTF_8);
+    }
+}
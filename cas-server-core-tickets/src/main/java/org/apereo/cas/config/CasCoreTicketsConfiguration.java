@@ -18,10 +18,13 @@ import org.apereo.cas.ticket.proxy.support.Cas20ProxyHandler;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistrySupport;
+import org.apereo.cas.ticket.registry.JavaTicketSerializer;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistrySupport;
+import org.apereo.cas.ticket.registry.TicketSerializer;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
+import org.apereo.cas.ticket.registry.support.kryo.KryoTicketSerializer;
 import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
 import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
 import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
@@ -152,9 +155,23 @@ public class CasCoreTicketsConfiguration {
                 casProperties.getTicket().getRegistry().getInMemory().getLoadFactor(),
                 casProperties.getTicket().getRegistry().getInMemory().getConcurrency());
         r.setCipherExecutor(cipherExecutor);
+        r.setTicketSerializer(ticketSerializer());
         return r;
     }
 
+    @RefreshScope
+    @Bean
+    public TicketSerializer ticketSerializer() {
+        final String type = casProperties.getTicket().getRegistry().getSerializer();
+        if ("KRYO".equalsIgnoreCase(type)) {
+            return new KryoTicketSerializer();
+        }
+        if (!"JAVA".equalsIgnoreCase(type)) {
+            LOGGER.warn("Unknown ticket serializer [{}]; falling back to Java serialization", type);
+        }
+        return new JavaTicketSerializer();
+    }
+
     @Bean
     public TicketRegistrySupport defaultTicketRegistrySupport() {
         final DefaultTicketRegistrySupport s = new DefaultTicketRegistrySupport();
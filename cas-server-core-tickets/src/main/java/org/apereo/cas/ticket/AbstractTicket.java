@@ -7,6 +7,9 @@ import javax.persistence.Column;
 import javax.persistence.Id;
 import javax.persistence.Lob;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
@@ -31,6 +34,8 @@ public abstract class AbstractTicket implements Ticket, TicketState {
 
     private static final long serialVersionUID = -8506442397878267555L;
 
+    private static final long MILLIS_PER_SECOND = 1000;
+
     /**
      * The {@link ExpirationPolicy} this ticket is associated with.
      **/
@@ -59,6 +64,14 @@ public abstract class AbstractTicket implements Ticket, TicketState {
     @Column(name="NUMBER_OF_TIMES_USED")
     private int countOfUses;
 
+    /**
+     * The time, in epoch milliseconds, at which this ticket expires unless it is used again,
+     * or null if its expiration policy cannot tell. Kept up to date as the ticket is stored,
+     * so that expired tickets can be found by it.
+     */
+    @Column(name="EXPIRATION_DEADLINE")
+    private Long expirationDeadline;
+
     /**
      * Instantiates a new abstract ticket.
      */
@@ -134,6 +147,44 @@ public abstract class AbstractTicket implements Ticket, TicketState {
         return false;
     }
 
+    /**
+     * Apply the uses of this ticket since it had the given number of uses to another copy of it.
+     *
+     * @param ticket            the other copy of this ticket
+     * @param countOfUsesBefore the number of uses of this ticket before the uses to apply
+     */
+    protected void applyUsesTo(final AbstractTicket ticket, final int countOfUsesBefore) {
+        final int uses = this.countOfUses - countOfUsesBefore;
+        if (uses <= 0) {
+            return;
+        }
+        ticket.countOfUses += uses;
+        if (this.lastTimeUsed != null && (ticket.lastTimeUsed == null || this.lastTimeUsed.isAfter(ticket.lastTimeUsed))) {
+            ticket.previousLastTimeUsed = ticket.lastTimeUsed;
+            ticket.lastTimeUsed = this.lastTimeUsed;
+        }
+    }
+
+    /**
+     * Update the expiration deadline from the current state of the ticket.
+     * Expiration of the ticket it was granted by is not considered; tickets are removed along with it.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void updateExpirationDeadline() {
+        if (isExpiredInternal()) {
+            this.expirationDeadline = System.currentTimeMillis();
+            return;
+        }
+        final ZonedDateTime expirationTime = this.expirationPolicy.getExpirationTime(this);
+        if (expirationTime == null) {
+            this.expirationDeadline = null;
+        } else {
+            final Instant instant = expirationTime.toInstant();
+            this.expirationDeadline = instant.getEpochSecond() >= Long.MAX_VALUE / MILLIS_PER_SECOND ? Long.MAX_VALUE : instant.toEpochMilli();
+        }
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(13, 133).append(this.getId()).toHashCode();
@@ -10,6 +10,7 @@ import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
@@ -24,7 +25,7 @@ import javax.persistence.Table;
  * @since 3.0.0
  */
 @Entity
-@Table(name = "SERVICETICKET")
+@Table(name = "SERVICETICKET", indexes = @Index(name = "IDX_ST_EXPIRATION_DEADLINE", columnList = "EXPIRATION_DEADLINE"))
 @DiscriminatorColumn(name = "TYPE")
 @DiscriminatorValue(ServiceTicket.PREFIX)
 public class ServiceTicketImpl extends AbstractTicket implements ServiceTicket {
@@ -16,10 +16,13 @@ import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.PostLoad;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -40,7 +43,8 @@ import java.util.Set;
  * @since 3.0.0
  */
 @Entity
-@Table(name="TICKETGRANTINGTICKET")
+@Table(name="TICKETGRANTINGTICKET", indexes = {@Index(name = "IDX_TGT_PRINCIPAL_ID", columnList = "PRINCIPAL_ID"),
+        @Index(name = "IDX_TGT_EXPIRATION_DEADLINE", columnList = "EXPIRATION_DEADLINE")})
 @DiscriminatorColumn(name = "TYPE")
 @DiscriminatorValue(TicketGrantingTicket.PREFIX)
 public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGrantingTicket {
@@ -56,6 +60,10 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
     @Column(name="AUTHENTICATION", nullable=false, length = Integer.MAX_VALUE)
     private Authentication authentication;
 
+    /** Id of the authenticated principal, kept alongside the authentication so that sessions can be looked up by principal. */
+    @Column(name="PRINCIPAL_ID", nullable=true)
+    private String principalId;
+
     /** Flag to enforce manual expiration. */
     @Column(name="EXPIRED", nullable=false)
     private Boolean expired = Boolean.FALSE;
@@ -70,6 +78,14 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
     @Column(name="SERVICES_GRANTED_ACCESS_TO", nullable=false, length = Integer.MAX_VALUE)
     private HashMap<String, Service> services = new HashMap<>();
 
+    /** The most recent service ticket granted for each normalized service path; rebuilt from the services when loaded. */
+    @Transient
+    private transient HashMap<String, String> serviceTicketIdsByPath = new HashMap<>();
+
+    /** Immutable copy of the services, made when first asked for after they changed. */
+    @Transient
+    private transient volatile Map<String, Service> servicesView;
+
     /** The {@link TicketGrantingTicket} this is associated with. */
     @ManyToOne(targetEntity = TicketGrantingTicketImpl.class)
     private TicketGrantingTicket ticketGrantingTicket;
@@ -77,6 +93,21 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
     /** The PGTs associated to this ticket. */
     @OneToMany(targetEntity = TicketGrantingTicketImpl.class, mappedBy = "ticketGrantingTicket", fetch = FetchType.EAGER)
     private Set<ProxyGrantingTicket> proxyGrantingTickets = new HashSet<>();
+
+    /**
+     * Version of the stored ticket, for registries that detect concurrent updates.
+     * Only written by such registries, through statements that check it.
+     */
+    @Column(name="VERSION", nullable=true, updatable=false)
+    private Long version = 0L;
+
+    /** Service sessions tracked since this ticket was loaded from storage, or null if it was not loaded. */
+    @Transient
+    private transient List<TrackedServiceSession> serviceSessionsSinceLoad;
+
+    /** The number of times this was used when it was loaded from storage. */
+    @Transient
+    private transient int countOfUsesWhenLoaded;
     
     /**
      * Instantiates a new ticket granting ticket impl.
@@ -108,6 +139,7 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
         Assert.notNull(authentication, "authentication cannot be null");
         this.ticketGrantingTicket = parentTicketGrantingTicket;
         this.authentication = authentication;
+        this.principalId = authentication.getPrincipal() != null ? authentication.getPrincipal().getId() : null;
         this.proxiedBy = proxiedBy;
     }
 
@@ -163,22 +195,76 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
      */
     protected void trackServiceSession(final String id, final Service service, final boolean onlyTrackMostRecentSession) {
         update();
-        
+        trackService(id, service, onlyTrackMostRecentSession);
+        if (this.serviceSessionsSinceLoad != null) {
+            this.serviceSessionsSinceLoad.add(new TrackedServiceSession(id, service, onlyTrackMostRecentSession));
+        }
+    }
+
+    private synchronized void trackService(final String id, final Service service, final boolean onlyTrackMostRecentSession) {
         final List<Authentication> authentications = getChainedAuthentications();
         service.setPrincipal(authentications.get(authentications.size()-1).getPrincipal());
 
-        if (onlyTrackMostRecentSession) {
-            final String path = normalizePath(service);
-            final Collection<Service> existingServices = this.services.values();
-            // loop on existing services
-            existingServices.stream()
-                    .filter(existingService -> path.equals(normalizePath(existingService)))
-                    .findFirst().ifPresent(existingService -> {
-                        existingServices.remove(existingService);
-                        LOGGER.trace("Removed previous tickets for service: {}", existingService);
-                    });
-        }
         this.services.put(id, service);
+        final String previousId = getServiceTicketIdsByPath().put(normalizePath(service), id);
+        if (onlyTrackMostRecentSession && previousId != null && !previousId.equals(id)) {
+            final Service existingService = this.services.remove(previousId);
+            if (existingService != null) {
+                LOGGER.trace("Removed previous tickets for service: {}", existingService);
+            }
+        }
+        this.servicesView = null;
+    }
+
+    /**
+     * Remember the state of the ticket as loaded from storage, and rebuild what is not persisted.
+     */
+    @PostLoad
+    protected synchronized void postLoad() {
+        rebuildServiceTicketIdsByPath();
+        this.serviceSessionsSinceLoad = new ArrayList<>();
+        this.countOfUsesWhenLoaded = getCountOfUses();
+    }
+
+    /**
+     * Apply the changes made to this ticket since it was loaded from storage to another copy of it,
+     * loaded more recently: uses of the ticket, service sessions tracked, and manual expiration.
+     * Used by registries that detect concurrent updates to merge them instead of overwriting one with the other.
+     *
+     * @param current the more recent copy of this ticket
+     */
+    public void applyChangesTo(final TicketGrantingTicketImpl current) {
+        applyUsesTo(current, this.countOfUsesWhenLoaded);
+        if (this.serviceSessionsSinceLoad != null) {
+            this.serviceSessionsSinceLoad.forEach(s -> current.trackService(s.id, s.service, s.onlyTrackMostRecentSession));
+        }
+        if (this.expired) {
+            current.markTicketExpired();
+        }
+    }
+
+    public long getVersion() {
+        return this.version == null ? 0 : this.version;
+    }
+
+    public void setVersion(final long version) {
+        this.version = version;
+    }
+
+    /**
+     * Rebuild the index of services by normalized path, which is not persisted.
+     */
+    protected synchronized void rebuildServiceTicketIdsByPath() {
+        final HashMap<String, String> index = new HashMap<>();
+        this.services.forEach((ticketId, service) -> index.put(normalizePath(service), ticketId));
+        this.serviceTicketIdsByPath = index;
+    }
+
+    private HashMap<String, String> getServiceTicketIdsByPath() {
+        if (this.serviceTicketIdsByPath == null) {
+            rebuildServiceTicketIdsByPath();
+        }
+        return this.serviceTicketIdsByPath;
     }
 
     /**
@@ -199,13 +285,21 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
      * Gets an immutable map of service ticket and services accessed by this ticket-granting ticket.
      * Unlike {@link java.util.Collections#unmodifiableMap(java.util.Map)},
      * which is a view of a separate map which can still change, an instance of {@link ImmutableMap}
-     * contains its own data and will never change.
+     * contains its own data and will never change. The copy is made once after the services change,
+     * and shared until they change again.
      *
      * @return an immutable map of service ticket and services accessed by this ticket-granting ticket.
     */
     @Override
-    public synchronized Map<String, Service> getServices() {
-        return ImmutableMap.copyOf(this.services);
+    public Map<String, Service> getServices() {
+        Map<String, Service> view = this.servicesView;
+        if (view == null) {
+            synchronized (this) {
+                view = ImmutableMap.copyOf(this.services);
+                this.servicesView = view;
+            }
+        }
+        return view;
     }
 
     @Override
@@ -217,8 +311,10 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
      * Remove all services of the TGT (at logout).
      */
     @Override
-    public void removeAllServices() {
+    public synchronized void removeAllServices() {
         this.services.clear();
+        getServiceTicketIdsByPath().clear();
+        this.servicesView = null;
     }
 
     /**
@@ -298,5 +394,19 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
                 .isEquals();
     }
 
+    /**
+     * A service session tracked by this ticket.
+     */
+    private static class TrackedServiceSession {
+        private final String id;
+        private final Service service;
+        private final boolean onlyTrackMostRecentSession;
+
+        TrackedServiceSession(final String id, final Service service, final boolean onlyTrackMostRecentSession) {
+            this.id = id;
+            this.service = service;
+            this.onlyTrackMostRecentSession = onlyTrackMostRecentSession;
+        }
+    }
 
 }
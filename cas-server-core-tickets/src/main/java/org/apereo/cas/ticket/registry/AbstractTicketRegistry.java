@@ -8,14 +8,26 @@ import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.util.DigestUtils;
-import org.apereo.cas.util.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Scott Battaglia
@@ -31,6 +43,8 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
     protected transient Logger logger = LoggerFactory.getLogger(getClass());
     
     private CipherExecutor cipherExecutor;
+
+    private TicketSerializer ticketSerializer = new JavaTicketSerializer();
     
     /**
      * Default constructor.
@@ -97,16 +111,44 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
             }
 
             logger.debug("Removing children of ticket [{}] from the registry.", ticket.getId());
-            final TicketGrantingTicket tgt = (TicketGrantingTicket) ticket;
-            deleteChildren(tgt);
-
-            final Collection<ProxyGrantingTicket> proxyGrantingTickets = tgt.getProxyGrantingTickets();
-            proxyGrantingTickets.stream().map(Ticket::getId).forEach(this::deleteTicket);
+            final Set<String> children = new LinkedHashSet<>();
+            collectChildren((TicketGrantingTicket) ticket, children);
+            if (!children.isEmpty()) {
+                logger.debug("Removed {} of {} children of ticket [{}]", deleteSingleTickets(children), children.size(), ticketId);
+            }
         }
         logger.debug("Removing ticket [{}] from the registry.", ticket);
         return deleteSingleTicket(ticketId);
     }
 
+    @Override
+    public int deleteTickets(final Collection<String> ticketIds) {
+        final List<Ticket> tickets = new ArrayList<>(ticketIds.size());
+        ticketIds.stream().filter(Objects::nonNull).map(this::getTicket).filter(Objects::nonNull).forEach(tickets::add);
+        return deleteTickets(tickets);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The tickets are not retrieved again; those issued from ticket-granting tickets are
+     * found through the tickets as given, and through the current state of their proxy-granting tickets.
+     */
+    @Override
+    public int deleteTickets(final Iterable<? extends Ticket> tickets) {
+        final Set<String> ids = new LinkedHashSet<>();
+        tickets.forEach(ticket -> {
+            if (ticket instanceof TicketGrantingTicket) {
+                collectChildren((TicketGrantingTicket) ticket, ids);
+            }
+            ids.add(ticket.getId());
+        });
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        logger.debug("Removing {} tickets from the registry", ids.size());
+        return deleteSingleTickets(ids);
+    }
 
     /**
      * Delete TGT's service tickets.
@@ -117,12 +159,33 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         // delete service tickets
         final Map<String, Service> services = ticket.getServices();
         if (services != null && !services.isEmpty()) {
-            services.keySet().stream().forEach(ticketId -> {
-                if (deleteSingleTicket(ticketId)) {
-                    logger.debug("Removed ticket [{}]", ticketId);
-                } else {
-                    logger.debug("Unable to remove ticket [{}]", ticketId);
+            final int removed = deleteSingleTickets(services.keySet());
+            logger.debug("Removed {} of {} service tickets of [{}]", removed, services.size(), ticket.getId());
+        }
+    }
+
+    /**
+     * Collect the ids of the service tickets and proxy-granting tickets issued from a ticket-granting ticket,
+     * and of those issued from its proxy-granting tickets in turn. Tickets come before those they were issued from.
+     * Proxy-granting tickets are retrieved from the registry, since the copies a ticket-granting ticket holds
+     * may predate the tickets issued from them.
+     *
+     * @param ticket the ticket-granting ticket
+     * @param ids    the ids collected so far
+     */
+    private void collectChildren(final TicketGrantingTicket ticket, final Set<String> ids) {
+        final Map<String, Service> services = ticket.getServices();
+        if (services != null) {
+            ids.addAll(services.keySet());
+        }
+        final Collection<ProxyGrantingTicket> proxyGrantingTickets = ticket.getProxyGrantingTickets();
+        if (proxyGrantingTickets != null) {
+            proxyGrantingTickets.forEach(pgt -> {
+                final Ticket current = getTicket(pgt.getId());
+                if (current instanceof TicketGrantingTicket) {
+                    collectChildren((TicketGrantingTicket) current, ids);
                 }
+                ids.add(pgt.getId());
             });
         }
     }
@@ -145,6 +208,18 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
      */
     public abstract boolean deleteSingleTicket(final String ticketId);
 
+    /**
+     * Delete a number of ticket instances from the store, without regard for the tickets that depend on them.
+     * Tickets are given in an order in which they can be deleted one after the other.
+     * Registries should override this to delete all tickets in as few round trips as the store allows.
+     *
+     * @param ticketIds the ticket ids
+     * @return the number of tickets deleted
+     */
+    public int deleteSingleTickets(final Collection<String> ticketIds) {
+        return (int) ticketIds.stream().filter(this::deleteSingleTicket).count();
+    }
+
     /**
      * Whether or not a callback to the TGT is required when checking for expiration.
      *
@@ -156,6 +231,16 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         this.cipherExecutor = cipherExecutor;
     }
 
+    /**
+     * Sets the serializer used to turn tickets into bytes before they are encoded.
+     * Defaults to Java serialization, which is also restored when null is passed.
+     *
+     * @param ticketSerializer the ticket serializer
+     */
+    public void setTicketSerializer(final TicketSerializer ticketSerializer) {
+        this.ticketSerializer = ticketSerializer != null ? ticketSerializer : new JavaTicketSerializer();
+    }
+
     /**
      * Encode ticket id into a SHA-512.
      *
@@ -192,8 +277,8 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         }
 
         logger.info("Encoding [{}]", ticket);
-        final byte[] encodedTicketObject = SerializationUtils.serializeAndEncodeObject(
-                this.cipherExecutor, ticket);
+        final byte[] encodedTicketObject = (byte[]) this.cipherExecutor.encode(
+                this.ticketSerializer.serialize(ticket));
         final String encodedTicketId = encodeTicketId(ticket.getId());
         final Ticket encodedTicket = new EncodedTicket(
                 ByteSource.wrap(encodedTicketObject),
@@ -222,8 +307,8 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         logger.info("Attempting to decode {}", result);
         final EncodedTicket encodedTicket = (EncodedTicket) result;
 
-        final Ticket ticket = SerializationUtils.decodeAndSerializeObject(
-                encodedTicket.getEncoded(), this.cipherExecutor, Ticket.class);
+        final byte[] decoded = (byte[]) this.cipherExecutor.decode(encodedTicket.getEncoded());
+        final Ticket ticket = this.ticketSerializer.deserialize(decoded, Ticket.class);
         logger.info("Decoded {}", ticket);
         return ticket;
     }
@@ -243,6 +328,43 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         return items.stream().map(this::decodeTicket).collect(Collectors.toSet());
     }
     
+    /**
+     * Build a lazy stream over pages of items. The next page is only requested
+     * once the previous one has been consumed; an empty or null page ends the stream.
+     *
+     * @param <T>      the item type
+     * @param nextPage supplier of the next page of items
+     * @return the stream
+     */
+    protected static <T> Stream<T> streamPages(final Supplier<? extends Collection<T>> nextPage) {
+        final Iterator<T> iterator = new Iterator<T>() {
+            private Iterator<T> current = Collections.emptyIterator();
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (!this.current.hasNext() && !this.exhausted) {
+                    final Collection<T> page = nextPage.get();
+                    if (page == null || page.isEmpty()) {
+                        this.exhausted = true;
+                    } else {
+                        this.current = page.iterator();
+                    }
+                }
+                return this.current.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return this.current.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false);
+    }
+
     protected boolean isCipherExecutorEnabled() {
         return this.cipherExecutor != null && this.cipherExecutor.isEnabled();
     }
@@ -1,14 +1,16 @@
 package org.apereo.cas.ticket.registry;
 
-import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the TicketRegistry that is backed by a ConcurrentHashMap.
@@ -23,6 +25,21 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
      */
     private Map<String, Ticket> cache;
 
+    /**
+     * Expiration deadlines of the tickets in the cache.
+     */
+    private final TicketExpirationIndex expirationIndex = new TicketExpirationIndex();
+
+    /**
+     * Number of sessions and service tickets in the cache.
+     */
+    private final TicketCounter ticketCounter = new TicketCounter();
+
+    /**
+     * Ticket-granting tickets in the cache by principal id.
+     */
+    private final PrincipalTicketIndex principalIndex = new PrincipalTicketIndex();
+
     /**
      * Instantiates a new default ticket registry.
      */
@@ -54,7 +71,11 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
         Assert.notNull(ticket, "ticket cannot be null");
 
         logger.debug("Added ticket [{}] to registry.", ticket.getId());
-        this.cache.put(ticket.getId(), ticket);
+        if (this.cache.put(ticket.getId(), ticket) == null) {
+            this.ticketCounter.increment(ticket);
+            this.principalIndex.add(ticket);
+        }
+        this.expirationIndex.schedule(ticket);
     }
 
     @Override
@@ -68,7 +89,41 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
-        return this.cache.remove(ticketId) != null;
+        this.expirationIndex.remove(ticketId);
+        final Ticket ticket = this.cache.remove(ticketId);
+        if (ticket == null) {
+            return false;
+        }
+        this.ticketCounter.decrement(ticket);
+        this.principalIndex.remove(ticket);
+        return true;
+    }
+
+    @Override
+    public boolean isExpirationIndexed() {
+        return true;
+    }
+
+    @Override
+    public Collection<Ticket> getExpiredTickets(final int maxCount) {
+        final long now = System.currentTimeMillis();
+        final Collection<Ticket> expired = new ArrayList<>();
+        final Collection<String> due = this.expirationIndex.pollDue(now, maxCount);
+        for (final String ticketId : due) {
+            final Ticket ticket = decodeTicket(this.cache.get(ticketId));
+            if (ticket == null) {
+                continue;
+            }
+            if (ticket.isExpired()) {
+                expired.add(ticket);
+                // stays indexed in case the caller does not remove it
+                this.expirationIndex.reschedule(ticketId);
+            } else {
+                this.expirationIndex.scheduleAfter(ticket, now);
+            }
+        }
+        logger.debug("{} of {} tickets due for expiry are expired", expired.size(), due.size());
+        return expired;
     }
 
 
@@ -77,14 +132,28 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
         return Collections.unmodifiableCollection(this.cache.values());
     }
 
+    @Override
+    public Stream<Ticket> stream(final TicketQuery query) {
+        return this.cache.values().stream().map(this::decodeTicket).filter(query::matches);
+    }
+
+    @Override
+    public Collection<TicketGrantingTicket> getTicketGrantingTickets(final String principalId) {
+        return this.principalIndex.getTicketIds(principalId).stream()
+                .map(id -> decodeTicket(this.cache.get(id)))
+                .filter(TicketGrantingTicket.class::isInstance)
+                .map(TicketGrantingTicket.class::cast)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public long sessionCount() {
-        return this.cache.values().stream().filter(t -> t instanceof TicketGrantingTicket).count();
+        return this.ticketCounter.getSessionCount();
     }
 
     @Override
     public long serviceTicketCount() {
-        return this.cache.values().stream().filter(t -> t instanceof ServiceTicket).count();
+        return this.ticketCounter.getServiceTicketCount();
     }
 
     @Override
@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.Iterables;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.ticket.ServiceTicket;
@@ -13,8 +14,9 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.support.SpringBeanAutowiringSupport;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.List;
 
 /**
  * This is {@link DefaultTicketRegistryCleaner}.
@@ -62,25 +64,31 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner {
 
             LOGGER.info("Beginning ticket cleanup...");
 
-            final Collection<Ticket> ticketsToRemove = ticketRegistry.getTickets()
-                    .stream()
-                    .filter(t -> t.isExpired())
-                    .collect(Collectors.toSet());
-            LOGGER.debug("{} expired tickets found.", ticketsToRemove.size());
-
-            for (final Ticket ticket : ticketsToRemove) {
-                if (ticket instanceof TicketGrantingTicket) {
-                    LOGGER.debug("Cleaning up expired ticket-granting ticket [{}]", ticket.getId());
-                    logoutManager.performLogout((TicketGrantingTicket) ticket);
-                    ticketRegistry.deleteTicket(ticket.getId());
-                } else if (ticket instanceof ServiceTicket) {
-                    LOGGER.debug("Cleaning up expired service ticket [{}]", ticket.getId());
-                    ticketRegistry.deleteTicket(ticket.getId());
-                } else {
-                    LOGGER.warn("Unknown ticket type [{} found to clean", ticket.getClass().getSimpleName());
+            final int batchSize = casProperties.getTicket().getRegistry().getCleaner().getBatchSize();
+            int count = 0;
+            int removed;
+            do {
+                removed = ticketRegistry.deleteExpiredServiceTickets(batchSize);
+                count += removed;
+            } while (removed >= batchSize);
+
+            if (ticketRegistry.isExpirationIndexed()) {
+                Collection<Ticket> ticketsToRemove;
+                do {
+                    ticketsToRemove = ticketRegistry.getExpiredTickets(batchSize);
+                    LOGGER.debug("{} expired tickets found.", ticketsToRemove.size());
+                    removed = cleanTickets(ticketsToRemove);
+                    count += removed;
+                } while (ticketsToRemove.size() >= batchSize && removed > 0);
+            } else {
+                // registries without an expiration index scan all tickets to find expired ones, so they are asked only once
+                final Collection<Ticket> ticketsToRemove = ticketRegistry.getExpiredTickets(Integer.MAX_VALUE);
+                LOGGER.debug("{} expired tickets found.", ticketsToRemove.size());
+                for (final List<Ticket> batch : Iterables.partition(ticketsToRemove, batchSize)) {
+                    count += cleanTickets(batch);
                 }
             }
-            LOGGER.info("{} expired tickets removed.", ticketsToRemove.size());
+            LOGGER.info("{} expired tickets, and tickets issued from them, removed.", count);
 
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
@@ -91,6 +99,29 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner {
         }
     }
 
+    /**
+     * Clean up a batch of expired tickets, removing them from the registry all at once.
+     *
+     * @param tickets the tickets
+     * @return the number of tickets removed from the registry, including those that depended on the expired tickets
+     */
+    private int cleanTickets(final Collection<Ticket> tickets) {
+        final List<Ticket> toRemove = new ArrayList<>(tickets.size());
+        tickets.forEach(ticket -> {
+            if (ticket instanceof TicketGrantingTicket) {
+                LOGGER.debug("Cleaning up expired ticket-granting ticket [{}]", ticket.getId());
+                logoutManager.performLogout((TicketGrantingTicket) ticket);
+                toRemove.add(ticket);
+            } else if (ticket instanceof ServiceTicket) {
+                LOGGER.debug("Cleaning up expired service ticket [{}]", ticket.getId());
+                toRemove.add(ticket);
+            } else {
+                LOGGER.warn("Unknown ticket type [{} found to clean", ticket.getClass().getSimpleName());
+            }
+        });
+        return toRemove.isEmpty() ? 0 : ticketRegistry.deleteTickets(toRemove);
+    }
+
     /**
      * Indicates whether the registry supports automatic ticket cleanup.
      * Generally, a registry that is able to return a collection of available
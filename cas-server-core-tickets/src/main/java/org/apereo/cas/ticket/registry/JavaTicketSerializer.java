@@ -0,0 +1,34 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.util.SerializationUtils;
+
+import java.io.Serializable;
+
+/**
+ * {@link TicketSerializer} based on standard Java serialization.
+ * This is the default, and works with any {@link Serializable} ticket,
+ * at the cost of speed and size of the serialized form.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class JavaTicketSerializer implements TicketSerializer {
+
+    @Override
+    public byte[] serialize(final Object object) {
+        if (object != null && !(object instanceof Serializable)) {
+            throw new IllegalArgumentException("Object of type " + object.getClass() + " is not serializable");
+        }
+        return SerializationUtils.serialize((Serializable) object);
+    }
+
+    @Override
+    public <T> T deserialize(final byte[] bytes, final Class<T> type) {
+        final Object result = SerializationUtils.deserialize(bytes);
+        if (result != null && !type.isInstance(result)) {
+            throw new ClassCastException("Deserialized object is of type " + result.getClass()
+                    + " when we were expecting " + type);
+        }
+        return type.cast(result);
+    }
+}
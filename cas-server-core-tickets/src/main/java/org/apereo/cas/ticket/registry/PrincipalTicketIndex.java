@@ -0,0 +1,92 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Secondary index from principal id to the ids of the ticket-granting tickets
+ * issued to that principal. Registries maintain the index as tickets are added and
+ * removed so that the sessions of a principal can be found without visiting every ticket.
+ * Tickets other than ticket-granting tickets are ignored.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class PrincipalTicketIndex {
+
+    private final ConcurrentMap<String, Set<String>> ticketIdsByPrincipal = new ConcurrentHashMap<>();
+
+    /**
+     * Index a ticket. Indexing a ticket more than once has no effect.
+     *
+     * @param ticket the ticket
+     */
+    public void add(final Ticket ticket) {
+        final String principalId = getPrincipalId(ticket);
+        if (principalId != null) {
+            this.ticketIdsByPrincipal.compute(principalId, (k, ids) -> {
+                final Set<String> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                result.add(ticket.getId());
+                return result;
+            });
+        }
+    }
+
+    /**
+     * Remove a ticket from the index.
+     *
+     * @param ticket the ticket
+     */
+    public void remove(final Ticket ticket) {
+        final String principalId = getPrincipalId(ticket);
+        if (principalId != null) {
+            this.ticketIdsByPrincipal.computeIfPresent(principalId, (k, ids) -> {
+                ids.remove(ticket.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Ids of the ticket-granting tickets issued to the given principal.
+     *
+     * @param principalId the principal id
+     * @return the ticket ids
+     */
+    public Collection<String> getTicketIds(final String principalId) {
+        final Set<String> ids = this.ticketIdsByPrincipal.get(principalId);
+        return ids == null ? Collections.emptySet() : new HashSet<>(ids);
+    }
+
+    /**
+     * Clear the index.
+     */
+    public void clear() {
+        this.ticketIdsByPrincipal.clear();
+    }
+
+    /**
+     * Principal id of a ticket-granting ticket.
+     *
+     * @param ticket the ticket
+     * @return the principal id, or null if the ticket is not a ticket-granting ticket or carries no principal
+     */
+    public static String getPrincipalId(final Ticket ticket) {
+        if (!(ticket instanceof TicketGrantingTicket)) {
+            return null;
+        }
+        final Authentication authentication = ((TicketGrantingTicket) ticket).getAuthentication();
+        if (authentication == null || authentication.getPrincipal() == null) {
+            return null;
+        }
+        return authentication.getPrincipal().getId();
+    }
+}
@@ -0,0 +1,66 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running count of the ticket-granting and service tickets held by a registry.
+ * Registries adjust the counters as tickets are stored, removed or expire so that
+ * {@link TicketRegistry#sessionCount()} and {@link TicketRegistry#serviceTicketCount()}
+ * can be answered without visiting the tickets. Counters are striped and may be
+ * updated concurrently without contention.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class TicketCounter {
+
+    private final LongAdder sessions = new LongAdder();
+
+    private final LongAdder serviceTickets = new LongAdder();
+
+    /**
+     * Count a ticket that was added to the registry.
+     *
+     * @param ticket the ticket
+     */
+    public void increment(final Ticket ticket) {
+        add(ticket, 1);
+    }
+
+    /**
+     * Discount a ticket that was removed from the registry.
+     *
+     * @param ticket the ticket
+     */
+    public void decrement(final Ticket ticket) {
+        add(ticket, -1);
+    }
+
+    public long getSessionCount() {
+        return this.sessions.sum();
+    }
+
+    public long getServiceTicketCount() {
+        return this.serviceTickets.sum();
+    }
+
+    /**
+     * Reset all counters to zero.
+     */
+    public void reset() {
+        this.sessions.reset();
+        this.serviceTickets.reset();
+    }
+
+    private void add(final Ticket ticket, final long delta) {
+        if (ticket instanceof TicketGrantingTicket) {
+            this.sessions.add(delta);
+        } else if (ticket instanceof ServiceTicket) {
+            this.serviceTickets.add(delta);
+        }
+    }
+}
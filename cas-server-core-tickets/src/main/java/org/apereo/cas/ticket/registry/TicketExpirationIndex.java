@@ -0,0 +1,208 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.ExpirationPolicy;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketState;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Sorted expiry queue of ticket ids, keyed on the deadline derived from each ticket's
+ * {@link ExpirationPolicy}. Registries maintain the index as tickets are added, updated
+ * and removed so that cleanup only has to visit tickets whose deadline has passed,
+ * instead of walking the entire registry.
+ * <p>
+ * Deadlines are the expiration times told by {@link ExpirationPolicy#getExpirationTime(TicketState)},
+ * so that policies that delegate to others, such as remember-me policies, are indexed at the time the
+ * policy that actually applies to the ticket expires it. A ticket that turns out not to be expired when
+ * its deadline passes is simply scheduled again. Tickets whose policy cannot tell their expiration time
+ * are due immediately, and are then visited again every re-check interval.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class TicketExpirationIndex {
+
+    private static final long DEFAULT_RECHECK_INTERVAL = 60000;
+
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    private final ConcurrentSkipListSet<Entry> queue = new ConcurrentSkipListSet<>();
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final long recheckInterval;
+
+    /**
+     * Instantiates a new index that re-checks unexpired due tickets every minute.
+     */
+    public TicketExpirationIndex() {
+        this(DEFAULT_RECHECK_INTERVAL);
+    }
+
+    /**
+     * Instantiates a new index.
+     *
+     * @param recheckInterval delay in milliseconds after which a due ticket that is not yet
+     *                        expired, or whose deadline cannot be told, is visited again.
+     */
+    public TicketExpirationIndex(final long recheckInterval) {
+        this.recheckInterval = recheckInterval;
+    }
+
+    /**
+     * Schedule (or re-schedule) a ticket at its expiration deadline.
+     *
+     * @param ticket the ticket
+     */
+    public void schedule(final Ticket ticket) {
+        schedule(ticket.getId(), getExpirationDeadline(ticket, System.currentTimeMillis()));
+    }
+
+    /**
+     * Schedule a ticket that was found not to be expired when it became due.
+     * If its deadline has already passed, or cannot be told, it is visited again once
+     * the re-check interval passes.
+     *
+     * @param ticket the ticket
+     * @param now    the current time in epoch milliseconds
+     */
+    public void scheduleAfter(final Ticket ticket, final long now) {
+        final long deadline = getExpirationDeadline(ticket, now);
+        schedule(ticket.getId(), deadline > now ? deadline : now + this.recheckInterval);
+    }
+
+    /**
+     * Schedule a ticket id to be visited again once the re-check interval passes.
+     *
+     * @param ticketId the ticket id
+     */
+    public void reschedule(final String ticketId) {
+        schedule(ticketId, System.currentTimeMillis() + this.recheckInterval);
+    }
+
+    /**
+     * Schedule (or re-schedule) a ticket id at the given deadline.
+     *
+     * @param ticketId the ticket id
+     * @param deadline the deadline in epoch milliseconds
+     */
+    public void schedule(final String ticketId, final long deadline) {
+        final Entry entry = new Entry(ticketId, deadline);
+        final Entry previous = this.entries.put(ticketId, entry);
+        if (previous != null) {
+            this.queue.remove(previous);
+        }
+        this.queue.add(entry);
+    }
+
+    /**
+     * Remove a ticket id from the index.
+     *
+     * @param ticketId the ticket id
+     */
+    public void remove(final String ticketId) {
+        final Entry entry = this.entries.remove(ticketId);
+        if (entry != null) {
+            this.queue.remove(entry);
+        }
+    }
+
+    /**
+     * Remove and return, in deadline order, up to {@code maxCount} ticket ids whose deadline has passed.
+     * Callers are expected to either delete or re-schedule the returned ids.
+     *
+     * @param now      the current time in epoch milliseconds
+     * @param maxCount the maximum number of ids to return
+     * @return the due ticket ids
+     */
+    public Collection<String> pollDue(final long now, final int maxCount) {
+        final Collection<String> due = new ArrayList<>();
+        while (due.size() < maxCount) {
+            final Entry head = this.queue.pollFirst();
+            if (head == null) {
+                break;
+            }
+            if (head.deadline > now) {
+                this.queue.add(head);
+                break;
+            }
+            // entries superseded by a concurrent re-schedule are dropped here
+            if (this.entries.remove(head.ticketId, head)) {
+                due.add(head.ticketId);
+            }
+        }
+        return due;
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Clear the index.
+     */
+    public void clear() {
+        this.entries.clear();
+        this.queue.clear();
+    }
+
+    /**
+     * Gets the time at which the ticket expires, as told by its expiration policy.
+     *
+     * @param ticket the ticket
+     * @param now    the current time in epoch milliseconds
+     * @return the deadline in epoch milliseconds; the current time if the ticket is already expired
+     * or its policy cannot tell when it expires.
+     */
+    public static long getExpirationDeadline(final Ticket ticket, final long now) {
+        if (!(ticket instanceof TicketState) || ticket.getExpirationPolicy() == null || ticket.isExpired()) {
+            return now;
+        }
+        final ZonedDateTime expirationTime = ticket.getExpirationPolicy().getExpirationTime((TicketState) ticket);
+        if (expirationTime == null) {
+            return now;
+        }
+        final Instant instant = expirationTime.toInstant();
+        return instant.getEpochSecond() >= Long.MAX_VALUE / MILLIS_PER_SECOND ? Long.MAX_VALUE : instant.toEpochMilli();
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final String ticketId;
+        private final long deadline;
+
+        Entry(final String ticketId, final long deadline) {
+            this.ticketId = ticketId;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int compareTo(final Entry other) {
+            final int result = Long.compare(this.deadline, other.deadline);
+            return result != 0 ? result : this.ticketId.compareTo(other.ticketId);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            final Entry other = (Entry) o;
+            return this.deadline == other.deadline && this.ticketId.equals(other.ticketId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.ticketId.hashCode() + Long.hashCode(this.deadline);
+        }
+    }
+}
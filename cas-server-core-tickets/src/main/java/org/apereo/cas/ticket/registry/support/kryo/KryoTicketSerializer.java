@@ -0,0 +1,248 @@
+package org.apereo.cas.ticket.registry.support.kryo;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.DefaultSerializers;
+import com.esotericsoftware.kryo.serializers.FieldSerializer;
+import com.google.common.collect.ImmutableSet;
+import de.javakaffee.kryoserializers.CollectionsEmptyListSerializer;
+import de.javakaffee.kryoserializers.CollectionsEmptyMapSerializer;
+import de.javakaffee.kryoserializers.CollectionsEmptySetSerializer;
+import de.javakaffee.kryoserializers.EnumMapSerializer;
+import de.javakaffee.kryoserializers.EnumSetSerializer;
+import de.javakaffee.kryoserializers.KryoReflectionFactorySupport;
+import de.javakaffee.kryoserializers.RegexSerializer;
+import de.javakaffee.kryoserializers.URISerializer;
+import de.javakaffee.kryoserializers.UUIDSerializer;
+import de.javakaffee.kryoserializers.UnmodifiableCollectionsSerializer;
+import de.javakaffee.kryoserializers.guava.ImmutableListSerializer;
+import de.javakaffee.kryoserializers.guava.ImmutableMapSerializer;
+import de.javakaffee.kryoserializers.guava.ImmutableMultimapSerializer;
+import de.javakaffee.kryoserializers.guava.ImmutableSetSerializer;
+import org.apereo.cas.authentication.BasicCredentialMetaData;
+import org.apereo.cas.authentication.DefaultAuthentication;
+import org.apereo.cas.authentication.DefaultHandlerResult;
+import org.apereo.cas.authentication.UsernamePasswordCredential;
+import org.apereo.cas.authentication.principal.SimplePrincipal;
+import org.apereo.cas.ticket.AbstractTicket;
+import org.apereo.cas.ticket.ServiceTicketImpl;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.registry.TicketSerializer;
+import org.apereo.cas.ticket.registry.support.kryo.serial.URLSerializer;
+import org.apereo.cas.ticket.registry.support.kryo.serial.ZonedDateTimeTranscoder;
+import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.support.RememberMeDelegatingExpirationPolicy;
+import org.apereo.cas.ticket.support.ThrottledUseAndTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
+import org.apereo.cas.ticket.support.TimeoutExpirationPolicy;
+
+import java.net.URI;
+import java.net.URL;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * {@link TicketSerializer} based on the Kryo fast serialization framework.
+ * Kryo instances are not thread-safe; each thread gets its own instance,
+ * along with its own output buffer, the first time it serializes anything.
+ * All instances register the same classes in the same order so that
+ * bytes written on one thread, or node, can be read on another. The order is the one
+ * the memcached transcoder has always used, so that tickets it stored can still be read;
+ * types are only ever added at the end. Likewise, tickets leave out the fields that only the
+ * JPA ticket registry stores, so that their form stays the one earlier versions wrote.
+ * <p>
+ * Types that are not registered, such as services, are serialized by reflection.
+ * Additional serializers may be supplied for types that Kryo cannot handle
+ * by reflection, or for which a more compact form is desired. They are shared
+ * between threads and must be stateless.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+@SuppressWarnings("rawtypes")
+public class KryoTicketSerializer implements TicketSerializer {
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Fields of ticket types that only the JPA ticket registry needs, added after tickets were first stored with Kryo.
+     */
+    private static final Set<String> PERSISTENCE_ONLY_FIELDS = ImmutableSet.of("expirationDeadline", "principalId", "version");
+
+    private final Map<Class<?>, Serializer> serializers;
+
+    private final ThreadLocal<Kryo> kryos = ThreadLocal.withInitial(this::newKryo);
+
+    private final ThreadLocal<Output> outputs = ThreadLocal.withInitial(() -> new Output(INITIAL_BUFFER_SIZE, -1));
+
+    /**
+     * Instantiates a new serializer for the types CAS knows about.
+     */
+    public KryoTicketSerializer() {
+        this(Collections.emptyMap());
+    }
+
+    /**
+     * Instantiates a new serializer.
+     *
+     * @param serializers additional types to register, mapped to the serializer that handles them,
+     *                    for example GoogleAccountsService and OpenIdService. They are registered
+     *                    in the iteration order of the map, which should be the same on every node.
+     */
+    public KryoTicketSerializer(final Map<Class<?>, Serializer> serializers) {
+        this.serializers = new LinkedHashMap<>(serializers);
+    }
+
+    @Override
+    public byte[] serialize(final Object object) {
+        final Output output = this.outputs.get();
+        try {
+            output.clear();
+            getKryo().writeClassAndObject(output, object);
+            return output.toBytes();
+        } finally {
+            if (output.getBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+                this.outputs.remove();
+            }
+        }
+    }
+
+    @Override
+    public <T> T deserialize(final byte[] bytes, final Class<T> type) {
+        try (final Input input = new Input(bytes)) {
+            final Object result = getKryo().readClassAndObject(input);
+            if (result != null && !type.isInstance(result)) {
+                throw new ClassCastException("Deserialized object is of type " + result.getClass()
+                        + " when we were expecting " + type);
+            }
+            return type.cast(result);
+        }
+    }
+
+    /**
+     * Gets the Kryo instance bound to the calling thread.
+     *
+     * @return the kryo instance
+     */
+    public Kryo getKryo() {
+        return this.kryos.get();
+    }
+
+    /**
+     * Create and configure a Kryo instance.
+     *
+     * @return the kryo instance
+     */
+    protected Kryo newKryo() {
+        final Kryo kryo = new KryoReflectionFactorySupport();
+        kryo.addDefaultSerializer(AbstractTicket.class, KryoTicketSerializer::newTicketSerializer);
+
+        // Register types we know about and do not require external configuration
+        kryo.register(ArrayList.class);
+        kryo.register(BasicCredentialMetaData.class);
+        kryo.register(Class.class, new DefaultSerializers.ClassSerializer());
+        kryo.register(ZonedDateTime.class, new ZonedDateTimeTranscoder());
+        kryo.register(HardTimeoutExpirationPolicy.class);
+        kryo.register(HashMap.class);
+        kryo.register(LinkedHashMap.class);
+        kryo.register(HashSet.class);
+        kryo.register(DefaultHandlerResult.class);
+        kryo.register(DefaultAuthentication.class);
+        kryo.register(MultiTimeUseOrTimeoutExpirationPolicy.class);
+        kryo.register(NeverExpiresExpirationPolicy.class);
+        kryo.register(RememberMeDelegatingExpirationPolicy.class);
+        kryo.register(ServiceTicketImpl.class);
+        registerServiceTypes(kryo);
+        kryo.register(ThrottledUseAndTimeoutExpirationPolicy.class);
+        kryo.register(TicketGrantingTicketExpirationPolicy.class);
+        kryo.register(TicketGrantingTicketImpl.class);
+        kryo.register(TimeoutExpirationPolicy.class);
+        kryo.register(UsernamePasswordCredential.class);
+        kryo.register(SimplePrincipal.class);
+        kryo.register(URL.class, new URLSerializer());
+        kryo.register(URI.class, new URISerializer());
+        kryo.register(Pattern.class, new RegexSerializer());
+        kryo.register(UUID.class, new UUIDSerializer());
+        kryo.register(EnumMap.class, new EnumMapSerializer());
+        kryo.register(EnumSet.class, new EnumSetSerializer());
+        registerRegisteredServiceTypes(kryo);
+
+        // from the kryo-serializers library (https://github.com/magro/kryo-serializers)
+        UnmodifiableCollectionsSerializer.registerSerializers(kryo);
+        ImmutableListSerializer.registerSerializers(kryo);
+        ImmutableSetSerializer.registerSerializers(kryo);
+        ImmutableMapSerializer.registerSerializers(kryo);
+        ImmutableMultimapSerializer.registerSerializers(kryo);
+
+        kryo.register(Collections.EMPTY_LIST.getClass(), new CollectionsEmptyListSerializer());
+        kryo.register(Collections.EMPTY_MAP.getClass(), new CollectionsEmptyMapSerializer());
+        kryo.register(Collections.EMPTY_SET.getClass(), new CollectionsEmptySetSerializer());
+
+        // Register other types
+        this.serializers.forEach(kryo::register);
+
+        // forget the names of unregistered classes after every write or read;
+        // bytes written by this instance are read by instances on other threads
+        kryo.setAutoReset(true);
+        // don't replace objects by references
+        kryo.setReferences(false);
+        // Catchall for any classes not explicitly registered
+        kryo.setRegistrationRequired(false);
+        return kryo;
+    }
+
+    /**
+     * Create the serializer of a ticket type, which writes the fields of the ticket
+     * other than those only the JPA ticket registry stores.
+     *
+     * @param kryo the kryo instance
+     * @param type the ticket type
+     * @return the serializer
+     */
+    private static Serializer newTicketSerializer(final Kryo kryo, final Class<?> type) {
+        final FieldSerializer<?> serializer = new FieldSerializer<>(kryo, type);
+        final List<String> persistenceOnlyFields = Arrays.stream(serializer.getFields())
+                .map(field -> field.getField().getName())
+                .filter(PERSISTENCE_ONLY_FIELDS::contains)
+                .collect(Collectors.toList());
+        persistenceOnlyFields.forEach(serializer::removeField);
+        return serializer;
+    }
+
+    /**
+     * Register the types of services tickets are granted for. They are registered right
+     * after the service ticket type; nothing is registered by default.
+     *
+     * @param kryo the kryo instance
+     */
+    protected void registerServiceTypes(final Kryo kryo) {
+    }
+
+    /**
+     * Register the types of registered services. They are registered right after the
+     * types of the JDK; nothing is registered by default.
+     *
+     * @param kryo the kryo instance
+     */
+    protected void registerRegisteredServiceTypes(final Kryo kryo) {
+    }
+}
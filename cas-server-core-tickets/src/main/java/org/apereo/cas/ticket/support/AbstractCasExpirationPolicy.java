@@ -6,6 +6,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 
 /**
  * This is an {@link AbstractCasExpirationPolicy}
@@ -18,6 +21,11 @@ import javax.servlet.http.HttpServletRequest;
  */
 public abstract class AbstractCasExpirationPolicy implements ExpirationPolicy {
 
+    /**
+     * Expiration time of tickets that do not expire with time.
+     */
+    protected static final ZonedDateTime NEVER = ZonedDateTime.ofInstant(Instant.ofEpochMilli(Long.MAX_VALUE), ZoneOffset.UTC);
+
     private static final long serialVersionUID = 8042104336580063690L;
 
     /**
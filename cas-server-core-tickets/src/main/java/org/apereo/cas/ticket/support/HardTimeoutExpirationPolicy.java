@@ -61,6 +61,14 @@ public class HardTimeoutExpirationPolicy extends AbstractCasExpirationPolicy {
           .plus(this.timeToKillInMilliSeconds, ChronoUnit.MILLIS).isBefore(ZonedDateTime.now(ZoneOffset.UTC));
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        if (ticketState == null) {
+            return ZonedDateTime.now(ZoneOffset.UTC);
+        }
+        return ticketState.getCreationTime().plus(this.timeToKillInMilliSeconds, ChronoUnit.MILLIS);
+    }
+
     @Override
     public Long getTimeToLive() {
         return this.timeToKillInMilliSeconds;
@@ -91,6 +91,17 @@ public class MultiTimeUseOrTimeoutExpirationPolicy extends AbstractCasExpiration
         return false;
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        if (ticketState == null) {
+            return ZonedDateTime.now(ZoneOffset.UTC);
+        }
+        if (ticketState.getCountOfUses() >= this.numberOfUses) {
+            return ticketState.getLastTimeUsed();
+        }
+        return ticketState.getLastTimeUsed().plus(this.timeToKillInMilliSeconds, ChronoUnit.MILLIS);
+    }
+
     @Override
     public Long getTimeToLive() {
         return this.timeToKillInMilliSeconds;
@@ -2,6 +2,8 @@ package org.apereo.cas.ticket.support;
 
 import org.apereo.cas.ticket.TicketState;
 
+import java.time.ZonedDateTime;
+
 /**
  * NeverExpiresExpirationPolicy always answers false when asked if a Ticket is
  * expired. Use this policy when you want a Ticket to live forever, or at least
@@ -25,6 +27,11 @@ public class NeverExpiresExpirationPolicy extends AbstractCasExpirationPolicy {
         return false;
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return NEVER;
+    }
+
     @Override
     public Long getTimeToLive() {
         return new Long(Integer.MAX_VALUE);
@@ -73,6 +73,17 @@ public class ThrottledUseAndTimeoutExpirationPolicy extends AbstractCasExpiratio
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A ticket used again before the time in between uses has passed is considered expired
+     * only until that time has passed, so it is not given an earlier expiration time for it.
+     */
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return ticketState.getLastTimeUsed().plus(this.timeToKillInMilliSeconds, ChronoUnit.MILLIS);
+    }
+
     @Override
     public Long getTimeToLive() {
         return this.timeToKillInMilliSeconds;
@@ -82,6 +82,15 @@ public class TicketGrantingTicketExpirationPolicy extends AbstractCasExpirationP
         return false;
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        final ZonedDateTime creationTime = ticketState.getCreationTime();
+        if (ticketState.getLastTimeUsed().isAfter(creationTime.plus(this.timeToKillInMilliSeconds, ChronoUnit.MILLIS))) {
+            return ticketState.getLastTimeUsed();
+        }
+        return creationTime.plus(this.maxTimeToLiveInMilliSeconds, ChronoUnit.MILLIS);
+    }
+
     @Override
     public Long getTimeToLive() {
         return this.maxTimeToLiveInMilliSeconds;
@@ -57,6 +57,16 @@ public class TimeoutExpirationPolicy extends AbstractCasExpirationPolicy {
         return ticketState == null || now.isAfter(expirationTime);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Consistent with {@link #isExpired(TicketState)}, only a missing ticket state is expired.
+     */
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return ticketState == null ? ZonedDateTime.now(ZoneOffset.UTC) : NEVER;
+    }
+
     @Override
     public Long getTimeToLive() {
         return new Long(Integer.MAX_VALUE);
@@ -12,6 +12,11 @@ import org.slf4j.LoggerFactory;
  * <p>
  * Tickets are of the form [PREFIX]-[SEQUENCE NUMBER]-[RANDOM STRING]-[SUFFIX]
  * </p>
+ * <p>
+ * Ids are assembled in a per-thread character buffer. When the default numeric and
+ * random string generators are used, the sequence number and random string are written
+ * into the buffer directly, so that the id string is the only object allocated.
+ * </p>
  *
  * @author Scott Battaglia
  * @since 3.0.0
@@ -25,6 +30,23 @@ public class DefaultUniqueTicketIdGenerator implements UniqueTicketIdGenerator {
     protected final transient Logger logger = LoggerFactory.getLogger(this.getClass());
 
 
+    /**
+     * Initial size of the per-thread buffers ids are assembled in.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 128;
+
+    /**
+     * Maximum number of characters of a sequence number.
+     */
+    private static final int MAX_NUMBER_LENGTH = 20;
+
+    private static final int RADIX = 10;
+
+    /**
+     * Per-thread buffers ids are assembled in.
+     */
+    private final ThreadLocal<char[]> buffers = ThreadLocal.withInitial(() -> new char[INITIAL_BUFFER_SIZE]);
+
     /**
      * The numeric generator to generate the static part of the id.
      */
@@ -96,22 +118,59 @@ public class DefaultUniqueTicketIdGenerator implements UniqueTicketIdGenerator {
 
     @Override
     public String getNewTicketId(final String prefix) {
-        final String number = this.numericGenerator.getNextNumberAsString();
-        final StringBuilder buffer = new StringBuilder(prefix.length() + 2
-                + (StringUtils.isNotBlank(this.suffix) ? this.suffix.length() : 0) + this.randomStringGenerator.getMaxLength()
-                + number.length());
-
-        buffer.append(prefix);
-        buffer.append('-');
-        buffer.append(number);
-        buffer.append('-');
-        buffer.append(this.randomStringGenerator.getNewString());
+        final boolean directNumber = this.numericGenerator instanceof LongNumericGenerator;
+        final boolean directRandom = this.randomStringGenerator instanceof DefaultRandomStringGenerator;
+        final String number = directNumber ? null : this.numericGenerator.getNextNumberAsString();
+        final String random = directRandom ? null : this.randomStringGenerator.getNewString();
+
+        final int length = prefix.length() + 2
+                + (directNumber ? MAX_NUMBER_LENGTH : number.length())
+                + (directRandom ? this.randomStringGenerator.getMaxLength() : random.length())
+                + (this.suffix != null ? this.suffix.length() : 0);
+        char[] buffer = this.buffers.get();
+        if (buffer.length < length) {
+            buffer = new char[length];
+            this.buffers.set(buffer);
+        }
 
+        int pos = append(prefix, buffer, 0);
+        buffer[pos++] = '-';
+        if (directNumber) {
+            pos = append(((LongNumericGenerator) this.numericGenerator).getNextLong(), buffer, pos);
+        } else {
+            pos = append(number, buffer, pos);
+        }
+        buffer[pos++] = '-';
+        if (directRandom) {
+            pos = ((DefaultRandomStringGenerator) this.randomStringGenerator).writeNewString(buffer, pos);
+        } else {
+            pos = append(random, buffer, pos);
+        }
         if (this.suffix != null) {
-            buffer.append(this.suffix);
+            pos = append(this.suffix, buffer, pos);
         }
+        return new String(buffer, 0, pos);
+    }
 
-        return buffer.toString();
+    private static int append(final String value, final char[] buffer, final int pos) {
+        value.getChars(0, value.length(), buffer, pos);
+        return pos + value.length();
+    }
+
+    private static int append(final long value, final char[] buffer, final int pos) {
+        if (value < 0) {
+            return append(Long.toString(value), buffer, pos);
+        }
+        int digits = 1;
+        for (long v = value; v >= RADIX; v /= RADIX) {
+            digits++;
+        }
+        long remaining = value;
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + remaining % RADIX);
+            remaining /= RADIX;
+        }
+        return pos + digits;
     }
 
     public void setSuffix(final String suffix) {
@@ -5,6 +5,7 @@ import org.apereo.cas.authentication.TestUtils;
 import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.mock.MockService;
 import org.apereo.cas.util.DefaultUniqueTicketIdGenerator;
+import org.apereo.cas.util.SerializationUtils;
 import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
 
 import org.junit.Assert;
@@ -15,6 +16,9 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 
@@ -301,4 +305,53 @@ public class TicketGrantingTicketImplTests {
 
         assertEquals(2, t.getServices().size());
     }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void verifyServicesAreReadOnly() {
+        final TicketGrantingTicket t = new TicketGrantingTicketImpl("test", null, null,
+                TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        t.getServices().put("ST-1", org.apereo.cas.services.TestUtils.getService());
+    }
+
+    @Test
+    public void verifyMostRecentSessionIsTrackedAfterDeserialization() {
+        final TicketGrantingTicket t = new TicketGrantingTicketImpl("test", null, null,
+                TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        t.grantServiceTicket("ST-1", org.apereo.cas.services.TestUtils.getService("http://host.com/webapp1"),
+                new NeverExpiresExpirationPolicy(), null, true);
+
+        final TicketGrantingTicket copy = SerializationUtils.deserialize(SerializationUtils.serialize(t));
+        copy.grantServiceTicket("ST-2", org.apereo.cas.services.TestUtils.getService("http://host.com/webapp1?test=true"),
+                new NeverExpiresExpirationPolicy(), null, true);
+
+        assertEquals(1, copy.getServices().size());
+        assertTrue(copy.getServices().containsKey("ST-2"));
+    }
+
+    @Test
+    public void verifyConcurrentGrantsKeepMostRecentSessionPerService() throws Exception {
+        final TicketGrantingTicket t = new TicketGrantingTicketImpl("test", null, null,
+                TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        final int services = 20;
+        final int grantsPerService = 50;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < services * grantsPerService; i++) {
+                final String serviceId = "http://host.com/webapp" + (i % services) + "?attempt=" + i;
+                futures.add(executor.submit(() -> t.grantServiceTicket(
+                        this.uniqueTicketIdGenerator.getNewTicketId(ServiceTicket.PREFIX),
+                        org.apereo.cas.services.TestUtils.getService(serviceId),
+                        new NeverExpiresExpirationPolicy(), null, true)));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(services, t.getServices().size());
+    }
 }
@@ -12,6 +12,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 import static org.junit.Assert.*;
@@ -239,4 +240,58 @@ public abstract class AbstractTicketRegistryTests {
         }
     }
 
+    @Test
+    public void verifyDeleteTicketsWithChildren() {
+        final Service service = org.apereo.cas.services.TestUtils.getService("TGT_DELETE_TEST");
+
+        final TicketGrantingTicket tgt1 = new TicketGrantingTicketImpl(
+                "TGT1", TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        final TicketGrantingTicket tgt2 = new TicketGrantingTicketImpl(
+                "TGT2", TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(tgt1);
+        this.ticketRegistry.addTicket(tgt2);
+
+        final ServiceTicket st1 = tgt1.grantServiceTicket("ST1", service, new NeverExpiresExpirationPolicy(), null, false);
+        final ServiceTicket st2 = tgt1.grantServiceTicket("ST2", service, new NeverExpiresExpirationPolicy(), null, false);
+        final ServiceTicket st3 = tgt2.grantServiceTicket("ST3", service, new NeverExpiresExpirationPolicy(), null, false);
+        this.ticketRegistry.addTicket(st1);
+        this.ticketRegistry.addTicket(st2);
+        this.ticketRegistry.addTicket(st3);
+        this.ticketRegistry.updateTicket(tgt1);
+        this.ticketRegistry.updateTicket(tgt2);
+
+        assertEquals(4, this.ticketRegistry.deleteTickets(Arrays.asList("TGT1", "ST3", "UNKNOWN")));
+
+        assertNull(this.ticketRegistry.getTicket("TGT1", TicketGrantingTicket.class));
+        assertNull(this.ticketRegistry.getTicket("ST1", ServiceTicket.class));
+        assertNull(this.ticketRegistry.getTicket("ST2", ServiceTicket.class));
+        assertNull(this.ticketRegistry.getTicket("ST3", ServiceTicket.class));
+        assertNotNull(this.ticketRegistry.getTicket("TGT2", TicketGrantingTicket.class));
+    }
+
+    @Test
+    public void verifyDeleteTicketInstancesWithChildren() {
+        final Service service = org.apereo.cas.services.TestUtils.getService("TGT_DELETE_TEST");
+
+        final TicketGrantingTicket tgt1 = new TicketGrantingTicketImpl(
+                "TGT1", TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        final TicketGrantingTicket tgt2 = new TicketGrantingTicketImpl(
+                "TGT2", TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.ticketRegistry.addTicket(tgt1);
+        this.ticketRegistry.addTicket(tgt2);
+
+        final ServiceTicket st1 = tgt1.grantServiceTicket("ST1", service, new NeverExpiresExpirationPolicy(), null, false);
+        final ServiceTicket st2 = tgt2.grantServiceTicket("ST2", service, new NeverExpiresExpirationPolicy(), null, false);
+        this.ticketRegistry.addTicket(st1);
+        this.ticketRegistry.addTicket(st2);
+        this.ticketRegistry.updateTicket(tgt1);
+        this.ticketRegistry.updateTicket(tgt2);
+
+        assertEquals(3, this.ticketRegistry.deleteTickets(Arrays.<Ticket>asList(tgt1, st2)));
+
+        assertNull(this.ticketRegistry.getTicket("TGT1", TicketGrantingTicket.class));
+        assertNull(this.ticketRegistry.getTicket("ST1", ServiceTicket.class));
+        assertNull(this.ticketRegistry.getTicket("ST2", ServiceTicket.class));
+        assertNotNull(this.ticketRegistry.getTicket("TGT2", TicketGrantingTicket.class));
+    }
 }
@@ -0,0 +1,119 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.TestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compatibility tests that every {@link TicketSerializer} must pass.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public abstract class AbstractTicketSerializerTests {
+
+    private static final int SERVICES = 12;
+
+    private final TicketSerializer serializer = getTicketSerializer();
+
+    /**
+     * Abstract method to retrieve the serializer under test.
+     *
+     * @return the ticket serializer
+     */
+    public abstract TicketSerializer getTicketSerializer();
+
+    @Test
+    public void verifyTicketGrantingTicketRoundTrip() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+
+        final TicketGrantingTicket result = this.serializer.deserialize(this.serializer.serialize(tgt),
+                TicketGrantingTicket.class);
+        assertEquals(tgt, result);
+        assertEquals(tgt.getCreationTime(), result.getCreationTime());
+        assertEquals(tgt.getAuthentication().getPrincipal(), result.getAuthentication().getPrincipal());
+        assertEquals(tgt.getAuthentication().getPrincipal().getAttributes(),
+                result.getAuthentication().getPrincipal().getAttributes());
+        assertEquals(tgt.getAuthentication().getAttributes(), result.getAuthentication().getAttributes());
+        assertEquals(tgt.getServices(), result.getServices());
+    }
+
+    @Test
+    public void verifyServiceTicketRoundTrip() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1",
+                org.apereo.cas.services.TestUtils.getService(), new NeverExpiresExpirationPolicy(), null, true);
+
+        final ServiceTicket result = this.serializer.deserialize(this.serializer.serialize(st), ServiceTicket.class);
+        assertEquals(st, result);
+        assertEquals(st.getService(), result.getService());
+        assertEquals(tgt, result.getGrantingTicket());
+        assertEquals(tgt.getServices().size(), result.getGrantingTicket().getServices().size());
+    }
+
+    @Test
+    public void verifyValuesRoundTrip() {
+        final ZonedDateTime time = ZonedDateTime.now();
+        assertEquals(time.toInstant(), this.serializer.deserialize(this.serializer.serialize(time),
+                ZonedDateTime.class).toInstant());
+        assertNull(this.serializer.deserialize(this.serializer.serialize(null), Object.class));
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void verifyTypeIsChecked() {
+        this.serializer.deserialize(this.serializer.serialize(newTicketGrantingTicket()), ServiceTicket.class);
+    }
+
+    @Test
+    public void verifyBytesAreReadableOnAnotherThread() throws Exception {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        final byte[] bytes = this.serializer.serialize(tgt);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final TicketGrantingTicket result = executor.submit(
+                    () -> this.serializer.deserialize(bytes, TicketGrantingTicket.class)).get();
+            assertEquals(tgt, result);
+            assertEquals(tgt.getServices(), result.getServices());
+            assertArrayEquals(bytes, executor.submit(() -> this.serializer.serialize(tgt)).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Build a ticket-granting ticket with principal and authentication attributes,
+     * that was used to access a number of services.
+     *
+     * @return the ticket
+     */
+    protected static TicketGrantingTicket newTicketGrantingTicket() {
+        final Map<String, Object> principalAttributes = new HashMap<>();
+        principalAttributes.put("nickname", "bob");
+        principalAttributes.put("mail", "bob@example.org");
+        final Map<String, Object> authenticationAttributes = new HashMap<>();
+        authenticationAttributes.put("authenticationMethod", "testHandler");
+        final Authentication authentication = TestUtils.getAuthentication(
+                TestUtils.getPrincipal("bob", principalAttributes), authenticationAttributes);
+
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1", authentication,
+                new NeverExpiresExpirationPolicy());
+        for (int i = 0; i < SERVICES; i++) {
+            tgt.grantServiceTicket("ST-" + i, org.apereo.cas.services.TestUtils.getService("https://app" + i + ".example.org"),
+                    new NeverExpiresExpirationPolicy(), null, false);
+        }
+        return tgt;
+    }
+}
@@ -1,7 +1,29 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apache.commons.lang3.SerializationUtils;
+import org.apereo.cas.authentication.TestUtils;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.ticket.AbstractTicket;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.ServiceTicketImpl;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyTicket;
+import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
+import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.support.RememberMeDelegatingExpirationPolicy;
 import org.junit.Test;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import static org.junit.Assert.*;
 
 /**
@@ -22,4 +44,142 @@ public class DefaultTicketRegistryTests extends AbstractTicketRegistryTests {
     public void verifyOtherConstructor() {
         assertNotNull(new DefaultTicketRegistry(10, 10F, 5));
     }
+
+    @Test
+    public void verifyOnlyExpiredTicketsAreDue() {
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry();
+        registry.addTicket(new TicketGrantingTicketImpl("TGT-EXPIRED",
+                TestUtils.getAuthentication(), new AlwaysExpiresExpirationPolicy()));
+        registry.addTicket(new TicketGrantingTicketImpl("TGT-ALIVE",
+                TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy()));
+
+        assertTrue(registry.isExpirationIndexed());
+        final Collection<Ticket> expired = registry.getExpiredTickets(10);
+        assertEquals(1, expired.size());
+        assertEquals("TGT-EXPIRED", expired.iterator().next().getId());
+
+        registry.deleteTicket("TGT-EXPIRED");
+        assertTrue(registry.getExpiredTickets(10).isEmpty());
+        assertEquals(1, registry.getTickets().size());
+    }
+
+    @Test
+    public void verifyDeadlineOfTicketWithoutRememberMe() {
+        final RememberMeDelegatingExpirationPolicy policy = new RememberMeDelegatingExpirationPolicy();
+        policy.setSessionExpirationPolicy(new HardTimeoutExpirationPolicy(1, TimeUnit.HOURS));
+        policy.setRememberMeExpirationPolicy(new HardTimeoutExpirationPolicy(30, TimeUnit.DAYS));
+        final TicketGrantingTicketImpl ticket = new TicketGrantingTicketImpl("TGT-SESSION", TestUtils.getAuthentication(), policy);
+
+        final long created = ticket.getCreationTime().toInstant().toEpochMilli();
+        assertEquals(created + TimeUnit.HOURS.toMillis(1), TicketExpirationIndex.getExpirationDeadline(ticket, created));
+    }
+
+    @Test
+    public void verifyDeadlineOfExpiredTicket() {
+        final TicketGrantingTicketImpl ticket = new TicketGrantingTicketImpl("TGT-EXPIRED",
+                TestUtils.getAuthentication(), new AlwaysExpiresExpirationPolicy());
+        assertEquals(1000L, TicketExpirationIndex.getExpirationDeadline(ticket, 1000L));
+    }
+
+    @Test
+    public void verifyStreamFiltersByTypeAndPredicate() {
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry();
+        final TicketGrantingTicket expired = new TicketGrantingTicketImpl("TGT-EXPIRED",
+                TestUtils.getAuthentication(), new AlwaysExpiresExpirationPolicy());
+        final TicketGrantingTicket alive = new TicketGrantingTicketImpl("TGT-ALIVE",
+                TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        final ServiceTicket st = alive.grantServiceTicket("ST-1",
+                org.apereo.cas.services.TestUtils.getService(), new NeverExpiresExpirationPolicy(), null, true);
+        registry.addTicket(expired);
+        registry.addTicket(alive);
+        registry.addTicket(st);
+
+        try (Stream<Ticket> tickets = registry.stream(TicketQuery.all().withPageSize(1))) {
+            assertEquals(3, tickets.count());
+        }
+        try (Stream<Ticket> tickets = registry.stream(TicketQuery.ofType(ServiceTicket.class))) {
+            assertEquals(Collections.singleton("ST-1"), tickets.map(Ticket::getId).collect(Collectors.toSet()));
+        }
+        try (Stream<Ticket> tickets = registry.stream(
+                TicketQuery.ofType(TicketGrantingTicket.class).withPredicate(t -> !t.isExpired()))) {
+            final Set<String> ids = tickets.map(Ticket::getId).collect(Collectors.toSet());
+            assertEquals(Collections.singleton("TGT-ALIVE"), ids);
+        }
+    }
+
+    @Test
+    public void verifyTicketsIssuedFromCurrentProxyGrantingTicketsAreDeleted() throws Exception {
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry();
+        final Service service = org.apereo.cas.services.TestUtils.getService();
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-PARENT",
+                TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        registry.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-PARENT", service, new NeverExpiresExpirationPolicy(), null, false);
+        registry.addTicket(st);
+        final ProxyGrantingTicket pgt = st.grantProxyGrantingTicket("PGT-1", TestUtils.getAuthentication(),
+                new NeverExpiresExpirationPolicy());
+        registry.addTicket(pgt);
+        registry.updateTicket(tgt);
+
+        // as in distributed registries, the ticket-granting ticket holds a copy of the proxy-granting ticket
+        // that predates the proxy ticket issued from the stored one
+        final ProxyGrantingTicket current = SerializationUtils.clone(pgt);
+        final ProxyTicket pt = current.grantProxyTicket("PT-LATER", service, new NeverExpiresExpirationPolicy(), false);
+        registry.addTicket(pt);
+        registry.updateTicket(current);
+
+        assertTrue(registry.deleteTicket(tgt.getId()));
+        assertNull(registry.getTicket("PT-LATER"));
+        assertNull(registry.getTicket("PGT-1"));
+        assertNull(registry.getTicket("ST-PARENT"));
+    }
+
+    @Test
+    public void verifyQueryTypeSkipsUnrelatedTicketClasses() {
+        final TicketQuery query = TicketQuery.ofType(TicketGrantingTicket.class);
+        assertTrue(query.mayMatch(TicketGrantingTicketImpl.class));
+        assertFalse(query.mayMatch(ServiceTicketImpl.class));
+        assertTrue(TicketQuery.all().mayMatch(ServiceTicketImpl.class));
+        assertTrue(TicketQuery.ofType(TicketGrantingTicketImpl.class).mayMatch(AbstractTicket.class));
+    }
+
+    @Test
+    public void verifyCountsFollowAddUpdateAndDelete() {
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry();
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1",
+                TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        registry.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1",
+                org.apereo.cas.services.TestUtils.getService(), new NeverExpiresExpirationPolicy(), null, true);
+        registry.addTicket(st);
+        registry.updateTicket(tgt);
+        assertEquals(1, registry.sessionCount());
+        assertEquals(1, registry.serviceTicketCount());
+
+        registry.deleteTicket(tgt.getId());
+        assertEquals(0, registry.sessionCount());
+        assertEquals(0, registry.serviceTicketCount());
+        assertFalse(registry.deleteSingleTicket(tgt.getId()));
+        assertEquals(0, registry.sessionCount());
+    }
+
+    @Test
+    public void verifyTicketGrantingTicketsAreFoundByPrincipal() {
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry();
+        registry.addTicket(new TicketGrantingTicketImpl("TGT-1",
+                TestUtils.getAuthentication("alice"), new NeverExpiresExpirationPolicy()));
+        registry.addTicket(new TicketGrantingTicketImpl("TGT-2",
+                TestUtils.getAuthentication("alice"), new NeverExpiresExpirationPolicy()));
+        registry.addTicket(new TicketGrantingTicketImpl("TGT-3",
+                TestUtils.getAuthentication("bob"), new NeverExpiresExpirationPolicy()));
+
+        assertEquals(2, registry.getTicketGrantingTickets("alice").size());
+        assertEquals(1, registry.getTicketGrantingTickets("bob").size());
+        assertTrue(registry.getTicketGrantingTickets("eve").isEmpty());
+
+        registry.deleteTicket("TGT-1");
+        final Collection<TicketGrantingTicket> tickets = registry.getTicketGrantingTickets("alice");
+        assertEquals(1, tickets.size());
+        assertEquals("TGT-2", tickets.iterator().next().getId());
+    }
 }
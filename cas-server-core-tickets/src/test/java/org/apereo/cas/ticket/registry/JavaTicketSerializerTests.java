@@ -0,0 +1,15 @@
+package org.apereo.cas.ticket.registry;
+
+/**
+ * Test cases for {@link JavaTicketSerializer}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class JavaTicketSerializerTests extends AbstractTicketSerializerTests {
+
+    @Override
+    public TicketSerializer getTicketSerializer() {
+        return new JavaTicketSerializer();
+    }
+}
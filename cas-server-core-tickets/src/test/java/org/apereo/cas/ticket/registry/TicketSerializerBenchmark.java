@@ -0,0 +1,109 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.TestUtils;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.registry.support.kryo.KryoTicketSerializer;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the round trip cost of the {@link TicketSerializer} implementations
+ * for a ticket-granting ticket carrying attributes and a dozen services.
+ * Run with {@code main} from the test classpath.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class TicketSerializerBenchmark {
+
+    private static final int SERVICES = 12;
+
+    private static final int ATTRIBUTES = 10;
+
+    @Param({"JAVA", "KRYO"})
+    private String serializerType;
+
+    private TicketSerializer serializer;
+
+    private TicketGrantingTicket ticket;
+
+    private byte[] serialized;
+
+    /**
+     * Build the serializer and the ticket.
+     */
+    @Setup
+    public void setup() {
+        this.serializer = "KRYO".equals(this.serializerType) ? new KryoTicketSerializer() : new JavaTicketSerializer();
+
+        final Map<String, Object> attributes = new HashMap<>();
+        for (int i = 0; i < ATTRIBUTES; i++) {
+            attributes.put("attribute" + i, "value" + i);
+        }
+        this.ticket = new TicketGrantingTicketImpl("TGT-1",
+                TestUtils.getAuthentication(TestUtils.getPrincipal("casuser", attributes)),
+                new NeverExpiresExpirationPolicy());
+        for (int i = 0; i < SERVICES; i++) {
+            this.ticket.grantServiceTicket("ST-" + i,
+                    org.apereo.cas.services.TestUtils.getService("https://app" + i + ".example.org"),
+                    new NeverExpiresExpirationPolicy(), null, false);
+        }
+        this.serialized = this.serializer.serialize(this.ticket);
+    }
+
+    /**
+     * Serialize the ticket.
+     *
+     * @return the bytes
+     */
+    @Benchmark
+    public byte[] serialize() {
+        return this.serializer.serialize(this.ticket);
+    }
+
+    /**
+     * Deserialize the ticket.
+     *
+     * @return the ticket
+     */
+    @Benchmark
+    public TicketGrantingTicket deserialize() {
+        return this.serializer.deserialize(this.serialized, TicketGrantingTicket.class);
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args the arguments
+     * @throws RunnerException the runner exception
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TicketSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
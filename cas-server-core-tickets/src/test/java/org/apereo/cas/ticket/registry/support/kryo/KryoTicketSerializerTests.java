@@ -0,0 +1,29 @@
+package org.apereo.cas.ticket.registry.support.kryo;
+
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.registry.AbstractTicketSerializerTests;
+import org.apereo.cas.ticket.registry.JavaTicketSerializer;
+import org.apereo.cas.ticket.registry.TicketSerializer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link KryoTicketSerializer}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class KryoTicketSerializerTests extends AbstractTicketSerializerTests {
+
+    @Override
+    public TicketSerializer getTicketSerializer() {
+        return new KryoTicketSerializer();
+    }
+
+    @Test
+    public void verifyOutputIsSmallerThanJavaSerialization() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        assertTrue(new KryoTicketSerializer().serialize(tgt).length < new JavaTicketSerializer().serialize(tgt).length);
+    }
+}
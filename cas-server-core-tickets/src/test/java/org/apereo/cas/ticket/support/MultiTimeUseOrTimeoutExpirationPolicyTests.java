@@ -7,6 +7,7 @@ import org.apereo.cas.ticket.TicketGrantingTicketImpl;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.temporal.ChronoUnit;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
@@ -61,4 +62,14 @@ public class MultiTimeUseOrTimeoutExpirationPolicyTests {
                         new NeverExpiresExpirationPolicy(), null, true));
         assertTrue(this.ticket.isExpired());
     }
+
+    @Test
+    public void verifyExpirationTime() {
+        assertEquals(this.ticket.getLastTimeUsed().plus(TIMEOUT_MILLISECONDS, ChronoUnit.MILLIS),
+                this.expirationPolicy.getExpirationTime(this.ticket));
+        IntStream.range(0, NUMBER_OF_USES)
+                .forEach(i -> this.ticket.grantServiceTicket("test", org.apereo.cas.services.TestUtils.getService(),
+                        new NeverExpiresExpirationPolicy(), null, true));
+        assertEquals(this.ticket.getLastTimeUsed(), this.expirationPolicy.getExpirationTime(this.ticket));
+    }
 }
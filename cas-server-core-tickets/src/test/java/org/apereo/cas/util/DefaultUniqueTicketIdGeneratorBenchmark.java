@@ -0,0 +1,126 @@
+package org.apereo.cas.util;
+
+import org.apereo.cas.ticket.UniqueTicketIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * JMH benchmark comparing {@link DefaultUniqueTicketIdGenerator} with the implementation
+ * it replaced, which shared a single {@link SecureRandom} between all threads and assembled
+ * ids from intermediate strings. Run with {@code main} from the test classpath.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(8)
+public class DefaultUniqueTicketIdGeneratorBenchmark {
+
+    private static final int RANDOM_LENGTH = 35;
+
+    private static final String SUFFIX = "node1";
+
+    private final UniqueTicketIdGenerator generator = new DefaultUniqueTicketIdGenerator(RANDOM_LENGTH, SUFFIX);
+
+    private final UniqueTicketIdGenerator previousGenerator = new PreviousUniqueTicketIdGenerator(RANDOM_LENGTH, SUFFIX);
+
+    /**
+     * Generate an id with the current generator.
+     *
+     * @return the id
+     */
+    @Benchmark
+    public String generateTicketId() {
+        return this.generator.getNewTicketId("ST");
+    }
+
+    /**
+     * Generate an id with the previous generator.
+     *
+     * @return the id
+     */
+    @Benchmark
+    public String generateTicketIdWithPreviousImplementation() {
+        return this.previousGenerator.getNewTicketId("ST");
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args the arguments
+     * @throws RunnerException the runner exception
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DefaultUniqueTicketIdGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * The id generator as it was implemented before ids were assembled in per-thread buffers.
+     */
+    private static class PreviousUniqueTicketIdGenerator implements UniqueTicketIdGenerator {
+        private static final char[] PRINTABLE_CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ012345679"
+                .toCharArray();
+
+        private static final int SEPARATOR_COUNT = 2;
+
+        private final SecureRandom randomizer = new SecureRandom();
+
+        private final AtomicLong count = new AtomicLong(1);
+
+        private final int randomLength;
+
+        private final String suffix;
+
+        PreviousUniqueTicketIdGenerator(final int randomLength, final String suffix) {
+            this.randomLength = randomLength;
+            this.suffix = '-' + suffix;
+        }
+
+        @Override
+        public String getNewTicketId(final String prefix) {
+            final String number = Long.toString(this.count.getAndIncrement());
+            final StringBuilder buffer = new StringBuilder(prefix.length() + SEPARATOR_COUNT + this.suffix.length()
+                    + this.randomLength + number.length());
+            buffer.append(prefix);
+            buffer.append('-');
+            buffer.append(number);
+            buffer.append('-');
+            buffer.append(getNewString());
+            buffer.append(this.suffix);
+            return buffer.toString();
+        }
+
+        private String getNewString() {
+            final byte[] random = new byte[this.randomLength];
+            this.randomizer.nextBytes(random);
+
+            final char[] output = new char[random.length];
+            IntStream.range(0, random.length).forEach(i -> {
+                final int index = Math.abs(random[i] % PRINTABLE_CHARACTERS.length);
+                output[i] = PRINTABLE_CHARACTERS[index];
+            });
+            return new String(output);
+        }
+    }
+}
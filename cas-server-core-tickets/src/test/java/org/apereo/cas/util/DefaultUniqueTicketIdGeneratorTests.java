@@ -27,4 +27,21 @@ public class DefaultUniqueTicketIdGeneratorTests {
 
         assertTrue(generator.getNewTicketId("test").endsWith(suffix));
     }
+
+    @Test
+    public void verifyFormat() {
+        final DefaultUniqueTicketIdGenerator generator = new DefaultUniqueTicketIdGenerator(10, "suffix");
+
+        assertTrue(generator.getNewTicketId("ST").matches("ST-1-[a-zA-Z0-9]{10}-suffix"));
+        assertTrue(generator.getNewTicketId("TGT").matches("TGT-2-[a-zA-Z0-9]{10}-suffix"));
+    }
+
+    @Test
+    public void verifyFormatWithCustomGenerators() {
+        final DefaultUniqueTicketIdGenerator generator = new DefaultUniqueTicketIdGenerator(
+                new DefaultLongNumericGenerator(Long.MAX_VALUE), new DefaultRandomStringGenerator(200), null);
+
+        assertTrue(generator.getNewTicketId("PT").matches("PT-" + Long.MAX_VALUE + "-[a-zA-Z0-9]{200}"));
+        assertTrue(generator.getNewTicketId("PT").matches("PT-0-[a-zA-Z0-9]{200}"));
+    }
 }
@@ -45,12 +45,15 @@ public class CasCoreUtilConfiguration {
     public CipherExecutor defaultTicketCipherExecutor() {
         if (StringUtils.isNotBlank(casProperties.getTicket().getRegistry().getEncryption().getKey())
                 && StringUtils.isNotBlank(casProperties.getTicket().getRegistry().getEncryption().getKey())) {
-            return new DefaultTicketCipherExecutor(
+            final DefaultTicketCipherExecutor cipher = new DefaultTicketCipherExecutor(
                     casProperties.getTicket().getRegistry().getEncryption().getKey(),
                     casProperties.getTicket().getRegistry().getSigning().getKey(),
                     casProperties.getTicket().getRegistry().getAlg(),
                     casProperties.getTicket().getRegistry().getSigning().getKeySize(),
                     casProperties.getTicket().getRegistry().getEncryption().getKeySize());
+            cipher.setAuthenticatedEncryption(casProperties.getTicket().getRegistry().getEncryption().isAuthenticated());
+            cipher.setCompress(casProperties.getTicket().getRegistry().getEncryption().isCompress());
+            return cipher;
         }
         LOGGER.info("Ticket registry encryption/signing is turned off. This may NOT be safe in a "
                 + "clustered production environment. "
@@ -61,12 +64,15 @@ public class CasCoreUtilConfiguration {
 
     @Bean
     public CipherExecutor<byte[], byte[]> webflowCipherExecutor() {
-        return new WebflowConversationStateCipherExecutor(
+        final WebflowConversationStateCipherExecutor cipher = new WebflowConversationStateCipherExecutor(
                 casProperties.getWebflow().getEncryption().getKey(),
                 casProperties.getWebflow().getSigning().getKey(),
                 casProperties.getWebflow().getAlg(),
                 casProperties.getWebflow().getSigning().getKeySize(),
                 casProperties.getWebflow().getEncryption().getKeySize());
+        cipher.setAuthenticatedEncryption(casProperties.getWebflow().getEncryption().isAuthenticated());
+        cipher.setCompress(casProperties.getWebflow().getEncryption().isCompress());
+        return cipher;
     }
 
     @Bean
@@ -1,6 +1,8 @@
 package org.apereo.cas.util;
 
 import com.google.common.base.Throwables;
+import com.google.common.hash.Hashing;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.shiro.crypto.AesCipherService;
@@ -11,19 +13,63 @@ import org.jose4j.jwk.OctetSequenceJsonWebKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * A implementation that is based on algorithms
  * provided by the default platform's JCE. By default AES encryption is
  * used.
+ * <p>
+ * By default values are encrypted with AES, and the result is encoded in base64 and signed as a JWS.
+ * Alternatively, values may be encrypted in a single pass with AES-GCM, which authenticates them as well,
+ * and written as a short header followed by the initialization vector and the cipher text.
+ * The header identifies the format, its version, whether the value was compressed before encryption,
+ * and the key it was encrypted with. Values in either format can always be decoded, so that the format
+ * may be switched while values encoded the other way are still around.
  * @author Misagh Moayyed
  * @since 4.2
  */
 public class BinaryCipherExecutor extends AbstractCipherExecutor<byte[], byte[]> {
     private static final String UTF8_ENCODING = "UTF-8";
+
+    /** First byte of values in the authenticated format; values signed as a JWS are ASCII. */
+    private static final byte AEAD_FORMAT_MARKER = (byte) 0xCA;
+
+    private static final byte AEAD_FORMAT_VERSION = 1;
+
+    private static final byte AEAD_FLAG_COMPRESSED = 1;
+
+    private static final int AEAD_FLAGS_OFFSET = 2;
+
+    private static final int AEAD_KEY_ID_OFFSET = 3;
+
+    private static final int AEAD_KEY_ID_LENGTH = 4;
+
+    private static final int AEAD_HEADER_LENGTH = AEAD_KEY_ID_OFFSET + AEAD_KEY_ID_LENGTH;
+
+    private static final int AEAD_IV_LENGTH = 12;
+
+    private static final int AEAD_TAG_LENGTH = 128;
+
+    private static final String AEAD_TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final byte[] AEAD_KEY_LABEL = "cas-aead-v1".getBytes(StandardCharsets.UTF_8);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
     
     protected transient Logger logger = LoggerFactory.getLogger(this.getClass());
         
@@ -32,6 +78,13 @@ public class BinaryCipherExecutor extends AbstractCipherExecutor<byte[], byte[]>
 
     private String encryptionSecretKey;
 
+    private boolean authenticatedEncryption;
+
+    private boolean compress;
+
+    private volatile AeadKey aeadKey;
+
+    private final ThreadLocal<Cipher> aeadCiphers = new ThreadLocal<>();
 
     /**
      * Instantiates a new cryptic ticket cipher executor.
@@ -70,8 +123,29 @@ public class BinaryCipherExecutor extends AbstractCipherExecutor<byte[], byte[]>
         this.secretKeyAlgorithm = secretKeyAlgorithm;
     }
 
+    /**
+     * Encode values in the authenticated format, with AES-GCM, instead of signing them as a JWS.
+     *
+     * @param authenticatedEncryption whether to use the authenticated format
+     */
+    public void setAuthenticatedEncryption(final boolean authenticatedEncryption) {
+        this.authenticatedEncryption = authenticatedEncryption;
+    }
+
+    /**
+     * Compress values before encrypting them in the authenticated format.
+     *
+     * @param compress whether to compress values
+     */
+    public void setCompress(final boolean compress) {
+        this.compress = compress;
+    }
+
     @Override
     public byte[] encode(final byte[] value) {
+        if (this.authenticatedEncryption) {
+            return encodeAuthenticated(value);
+        }
         try {
             final Key key = new SecretKeySpec(this.encryptionSecretKey.getBytes(),
                     this.secretKeyAlgorithm);
@@ -86,6 +160,9 @@ public class BinaryCipherExecutor extends AbstractCipherExecutor<byte[], byte[]>
 
     @Override
     public byte[] decode(final byte[] value) {
+        if (value.length > 0 && value[0] == AEAD_FORMAT_MARKER) {
+            return decodeAuthenticated(value);
+        }
         try {
             final byte[] verifiedValue = verifySignature(value);
             final Key key = new SecretKeySpec(this.encryptionSecretKey.getBytes(UTF8_ENCODING),
@@ -99,6 +176,96 @@ public class BinaryCipherExecutor extends AbstractCipherExecutor<byte[], byte[]>
         }
     }
 
+    private byte[] encodeAuthenticated(final byte[] value) {
+        try {
+            final AeadKey key = getAeadKey();
+            final byte[] plain = this.compress ? deflate(value) : value;
+            final byte[] header = new byte[AEAD_HEADER_LENGTH];
+            header[0] = AEAD_FORMAT_MARKER;
+            header[1] = AEAD_FORMAT_VERSION;
+            header[AEAD_FLAGS_OFFSET] = this.compress ? AEAD_FLAG_COMPRESSED : 0;
+            System.arraycopy(key.id, 0, header, AEAD_KEY_ID_OFFSET, AEAD_KEY_ID_LENGTH);
+
+            final byte[] iv = new byte[AEAD_IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            final Cipher cipher = getAeadCipher();
+            cipher.init(Cipher.ENCRYPT_MODE, key.key, new GCMParameterSpec(AEAD_TAG_LENGTH, iv));
+            cipher.updateAAD(header);
+
+            final byte[] result = new byte[AEAD_HEADER_LENGTH + AEAD_IV_LENGTH + cipher.getOutputSize(plain.length)];
+            System.arraycopy(header, 0, result, 0, AEAD_HEADER_LENGTH);
+            System.arraycopy(iv, 0, result, AEAD_HEADER_LENGTH, AEAD_IV_LENGTH);
+            final int length = cipher.doFinal(plain, 0, plain.length, result, AEAD_HEADER_LENGTH + AEAD_IV_LENGTH);
+            return length == result.length - AEAD_HEADER_LENGTH - AEAD_IV_LENGTH
+                    ? result : Arrays.copyOf(result, AEAD_HEADER_LENGTH + AEAD_IV_LENGTH + length);
+        } catch (final Exception e) {
+            logger.error(e.getMessage(), e);
+            throw Throwables.propagate(e);
+        }
+    }
+
+    private byte[] decodeAuthenticated(final byte[] value) {
+        try {
+            if (value.length < AEAD_HEADER_LENGTH + AEAD_IV_LENGTH || value[1] != AEAD_FORMAT_VERSION) {
+                throw new IllegalArgumentException("Value is not in a supported format");
+            }
+            final AeadKey key = getAeadKey();
+            if (!Arrays.equals(key.id, Arrays.copyOfRange(value, AEAD_KEY_ID_OFFSET, AEAD_HEADER_LENGTH))) {
+                throw new IllegalArgumentException("Value was encrypted with a different key");
+            }
+            final Cipher cipher = getAeadCipher();
+            cipher.init(Cipher.DECRYPT_MODE, key.key, new GCMParameterSpec(AEAD_TAG_LENGTH, value, AEAD_HEADER_LENGTH, AEAD_IV_LENGTH));
+            cipher.updateAAD(value, 0, AEAD_HEADER_LENGTH);
+            final byte[] plain = cipher.doFinal(value, AEAD_HEADER_LENGTH + AEAD_IV_LENGTH,
+                    value.length - AEAD_HEADER_LENGTH - AEAD_IV_LENGTH);
+            return (value[AEAD_FLAGS_OFFSET] & AEAD_FLAG_COMPRESSED) != 0 ? inflate(plain) : plain;
+        } catch (final Exception e) {
+            logger.error(e.getMessage(), e);
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * The key is derived from the encryption key once, so that the same key is not used
+     * both with and without authentication, and identified by a hash of the derived key.
+     */
+    private AeadKey getAeadKey() throws Exception {
+        AeadKey key = this.aeadKey;
+        if (key == null) {
+            final byte[] secret = this.encryptionSecretKey.getBytes(UTF8_ENCODING);
+            final Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            final byte[] derived = Arrays.copyOf(mac.doFinal(AEAD_KEY_LABEL), secret.length);
+            final byte[] id = Arrays.copyOf(Hashing.sha256().hashBytes(derived).asBytes(), AEAD_KEY_ID_LENGTH);
+            key = new AeadKey(new SecretKeySpec(derived, this.secretKeyAlgorithm), id);
+            this.aeadKey = key;
+        }
+        return key;
+    }
+
+    private Cipher getAeadCipher() throws Exception {
+        Cipher cipher = this.aeadCiphers.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(AEAD_TRANSFORMATION);
+            this.aeadCiphers.set(cipher);
+        }
+        return cipher;
+    }
+
+    private static byte[] deflate(final byte[] value) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(value.length);
+        try (OutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(value);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(final byte[] value) throws IOException {
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(value))) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
     private String generateOctetJsonWebKeyOfSize(final int size) {
         try {
             final OctetSequenceJsonWebKey octetKey = OctJwkGenerator.generateJwk(size);
@@ -109,4 +276,17 @@ public class BinaryCipherExecutor extends AbstractCipherExecutor<byte[], byte[]>
             throw Throwables.propagate(e);
         }
     }
+
+    /**
+     * The key used by the authenticated format, and its identifier.
+     */
+    private static class AeadKey {
+        private final Key key;
+        private final byte[] id;
+
+        AeadKey(final Key key, final byte[] id) {
+            this.key = key;
+            this.id = id;
+        }
+    }
 }
@@ -1,11 +1,16 @@
 package org.apereo.cas.util;
 
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.util.stream.IntStream;
 
 /**
  * Implementation of the RandomStringGenerator that allows you to define the
  * length of the random part.
+ * <p>
+ * Each thread draws from its own {@link SecureRandom} instance, seeded from a shared
+ * instance the first time the thread asks for a random string, so that concurrent
+ * callers do not contend on the same generator.
+ * </p>
  *
  * @author Scott Battaglia
 
@@ -20,8 +25,17 @@ public class DefaultRandomStringGenerator implements RandomStringGenerator {
     private static final char[] PRINTABLE_CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ012345679"
         .toCharArray();
 
-    /** An instance of secure random to ensure randomness is secure. */
-    private SecureRandom randomizer = new SecureRandom();
+    /** Length in bytes of the seed handed to each per-thread generator. */
+    private static final int SEED_LENGTH = 32;
+
+    /** Source of seeds for the per-thread generators. */
+    private static final SecureRandom SEED_SOURCE = new SecureRandom();
+
+    /** Per-thread instances of secure random to ensure randomness is secure. */
+    private final ThreadLocal<SecureRandom> randomizer = ThreadLocal.withInitial(DefaultRandomStringGenerator::newSecureRandom);
+
+    /** Per-thread buffers for the random bytes that are encoded into strings. */
+    private final ThreadLocal<byte[]> randomBytes = ThreadLocal.withInitial(() -> new byte[this.maximumRandomLength]);
 
     /** The maximum length the random string can be. */
     private int maximumRandomLength;
@@ -55,33 +69,46 @@ public class DefaultRandomStringGenerator implements RandomStringGenerator {
 
     @Override
     public String getNewString() {
-        final byte[] random = getNewStringAsBytes();
-
-        return convertBytesToString(random);
+        final char[] output = new char[this.maximumRandomLength];
+        writeNewString(output, 0);
+        return new String(output);
     }
 
     @Override
     public byte[] getNewStringAsBytes() {
         final byte[] random = new byte[this.maximumRandomLength];
 
-        this.randomizer.nextBytes(random);
+        this.randomizer.get().nextBytes(random);
 
         return random;
     }
 
     /**
-     * Convert bytes to string, taking into account {@link #PRINTABLE_CHARACTERS}.
+     * Write a new random string of {@link #getMaxLength()} characters into the given buffer,
+     * taking into account {@link #PRINTABLE_CHARACTERS}.
      *
-     * @param random the random
-     * @return the string
+     * @param buffer the buffer
+     * @param offset the position in the buffer to start writing at
+     * @return the position in the buffer after the last character written
      */
-    private static String convertBytesToString(final byte[] random) {
-        final char[] output = new char[random.length];
-        IntStream.range(0, random.length).forEach(i -> {
-            final int index = Math.abs(random[i] % PRINTABLE_CHARACTERS.length);
-            output[i] = PRINTABLE_CHARACTERS[index];
-        });
+    public int writeNewString(final char[] buffer, final int offset) {
+        final byte[] random = this.randomBytes.get();
+        this.randomizer.get().nextBytes(random);
+        for (int i = 0; i < random.length; i++) {
+            buffer[offset + i] = PRINTABLE_CHARACTERS[Math.abs(random[i] % PRINTABLE_CHARACTERS.length)];
+        }
+        return offset + random.length;
+    }
 
-        return new String(output);
+    private static SecureRandom newSecureRandom() {
+        final byte[] seed = new byte[SEED_LENGTH];
+        SEED_SOURCE.nextBytes(seed);
+        try {
+            final SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+            random.setSeed(seed);
+            return random;
+        } catch (final NoSuchAlgorithmException e) {
+            return new SecureRandom(seed);
+        }
     }
 }
@@ -12,6 +12,10 @@ import static org.junit.Assert.*;
  */
 public class BinaryCipherExecutorTests {
 
+    private static final String VALUE = "ThisIsATestValueThatIsGoingToBeEncodedAndDecodedAgainAndAgain";
+
+    private static final String SIGNING_KEY = "szxK-5_eJjs-aUj-64MpUZ-GPPzGLhYPLGl0wrYjYNVAGva2P0lLe6UGKGM7k8dWxsOVGutZWgvmY3l5oVPO3w";
+
     @Test
     public void checkEncodingDecoding() {
         final String value = "ThisIsATestValueThatIsGoingToBeEncodedAndDecodedAgainAndAgain";
@@ -28,4 +32,50 @@ public class BinaryCipherExecutorTests {
         final CipherExecutor<byte[], byte[]> cc = new BinaryCipherExecutor("0000", "1234", 512, 16);
         cc.encode(value.getBytes());
     }
+
+    @Test
+    public void checkAuthenticatedEncodingDecoding() {
+        final BinaryCipherExecutor cc = new BinaryCipherExecutor("1234567890123456", SIGNING_KEY, 512, 16);
+        cc.setAuthenticatedEncryption(true);
+        final byte[] bytes = cc.encode(VALUE.getBytes());
+        assertTrue(bytes.length < new BinaryCipherExecutor("1234567890123456", SIGNING_KEY, 512, 16).encode(VALUE.getBytes()).length);
+        assertEquals(VALUE, new String(cc.decode(bytes)));
+    }
+
+    @Test
+    public void checkCompressedEncodingDecoding() {
+        final BinaryCipherExecutor cc = new BinaryCipherExecutor("1234567890123456", SIGNING_KEY, 512, 16);
+        cc.setAuthenticatedEncryption(true);
+        cc.setCompress(true);
+        final String value = VALUE + VALUE + VALUE + VALUE;
+        final byte[] bytes = cc.encode(value.getBytes());
+        assertTrue(bytes.length < value.length());
+        assertEquals(value, new String(cc.decode(bytes)));
+    }
+
+    @Test
+    public void checkEitherFormatDecodes() {
+        final BinaryCipherExecutor signed = new BinaryCipherExecutor("1234567890123456", SIGNING_KEY, 512, 16);
+        final BinaryCipherExecutor authenticated = new BinaryCipherExecutor("1234567890123456", SIGNING_KEY, 512, 16);
+        authenticated.setAuthenticatedEncryption(true);
+        assertEquals(VALUE, new String(authenticated.decode(signed.encode(VALUE.getBytes()))));
+        assertEquals(VALUE, new String(signed.decode(authenticated.encode(VALUE.getBytes()))));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void checkTamperedValueIsRejected() {
+        final BinaryCipherExecutor cc = new BinaryCipherExecutor("1234567890123456", SIGNING_KEY, 512, 16);
+        cc.setAuthenticatedEncryption(true);
+        final byte[] bytes = cc.encode(VALUE.getBytes());
+        bytes[bytes.length - 1] ^= 1;
+        cc.decode(bytes);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void checkValueEncryptedWithOtherKeyIsRejected() {
+        final BinaryCipherExecutor cc = new BinaryCipherExecutor("1234567890123456", SIGNING_KEY, 512, 16);
+        cc.setAuthenticatedEncryption(true);
+        final BinaryCipherExecutor other = new BinaryCipherExecutor("6543210987654321", SIGNING_KEY, 512, 16);
+        other.decode(cc.encode(VALUE.getBytes()));
+    }
 }
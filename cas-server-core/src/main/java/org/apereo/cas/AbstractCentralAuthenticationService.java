@@ -22,6 +22,7 @@ import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketFactory;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.UnsatisfiedAuthenticationPolicyException;
+import org.apereo.cas.ticket.registry.TicketQuery;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.validation.ValidationServiceSelectionStrategy;
 import org.slf4j.Logger;
@@ -38,6 +39,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * An abstract implementation of the {@link CentralAuthenticationService} that provides access to
@@ -206,6 +208,11 @@ public abstract class AbstractCentralAuthenticationService implements CentralAut
         }
         return c;
     }
+
+    @Override
+    public Stream<Ticket> getTickets(final TicketQuery query) {
+        return this.ticketRegistry.stream(query);
+    }
     
     /**
      * Gets the authentication satisfied by policy.
@@ -6,6 +6,7 @@ import org.apereo.cas.couchbase.core.CouchbaseClientFactory;
 import org.apereo.cas.ticket.registry.CouchbaseTicketRegistry;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.TicketSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -35,6 +36,11 @@ public class CouchbaseTicketRegistryConfiguration {
     @Qualifier("ticketCipherExecutor")
     private CipherExecutor cipherExecutor;
 
+    @Nullable
+    @Autowired(required = false)
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
+
     @RefreshScope
     @Bean
     public CouchbaseClientFactory ticketRegistryCouchbaseClientFactory() {
@@ -55,6 +61,7 @@ public class CouchbaseTicketRegistryConfiguration {
         final CouchbaseTicketRegistry c = new CouchbaseTicketRegistry();
         c.setCouchbaseClientFactory(ticketRegistryCouchbaseClientFactory());
         c.setCipherExecutor(cipherExecutor);
+        c.setTicketSerializer(ticketSerializer);
         return c;
     }
 
@@ -1,5 +1,7 @@
 package org.apereo.cas.ticket.registry;
 
+import com.couchbase.client.java.AsyncBucket;
+import com.couchbase.client.java.document.JsonDocument;
 import com.couchbase.client.java.document.SerializableDocument;
 import com.couchbase.client.java.view.DefaultView;
 import com.couchbase.client.java.view.View;
@@ -14,6 +16,7 @@ import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.springframework.beans.factory.annotation.Autowired;
+import rx.Observable;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -164,6 +167,31 @@ public class CouchbaseTicketRegistry extends AbstractTicketRegistry {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Documents are removed through the asynchronous bucket API, so that all removals
+     * are in flight at the same time. Tickets that no longer exist are not counted.
+     */
+    @Override
+    public int deleteSingleTickets(final Collection<String> ticketIds) {
+        logger.debug("Deleting {} tickets", ticketIds.size());
+        try {
+            final AsyncBucket bucket = this.couchbase.bucket().async();
+            return Observable.from(ticketIds)
+                    .flatMap(ticketId -> bucket.remove(ticketId).onErrorResumeNext(e -> {
+                        logger.debug("Failed deleting {}: {}", ticketId, e.getMessage());
+                        return Observable.<JsonDocument>empty();
+                    }))
+                    .count()
+                    .toBlocking()
+                    .single();
+        } catch (final Exception e) {
+            logger.error("Failed deleting tickets: {}", e);
+            return 0;
+        }
+    }
+
     private int runQuery(final String prefix) {
         final ViewResult allKeys = this.couchbase.bucket().query(
                 ViewQuery.from(UTIL_DOCUMENT, VIEW_NAME_ALL_TICKETS)
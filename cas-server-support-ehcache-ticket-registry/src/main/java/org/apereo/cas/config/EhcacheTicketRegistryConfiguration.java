@@ -9,6 +9,7 @@ import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.ticket.registry.EhCacheTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.TicketSerializer;
 import org.apereo.cas.util.ResourceUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -39,6 +40,11 @@ public class EhcacheTicketRegistryConfiguration {
     @Qualifier("ticketCipherExecutor")
     private CipherExecutor cipherExecutor;
 
+    @Nullable
+    @Autowired(required = false)
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
+
     @RefreshScope
     @Bean
     public RMISynchronousCacheReplicator ticketRMISynchronousCacheReplicator() {
@@ -118,6 +124,7 @@ public class EhcacheTicketRegistryConfiguration {
                                                 final Cache ehcacheTicketsCache) {
         final EhCacheTicketRegistry r = new EhCacheTicketRegistry(ehcacheTicketsCache);
         r.setCipherExecutor(cipherExecutor);
+        r.setTicketSerializer(ticketSerializer);
         return r;
     }
 }
@@ -1,8 +1,10 @@
 package org.apereo.cas.ticket.registry;
 
 import net.sf.ehcache.Cache;
+import net.sf.ehcache.Ehcache;
 import net.sf.ehcache.Element;
 import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.event.CacheEventListenerAdapter;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
@@ -11,12 +13,21 @@ import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * <p>
  * <a href="http://ehcache.org/">Ehcache</a> based distributed ticket registry.
  * </p>
+ * <p>
+ * Sessions and service tickets are counted, and ticket-granting tickets indexed by principal,
+ * as elements are put into, removed from or expire out of the local cache, including
+ * changes replicated from other nodes.
+ * </p>
  *
  * @author <a href="mailto:cleclerc@xebia.fr">Cyrille Le Clerc</a>
  * @author Adam Rybicki
@@ -29,6 +40,10 @@ public class EhCacheTicketRegistry extends AbstractTicketRegistry {
 
     private boolean supportRegistryState = true;
 
+    private TicketCounter ticketCounter;
+
+    private PrincipalTicketIndex principalIndex;
+
     /**
      * Instantiates a new EhCache ticket registry.
      */
@@ -127,6 +142,23 @@ public class EhCacheTicketRegistry extends AbstractTicketRegistry {
         return decodeTickets(cacheTickets.stream().map(e -> (Ticket) e.getObjectValue()).collect(Collectors.toList()));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the keys of the cache are read up front; elements are fetched
+     * {@link TicketQuery#getPageSize()} at a time as the stream is consumed.
+     */
+    @Override
+    public Stream<Ticket> stream(final TicketQuery query) {
+        final List<?> keys = this.ehcacheTicketsCache.getKeys();
+        final int pageSize = query.getPageSize();
+        return IntStream.range(0, (keys.size() + pageSize - 1) / pageSize)
+                .mapToObj(page -> keys.subList(page * pageSize, Math.min(keys.size(), (page + 1) * pageSize)))
+                .flatMap(page -> this.ehcacheTicketsCache.getAll(page).values().stream())
+                .filter(Objects::nonNull)
+                .map(e -> decodeTicket((Ticket) e.getObjectValue()))
+                .filter(query::matches);
+    }
 
     @Override
     public void updateTicket(final Ticket ticket) {
@@ -175,20 +207,55 @@ public class EhCacheTicketRegistry extends AbstractTicketRegistry {
             logger.debug("TicketCache.timeToIdle={}", config.getTimeToIdleSeconds());
             logger.debug("TicketCache.cacheManager={}", this.ehcacheTicketsCache.getCacheManager().getName());
         }
+
+        final TicketCounter counter = new TicketCounter();
+        final PrincipalTicketIndex index = new PrincipalTicketIndex();
+        try (Stream<Ticket> tickets = stream(TicketQuery.all())) {
+            tickets.forEach(ticket -> {
+                counter.increment(ticket);
+                index.add(ticket);
+            });
+        }
+        // registered once seeded, so that tickets put while seeding are not counted twice
+        this.ehcacheTicketsCache.getCacheEventNotificationService().registerListener(new TicketIndexingListener(counter, index));
+        this.ticketCounter = counter;
+        this.principalIndex = index;
     }
 
     public void setEhcacheTicketsCache(final Cache ehcacheTicketsCache) {
         this.ehcacheTicketsCache = ehcacheTicketsCache;
     }
 
+    @Override
+    public Collection<TicketGrantingTicket> getTicketGrantingTickets(final String principalId) {
+        if (this.principalIndex == null) {
+            return super.getTicketGrantingTickets(principalId);
+        }
+        return this.principalIndex.getTicketIds(principalId).stream()
+                .map(this::getTicket)
+                .filter(TicketGrantingTicket.class::isInstance)
+                .map(TicketGrantingTicket.class::cast)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public long sessionCount() {
-        return getTickets().stream().filter(t -> t instanceof TicketGrantingTicket).count();
+        if (this.ticketCounter != null) {
+            return this.ticketCounter.getSessionCount();
+        }
+        try (Stream<Ticket> tickets = stream(TicketQuery.ofType(TicketGrantingTicket.class))) {
+            return tickets.count();
+        }
     }
 
     @Override
     public long serviceTicketCount() {
-        return getTickets().stream().filter(t -> t instanceof ServiceTicket).count();
+        if (this.ticketCounter != null) {
+            return this.ticketCounter.getServiceTicketCount();
+        }
+        try (Stream<Ticket> tickets = stream(TicketQuery.ofType(ServiceTicket.class))) {
+            return tickets.count();
+        }
     }
 
     @Override
@@ -199,6 +266,63 @@ public class EhCacheTicketRegistry extends AbstractTicketRegistry {
                 .append("supportRegistryState", this.supportRegistryState)
                 .toString();
     }
-    
-    
+
+    /**
+     * Keeps the ticket counter and principal index in sync with the local cache.
+     */
+    private class TicketIndexingListener extends CacheEventListenerAdapter {
+        private final TicketCounter counter;
+
+        private final PrincipalTicketIndex index;
+
+        TicketIndexingListener(final TicketCounter counter, final PrincipalTicketIndex index) {
+            this.counter = counter;
+            this.index = index;
+        }
+
+        @Override
+        public void notifyElementPut(final Ehcache cache, final Element element) {
+            final Ticket ticket = toTicket(element);
+            if (ticket != null) {
+                this.counter.increment(ticket);
+                this.index.add(ticket);
+            }
+        }
+
+        @Override
+        public void notifyElementRemoved(final Ehcache cache, final Element element) {
+            discount(element);
+        }
+
+        @Override
+        public void notifyElementExpired(final Ehcache cache, final Element element) {
+            discount(element);
+        }
+
+        @Override
+        public void notifyElementEvicted(final Ehcache cache, final Element element) {
+            discount(element);
+        }
+
+        @Override
+        public void notifyRemoveAll(final Ehcache cache) {
+            this.counter.reset();
+            this.index.clear();
+        }
+
+        private void discount(final Element element) {
+            final Ticket ticket = toTicket(element);
+            if (ticket != null) {
+                this.counter.decrement(ticket);
+                this.index.remove(ticket);
+            }
+        }
+
+        private Ticket toTicket(final Element element) {
+            if (element == null || !(element.getObjectValue() instanceof Ticket)) {
+                return null;
+            }
+            return decodeTicket((Ticket) element.getObjectValue());
+        }
+    }
 }
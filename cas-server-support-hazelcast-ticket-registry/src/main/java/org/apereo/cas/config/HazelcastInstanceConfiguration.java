@@ -17,6 +17,7 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.hazelcast.HazelcastProperties;
 import org.apereo.cas.ticket.registry.HazelcastTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.TicketSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -55,6 +56,11 @@ public class HazelcastInstanceConfiguration {
     @Qualifier("ticketCipherExecutor")
     private CipherExecutor cipherExecutor;
 
+    @Nullable
+    @Autowired(required = false)
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
+
     
     @Bean(name = {"hazelcastTicketRegistry", "ticketRegistry"})
     @RefreshScope
@@ -63,6 +69,7 @@ public class HazelcastInstanceConfiguration {
                 casProperties.getTicket().getRegistry().getHazelcast().getMapName(),
                 casProperties.getTicket().getRegistry().getHazelcast().getPageSize());
         r.setCipherExecutor(cipherExecutor);
+        r.setTicketSerializer(ticketSerializer);
         return r;
     }
     
@@ -1,7 +1,15 @@
 package org.apereo.cas.ticket.registry;
 
+import com.hazelcast.core.EntryEvent;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IAtomicLong;
 import com.hazelcast.core.IMap;
+import com.hazelcast.core.MultiMap;
+import com.hazelcast.map.AbstractEntryProcessor;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
 import com.hazelcast.query.PagingPredicate;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
@@ -11,11 +19,14 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Hazelcast-based implementation of a {@link TicketRegistry}.
@@ -23,6 +34,15 @@ import java.util.stream.Collectors;
  * which is an extension of the standard Java's {@code ConcurrentMap}.</p>
  * <p>The heavy lifting of distributed data partitioning, network cluster discovery and
  * join, data replication, etc. is done by Hazelcast's Map implementation.</p>
+ * <p>Sessions and service tickets are counted in cluster-wide atomic counters. Each member
+ * listens for entries it owns being added, removed, evicted or expired and adjusts the counters
+ * accordingly, so that every change is counted exactly once across the cluster. Counters
+ * are updated asynchronously and may briefly lag behind the map. The first member to start
+ * seeds the counters from the tickets already in the map; tickets changed by other members
+ * while it does so may be miscounted. Members of older versions do not count the tickets they
+ * add or remove, so counts are only reliable once every member of the cluster has been upgraded.</p>
+ * <p>Ticket-granting tickets are also indexed by principal in a distributed multimap.
+ * The member that owns a ticket evicted or expired out of the map removes its index entry.</p>
  *
  * @author Dmitriy Kopylenko
  * @author Jonathan Johnson
@@ -36,6 +56,14 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
 
     private int pageSize;
 
+    private IAtomicLong sessionCounter;
+
+    private IAtomicLong serviceTicketCounter;
+
+    private String counterListenerId;
+
+    private MultiMap<String, String> principalIndex;
+
     /**
      * Instantiates a new Hazelcast ticket registry.
      */
@@ -57,6 +85,43 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
         this.registry = hz.getMap(mapName);
         this.hazelcastInstance = hz;
         this.pageSize = pageSize;
+        this.sessionCounter = hz.getAtomicLong(mapName + "-sessionCount");
+        this.serviceTicketCounter = hz.getAtomicLong(mapName + "-serviceTicketCount");
+        this.principalIndex = hz.getMultiMap(mapName + "-principals");
+        seedCounters(hz, mapName);
+        this.counterListenerId = this.registry.addLocalEntryListener(new TicketCountingListener());
+    }
+
+    /**
+     * Set the cluster-wide counters from the contents of the map, if no member has done so yet.
+     * The counters are otherwise only adjusted for entries added after a member starts listening,
+     * so tickets stored before the counters were introduced would never be counted.
+     *
+     * @param hz      the Hazelcast instance
+     * @param mapName the name of the map
+     */
+    private void seedCounters(final HazelcastInstance hz, final String mapName) {
+        final IAtomicLong seeded = hz.getAtomicLong(mapName + "-countersSeeded");
+        if (seeded.get() != 0) {
+            return;
+        }
+        final Lock lock = hz.getLock(mapName + "-counters");
+        lock.lock();
+        try {
+            if (seeded.get() == 0) {
+                final TicketCounter counter = new TicketCounter();
+                try (Stream<Ticket> tickets = stream(queryOfType(Ticket.class))) {
+                    tickets.forEach(counter::increment);
+                }
+                this.sessionCounter.set(counter.getSessionCount());
+                this.serviceTicketCounter.set(counter.getServiceTicketCount());
+                seeded.set(1);
+                logger.info("Seeded ticket counters of map [{}] with {} sessions and {} service tickets",
+                        mapName, counter.getSessionCount(), counter.getServiceTicketCount());
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -70,7 +135,7 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
 
     @Override
     public void updateTicket(final Ticket ticket) {
-        addTicket(ticket);
+        storeTicket(ticket);
     }
 
     @Override
@@ -80,9 +145,18 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
 
     @Override
     public void addTicket(final Ticket ticket) {
+        final String ticketId = storeTicket(ticket);
+        final String principalId = PrincipalTicketIndex.getPrincipalId(ticket);
+        if (this.principalIndex != null && principalId != null) {
+            this.principalIndex.put(encodeTicketId(principalId), ticketId);
+        }
+    }
+
+    private String storeTicket(final Ticket ticket) {
         logger.debug("Adding ticket [{}] with ttl [{}s]", ticket.getId(), ticket.getExpirationPolicy().getTimeToLive());
         final Ticket encTicket = encodeTicket(ticket);
         this.registry.set(encTicket.getId(), encTicket, ticket.getExpirationPolicy().getTimeToLive(), TimeUnit.SECONDS);
+        return encTicket.getId();
     }
 
 
@@ -94,7 +168,62 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
 
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
-        return this.registry.remove(ticketId) != null;
+        final Ticket removed = this.registry.remove(ticketId);
+        if (removed == null) {
+            return false;
+        }
+        final String principalId = this.principalIndex != null ? PrincipalTicketIndex.getPrincipalId(decodeTicket(removed)) : null;
+        if (principalId != null) {
+            this.principalIndex.remove(encodeTicketId(principalId), ticketId);
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All tickets are removed by a single entry processor, executed by the members that own them.
+     */
+    @Override
+    public int deleteSingleTickets(final Collection<String> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+        final Map<String, Object> removed = this.registry.executeOnKeys(new HashSet<>(ticketIds),
+                new RemoveTicketEntryProcessor(this.principalIndex != null));
+        int count = 0;
+        for (final Map.Entry<String, Object> entry : removed.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            count++;
+            if (entry.getValue() instanceof Ticket) {
+                final String principalId = PrincipalTicketIndex.getPrincipalId(decodeTicket((Ticket) entry.getValue()));
+                if (principalId != null) {
+                    this.principalIndex.remove(encodeTicketId(principalId), entry.getKey());
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Collection<TicketGrantingTicket> getTicketGrantingTickets(final String principalId) {
+        if (this.principalIndex == null) {
+            return super.getTicketGrantingTickets(principalId);
+        }
+        final String key = encodeTicketId(principalId);
+        final Collection<TicketGrantingTicket> tickets = new ArrayList<>();
+        for (final String ticketId : this.principalIndex.get(key)) {
+            final Ticket ticket = decodeTicket(this.registry.get(ticketId));
+            if (ticket instanceof TicketGrantingTicket) {
+                tickets.add((TicketGrantingTicket) ticket);
+            } else if (ticket == null) {
+                logger.debug("Dropping index entry of ticket [{}] that is no longer in the registry", ticketId);
+                this.principalIndex.remove(key, ticketId);
+            }
+        }
+        return tickets;
     }
 
     @Override
@@ -116,14 +245,49 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
         return collection;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tickets are fetched from the cluster one page at a time, without taking the
+     * cluster-wide lock used by {@link #getTickets()}; tickets added or removed while
+     * the stream is consumed may or may not be visited.
+     */
+    @Override
+    public Stream<Ticket> stream(final TicketQuery query) {
+        final PagingPredicate pagingPredicate = new PagingPredicate(query.getPageSize());
+        final boolean[] started = {false};
+        return streamPages(() -> {
+            if (started[0]) {
+                pagingPredicate.nextPage();
+            }
+            started[0] = true;
+            return this.registry.values(pagingPredicate);
+        }).map(this::decodeTicket).filter(query::matches);
+    }
+
     @Override
     public long sessionCount() {
-        return getTickets().stream().filter(t -> t instanceof TicketGrantingTicket).count();
+        if (this.sessionCounter != null) {
+            return this.sessionCounter.get();
+        }
+        try (Stream<Ticket> tickets = stream(queryOfType(TicketGrantingTicket.class))) {
+            return tickets.count();
+        }
     }
 
     @Override
     public long serviceTicketCount() {
-        return getTickets().stream().filter(t -> t instanceof ServiceTicket).count();
+        if (this.serviceTicketCounter != null) {
+            return this.serviceTicketCounter.get();
+        }
+        try (Stream<Ticket> tickets = stream(queryOfType(ServiceTicket.class))) {
+            return tickets.count();
+        }
+    }
+
+    private TicketQuery queryOfType(final Class<? extends Ticket> type) {
+        final TicketQuery query = TicketQuery.ofType(type);
+        return this.pageSize > 0 ? query.withPageSize(this.pageSize) : query;
     }
 
     /**
@@ -133,6 +297,9 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
     public void shutdown() {
         logger.info("Shutting down Hazelcast instance {}", this.hazelcastInstance.getConfig().getInstanceName());
         try {
+            if (this.counterListenerId != null) {
+                this.registry.removeEntryListener(this.counterListenerId);
+            }
             this.hazelcastInstance.shutdown();
         } catch (final Throwable e) {
             logger.debug(e.getMessage());
@@ -151,4 +318,78 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
     public void close() throws IOException {
         shutdown();
     }
+
+    /**
+     * Removes entries, and answers with the removed ticket if asked to, or with a marker if a ticket was removed.
+     */
+    private static class RemoveTicketEntryProcessor extends AbstractEntryProcessor<String, Ticket> {
+        private static final long serialVersionUID = -1217618405458468394L;
+
+        private final boolean returnTicket;
+
+        RemoveTicketEntryProcessor(final boolean returnTicket) {
+            this.returnTicket = returnTicket;
+        }
+
+        @Override
+        public Object process(final Map.Entry<String, Ticket> entry) {
+            final Ticket ticket = entry.getValue();
+            if (ticket == null) {
+                return null;
+            }
+            entry.setValue(null);
+            return this.returnTicket ? ticket : Boolean.TRUE;
+        }
+    }
+
+    /**
+     * Adjusts the cluster-wide counters for entries owned by the local member, and
+     * drops the index entries of tickets that leave the map without being deleted.
+     */
+    private class TicketCountingListener implements EntryAddedListener<String, Ticket>,
+            EntryRemovedListener<String, Ticket>, EntryEvictedListener<String, Ticket>,
+            EntryExpiredListener<String, Ticket> {
+
+        @Override
+        public void entryAdded(final EntryEvent<String, Ticket> event) {
+            count(decodeTicket(event.getValue()), 1);
+        }
+
+        @Override
+        public void entryRemoved(final EntryEvent<String, Ticket> event) {
+            count(decodeTicket(getOldValue(event)), -1);
+        }
+
+        @Override
+        public void entryEvicted(final EntryEvent<String, Ticket> event) {
+            dropped(event);
+        }
+
+        @Override
+        public void entryExpired(final EntryEvent<String, Ticket> event) {
+            dropped(event);
+        }
+
+        private void dropped(final EntryEvent<String, Ticket> event) {
+            final Ticket ticket = decodeTicket(getOldValue(event));
+            count(ticket, -1);
+            final String principalId = PrincipalTicketIndex.getPrincipalId(ticket);
+            if (principalIndex != null && principalId != null) {
+                logger.debug("Dropping index entry of ticket [{}] that left the registry", event.getKey());
+                principalIndex.remove(encodeTicketId(principalId), event.getKey());
+            }
+        }
+
+        private Ticket getOldValue(final EntryEvent<String, Ticket> event) {
+            return event.getOldValue() != null ? event.getOldValue() : event.getValue();
+        }
+
+        private void count(final Ticket ticket, final long delta) {
+            if (ticket instanceof TicketGrantingTicket) {
+                sessionCounter.addAndGet(delta);
+            } else if (ticket instanceof ServiceTicket) {
+                serviceTicketCounter.addAndGet(delta);
+            }
+        }
+    }
 }
@@ -1,5 +1,9 @@
 package org.apereo.cas.ticket.registry;
 
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MultiMap;
 import org.apereo.cas.authentication.TestUtils;
 import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.mock.MockServiceTicket;
@@ -8,6 +12,7 @@ import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
 import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -18,6 +23,7 @@ import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.util.Collection;
+import java.util.function.LongSupplier;
 
 import static org.junit.Assert.*;
 
@@ -48,7 +54,7 @@ public class HazelcastTicketRegistryTests {
     }
 
     @Test
-    public void retrieveCollectionOfTickets() {
+    public void retrieveCollectionOfTickets() throws Exception {
         Collection<Ticket> col = this.hzTicketRegistry1.getTickets();
         for (final Ticket ticket : col) {
             this.hzTicketRegistry1.deleteTicket(ticket.getId());
@@ -64,8 +70,39 @@ public class HazelcastTicketRegistryTests {
 
         col = hzTicketRegistry2.getTickets();
         assertEquals(2, col.size());
-        assertEquals(1, hzTicketRegistry2.serviceTicketCount());
-        assertEquals(1, hzTicketRegistry2.sessionCount());
+        assertEventually(1, hzTicketRegistry2::serviceTicketCount);
+        assertEventually(1, hzTicketRegistry2::sessionCount);
+    }
+
+    @Test
+    public void verifyCountsAreSharedAcrossTheCluster() throws Exception {
+        final TicketGrantingTicket tgt = new MockTicketGrantingTicket("casuser-count");
+        final long sessions = this.hzTicketRegistry1.sessionCount();
+
+        this.hzTicketRegistry1.addTicket(tgt);
+        assertEventually(sessions + 1, hzTicketRegistry2::sessionCount);
+
+        this.hzTicketRegistry1.updateTicket(tgt);
+        this.hzTicketRegistry2.deleteTicket(tgt.getId());
+        assertEventually(sessions, hzTicketRegistry1::sessionCount);
+    }
+
+    @Test
+    public void verifyCountersAreSeededFromExistingTickets() throws Exception {
+        final HazelcastInstance hz = Hazelcast.getHazelcastInstanceByName("NODE1");
+        final IMap<String, Ticket> map = hz.getMap("tickets-seeded");
+        final TicketGrantingTicket tgt = new MockTicketGrantingTicket("casuser-seeded");
+        map.set(tgt.getId(), tgt);
+        map.set("TGT-SEEDED-2", new MockTicketGrantingTicket("casuser-seeded-2"));
+        final ServiceTicket st = new MockServiceTicket("ST-SEEDED", org.apereo.cas.services.TestUtils.getService(), tgt);
+        map.set(st.getId(), st);
+
+        final HazelcastTicketRegistry registry = new HazelcastTicketRegistry(hz, "tickets-seeded", 10);
+        assertEquals(2, registry.sessionCount());
+        assertEquals(1, registry.serviceTicketCount());
+
+        final HazelcastTicketRegistry another = new HazelcastTicketRegistry(hz, "tickets-seeded", 10);
+        assertEquals(2, another.sessionCount());
     }
 
     @Test
@@ -124,6 +161,34 @@ public class HazelcastTicketRegistryTests {
         assertNull(this.hzTicketRegistry1.getTicket("ST3", ServiceTicket.class));
     }
 
+    @Test
+    public void verifyIndexEntryOfExpiredTicketIsRemoved() throws Exception {
+        final MultiMap<String, String> principalIndex = Hazelcast.getHazelcastInstanceByName("NODE1").getMultiMap("tickets-principals");
+        final long sessions = this.hzTicketRegistry1.sessionCount();
+
+        // the policy tells its time to kill as the ttl, which the registry takes in seconds
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-EXPIRING",
+                TestUtils.getAuthentication("casuser-expiring"), new HardTimeoutExpirationPolicy(1));
+        this.hzTicketRegistry1.addTicket(tgt);
+        assertTrue(principalIndex.containsEntry("casuser-expiring", tgt.getId()));
+        assertEventually(sessions + 1, hzTicketRegistry2::sessionCount);
+
+        Thread.sleep(2000);
+        assertNull(this.hzTicketRegistry2.getTicket(tgt.getId()));
+        assertEventually(0, () -> principalIndex.valueCount("casuser-expiring"));
+        assertEventually(sessions, hzTicketRegistry2::sessionCount);
+    }
+
+    /**
+     * Counters are updated from map events that are delivered asynchronously.
+     */
+    private static void assertEventually(final long expected, final LongSupplier actual) throws InterruptedException {
+        for (int i = 0; i < 50 && actual.getAsLong() != expected; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(expected, actual.getAsLong());
+    }
+
     private static TicketGrantingTicket newTestTgt() {
         return new MockTicketGrantingTicket("casuser");
     }
@@ -11,6 +11,7 @@ import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.ticket.registry.IgniteTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.TicketSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -44,6 +45,11 @@ public class IgniteTicketRegistryConfiguration {
     @Qualifier("ticketCipherExecutor")
     private CipherExecutor cipherExecutor;
 
+    @Nullable
+    @Autowired(required = false)
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
+
     /**
      * Ignite configuration ignite configuration.
      *
@@ -89,6 +95,7 @@ public class IgniteTicketRegistryConfiguration {
         final IgniteTicketRegistry r = new IgniteTicketRegistry();
         r.setIgniteConfiguration(igniteConfiguration());
         r.setCipherExecutor(cipherExecutor);
+        r.setTicketSerializer(ticketSerializer);
         return r;
     }
 }
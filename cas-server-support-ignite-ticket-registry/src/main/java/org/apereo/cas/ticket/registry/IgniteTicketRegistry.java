@@ -23,6 +23,8 @@ import javax.cache.expiry.Duration;
 import javax.cache.expiry.ExpiryPolicy;
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.stream.Collectors.toList;
 
@@ -116,6 +118,24 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry {
         return decodeTickets(cursor.getAll().stream().map(Cache.Entry::getValue).collect(toList()));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tickets are scanned lazily, fetching {@link TicketQuery#getPageSize()} entries
+     * from the cluster at a time. The scan is released when the stream is closed.
+     */
+    @Override
+    public Stream<Ticket> stream(final TicketQuery query) {
+        final ScanQuery<String, Ticket> scan = new ScanQuery<>();
+        scan.setPageSize(query.getPageSize());
+        final QueryCursor<Cache.Entry<String, Ticket>> cursor = this.ticketIgniteCache.query(scan);
+        return StreamSupport.stream(cursor.spliterator(), false)
+                .onClose(cursor::close)
+                .map(Cache.Entry::getValue)
+                .map(this::decodeTicket)
+                .filter(query::matches);
+    }
+
     public void setTicketIgniteCache(final IgniteCache<String, Ticket> ticketIgniteCache) {
         this.ticketIgniteCache = ticketIgniteCache;
     }
@@ -219,12 +239,16 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public long sessionCount() {
-        return getTickets().stream().filter(t -> t instanceof TicketGrantingTicket).count();
+        try (Stream<Ticket> tickets = stream(TicketQuery.ofType(TicketGrantingTicket.class))) {
+            return tickets.count();
+        }
     }
 
     @Override
     public long serviceTicketCount() {
-        return getTickets().stream().filter(t -> t instanceof ServiceTicket).count();
+        try (Stream<Ticket> tickets = stream(TicketQuery.ofType(ServiceTicket.class))) {
+            return tickets.count();
+        }
     }
 
     /**
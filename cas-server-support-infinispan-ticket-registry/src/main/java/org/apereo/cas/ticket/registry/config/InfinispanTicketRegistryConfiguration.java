@@ -6,6 +6,7 @@ import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.ticket.registry.InfinispanTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.TicketSerializer;
 import org.infinispan.manager.DefaultCacheManager;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +32,11 @@ public class InfinispanTicketRegistryConfiguration {
     @Qualifier("ticketCipherExecutor")
     private CipherExecutor cipherExecutor;
 
+    @Nullable
+    @Autowired(required = false)
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
+
     @Autowired
     private CasConfigurationProperties casProperties;
 
@@ -39,6 +45,7 @@ public class InfinispanTicketRegistryConfiguration {
     public TicketRegistry infinispanTicketRegistry() {
         final InfinispanTicketRegistry r = new InfinispanTicketRegistry();
         r.setCipherExecutor(cipherExecutor);
+        r.setTicketSerializer(ticketSerializer);
         final String cacheName = casProperties.getTicket().getRegistry().getInfinispan().getCacheName();
         if (StringUtils.isBlank(cacheName)) {
             r.setCache(cacheManager().getCache());
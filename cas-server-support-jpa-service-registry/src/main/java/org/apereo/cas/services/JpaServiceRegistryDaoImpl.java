@@ -7,10 +7,22 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the ServiceRegistryDao based on JPA.
+ * <p>
+ * Services record when they were last saved, so that services changed since a watermark can be
+ * looked up. Services saved shortly before the watermark are reported again, to allow for
+ * clocks that differ between nodes and for transactions that commit after they saved a service.
+ * Services are reported as deleted when their id is no longer found.
  *
  * @author Scott Battaglia
  * @author Dmitriy Kopylenko
@@ -21,10 +33,18 @@ import java.util.List;
 public class JpaServiceRegistryDaoImpl implements ServiceRegistryDao {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JpaServiceRegistryDaoImpl.class);
-    
+
+    private static final long CHANGE_WINDOW = 60000;
+
     @PersistenceContext(unitName = "serviceEntityManagerFactory")
     private EntityManager entityManager;
 
+    /**
+     * Ids of the services last loaded, saved or reported as changed. Deleted services stay
+     * known until their deletion is reported.
+     */
+    private final Set<Long> knownIds = ConcurrentHashMap.newKeySet();
+
     @Override
     public boolean delete(final RegisteredService registeredService) {
         if (this.entityManager.contains(registeredService)) {
@@ -37,16 +57,24 @@ public class JpaServiceRegistryDaoImpl implements ServiceRegistryDao {
 
     @Override
     public List<RegisteredService> load() {
-        return this.entityManager.createQuery("select r from AbstractRegisteredService r", RegisteredService.class).getResultList();
+        final List<RegisteredService> services =
+                this.entityManager.createQuery("select r from AbstractRegisteredService r", RegisteredService.class).getResultList();
+        this.knownIds.clear();
+        services.forEach(r -> this.knownIds.add(r.getId()));
+        return services;
     }
 
     @Override
     public RegisteredService save(final RegisteredService registeredService) {
         final boolean isNew = registeredService.getId() == RegisteredService.INITIAL_IDENTIFIER_VALUE;
+        if (registeredService instanceof AbstractRegisteredService) {
+            ((AbstractRegisteredService) registeredService).setLastModified(System.currentTimeMillis());
+        }
         final RegisteredService r = this.entityManager.merge(registeredService);
         if (!isNew) {
             this.entityManager.persist(r);
         }
+        this.knownIds.add(r.getId());
         return r;
     }
 
@@ -60,6 +88,43 @@ public class JpaServiceRegistryDaoImpl implements ServiceRegistryDao {
         return this.entityManager.createQuery("select count(r) from AbstractRegisteredService r", Long.class).getSingleResult();
     }
 
+    @Override
+    public long getWatermark() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Services added without a modification time, for example directly in the database,
+     * are reported once their id is first found. Services modified that way are only
+     * picked up when all services are loaded again.
+     */
+    @Override
+    public Optional<RegisteredServiceChanges> getChangesSince(final long watermark) {
+        final long now = System.currentTimeMillis();
+        final Map<Long, RegisteredService> saved = new LinkedHashMap<>();
+        this.entityManager.createQuery("select r from AbstractRegisteredService r where r.lastModified > :since", RegisteredService.class)
+                .setParameter("since", watermark - CHANGE_WINDOW)
+                .getResultList()
+                .forEach(r -> saved.put(r.getId(), r));
+
+        final Set<Long> ids = new HashSet<>(
+                this.entityManager.createQuery("select r.id from AbstractRegisteredService r", Long.class).getResultList());
+        ids.stream().filter(id -> !this.knownIds.contains(id) && !saved.containsKey(id)).forEach(id -> {
+            final RegisteredService r = findServiceById(id);
+            if (r != null) {
+                saved.put(id, r);
+            }
+        });
+        final List<Long> deleted = this.knownIds.stream().filter(id -> !ids.contains(id)).collect(Collectors.toList());
+        this.knownIds.retainAll(ids);
+        this.knownIds.addAll(ids);
+
+        LOGGER.debug("Found {} saved and {} deleted services since {}", saved.size(), deleted.size(), watermark);
+        return Optional.of(new RegisteredServiceChanges(now, saved.values(), deleted));
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName();
@@ -176,4 +176,22 @@ public class JpaServiceRegistryDaoImplTests {
         assertEquals(r, r2);
     }
 
+    @Test
+    public void verifyChangesSinceWatermark() {
+        final long watermark = this.dao.getWatermark();
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setName("changed");
+        r.setServiceId("^https://changed.example.org");
+        final RegisteredService saved = this.dao.save(r);
+
+        final RegisteredServiceChanges changes = this.dao.getChangesSince(watermark).get();
+        assertTrue(changes.getSavedServices().stream().anyMatch(s -> s.getId() == saved.getId()));
+        assertFalse(changes.getDeletedServiceIds().contains(saved.getId()));
+
+        this.dao.delete(saved);
+        final RegisteredServiceChanges deleted = this.dao.getChangesSince(changes.getWatermark()).get();
+        assertTrue(deleted.getDeletedServiceIds().contains(saved.getId()));
+        assertFalse(deleted.getSavedServices().stream().anyMatch(s -> s.getId() == saved.getId()));
+    }
+
 }
@@ -6,6 +6,7 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.jpa.JpaConfigDataHolder;
 import org.apereo.cas.ticket.registry.JpaTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.TicketSerializer;
 import org.apereo.cas.ticket.registry.support.JpaLockingStrategy;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
 import org.apereo.cas.util.InetAddressUtils;
@@ -46,6 +47,11 @@ public class JpaTicketRegistryConfiguration {
     @Autowired(required = false)
     @Qualifier("ticketCipherExecutor")
     private CipherExecutor cipherExecutor;
+
+    @Nullable
+    @Autowired(required = false)
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
     
     /**
      * Jpa packages to scan string [].
@@ -110,7 +116,9 @@ public class JpaTicketRegistryConfiguration {
     public TicketRegistry jpaTicketRegistry() {
         final JpaTicketRegistry bean = new JpaTicketRegistry();
         bean.setLockTgt(casProperties.getTicket().getRegistry().getJpa().isJpaLockingTgtEnabled());
+        bean.setOptimisticLocking(casProperties.getTicket().getRegistry().getJpa().isJpaOptimisticLockingEnabled());
         bean.setCipherExecutor(this.cipherExecutor);
+        bean.setTicketSerializer(this.ticketSerializer);
         return bean;
     }
 
@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.Lists;
 import org.apereo.cas.support.oauth.ticket.OAuthToken;
 import org.apereo.cas.support.oauth.ticket.accesstoken.AccessToken;
 import org.apereo.cas.support.oauth.ticket.code.OAuthCode;
@@ -10,16 +11,27 @@ import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.TicketGrantingTicketImpl;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
+import javax.persistence.OptimisticLockException;
 import javax.persistence.PersistenceContext;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * JPA implementation of a CAS {@link TicketRegistry}. This implementation of
@@ -36,8 +48,16 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
     private static final String TABLE_OAUTH_TICKETS = OAuthCodeImpl.class.getSimpleName();
     private static final String TABLE_SERVICE_TICKETS = ServiceTicketImpl.class.getSimpleName();
     private static final String TABLE_TICKET_GRANTING_TICKETS = TicketGrantingTicketImpl.class.getSimpleName();
+
+    /** Keeps the number of bind parameters in a bulk delete within what databases accept. */
+    private static final int MAX_IDS_PER_STATEMENT = 500;
     
+    /** Attempts at updating a ticket-granting ticket that was updated concurrently, before giving up. */
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
     private boolean lockTgt = true;
+
+    private boolean optimisticLocking;
     
     @PersistenceContext(unitName = "ticketEntityManagerFactory")
     private EntityManager entityManager;
@@ -46,12 +66,67 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         this.lockTgt = lockTgt;
     }
 
+    /**
+     * Detect concurrent updates of ticket-granting tickets instead of locking them when they are read.
+     * Takes precedence over {@link #setLockTgt(boolean)}.
+     *
+     * @param optimisticLocking whether ticket-granting tickets are read without locks and versioned when updated
+     */
+    public void setOptimisticLocking(final boolean optimisticLocking) {
+        this.optimisticLocking = optimisticLocking;
+    }
+
     @Override
     public void updateTicket(final Ticket ticket) {
-        this.entityManager.merge(ticket);
+        if (this.optimisticLocking && ticket instanceof TicketGrantingTicketImpl) {
+            updateTicketGrantingTicket((TicketGrantingTicketImpl) ticket);
+        } else {
+            this.entityManager.merge(ticket);
+        }
         logger.debug("Updated ticket [{}].", ticket);
     }
 
+    /**
+     * Update a ticket-granting ticket that was read without a lock, if it was not updated since it was read.
+     * Its version is compared and incremented by a single statement, before the ticket itself is written,
+     * so the row is only locked from then until the transaction ends. If another transaction updated the
+     * ticket in the meantime, the ticket is read again, this time locked, and the changes made to it since it
+     * was first read are applied to its current state. JPA {@link javax.persistence.Version} columns are not
+     * used, as a conflict on them marks the whole transaction for rollback.
+     * <p>
+     * Ticket-granting tickets written without calling this operation, because they were changed through
+     * a ticket issued from them, are not versioned.
+     *
+     * @param ticket the ticket
+     */
+    private void updateTicketGrantingTicket(final TicketGrantingTicketImpl ticket) {
+        TicketGrantingTicketImpl current = this.entityManager.merge(ticket);
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            final long version = current.getVersion();
+            final int updated = this.entityManager.createQuery("update " + TABLE_TICKET_GRANTING_TICKETS
+                    + " t set t.version = :next where t.id = :id and coalesce(t.version, 0) = :version")
+                    .setParameter("next", version + 1)
+                    .setParameter("id", ticket.getId())
+                    .setParameter("version", version)
+                    .setFlushMode(FlushModeType.COMMIT)
+                    .executeUpdate();
+            if (updated > 0) {
+                current.setVersion(version + 1);
+                return;
+            }
+
+            logger.debug("Ticket [{}] was updated concurrently; applying changes to its current state", ticket.getId());
+            this.entityManager.detach(current);
+            current = this.entityManager.find(TicketGrantingTicketImpl.class, ticket.getId(), LockModeType.PESSIMISTIC_WRITE);
+            if (current == null) {
+                logger.debug("Ticket [{}] was removed concurrently", ticket.getId());
+                return;
+            }
+            ticket.applyChangesTo(current);
+        }
+        throw new OptimisticLockException("Ticket " + ticket.getId() + " was updated concurrently " + MAX_UPDATE_ATTEMPTS + " times", null, ticket);
+    }
+
     @Override
     public void addTicket(final Ticket ticket) {
         this.entityManager.persist(ticket);
@@ -93,7 +168,7 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
                     || ticketId.startsWith(ProxyGrantingTicket.PROXY_GRANTING_TICKET_PREFIX)) {
                 // There is no need to distinguish between TGTs and PGTs since PGTs inherit from TGTs
                 return this.entityManager.find(TicketGrantingTicketImpl.class, ticketId,
-                        this.lockTgt ? LockModeType.PESSIMISTIC_WRITE : null);
+                        this.lockTgt && !this.optimisticLocking ? LockModeType.PESSIMISTIC_WRITE : null);
             } else if (ticketId.startsWith(OAuthCode.PREFIX) || ticketId.startsWith(AccessToken.PREFIX)) {
                 return this.entityManager.find(OAuthCodeImpl.class, ticketId);
             }
@@ -121,6 +196,127 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return tickets;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ticket-granting tickets are looked up through the indexed principal id column.
+     */
+    @Override
+    public Collection<TicketGrantingTicket> getTicketGrantingTickets(final String principalId) {
+        return new ArrayList<>(this.entityManager
+                .createQuery("select t from " + TABLE_TICKET_GRANTING_TICKETS + " t where t.principalId = :principalId",
+                        TicketGrantingTicketImpl.class)
+                .setParameter("principalId", principalId)
+                .getResultList());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tickets are read in pages ordered by id, each page starting after the last id of the
+     * previous one, so that tickets removed while the stream is consumed do not shift later pages.
+     * The tickets of a page are detached from the persistence context once the next page is read,
+     * or the stream is closed, so that only one page of entities is held at a time.
+     */
+    @Override
+    public Stream<Ticket> stream(final TicketQuery query) {
+        return Stream.<Class<? extends Ticket>>of(TicketGrantingTicketImpl.class, ServiceTicketImpl.class)
+                .filter(query::mayMatch)
+                .<Ticket>flatMap(entityClass -> streamEntities(entityClass, "", query.getPageSize()))
+                .filter(query::matches);
+    }
+
+    @Override
+    public boolean isExpirationIndexed() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Expired ticket-granting tickets are found through the indexed expiration deadline column,
+     * so that only those are read. Expired service tickets are not returned; they are removed
+     * by {@link #deleteExpiredServiceTickets(int)} without being read. Tickets without a deadline,
+     * because their expiration policy cannot tell it or because they were stored before the column
+     * was added, are read a page at a time and checked one by one.
+     */
+    @Override
+    public Collection<Ticket> getExpiredTickets(final int maxCount) {
+        final List<Ticket> expired = new ArrayList<>(this.entityManager
+                .createQuery("select t from " + TABLE_TICKET_GRANTING_TICKETS
+                        + " t where t.expirationDeadline <= :now order by t.expirationDeadline", TicketGrantingTicketImpl.class)
+                .setParameter("now", System.currentTimeMillis())
+                .setMaxResults(maxCount)
+                .getResultList());
+        if (expired.size() < maxCount) {
+            try (Stream<Ticket> tickets = Stream.<Class<? extends Ticket>>of(TicketGrantingTicketImpl.class, ServiceTicketImpl.class)
+                    .<Ticket>flatMap(entityClass -> streamEntities(entityClass, "t.expirationDeadline is null and ",
+                            TicketQuery.DEFAULT_PAGE_SIZE))
+                    .filter(Ticket::isExpired)) {
+                tickets.limit(maxCount - expired.size()).forEach(expired::add);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ids of expired service tickets are selected through the indexed expiration deadline column,
+     * and the tickets are removed by bulk delete statements.
+     */
+    @Override
+    public int deleteExpiredServiceTickets(final int maxCount) {
+        final List<String> ticketIds = this.entityManager
+                .createQuery("select s.id from " + TABLE_SERVICE_TICKETS + " s where s.expirationDeadline <= :now", String.class)
+                .setParameter("now", System.currentTimeMillis())
+                .setMaxResults(maxCount)
+                .getResultList();
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+        logger.debug("Removing {} expired service tickets", ticketIds.size());
+        return deleteSingleTickets(ticketIds);
+    }
+
+    private <T extends Ticket> Stream<T> streamEntities(final Class<T> entityClass, final String condition, final int pageSize) {
+        final String query = "select t from " + entityClass.getSimpleName() + " t where " + condition + "t.id > :id order by t.id";
+        final String[] lastId = {""};
+        final List<T> consumed = new ArrayList<>(pageSize);
+        return streamPages(() -> {
+            detach(consumed);
+            final List<T> page = this.entityManager.createQuery(query, entityClass)
+                    .setParameter("id", lastId[0])
+                    .setMaxResults(pageSize)
+                    .setHint(QueryHints.READ_ONLY, Boolean.TRUE)
+                    .getResultList();
+            if (!page.isEmpty()) {
+                lastId[0] = page.get(page.size() - 1).getId();
+            }
+            consumed.addAll(page);
+            return page;
+        }).onClose(() -> detach(consumed));
+    }
+
+    /**
+     * Detach the tickets of a consumed page, and the tickets loaded along with them,
+     * so that the persistence context does not grow with each page read.
+     *
+     * @param tickets the tickets, cleared once detached
+     */
+    private void detach(final Collection<? extends Ticket> tickets) {
+        tickets.forEach(ticket -> {
+            this.entityManager.detach(ticket);
+            if (ticket.getGrantingTicket() != null) {
+                this.entityManager.detach(ticket.getGrantingTicket());
+            }
+            if (ticket instanceof TicketGrantingTicket) {
+                ((TicketGrantingTicket) ticket).getProxyGrantingTickets().forEach(this.entityManager::detach);
+            }
+        });
+        tickets.clear();
+    }
+
     @Override
     protected boolean needsCallback() {
         return false;
@@ -159,6 +355,98 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return failureCount == 0;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Proxy-granting tickets issued from the given tickets are found by their ids alone,
+     * so that no ticket has to be read before it is removed.
+     */
+    @Override
+    public int deleteTickets(final Collection<String> ticketIds) {
+        final Set<String> ids = new LinkedHashSet<>();
+        ticketIds.stream().filter(Objects::nonNull).forEach(ids::add);
+        Collection<String> parents = new ArrayList<>(ids);
+        while (!parents.isEmpty()) {
+            final List<String> children = new ArrayList<>();
+            for (final List<String> parentIds : Lists.partition(new ArrayList<>(parents), MAX_IDS_PER_STATEMENT)) {
+                this.entityManager.createQuery("select t.id from " + TABLE_TICKET_GRANTING_TICKETS
+                        + " t where t.ticketGrantingTicket.id in :ids", String.class)
+                        .setParameter("ids", parentIds)
+                        .getResultList().stream()
+                        .filter(ids::add)
+                        .forEach(children::add);
+            }
+            parents = children;
+        }
+        return deleteSingleTickets(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tickets are removed by their ids, as the tickets issued from them are found by query.
+     */
+    @Override
+    public int deleteTickets(final Iterable<? extends Ticket> tickets) {
+        final List<String> ticketIds = new ArrayList<>();
+        tickets.forEach(ticket -> ticketIds.add(ticket.getId()));
+        return deleteTickets(ticketIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tickets are removed by bulk delete statements, whatever their number, along with the
+     * service tickets issued from any of the ticket-granting tickets among them.
+     * Bulk deletes bypass the persistence context, so pending changes are written out first
+     * and the deleted tickets are detached afterwards; otherwise a ticket changed after it was loaded
+     * would be updated once its row is gone.
+     */
+    @Override
+    public int deleteSingleTickets(final Collection<String> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+        this.entityManager.flush();
+        int count = 0;
+        for (final List<String> ids : Lists.partition(new ArrayList<>(ticketIds), MAX_IDS_PER_STATEMENT)) {
+            count += this.entityManager.createQuery("delete from " + TABLE_OAUTH_TICKETS + " o where o.id in :ids")
+                    .setParameter("ids", ids).executeUpdate();
+            count += this.entityManager.createQuery("delete from " + TABLE_SERVICE_TICKETS
+                    + " s where s.id in :ids or s.ticketGrantingTicket.id in :ids")
+                    .setParameter("ids", ids).executeUpdate();
+            // proxy-granting tickets refer to the ticket they were issued from, which may be deleted by the same statement
+            this.entityManager.createQuery("update " + TABLE_TICKET_GRANTING_TICKETS
+                    + " t set t.ticketGrantingTicket = null where t.id in :ids or t.ticketGrantingTicket.id in :ids")
+                    .setParameter("ids", ids).executeUpdate();
+            count += this.entityManager.createQuery("delete from " + TABLE_TICKET_GRANTING_TICKETS + " t where t.id in :ids")
+                    .setParameter("ids", ids).executeUpdate();
+        }
+        detachDeletedTickets(ticketIds);
+        logger.debug("Deleted {} tickets", count);
+        return count;
+    }
+
+    /**
+     * Detach the loaded tickets whose rows were removed by bulk deletes, that is the tickets with
+     * the given ids and the service tickets issued from them. Other loaded entities stay managed,
+     * so that changes the caller makes to them are still written.
+     *
+     * @param ticketIds the ids of the deleted tickets
+     */
+    private void detachDeletedTickets(final Collection<String> ticketIds) {
+        final Set<String> ids = new HashSet<>(ticketIds);
+        final Map<?, ?> entities = this.entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getEntitiesByKey();
+        final List<Ticket> deleted = entities.values().stream()
+                .filter(Ticket.class::isInstance)
+                .map(Ticket.class::cast)
+                .filter(ticket -> ids.contains(ticket.getId())
+                        || ticket instanceof ServiceTicket && ticket.getGrantingTicket() != null
+                        && ids.contains(ticket.getGrantingTicket().getId()))
+                .collect(Collectors.toList());
+        deleted.forEach(this.entityManager::detach);
+    }
+
     /**
      * Gets ticket query result list.
      *
@@ -0,0 +1,14 @@
+package org.apereo.cas.ticket.registry;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the {@link JpaTicketRegistryTests} with ticket-granting tickets read without locks
+ * and versioned when updated, so that the throughput of both modes can be compared.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+@TestPropertySource(properties = "cas.ticket.registry.jpa.jpaOptimisticLockingEnabled=true")
+public class JpaTicketRegistryOptimisticLockingTests extends JpaTicketRegistryTests {
+}
@@ -15,8 +15,10 @@ import org.apereo.cas.ticket.TicketGrantingTicketImpl;
 import org.apereo.cas.ticket.UniqueTicketIdGenerator;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyTicket;
+import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
 import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
 import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
 import org.apereo.cas.util.DefaultUniqueTicketIdGenerator;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -32,12 +34,15 @@ import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -54,6 +59,9 @@ public class JpaTicketRegistryTests {
     /** Number of clients contending for operations in concurrent test. */
     private static final int CONCURRENT_SIZE = 20;
 
+    /** Number of service tickets granted by each client in the stress test. */
+    private static final int TICKETS_PER_CLIENT = 10;
+
     private static final UniqueTicketIdGenerator ID_GENERATOR = new DefaultUniqueTicketIdGenerator(64);
 
     private static final ExpirationPolicy EXP_POLICY_TGT = new HardTimeoutExpirationPolicy(1000);
@@ -164,6 +172,78 @@ public class JpaTicketRegistryTests {
         assertEquals(CONCURRENT_SIZE, tgtFromDb.getCountOfUses());
     }
 
+    @Test
+    public void verifyConcurrentServiceTicketGenerationThroughput() throws Exception {
+        final TicketGrantingTicket newTgt = new TicketGrantingTicketImpl(ID_GENERATOR.getNewTicketId(TicketGrantingTicket.PREFIX),
+                TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        addTicketInTransaction(newTgt);
+        final int count = CONCURRENT_SIZE * TICKETS_PER_CLIENT;
+        final List<ServiceTicketGenerator> generators = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            generators.add(new ServiceTicketGenerator(newTgt.getId(), this.jpaTicketRegistry, this.txManager));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_SIZE);
+        final long start = System.nanoTime();
+        try {
+            for (final Future<String> result : executor.invokeAll(generators)) {
+                assertNotNull(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("{}: {} service tickets granted from the same ticket-granting ticket by {} clients in {} ms, {} per second",
+                getClass().getSimpleName(), count, CONCURRENT_SIZE, elapsed, TimeUnit.SECONDS.toMillis(count) / Math.max(1, elapsed));
+
+        final TicketGrantingTicket tgtFromDb = (TicketGrantingTicket) getTicketInTransaction(newTgt.getId());
+        assertEquals(count, tgtFromDb.getCountOfUses());
+    }
+
+    @Test
+    public void verifyExpiredTicketsAreFoundByDeadline() {
+        final TicketGrantingTicket expiredTgt = new TicketGrantingTicketImpl(ID_GENERATOR.getNewTicketId(TicketGrantingTicket.PREFIX),
+                TestUtils.getAuthentication(), new AlwaysExpiresExpirationPolicy());
+        final TicketGrantingTicket validTgt = new TicketGrantingTicketImpl(ID_GENERATOR.getNewTicketId(TicketGrantingTicket.PREFIX),
+                TestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        addTicketInTransaction(expiredTgt);
+        addTicketInTransaction(validTgt);
+        final ServiceTicket expiredSt = new TransactionTemplate(txManager).execute(status -> {
+            final ServiceTicket st = validTgt.grantServiceTicket(ID_GENERATOR.getNewTicketId(ServiceTicket.PREFIX),
+                    new MockService("https://service.example.com"), new AlwaysExpiresExpirationPolicy(), null, true);
+            jpaTicketRegistry.addTicket(st);
+            return st;
+        });
+        final ServiceTicket validSt = grantServiceTicketInTransaction(validTgt);
+
+        final int removed = new TransactionTemplate(txManager).execute(status -> jpaTicketRegistry.deleteExpiredServiceTickets(100));
+        assertTrue(removed >= 1);
+        assertNull(getTicketInTransaction(expiredSt.getId()));
+        assertNotNull(getTicketInTransaction(validSt.getId()));
+
+        final Collection<String> expired = new TransactionTemplate(txManager).execute(status ->
+                jpaTicketRegistry.getExpiredTickets(100).stream().map(Ticket::getId).collect(Collectors.toList()));
+        assertTrue(expired.contains(expiredTgt.getId()));
+        assertFalse(expired.contains(validTgt.getId()));
+        assertFalse(expired.contains(validSt.getId()));
+    }
+
+    @Test
+    public void verifyChangesToOtherTicketsSurviveDeletes() {
+        final TicketGrantingTicket changedTgt = newTGT();
+        final TicketGrantingTicket deletedTgt = newTGT();
+        addTicketInTransaction(changedTgt);
+        addTicketInTransaction(deletedTgt);
+
+        new TransactionTemplate(txManager).execute(status -> {
+            final TicketGrantingTicket loaded = (TicketGrantingTicket) jpaTicketRegistry.getTicket(changedTgt.getId());
+            loaded.markTicketExpired();
+            return jpaTicketRegistry.deleteTicket(deletedTgt.getId());
+        });
+
+        assertNull(getTicketInTransaction(deletedTgt.getId()));
+        assertTrue(getTicketInTransaction(changedTgt.getId()).isExpired());
+    }
 
     static TicketGrantingTicket newTGT() {
         final Principal principal = new DefaultPrincipalFactory().createPrincipal(
@@ -262,7 +342,9 @@ public class JpaTicketRegistryTests {
             return new TransactionTemplate(txManager).execute(status -> {
                 // Querying for the TGT prior to updating it as done in
                 // CentralAuthenticationServiceImpl#grantServiceTicket(String, Service, Credential)
-                final ServiceTicket st = newST((TicketGrantingTicket) jpaTicketRegistry.getTicket(parentTgtId));
+                final TicketGrantingTicket tgt = (TicketGrantingTicket) jpaTicketRegistry.getTicket(parentTgtId);
+                final ServiceTicket st = newST(tgt);
+                jpaTicketRegistry.updateTicket(tgt);
                 jpaTicketRegistry.addTicket(st);
                 return st.getId();
             });
@@ -29,6 +29,7 @@ public class JsonServiceRegistryConfiguration {
                     new JsonServiceRegistryDao(
                             casProperties.getServiceRegistry().getConfig().getLocation(),
                             casProperties.getServiceRegistry().isWatcherEnabled());
+            dao.setLoaderParallelism(casProperties.getServiceRegistry().getLoaderParallelism());
             return dao;
         } catch (final Throwable e) {
             throw Throwables.propagate(e);
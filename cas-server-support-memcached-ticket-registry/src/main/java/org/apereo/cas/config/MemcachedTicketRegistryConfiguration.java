@@ -11,6 +11,7 @@ import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.MemCacheTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.TicketSerializer;
 import org.apereo.cas.ticket.registry.support.kryo.KryoTranscoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -36,6 +37,11 @@ public class MemcachedTicketRegistryConfiguration {
     @Qualifier("ticketCipherExecutor")
     private CipherExecutor cipherExecutor;
 
+    @Nullable
+    @Autowired(required = false)
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
+
     @Autowired
     private CasConfigurationProperties casProperties;
 
@@ -69,6 +75,7 @@ public class MemcachedTicketRegistryConfiguration {
         final MemCacheTicketRegistry registry =
                 new MemCacheTicketRegistry((MemcachedClientIF) memcachedClient().getObject());
         registry.setCipherExecutor(cipherExecutor);
+        registry.setTicketSerializer(ticketSerializer);
         return registry;
     }
 
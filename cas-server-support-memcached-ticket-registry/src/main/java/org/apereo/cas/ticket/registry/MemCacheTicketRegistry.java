@@ -5,7 +5,10 @@ import org.apereo.cas.ticket.Ticket;
 import org.springframework.util.Assert;
 
 import javax.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Key-value ticket registry implementation that stores tickets in memcached keyed on the ticket ID.
@@ -90,6 +93,30 @@ public class MemCacheTicketRegistry extends AbstractTicketRegistry {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All delete operations are sent before waiting for any of them to complete,
+     * so that they are pipelined on the connection to the memcached servers.
+     */
+    @Override
+    public int deleteSingleTickets(final Collection<String> ticketIds) {
+        Assert.notNull(this.client, "No memcached client is defined.");
+        final List<Future<Boolean>> results = new ArrayList<>(ticketIds.size());
+        ticketIds.forEach(ticketId -> results.add(this.client.delete(ticketId)));
+        int count = 0;
+        for (final Future<Boolean> result : results) {
+            try {
+                if (result.get()) {
+                    count++;
+                }
+            } catch (final Exception e) {
+                logger.error("Failed deleting ticket", e);
+            }
+        }
+        return count;
+    }
+
     @Override
     public Ticket getTicket(final String ticketIdToGet) {
         if (this.client == null) {
@@ -1,17 +1,18 @@
 package org.apereo.cas.ticket.registry.support.kryo;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Helper class that provides convenience methods for getting and setting field values via reflection.
+ * Instances are safe to share between threads.
  *
  * @author Marvin S. Addison
  * @since 3.0.0
  */
 public class FieldHelper {
-    private Map<String, Field> fieldCache = new HashMap<>();
+    private final Map<String, Field> fieldCache = new ConcurrentHashMap<>();
 
     /**
      * Gets the field value.
@@ -2,66 +2,22 @@ package org.apereo.cas.ticket.registry.support.kryo;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Serializer;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
-import com.esotericsoftware.kryo.serializers.DefaultSerializers;
-import de.javakaffee.kryoserializers.CollectionsEmptyListSerializer;
-import de.javakaffee.kryoserializers.CollectionsEmptyMapSerializer;
-import de.javakaffee.kryoserializers.CollectionsEmptySetSerializer;
-import de.javakaffee.kryoserializers.EnumMapSerializer;
-import de.javakaffee.kryoserializers.EnumSetSerializer;
-import de.javakaffee.kryoserializers.KryoReflectionFactorySupport;
-import de.javakaffee.kryoserializers.RegexSerializer;
-import de.javakaffee.kryoserializers.URISerializer;
-import de.javakaffee.kryoserializers.UUIDSerializer;
-import de.javakaffee.kryoserializers.UnmodifiableCollectionsSerializer;
-import de.javakaffee.kryoserializers.guava.ImmutableListSerializer;
-import de.javakaffee.kryoserializers.guava.ImmutableMapSerializer;
-import de.javakaffee.kryoserializers.guava.ImmutableMultimapSerializer;
-import de.javakaffee.kryoserializers.guava.ImmutableSetSerializer;
 import net.spy.memcached.CachedData;
 import net.spy.memcached.transcoders.Transcoder;
-import org.apereo.cas.authentication.BasicCredentialMetaData;
-import org.apereo.cas.authentication.DefaultHandlerResult;
-import org.apereo.cas.authentication.UsernamePasswordCredential;
-import org.apereo.cas.authentication.principal.SimplePrincipal;
 import org.apereo.cas.authentication.principal.SimpleWebApplicationServiceImpl;
 import org.apereo.cas.services.RegexRegisteredService;
-import org.apereo.cas.ticket.ServiceTicketImpl;
-import org.apereo.cas.ticket.TicketGrantingTicketImpl;
 import org.apereo.cas.ticket.registry.support.kryo.serial.RegisteredServiceSerializer;
 import org.apereo.cas.ticket.registry.support.kryo.serial.SimpleWebApplicationServiceSerializer;
-import org.apereo.cas.ticket.registry.support.kryo.serial.URLSerializer;
-import org.apereo.cas.ticket.registry.support.kryo.serial.ZonedDateTimeTranscoder;
-import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
-import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
-import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
-import org.apereo.cas.ticket.support.RememberMeDelegatingExpirationPolicy;
-import org.apereo.cas.ticket.support.ThrottledUseAndTimeoutExpirationPolicy;
-import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
-import org.apereo.cas.ticket.support.TimeoutExpirationPolicy;
-import org.apereo.cas.authentication.DefaultAuthentication;
 
 import javax.annotation.PostConstruct;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.net.URI;
-import java.net.URL;
-import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.EnumMap;
-import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.UUID;
-import java.util.regex.Pattern;
 
 /**
  * {@link net.spy.memcached.MemcachedClient} transcoder implementation based on Kryo fast serialization framework
- * suited for efficient serialization of tickets.
+ * suited for efficient serialization of tickets. Encoding and decoding is delegated to a {@link KryoTicketSerializer},
+ * which keeps a Kryo instance per thread. Service types are registered at the same positions as they always were,
+ * so that tickets stored by earlier versions keep their registration ids.
  *
  * @author Marvin S. Addison
  * @since 3.0.0
@@ -72,7 +28,7 @@ public class KryoTranscoder implements Transcoder<Object> {
     /**
      * Kryo serializer.
      */
-    private Kryo kryo = new KryoReflectionFactorySupport();
+    private KryoTicketSerializer serializer = new ServiceKryoTicketSerializer(Collections.emptyMap());
 
     /**
      * Map of class to serializer that handles it.
@@ -88,6 +44,7 @@ public class KryoTranscoder implements Transcoder<Object> {
     /**
      * Sets a map of additional types that should be regisetered with Kryo,
      * for example GoogleAccountsService and OpenIdService.
+     * Serializers are shared between threads and must be stateless.
      *
      * @param map Map of class to the serializer instance that handles it.
      */
@@ -100,61 +57,8 @@ public class KryoTranscoder implements Transcoder<Object> {
      */
     @PostConstruct
     public void initialize() {
-        // Register types we know about and do not require external configuration
-        this.kryo.register(ArrayList.class);
-        this.kryo.register(BasicCredentialMetaData.class);
-        this.kryo.register(Class.class, new DefaultSerializers.ClassSerializer());
-        this.kryo.register(ZonedDateTime.class, new ZonedDateTimeTranscoder());
-        this.kryo.register(HardTimeoutExpirationPolicy.class);
-        this.kryo.register(HashMap.class);
-        this.kryo.register(LinkedHashMap.class);
-        this.kryo.register(HashSet.class);
-        this.kryo.register(DefaultHandlerResult.class);
-        this.kryo.register(DefaultAuthentication.class);
-        this.kryo.register(MultiTimeUseOrTimeoutExpirationPolicy.class);
-        this.kryo.register(NeverExpiresExpirationPolicy.class);
-        this.kryo.register(RememberMeDelegatingExpirationPolicy.class);
-        this.kryo.register(ServiceTicketImpl.class);
-        this.kryo.register(SimpleWebApplicationServiceImpl.class, new SimpleWebApplicationServiceSerializer());
-        this.kryo.register(ThrottledUseAndTimeoutExpirationPolicy.class);
-        this.kryo.register(TicketGrantingTicketExpirationPolicy.class);
-        this.kryo.register(TicketGrantingTicketImpl.class);
-        this.kryo.register(TimeoutExpirationPolicy.class);
-        this.kryo.register(UsernamePasswordCredential.class);
-        this.kryo.register(SimplePrincipal.class);
-        this.kryo.register(URL.class, new URLSerializer());
-        this.kryo.register(URI.class, new URISerializer());
-        this.kryo.register(Pattern.class, new RegexSerializer());
-        this.kryo.register(UUID.class, new UUIDSerializer());
-        this.kryo.register(EnumMap.class, new EnumMapSerializer());
-        this.kryo.register(EnumSet.class, new EnumSetSerializer());
-
-        // we add these ones for tests only
-        this.kryo.register(RegexRegisteredService.class, new RegisteredServiceSerializer());
-
-
-        // from the kryo-serializers library (https://github.com/magro/kryo-serializers)
-        UnmodifiableCollectionsSerializer.registerSerializers(this.kryo);
-        ImmutableListSerializer.registerSerializers(this.kryo);
-        ImmutableSetSerializer.registerSerializers(this.kryo);
-        ImmutableMapSerializer.registerSerializers(this.kryo);
-        ImmutableMultimapSerializer.registerSerializers(this.kryo);
-
-        this.kryo.register(Collections.EMPTY_LIST.getClass(), new CollectionsEmptyListSerializer());
-        this.kryo.register(Collections.EMPTY_MAP.getClass(), new CollectionsEmptyMapSerializer());
-        this.kryo.register(Collections.EMPTY_SET.getClass(), new CollectionsEmptySetSerializer());
-
         // Register other types
-        if (this.serializerMap != null) {
-            this.serializerMap.forEach(this.kryo::register);
-        }
-
-        // don't reinit the registered classes after every write or read
-        this.kryo.setAutoReset(false);
-        // don't replace objects by references
-        this.kryo.setReferences(false);
-        // Catchall for any classes not explicitly registered
-        this.kryo.setRegistrationRequired(false);
+        this.serializer = new ServiceKryoTicketSerializer(this.serializerMap != null ? this.serializerMap : Collections.emptyMap());
     }
 
     /**
@@ -170,22 +74,13 @@ public class KryoTranscoder implements Transcoder<Object> {
 
     @Override
     public CachedData encode(final Object obj) {
-        final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-        try (final Output output = new Output(byteStream)) {
-            this.kryo.writeClassAndObject(output, obj);
-            output.flush();
-            final byte[] bytes = byteStream.toByteArray();
-            return new CachedData(0, bytes, bytes.length);
-        }
+        final byte[] bytes = this.serializer.serialize(obj);
+        return new CachedData(0, bytes, bytes.length);
     }
 
     @Override
     public Object decode(final CachedData d) {
-        final byte[] bytes = d.getData();
-        try (final Input input = new Input(new ByteArrayInputStream(bytes))) {
-            final Object obj = this.kryo.readClassAndObject(input);
-            return obj;
-        }
+        return this.serializer.deserialize(d.getData(), Object.class);
     }
 
     /**
@@ -199,11 +94,32 @@ public class KryoTranscoder implements Transcoder<Object> {
     }
 
     /**
-     * Gets the kryo object that provides encoding and decoding services for this instance.
+     * Gets the kryo object that provides encoding and decoding services for the calling thread.
      *
      * @return Underlying Kryo instance.
      */
     public Kryo getKryo() {
-        return this.kryo;
+        return this.serializer.getKryo();
+    }
+
+    /**
+     * Registers the service types of this module where the transcoder always did.
+     */
+    private static class ServiceKryoTicketSerializer extends KryoTicketSerializer {
+
+        ServiceKryoTicketSerializer(final Map<Class<?>, Serializer> serializers) {
+            super(serializers);
+        }
+
+        @Override
+        protected void registerServiceTypes(final Kryo kryo) {
+            kryo.register(SimpleWebApplicationServiceImpl.class, new SimpleWebApplicationServiceSerializer());
+        }
+
+        @Override
+        protected void registerRegisteredServiceTypes(final Kryo kryo) {
+            // we add these ones for tests only
+            kryo.register(RegexRegisteredService.class, new RegisteredServiceSerializer());
+        }
     }
 }
@@ -1,6 +1,8 @@
 package org.apereo.cas.ticket.registry.support.kryo;
 
+import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.serializers.FieldSerializer;
 import net.spy.memcached.CachedData;
 import org.apereo.cas.authentication.AcceptUsersAuthenticationHandler;
@@ -9,9 +11,12 @@ import org.apereo.cas.authentication.BasicCredentialMetaData;
 import org.apereo.cas.authentication.DefaultAuthenticationBuilder;
 import org.apereo.cas.authentication.PreventedException;
 import org.apereo.cas.mock.MockTicketGrantingTicket;
+import org.apereo.cas.authentication.principal.SimpleWebApplicationServiceImpl;
+import org.apereo.cas.services.RegexRegisteredService;
 import org.apereo.cas.services.RegisteredService;
 import org.apereo.cas.services.TestUtils;
 import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.ServiceTicketImpl;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.authentication.AuthenticationBuilder;
 import org.apereo.cas.authentication.Credential;
@@ -30,13 +35,16 @@ import java.net.URL;
 import java.security.GeneralSecurityException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -77,6 +85,69 @@ public class KryoTranscoderTests {
         this.principalAttributes.put(NICKNAME_KEY, NICKNAME_VALUE);
     }
 
+    @Test
+    public void verifyRegistrationIdsAreUnchanged() {
+        // ids assigned by earlier versions, after the ten types kryo registers itself
+        assertEquals(23, transcoder.getKryo().getRegistration(ServiceTicketImpl.class).getId());
+        assertEquals(24, transcoder.getKryo().getRegistration(SimpleWebApplicationServiceImpl.class).getId());
+        assertEquals(27, transcoder.getKryo().getRegistration(TicketGrantingTicketImpl.class).getId());
+        assertEquals(36, transcoder.getKryo().getRegistration(EnumSet.class).getId());
+        assertEquals(37, transcoder.getKryo().getRegistration(RegexRegisteredService.class).getId());
+    }
+
+    @Test
+    public void verifyTicketLayoutsAreUnchanged() {
+        // fields written by earlier versions, in the order kryo writes them
+        assertEquals(Arrays.asList("authentication", "countOfUses", "creationTime", "expirationPolicy", "expired", "id",
+                "lastTimeUsed", "previousLastTimeUsed", "proxiedBy", "proxyGrantingTickets", "services", "ticketGrantingTicket"),
+                getFieldNames(TicketGrantingTicketImpl.class));
+        assertEquals(Arrays.asList("countOfUses", "creationTime", "expirationPolicy", "fromNewLogin", "grantedTicketAlready", "id",
+                "lastTimeUsed", "previousLastTimeUsed", "service", "ticketGrantingTicket"),
+                getFieldNames(ServiceTicketImpl.class));
+    }
+
+    @Test
+    public void verifyDecodeTicketsWrittenByEarlierVersions() throws Exception {
+        final TicketGrantingTicket expectedTGT = new TicketGrantingTicketImpl(TGT_ID,
+                org.apereo.cas.authentication.TestUtils.getAuthentication(USERNAME), new NeverExpiresExpirationPolicy());
+        final ServiceTicket expectedST = expectedTGT.grantServiceTicket(ST_ID, TestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), null, true);
+
+        // earlier versions serialized every field the tickets had then, which excludes those added since
+        final KryoTranscoder earlier = new KryoTranscoder();
+        earlier.initialize();
+        final Kryo kryo = earlier.getKryo();
+        kryo.register(TicketGrantingTicketImpl.class, newFieldSerializer(kryo, TicketGrantingTicketImpl.class,
+                "expirationDeadline", "principalId", "version"), 27);
+        kryo.register(ServiceTicketImpl.class, newFieldSerializer(kryo, ServiceTicketImpl.class, "expirationDeadline"), 23);
+
+        final TicketGrantingTicket resultTGT = (TicketGrantingTicket) transcoder.decode(encode(kryo, expectedTGT));
+        assertEquals(expectedTGT, resultTGT);
+        assertEquals(USERNAME, resultTGT.getAuthentication().getPrincipal().getId());
+        assertEquals(1, resultTGT.getServices().size());
+        final ServiceTicket resultST = (ServiceTicket) transcoder.decode(encode(kryo, expectedST));
+        assertEquals(expectedST, resultST);
+        assertEquals(expectedST.getService(), resultST.getService());
+    }
+
+    private List<String> getFieldNames(final Class<?> type) {
+        final FieldSerializer<?> serializer = (FieldSerializer<?>) transcoder.getKryo().getRegistration(type).getSerializer();
+        return Arrays.stream(serializer.getFields()).map(field -> field.getField().getName()).collect(Collectors.toList());
+    }
+
+    private static FieldSerializer<?> newFieldSerializer(final Kryo kryo, final Class<?> type, final String... removedFields) {
+        final FieldSerializer<?> serializer = new FieldSerializer<>(kryo, type);
+        Arrays.stream(removedFields).forEach(serializer::removeField);
+        return serializer;
+    }
+
+    private static CachedData encode(final Kryo kryo, final Object object) {
+        final Output output = new Output(4096, -1);
+        kryo.writeClassAndObject(output, object);
+        final byte[] bytes = output.toBytes();
+        return new CachedData(0, bytes, bytes.length);
+    }
+
     @Test
     public void verifyEncodeDecodeTGTImpl() throws Exception {
         final Credential userPassCredential = new UsernamePasswordCredential(USERNAME, PASSWORD);
@@ -8,7 +8,14 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * <p>Implementation of {@code ServiceRegistryDao} that uses a MongoDb repository as the backend
@@ -17,6 +24,9 @@ import java.util.List;
  * of the collection may be specified through {@link #setCollectionName(String)}.
  * It also presents the ability to drop an existing collection and start afresh
  * through the use of {@link #setDropCollection(boolean)}.</p>
+ * <p>Services record when they were last saved, so that services changed since a watermark
+ * can be looked up. Services saved shortly before the watermark are reported again, to allow for
+ * clocks that differ between nodes. Services are reported as deleted when their id is no longer found.</p>
  *
  * @author Misagh Moayyed
  * @since 4.1
@@ -25,12 +35,20 @@ public class MongoServiceRegistryDao implements ServiceRegistryDao {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoServiceRegistryDao.class);
 
+    private static final long CHANGE_WINDOW = 60000;
+
     private String collectionName;
 
     private boolean dropCollection;
 
     private MongoOperations mongoTemplate;
 
+    /**
+     * Ids of the services last loaded, saved or reported as changed. Deleted services stay
+     * known until their deletion is reported.
+     */
+    private final Set<Long> knownIds = ConcurrentHashMap.newKeySet();
+
     /**
      * Ctor.
      *
@@ -87,7 +105,10 @@ public class MongoServiceRegistryDao implements ServiceRegistryDao {
 
     @Override
     public List<RegisteredService> load() {
-        return this.mongoTemplate.findAll(RegisteredService.class, this.collectionName);
+        final List<RegisteredService> services = this.mongoTemplate.findAll(RegisteredService.class, this.collectionName);
+        this.knownIds.clear();
+        services.forEach(r -> this.knownIds.add(r.getId()));
+        return services;
     }
 
     @Override
@@ -95,11 +116,51 @@ public class MongoServiceRegistryDao implements ServiceRegistryDao {
         if (svc.getId() == AbstractRegisteredService.INITIAL_IDENTIFIER_VALUE) {
             ((AbstractRegisteredService) svc).setId(svc.hashCode());
         }
+        if (svc instanceof AbstractRegisteredService) {
+            ((AbstractRegisteredService) svc).setLastModified(System.currentTimeMillis());
+        }
         this.mongoTemplate.save(svc, this.collectionName);
+        this.knownIds.add(svc.getId());
         LOGGER.debug("Saved registered service: {}", svc);
         return this.findServiceById(svc.getId());
     }
 
+    @Override
+    public long getWatermark() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Services added without a modification time, for example directly in the database,
+     * are reported once their id is first found. Services modified that way are only
+     * picked up when all services are loaded again.
+     */
+    @Override
+    public Optional<RegisteredServiceChanges> getChangesSince(final long watermark) {
+        final long now = System.currentTimeMillis();
+        final Map<Long, RegisteredService> saved = new LinkedHashMap<>();
+        this.mongoTemplate.find(new Query(Criteria.where("lastModified").gt(watermark - CHANGE_WINDOW)),
+                RegisteredService.class, this.collectionName).forEach(r -> saved.put(r.getId(), r));
+
+        final Set<Long> ids = new HashSet<>();
+        this.mongoTemplate.getCollection(this.collectionName).distinct("_id")
+                .forEach(id -> ids.add(((Number) id).longValue()));
+        ids.stream().filter(id -> !this.knownIds.contains(id) && !saved.containsKey(id)).forEach(id -> {
+            final RegisteredService r = findServiceById(id);
+            if (r != null) {
+                saved.put(id, r);
+            }
+        });
+        final List<Long> deleted = this.knownIds.stream().filter(id -> !ids.contains(id)).collect(Collectors.toList());
+        this.knownIds.retainAll(ids);
+        this.knownIds.addAll(ids);
+
+        LOGGER.debug("Found {} saved and {} deleted services since {}", saved.size(), deleted.size(), watermark);
+        return Optional.of(new RegisteredServiceChanges(now, saved.values(), deleted));
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName();
@@ -56,6 +56,21 @@ public class MongoServiceRegistryDaoTests {
         assertTrue(this.serviceRegistryDao.load().isEmpty());
     }
 
+    @Test
+    public void verifyChangesSinceWatermark() {
+        final long watermark = this.serviceRegistryDao.getWatermark();
+        final RegisteredService saved = this.serviceRegistryDao.save(buildService(0));
+
+        final RegisteredServiceChanges changes = this.serviceRegistryDao.getChangesSince(watermark).get();
+        assertTrue(changes.getSavedServices().stream().anyMatch(s -> s.getId() == saved.getId()));
+        assertFalse(changes.getDeletedServiceIds().contains(saved.getId()));
+
+        this.serviceRegistryDao.delete(saved);
+        final RegisteredServiceChanges deleted = this.serviceRegistryDao.getChangesSince(changes.getWatermark()).get();
+        assertTrue(deleted.getDeletedServiceIds().contains(saved.getId()));
+        assertFalse(deleted.getSavedServices().stream().anyMatch(s -> s.getId() == saved.getId()));
+    }
+
     private static RegisteredService buildService(final int i) {
         final AbstractRegisteredService rs = TestUtils.getRegisteredService("^http://www.serviceid" + i + ".org");
 
@@ -17,6 +17,7 @@ import org.apereo.cas.support.oauth.web.OAuth20CallbackAuthorizeViewResolver;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistrySupport;
 import org.apereo.cas.util.OidcAuthorizationRequestSupport;
+import org.apereo.cas.util.OidcJsonWebKeystoreCache;
 import org.apereo.cas.web.OidcAccessTokenController;
 import org.apereo.cas.web.OidcAccessTokenResponseGenerator;
 import org.apereo.cas.web.OidcAuthorizeController;
@@ -224,11 +225,18 @@ public class OidcConfiguration extends WebMvcConfigurerAdapter {
 
         gen.setIssuer(properties.getIssuer());
         gen.setJwksFile(properties.getJwksFile());
+        gen.setJsonWebKeystoreCache(oidcJsonWebKeystoreCache());
         gen.setSkew(properties.getSkew());
 
         return gen;
     }
 
+    @Bean
+    @RefreshScope
+    public OidcJsonWebKeystoreCache oidcJsonWebKeystoreCache() {
+        return new OidcJsonWebKeystoreCache(properties.getJwksCacheInSeconds());
+    }
+
     @Bean
     public OidcAuthorizationRequestSupport oidcAuthorizationRequestSupport() {
         final OidcAuthorizationRequestSupport s = new OidcAuthorizationRequestSupport();
@@ -0,0 +1,199 @@
+package org.apereo.cas.util;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.commons.io.IOUtils;
+import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.JsonWebKeySet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link OidcJsonWebKeystoreCache}.
+ * <p>
+ * Keeps parsed JSON web keystores in memory, keyed by the resource they were read from.
+ * Once the refresh interval has passed since a keystore was read, the next request for it
+ * checks whether the resource was modified, and reads it again if so or if the resource
+ * cannot tell. Other requests meanwhile keep getting the keystore as it was.
+ * If the keystore can no longer be read, the last good copy is kept.
+ * <p>
+ * Keystores hold private keys and are shared; callers must not modify them.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class OidcJsonWebKeystoreCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OidcJsonWebKeystoreCache.class);
+
+    private final LoadingCache<Resource, CachedJsonWebKeySet> cache;
+
+    private volatile PublishedJsonWebKeySet published;
+
+    /**
+     * Instantiates a new keystore cache.
+     *
+     * @param refreshInterval the number of seconds after which keystores are checked for modification
+     */
+    public OidcJsonWebKeystoreCache(final long refreshInterval) {
+        this.cache = CacheBuilder.newBuilder()
+                .refreshAfterWrite(refreshInterval, TimeUnit.SECONDS)
+                .expireAfterAccess(1, TimeUnit.DAYS)
+                .build(new JsonWebKeySetCacheLoader());
+    }
+
+    /**
+     * Gets the keystore read from the resource.
+     *
+     * @param resource the resource
+     * @return the keystore, or empty if it cannot be read
+     */
+    public Optional<JsonWebKeySet> getJsonWebKeySet(final Resource resource) {
+        if (resource == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(this.cache.getUnchecked(resource).getJsonWebKeySet());
+        } catch (final Exception e) {
+            LOGGER.debug("Could not load JWKS from {}: {}", resource, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Gets the public keys of all the given keystores as a single JWKS document.
+     * The document is only built again when one of the keystores has changed,
+     * so that serving it does not cost more than looking up the keystores.
+     * Keystores that cannot be read are skipped.
+     *
+     * @param resources the keystore resources
+     * @return the document
+     */
+    public PublishedJsonWebKeySet getPublicJsonWebKeySet(final Collection<Resource> resources) {
+        final List<CachedJsonWebKeySet> sources = new ArrayList<>(resources.size());
+        for (final Resource resource : resources) {
+            try {
+                sources.add(this.cache.getUnchecked(resource));
+            } catch (final Exception e) {
+                LOGGER.warn("Could not load JWKS from {}: {}", resource, e.getMessage());
+            }
+        }
+
+        final PublishedJsonWebKeySet current = this.published;
+        if (current != null && current.isPublishedFrom(sources)) {
+            return current;
+        }
+
+        final JsonWebKeySet jsonWebKeySet = new JsonWebKeySet();
+        sources.forEach(s -> s.getJsonWebKeySet().getJsonWebKeys().forEach(jsonWebKeySet::addJsonWebKey));
+        final PublishedJsonWebKeySet result = new PublishedJsonWebKeySet(sources,
+                jsonWebKeySet.toJson(JsonWebKey.OutputControlLevel.PUBLIC_ONLY));
+        this.published = result;
+        return result;
+    }
+
+    /**
+     * The public JWKS document built from a number of keystores.
+     */
+    public static class PublishedJsonWebKeySet {
+        private final List<CachedJsonWebKeySet> sources;
+        private final String json;
+        private final String eTag;
+
+        PublishedJsonWebKeySet(final List<CachedJsonWebKeySet> sources, final String json) {
+            this.sources = sources;
+            this.json = json;
+            this.eTag = '"' + Hashing.sha256().hashString(json, StandardCharsets.UTF_8).toString() + '"';
+        }
+
+        public String getJson() {
+            return this.json;
+        }
+
+        public String getETag() {
+            return this.eTag;
+        }
+
+        private boolean isPublishedFrom(final List<CachedJsonWebKeySet> keySets) {
+            if (keySets.size() != this.sources.size()) {
+                return false;
+            }
+            for (int i = 0; i < keySets.size(); i++) {
+                if (keySets.get(i) != this.sources.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A keystore and the modification time of the resource it was read from.
+     */
+    private static class CachedJsonWebKeySet {
+        private final JsonWebKeySet jsonWebKeySet;
+        private final long lastModified;
+
+        CachedJsonWebKeySet(final JsonWebKeySet jsonWebKeySet, final long lastModified) {
+            this.jsonWebKeySet = jsonWebKeySet;
+            this.lastModified = lastModified;
+        }
+
+        JsonWebKeySet getJsonWebKeySet() {
+            return this.jsonWebKeySet;
+        }
+
+        long getLastModified() {
+            return this.lastModified;
+        }
+    }
+
+    /**
+     * Reads keystores, and reads them again on refresh only if they were modified.
+     */
+    private static class JsonWebKeySetCacheLoader extends CacheLoader<Resource, CachedJsonWebKeySet> {
+        @Override
+        public CachedJsonWebKeySet load(final Resource resource) throws Exception {
+            LOGGER.debug("Loading JWKS from {}", resource);
+            final long lastModified = getLastModified(resource);
+            try (InputStream in = resource.getInputStream()) {
+                return new CachedJsonWebKeySet(new JsonWebKeySet(IOUtils.toString(in, StandardCharsets.UTF_8)), lastModified);
+            }
+        }
+
+        @Override
+        public ListenableFuture<CachedJsonWebKeySet> reload(final Resource resource, final CachedJsonWebKeySet oldValue) {
+            final long lastModified = getLastModified(resource);
+            if (lastModified != 0 && lastModified == oldValue.getLastModified()) {
+                return Futures.immediateFuture(oldValue);
+            }
+            try {
+                return Futures.immediateFuture(load(resource));
+            } catch (final Exception e) {
+                throw Throwables.propagate(e);
+            }
+        }
+
+        private static long getLastModified(final Resource resource) {
+            try {
+                return resource.lastModified();
+            } catch (final IOException e) {
+                return 0;
+            }
+        }
+    }
+}
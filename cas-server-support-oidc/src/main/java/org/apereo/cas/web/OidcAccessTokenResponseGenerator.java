@@ -2,7 +2,6 @@ package org.apereo.cas.web;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.collect.Sets;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.OidcConstants;
 import org.apereo.cas.authentication.Authentication;
@@ -14,6 +13,7 @@ import org.apereo.cas.support.oauth.OAuthConstants;
 import org.apereo.cas.support.oauth.services.OAuthRegisteredService;
 import org.apereo.cas.support.oauth.ticket.accesstoken.AccessToken;
 import org.apereo.cas.support.oauth.ticket.refreshtoken.RefreshToken;
+import org.apereo.cas.util.OidcJsonWebKeystoreCache;
 import org.jose4j.jwa.AlgorithmConstraints;
 import org.jose4j.jwk.JsonWebKeySet;
 import org.jose4j.jwk.RsaJsonWebKey;
@@ -45,6 +45,8 @@ public class OidcAccessTokenResponseGenerator extends OAuth20AccessTokenResponse
 
     private Resource jwksFile;
 
+    private OidcJsonWebKeystoreCache jsonWebKeystoreCache;
+
     @Override
     protected void generateJsonInternal(final HttpServletRequest request,
                                         final HttpServletResponse response,
@@ -156,26 +158,16 @@ public class OidcAccessTokenResponseGenerator extends OAuth20AccessTokenResponse
      * @throws Exception the exception
      */
     protected Optional<JsonWebKeySet> buildJsonWebKeySet(final OidcRegisteredService service) throws Exception {
-        JsonWebKeySet jsonWebKeySet = null;
-        try {
-            if (StringUtils.isNotBlank(service.getJwks())) {
-                logger.debug("Loading JWKS from {}", service.getJwks());
-                final Resource resource = this.resourceLoader.getResource(service.getJwks());
-                jsonWebKeySet = new JsonWebKeySet(IOUtils.toString(resource.getInputStream(), "UTF-8"));
-            }
-        } catch (final Exception e) {
-            logger.debug(e.getMessage(), e);
-        } finally {
-            if (jsonWebKeySet == null) {
-                logger.debug("Loading default JWKS from {}", this.jwksFile);
-                
-                if (this.jwksFile != null) {
-                    final String jsonJwks = IOUtils.toString(this.jwksFile.getInputStream(), "UTF-8");
-                    jsonWebKeySet = new JsonWebKeySet(jsonJwks);
-                }
-            }
+        Optional<JsonWebKeySet> jsonWebKeySet = Optional.empty();
+        if (StringUtils.isNotBlank(service.getJwks())) {
+            logger.debug("Loading JWKS from {}", service.getJwks());
+            jsonWebKeySet = this.jsonWebKeystoreCache.getJsonWebKeySet(this.resourceLoader.getResource(service.getJwks()));
         }
-        return jsonWebKeySet != null ? Optional.of(jsonWebKeySet) : Optional.empty();
+        if (!jsonWebKeySet.isPresent()) {
+            logger.debug("Loading default JWKS from {}", this.jwksFile);
+            jsonWebKeySet = this.jsonWebKeystoreCache.getJsonWebKeySet(this.jwksFile);
+        }
+        return jsonWebKeySet;
     }
 
     public void setIssuer(final String issuer) {
@@ -189,5 +181,9 @@ public class OidcAccessTokenResponseGenerator extends OAuth20AccessTokenResponse
     public void setJwksFile(final Resource jwksFile) {
         this.jwksFile = jwksFile;
     }
+
+    public void setJsonWebKeystoreCache(final OidcJsonWebKeystoreCache jsonWebKeystoreCache) {
+        this.jsonWebKeystoreCache = jsonWebKeystoreCache;
+    }
 }
 
@@ -1,18 +1,19 @@
 package org.apereo.cas.web;
 
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.OidcConstants;
+import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.services.OidcRegisteredService;
 import org.apereo.cas.services.ServicesManager;
-import org.jooq.lambda.Unchecked;
-import org.jose4j.jwk.JsonWebKey;
-import org.jose4j.jwk.JsonWebKeySet;
+import org.apereo.cas.util.OidcJsonWebKeystoreCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +24,9 @@ import org.springframework.web.bind.annotation.RequestMethod;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link OidcJwksController}.
@@ -39,14 +43,21 @@ public class OidcJwksController {
      */
     @Autowired
     protected ResourceLoader resourceLoader;
-    
-    private Resource jwksFile;
+
+    @Autowired
+    @Qualifier("oidcJsonWebKeystoreCache")
+    private OidcJsonWebKeystoreCache jsonWebKeystoreCache;
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
 
     @javax.annotation.Resource(name="servicesManager")
     private ServicesManager servicesManager;
 
     /**
      * Handle request for jwk set.
+     * The keystores are read from memory, and the document is
+     * only sent if it has changed since the client last received it.
      *
      * @param request  the request
      * @param response the response
@@ -60,21 +71,28 @@ public class OidcJwksController {
                                                         final HttpServletResponse response,
                                                         final Model model) throws Exception {
 
-        final String jsonJwks = IOUtils.toString(this.jwksFile.getInputStream(), "UTF-8");
-        final JsonWebKeySet jsonWebKeySet = new JsonWebKeySet(jsonJwks);
-
+        final List<Resource> resources = new ArrayList<>();
+        resources.add(casProperties.getAuthn().getOidc().getJwksFile());
         this.servicesManager.getAllServices()
                 .stream()
                 .filter(s -> s instanceof OidcRegisteredService && StringUtils.isNotBlank(((OidcRegisteredService) s).getJwks()))
-                .forEach(
-                        Unchecked.consumer(s -> {
-                            final OidcRegisteredService service = (OidcRegisteredService) s;
-                            final Resource resource = this.resourceLoader.getResource(service.getJwks());
-                            final JsonWebKeySet set = new JsonWebKeySet(IOUtils.toString(resource.getInputStream(), "UTF-8"));
-                            set.getJsonWebKeys().forEach(k -> jsonWebKeySet.addJsonWebKey(k));
-                        }));
-        final String body = jsonWebKeySet.toJson(JsonWebKey.OutputControlLevel.PUBLIC_ONLY);
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        return new ResponseEntity<>(body, HttpStatus.OK);
+                .forEach(s -> resources.add(this.resourceLoader.getResource(((OidcRegisteredService) s).getJwks())));
+
+        final OidcJsonWebKeystoreCache.PublishedJsonWebKeySet jsonWebKeySet =
+                this.jsonWebKeystoreCache.getPublicJsonWebKeySet(resources);
+        final CacheControl cacheControl = CacheControl.maxAge(
+                casProperties.getAuthn().getOidc().getJwksCacheInSeconds(), TimeUnit.SECONDS);
+
+        if (jsonWebKeySet.getETag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(jsonWebKeySet.getETag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(jsonWebKeySet.getETag())
+                .cacheControl(cacheControl)
+                .body(jsonWebKeySet.getJson());
     }
 }
@@ -0,0 +1,94 @@
+package org.apereo.cas.util;
+
+import org.apache.commons.io.FileUtils;
+import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.JsonWebKeySet;
+import org.jose4j.jwk.RsaJwkGenerator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link OidcJsonWebKeystoreCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class OidcJsonWebKeystoreCacheTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    private Resource resource;
+
+    private OidcJsonWebKeystoreCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        this.file = this.folder.newFile("keystore.jwks");
+        writeKeystore("key1");
+        this.resource = new FileSystemResource(this.file);
+        this.cache = new OidcJsonWebKeystoreCache(1);
+    }
+
+    @Test
+    public void verifyKeystoreIsLoadedOnce() throws Exception {
+        final JsonWebKeySet keySet = this.cache.getJsonWebKeySet(this.resource).get();
+        assertEquals("key1", keySet.getJsonWebKeys().get(0).getKeyId());
+
+        FileUtils.deleteQuietly(this.file);
+        assertSame(keySet, this.cache.getJsonWebKeySet(this.resource).get());
+    }
+
+    @Test
+    public void verifyUnreadableKeystore() {
+        assertFalse(this.cache.getJsonWebKeySet(new FileSystemResource(new File(this.folder.getRoot(), "missing.jwks"))).isPresent());
+        assertFalse(this.cache.getJsonWebKeySet(null).isPresent());
+    }
+
+    @Test
+    public void verifyKeystoreIsReloadedOnlyWhenModified() throws Exception {
+        final JsonWebKeySet keySet = this.cache.getJsonWebKeySet(this.resource).get();
+
+        Thread.sleep(1500);
+        assertSame(keySet, this.cache.getJsonWebKeySet(this.resource).get());
+
+        writeKeystore("key2");
+        assertTrue(this.file.setLastModified(this.file.lastModified() + 10_000));
+        Thread.sleep(1500);
+        final Optional<JsonWebKeySet> reloaded = this.cache.getJsonWebKeySet(this.resource);
+        assertEquals("key2", reloaded.get().getJsonWebKeys().get(0).getKeyId());
+    }
+
+    @Test
+    public void verifyPublishedKeystoreHasPublicKeysOnly() throws Exception {
+        final OidcJsonWebKeystoreCache.PublishedJsonWebKeySet published =
+                this.cache.getPublicJsonWebKeySet(Collections.singletonList(this.resource));
+        assertTrue(published.getJson().contains("key1"));
+        assertFalse(published.getJson().contains("\"d\""));
+        assertNotNull(published.getETag());
+        assertSame(published, this.cache.getPublicJsonWebKeySet(Collections.singletonList(this.resource)));
+
+        final OidcJsonWebKeystoreCache.PublishedJsonWebKeySet empty = this.cache.getPublicJsonWebKeySet(Collections.emptyList());
+        assertNotEquals(published.getETag(), empty.getETag());
+    }
+
+    private void writeKeystore(final String keyId) throws Exception {
+        final JsonWebKey key = RsaJwkGenerator.generateJwk(2048);
+        key.setKeyId(keyId);
+        FileUtils.write(this.file, new JsonWebKeySet(key).toJson(JsonWebKey.OutputControlLevel.INCLUDE_PRIVATE),
+                StandardCharsets.UTF_8);
+    }
+}
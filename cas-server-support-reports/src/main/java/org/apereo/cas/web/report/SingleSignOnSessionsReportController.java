@@ -6,6 +6,7 @@ import org.apereo.cas.authentication.AuthenticationSystemSupport;
 import org.apereo.cas.authentication.principal.Principal;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.registry.TicketQuery;
 import org.apereo.cas.util.DateTimeUtils;
 import org.apereo.cas.util.ISOStandardDateFormat;
 
@@ -25,6 +26,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * SSO Report web controller that produces JSON data for the view.
@@ -119,40 +121,40 @@ public class SingleSignOnSessionsReportController {
         final Collection<Map<String, Object>> activeSessions = new ArrayList<>();
         final ISOStandardDateFormat dateFormat = new ISOStandardDateFormat();
 
-        for (final Ticket ticket : getNonExpiredTicketGrantingTickets()) {
-            final TicketGrantingTicket tgt = (TicketGrantingTicket) ticket;
-
-            if (option == SsoSessionReportOptions.DIRECT && tgt.getProxiedBy() != null) {
-                continue;
-            }
+        try (Stream<Ticket> tickets = getNonExpiredTicketGrantingTickets()) {
+            tickets.map(TicketGrantingTicket.class::cast)
+                    .filter(tgt -> option != SsoSessionReportOptions.DIRECT || tgt.getProxiedBy() == null)
+                    .forEach(tgt -> activeSessions.add(toSsoSession(tgt, option, dateFormat)));
+        }
+        return activeSessions;
+    }
 
-            final Authentication authentication = tgt.getAuthentication();
-            final Principal principal = authentication.getPrincipal();
-
-            final Map<String, Object> sso = new HashMap<>(SsoSessionAttributeKeys.values().length);
-            sso.put(SsoSessionAttributeKeys.AUTHENTICATED_PRINCIPAL.toString(), principal.getId());
-            sso.put(SsoSessionAttributeKeys.AUTHENTICATION_DATE.toString(), authentication.getAuthenticationDate());
-            sso.put(SsoSessionAttributeKeys.AUTHENTICATION_DATE_FORMATTED.toString(),
-                    dateFormat.format(DateTimeUtils.dateOf(authentication.getAuthenticationDate())));
-            sso.put(SsoSessionAttributeKeys.NUMBER_OF_USES.toString(), tgt.getCountOfUses());
-            sso.put(SsoSessionAttributeKeys.TICKET_GRANTING_TICKET.toString(), tgt.getId());
-            sso.put(SsoSessionAttributeKeys.PRINCIPAL_ATTRIBUTES.toString(), principal.getAttributes());
-            sso.put(SsoSessionAttributeKeys.AUTHENTICATION_ATTRIBUTES.toString(), authentication.getAttributes());
-
-            if (option != SsoSessionReportOptions.DIRECT) {
-                if (tgt.getProxiedBy() != null) {
-                    sso.put(SsoSessionAttributeKeys.IS_PROXIED.toString(), Boolean.TRUE);
-                    sso.put(SsoSessionAttributeKeys.PROXIED_BY.toString(), tgt.getProxiedBy().getId());
-                } else {
-                    sso.put(SsoSessionAttributeKeys.IS_PROXIED.toString(), Boolean.FALSE);
-                }
+    private static Map<String, Object> toSsoSession(final TicketGrantingTicket tgt, final SsoSessionReportOptions option,
+                                                    final ISOStandardDateFormat dateFormat) {
+        final Authentication authentication = tgt.getAuthentication();
+        final Principal principal = authentication.getPrincipal();
+
+        final Map<String, Object> sso = new HashMap<>(SsoSessionAttributeKeys.values().length);
+        sso.put(SsoSessionAttributeKeys.AUTHENTICATED_PRINCIPAL.toString(), principal.getId());
+        sso.put(SsoSessionAttributeKeys.AUTHENTICATION_DATE.toString(), authentication.getAuthenticationDate());
+        sso.put(SsoSessionAttributeKeys.AUTHENTICATION_DATE_FORMATTED.toString(),
+                dateFormat.format(DateTimeUtils.dateOf(authentication.getAuthenticationDate())));
+        sso.put(SsoSessionAttributeKeys.NUMBER_OF_USES.toString(), tgt.getCountOfUses());
+        sso.put(SsoSessionAttributeKeys.TICKET_GRANTING_TICKET.toString(), tgt.getId());
+        sso.put(SsoSessionAttributeKeys.PRINCIPAL_ATTRIBUTES.toString(), principal.getAttributes());
+        sso.put(SsoSessionAttributeKeys.AUTHENTICATION_ATTRIBUTES.toString(), authentication.getAttributes());
+
+        if (option != SsoSessionReportOptions.DIRECT) {
+            if (tgt.getProxiedBy() != null) {
+                sso.put(SsoSessionAttributeKeys.IS_PROXIED.toString(), Boolean.TRUE);
+                sso.put(SsoSessionAttributeKeys.PROXIED_BY.toString(), tgt.getProxiedBy().getId());
+            } else {
+                sso.put(SsoSessionAttributeKeys.IS_PROXIED.toString(), Boolean.FALSE);
             }
-
-            sso.put(SsoSessionAttributeKeys.AUTHENTICATED_SERVICES.toString(), tgt.getServices());
-
-            activeSessions.add(sso);
         }
-        return activeSessions;
+
+        sso.put(SsoSessionAttributeKeys.AUTHENTICATED_SERVICES.toString(), tgt.getServices());
+        return sso;
     }
 
     /**
@@ -160,13 +162,9 @@ public class SingleSignOnSessionsReportController {
      *
      * @return the non expired ticket granting tickets
      */
-    private Collection<Ticket> getNonExpiredTicketGrantingTickets() {
-        return this.centralAuthenticationService.getTickets(ticket -> {
-            if (ticket instanceof TicketGrantingTicket) {
-                return !ticket.isExpired();
-            }
-            return false;
-        });
+    private Stream<Ticket> getNonExpiredTicketGrantingTickets() {
+        return this.centralAuthenticationService.getTickets(
+                TicketQuery.ofType(TicketGrantingTicket.class).withPredicate(ticket -> !ticket.isExpired()));
     }
 
     /**
@@ -4,11 +4,11 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.health.HealthCheckRegistry;
 import com.codahale.metrics.servlets.HealthCheckServlet;
 import com.codahale.metrics.servlets.MetricsServlet;
-import com.google.common.base.Predicates;
 import org.apereo.cas.CentralAuthenticationService;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.registry.TicketQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,9 +25,10 @@ import javax.servlet.http.HttpServletResponse;
 import java.time.Duration;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * @author Scott Battaglia
@@ -107,21 +108,22 @@ public class StatisticsController implements ServletContextAware {
         int expiredTgts = 0;
         int expiredSts = 0;
 
-        final Collection<Ticket> tickets =
-                this.centralAuthenticationService.getTickets(Predicates.<Ticket>alwaysTrue());
-
-        for (final Ticket ticket : tickets) {
-            if (ticket instanceof ServiceTicket) {
-                if (ticket.isExpired()) {
-                    expiredSts++;
-                } else {
-                    unexpiredSts++;
-                }
-            } else {
-                if (ticket.isExpired()) {
-                    expiredTgts++;
+        try (Stream<Ticket> tickets = this.centralAuthenticationService.getTickets(TicketQuery.all())) {
+            final Iterator<Ticket> it = tickets.iterator();
+            while (it.hasNext()) {
+                final Ticket ticket = it.next();
+                if (ticket instanceof ServiceTicket) {
+                    if (ticket.isExpired()) {
+                        expiredSts++;
+                    } else {
+                        unexpiredSts++;
+                    }
                 } else {
-                    unexpiredTgts++;
+                    if (ticket.isExpired()) {
+                        expiredTgts++;
+                    } else {
+                        unexpiredTgts++;
+                    }
                 }
             }
         }
@@ -1,5 +1,7 @@
 package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.configuration.CasConfigurationProperties;
@@ -51,9 +53,14 @@ import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * This is {@link SamlObjectSigner}.
+ * <p>
+ * The signing key and certificate are read once and kept until either file
+ * is modified. Signature signing parameters are resolved once per role descriptor
+ * for as long as the same signing credential is in use.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -85,6 +92,8 @@ public class SamlObjectSigner {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    private volatile SigningCredential signingCredential;
+
     /**
      * Encode a given saml object by invoking a number of outbound security handlers on the context.
      *
@@ -198,12 +207,34 @@ public class SamlObjectSigner {
 
     /**
      * Build signature signing parameters signature signing parameters.
+     * Parameters are resolved once per role descriptor and signing credential.
      *
      * @param descriptor the descriptor
      * @return the signature signing parameters
      * @throws SAMLException the saml exception
      */
     protected SignatureSigningParameters buildSignatureSigningParameters(final RoleDescriptor descriptor) throws SAMLException {
+        try {
+            return getCachedSigningCredential().getSigningParameters()
+                    .get(descriptor, () -> resolveSignatureSigningParameters(descriptor));
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof SAMLException) {
+                throw (SAMLException) e.getCause();
+            }
+            throw new SAMLException(e.getCause().getMessage(), e.getCause());
+        } catch (final Exception e) {
+            throw new SAMLException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolve signature signing parameters for the role descriptor.
+     *
+     * @param descriptor the descriptor
+     * @return the signature signing parameters
+     * @throws SAMLException the saml exception
+     */
+    protected SignatureSigningParameters resolveSignatureSigningParameters(final RoleDescriptor descriptor) throws SAMLException {
         try {
             final CriteriaSet criteria = new CriteriaSet();
             criteria.add(new SignatureSigningConfigurationCriterion(getSignatureSigningConfiguration()));
@@ -224,6 +255,8 @@ public class SamlObjectSigner {
                     params.getSignatureReferenceDigestMethod());
 
             return params;
+        } catch (final SAMLException e) {
+            throw e;
         } catch (final Exception e) {
             throw new SAMLException(e.getMessage(), e);
         }
@@ -268,17 +301,40 @@ public class SamlObjectSigner {
         logger.debug("Signature signing whitelisted algorithms: {}", config.getWhitelistedAlgorithms());
         logger.debug("Signature signing reference digest methods: [{}]", config.getSignatureReferenceDigestMethods());
 
-        final PrivateKey privateKey = getSigningPrivateKey();
-        final X509Certificate certificate = getSigningCertificate();
-
         final List<Credential> creds = new ArrayList<>();
-        creds.add(new BasicX509Credential(certificate, privateKey));
+        creds.add(getCachedSigningCredential().getCredential());
         config.setSigningCredentials(creds);
         logger.debug("Signature signing credentials configured");
 
         return config;
     }
 
+    /**
+     * Gets the signing credential, reading the key and certificate again
+     * if either file was modified since they were last read.
+     *
+     * @return the signing credential
+     * @throws Exception the exception
+     */
+    private SigningCredential getCachedSigningCredential() throws Exception {
+        final long certificateLastModified = casProperties.getAuthn().getSamlIdp().getMetadata().getSigningCertFile().lastModified();
+        final long keyLastModified = casProperties.getAuthn().getSamlIdp().getMetadata().getSigningKeyFile().lastModified();
+
+        SigningCredential credential = this.signingCredential;
+        if (credential == null || !credential.isCurrent(certificateLastModified, keyLastModified)) {
+            synchronized (this) {
+                credential = this.signingCredential;
+                if (credential == null || !credential.isCurrent(certificateLastModified, keyLastModified)) {
+                    logger.debug("Loading signature signing credential");
+                    credential = new SigningCredential(new BasicX509Credential(getSigningCertificate(), getSigningPrivateKey()),
+                            certificateLastModified, keyLastModified);
+                    this.signingCredential = credential;
+                }
+            }
+        }
+        return credential;
+    }
+
     /**
      * Gets signing certificate.
      *
@@ -374,4 +430,34 @@ public class SamlObjectSigner {
     public void setOverrideWhiteListedAlgorithms(final List overrideWhiteListedAlgorithms) {
         this.overrideWhiteListedAlgorithms = overrideWhiteListedAlgorithms;
     }
+
+    /**
+     * A signing credential read from disk, the modification times of the files it was read from,
+     * and the signing parameters resolved with it.
+     */
+    private static class SigningCredential {
+        private final Credential credential;
+        private final long certificateLastModified;
+        private final long keyLastModified;
+        private final Cache<RoleDescriptor, SignatureSigningParameters> signingParameters =
+                CacheBuilder.newBuilder().weakKeys().build();
+
+        SigningCredential(final Credential credential, final long certificateLastModified, final long keyLastModified) {
+            this.credential = credential;
+            this.certificateLastModified = certificateLastModified;
+            this.keyLastModified = keyLastModified;
+        }
+
+        boolean isCurrent(final long certificateLastModified, final long keyLastModified) {
+            return this.certificateLastModified == certificateLastModified && this.keyLastModified == keyLastModified;
+        }
+
+        Credential getCredential() {
+            return this.credential;
+        }
+
+        Cache<RoleDescriptor, SignatureSigningParameters> getSigningParameters() {
+            return this.signingParameters;
+        }
+    }
 }
@@ -0,0 +1,144 @@
+package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
+
+import org.apache.commons.io.FileUtils;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.opensaml.core.config.InitializationService;
+import org.opensaml.core.xml.XMLObjectBuilderFactory;
+import org.opensaml.core.xml.config.XMLObjectProviderRegistrySupport;
+import org.opensaml.saml.saml2.core.Issuer;
+import org.opensaml.saml.saml2.core.Response;
+import org.opensaml.saml.saml2.metadata.SPSSODescriptor;
+import org.opensaml.xmlsec.signature.support.SignatureSupport;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of SAML response signing throughput with {@link SamlObjectSigner},
+ * compared with a signer that is new for every response and so has to read
+ * the signing key and certificate and resolve signing parameters every time,
+ * as was the case before these were cached. Run with {@code main} from the test classpath.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class SamlObjectSignerBenchmark {
+
+    private File location;
+
+    private CasConfigurationProperties properties;
+
+    private SamlObjectSigner signer;
+
+    private SPSSODescriptor descriptor;
+
+    /**
+     * Initialize OpenSAML, and copy the signing key and certificate to a temporary location.
+     *
+     * @throws Exception the exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        InitializationService.initialize();
+
+        this.location = Files.createTempDirectory("saml-idp-signing").toFile();
+        FileUtils.copyDirectory(new ClassPathResource("saml-idp-signing").getFile(), this.location);
+        this.properties = new CasConfigurationProperties();
+        this.properties.getAuthn().getSamlIdp().getMetadata().setLocation(this.location);
+
+        this.signer = newSigner();
+        this.descriptor = (SPSSODescriptor) XMLObjectProviderRegistrySupport.getBuilderFactory()
+                .getBuilder(SPSSODescriptor.DEFAULT_ELEMENT_NAME).buildObject(SPSSODescriptor.DEFAULT_ELEMENT_NAME);
+    }
+
+    /**
+     * Remove the temporary location.
+     */
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(this.location);
+    }
+
+    /**
+     * Sign a response.
+     *
+     * @return the response
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public Response signResponse() throws Exception {
+        final Response response = newResponse();
+        SignatureSupport.signObject(response, this.signer.buildSignatureSigningParameters(this.descriptor));
+        return response;
+    }
+
+    /**
+     * Sign a response, reading the signing credential and resolving signing parameters again.
+     *
+     * @return the response
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public Response signResponseWithoutCaching() throws Exception {
+        final Response response = newResponse();
+        SignatureSupport.signObject(response, newSigner().buildSignatureSigningParameters(this.descriptor));
+        return response;
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args the arguments
+     * @throws RunnerException the runner exception
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SamlObjectSignerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private SamlObjectSigner newSigner() {
+        final SamlObjectSigner s = new SamlObjectSigner();
+        ReflectionTestUtils.setField(s, "casProperties", this.properties);
+        return s;
+    }
+
+    private static Response newResponse() {
+        final XMLObjectBuilderFactory builderFactory = XMLObjectProviderRegistrySupport.getBuilderFactory();
+        final Issuer issuer = (Issuer) builderFactory.getBuilder(Issuer.DEFAULT_ELEMENT_NAME)
+                .buildObject(Issuer.DEFAULT_ELEMENT_NAME);
+        issuer.setValue("https://cas.example.org/idp");
+
+        final Response response = (Response) builderFactory.getBuilder(Response.DEFAULT_ELEMENT_NAME)
+                .buildObject(Response.DEFAULT_ELEMENT_NAME);
+        response.setID('_' + UUID.randomUUID().toString());
+        response.setIssueInstant(new DateTime());
+        response.setIssuer(issuer);
+        return response;
+    }
+}
@@ -0,0 +1,82 @@
+package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
+
+import org.apache.commons.io.FileUtils;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opensaml.core.config.InitializationService;
+import org.opensaml.core.xml.config.XMLObjectProviderRegistrySupport;
+import org.opensaml.saml.saml2.metadata.SPSSODescriptor;
+import org.opensaml.xmlsec.SignatureSigningParameters;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link SamlObjectSignerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class SamlObjectSignerTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File location;
+
+    private SamlObjectSigner signer;
+
+    @BeforeClass
+    public static void initialize() throws Exception {
+        InitializationService.initialize();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        this.location = this.folder.newFolder();
+        FileUtils.copyDirectory(new ClassPathResource("saml-idp-signing").getFile(), this.location);
+
+        final CasConfigurationProperties properties = new CasConfigurationProperties();
+        properties.getAuthn().getSamlIdp().getMetadata().setLocation(this.location);
+        this.signer = new SamlObjectSigner();
+        ReflectionTestUtils.setField(this.signer, "casProperties", properties);
+    }
+
+    @Test
+    public void verifySigningParametersAreResolvedOncePerDescriptor() throws Exception {
+        final SPSSODescriptor descriptor = newDescriptor();
+        final SignatureSigningParameters params = this.signer.buildSignatureSigningParameters(descriptor);
+        assertNotNull(params.getSigningCredential());
+        assertSame(params, this.signer.buildSignatureSigningParameters(descriptor));
+
+        final SignatureSigningParameters other = this.signer.buildSignatureSigningParameters(newDescriptor());
+        assertNotSame(params, other);
+        assertSame(params.getSigningCredential(), other.getSigningCredential());
+    }
+
+    @Test
+    public void verifySigningCredentialIsReloadedWhenModified() throws Exception {
+        final SPSSODescriptor descriptor = newDescriptor();
+        final SignatureSigningParameters params = this.signer.buildSignatureSigningParameters(descriptor);
+
+        final File key = new File(this.location, "idp-signing.key");
+        assertTrue(key.setLastModified(key.lastModified() + 10_000));
+
+        final SignatureSigningParameters reloaded = this.signer.buildSignatureSigningParameters(descriptor);
+        assertNotSame(params, reloaded);
+        assertNotSame(params.getSigningCredential(), reloaded.getSigningCredential());
+        assertSame(reloaded, this.signer.buildSignatureSigningParameters(descriptor));
+    }
+
+    private static SPSSODescriptor newDescriptor() {
+        return (SPSSODescriptor) XMLObjectProviderRegistrySupport.getBuilderFactory()
+                .getBuilder(SPSSODescriptor.DEFAULT_ELEMENT_NAME).buildObject(SPSSODescriptor.DEFAULT_ELEMENT_NAME);
+    }
+}
@@ -2,6 +2,7 @@ package org.apereo.cas.web.config;
 
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.web.view.CasProtocolView;
+import org.apereo.cas.web.view.CasServiceValidationSuccessStreamingView;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -43,6 +44,9 @@ public class CasProtocolViewsConfiguration {
     @RefreshScope
     @Bean
     public View cas2SuccessView() {
+        if (casProperties.getView().isStreamValidationResponses()) {
+            return new CasServiceValidationSuccessStreamingView(false, this.properties.getEncoding().displayName());
+        }
         return new CasProtocolView(casProperties.getView().getCas2().getSuccess(),
                 this.applicationContext, this.springTemplateEngine, this.properties);
     }
@@ -91,6 +95,9 @@ public class CasProtocolViewsConfiguration {
     @RefreshScope
     @Bean
     public View cas3SuccessView() {
+        if (casProperties.getView().isStreamValidationResponses()) {
+            return new CasServiceValidationSuccessStreamingView(true, this.properties.getEncoding().displayName());
+        }
         return new CasProtocolView(casProperties.getView().getCas3().getSuccess(),
                 this.applicationContext, this.springTemplateEngine, this.properties);
     }
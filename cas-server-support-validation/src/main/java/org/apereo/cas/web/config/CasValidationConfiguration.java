@@ -22,6 +22,7 @@ import org.apereo.cas.web.view.Cas10ResponseView;
 import org.apereo.cas.web.view.Cas20ResponseView;
 import org.apereo.cas.web.view.Cas30JsonResponseView;
 import org.apereo.cas.web.view.Cas30ResponseView;
+import org.apereo.cas.web.view.CasServiceValidationJsonStreamingView;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -141,7 +142,11 @@ public class CasValidationConfiguration {
         s.setAuthenticationContextAttribute(casProperties.getAuthn().getMfa().getAuthenticationContextAttribute());
         s.setReleaseProtocolAttributes(casProperties.getView().getCas3().isReleaseProtocolAttributes());
         s.setCasAttributeEncoder(casAttributeEncoder);
-        s.setView(cas3SuccessView);
+        if (casProperties.getView().isStreamValidationResponses()) {
+            s.setView(new CasServiceValidationJsonStreamingView());
+        } else {
+            s.setView(cas3SuccessView);
+        }
         return s;
     }
 
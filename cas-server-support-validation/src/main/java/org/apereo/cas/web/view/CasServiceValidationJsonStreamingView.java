@@ -0,0 +1,60 @@
+package org.apereo.cas.web.view;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.View;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * This is {@link CasServiceValidationJsonStreamingView}.
+ * <p>
+ * Writes the model prepared by {@link Cas30JsonResponseView} to the response as compact JSON,
+ * generating it straight onto the output stream. The JSON holds the same fields as the one
+ * written by the {@code MappingJackson2JsonView} that view uses by default, without pretty printing.
+ * All instances share a single object mapper, built the way that view builds its own.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class CasServiceValidationJsonStreamingView implements View {
+
+    private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .featuresToDisable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public void render(final Map<String, ?> model, final HttpServletRequest request,
+                       final HttpServletResponse response) throws Exception {
+        response.setContentType(CONTENT_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.addHeader("Pragma", "no-cache");
+        response.addHeader("Cache-Control", "no-cache, no-store, max-age=0");
+        response.addDateHeader("Expires", 1L);
+
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            for (final Map.Entry<String, ?> entry : model.entrySet()) {
+                if (!(entry.getValue() instanceof BindingResult)) {
+                    generator.writeObjectField(entry.getKey(), entry.getValue());
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.apereo.cas.web.view;
+
+import org.apereo.cas.CasProtocolConstants;
+import org.apereo.cas.CasViewConstants;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.principal.Principal;
+import org.springframework.web.servlet.View;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * This is {@link CasServiceValidationSuccessStreamingView}.
+ * <p>
+ * Writes the {@code cas:serviceResponse} document of a successful CAS 2.0 or 3.0 validation
+ * straight to the response, without a template. The document holds the same elements as the
+ * {@code casServiceValidationSuccess} templates, and values are escaped the same way: the user, the
+ * proxy-granting ticket IOU and proxies are escaped, while the attributes are written as they were
+ * formatted by {@link Cas30ResponseView}. Whitespace between elements is left out.
+ * Each thread builds documents in the same buffer.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class CasServiceValidationSuccessStreamingView implements View {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private static final int MAX_REUSED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_SIZE));
+
+    private final boolean releaseAttributes;
+
+    private final String characterEncoding;
+
+    private final String contentType;
+
+    /**
+     * Instantiates a new view.
+     *
+     * @param releaseAttributes whether attributes are written, as for CAS 3.0
+     * @param characterEncoding the character encoding of the response
+     */
+    public CasServiceValidationSuccessStreamingView(final boolean releaseAttributes, final String characterEncoding) {
+        this.releaseAttributes = releaseAttributes;
+        this.characterEncoding = characterEncoding;
+        this.contentType = "text/html;charset=" + characterEncoding;
+    }
+
+    @Override
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    @Override
+    public void render(final Map<String, ?> model, final HttpServletRequest request,
+                       final HttpServletResponse response) throws Exception {
+        final StringBuilder buffer = BUFFERS.get();
+        buffer.setLength(0);
+        try {
+            write(model, buffer);
+            response.setContentType(this.contentType);
+            response.setCharacterEncoding(this.characterEncoding);
+            final Writer writer = response.getWriter();
+            writer.append(buffer);
+            writer.flush();
+        } finally {
+            if (buffer.capacity() > MAX_REUSED_BUFFER_SIZE) {
+                BUFFERS.remove();
+            }
+        }
+    }
+
+    /**
+     * Write the document for the model.
+     *
+     * @param model the model
+     * @param out   where to write the document
+     * @throws IOException if the document cannot be written
+     */
+    protected void write(final Map<String, ?> model, final Appendable out) throws IOException {
+        out.append("<cas:serviceResponse xmlns:cas=\"http://www.yale.edu/tp/cas\"><cas:authenticationSuccess><cas:user>");
+        appendEscaped(out, ((Principal) model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_PRINCIPAL)).getId());
+        out.append("</cas:user>");
+
+        final Object pgtIou = model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_PROXY_GRANTING_TICKET_IOU);
+        if (isTrue(pgtIou)) {
+            out.append("<cas:proxyGrantingTicket>");
+            appendEscaped(out, pgtIou.toString());
+            out.append("</cas:proxyGrantingTicket>");
+        }
+
+        final Collection<Authentication> proxies = (Collection<Authentication>)
+                model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_CHAINED_AUTHENTICATIONS);
+        if (proxies != null && !proxies.isEmpty()) {
+            out.append("<cas:proxies>");
+            for (final Authentication proxy : proxies) {
+                out.append("<cas:proxy>");
+                appendEscaped(out, proxy.getPrincipal().getId());
+                out.append("</cas:proxy>");
+            }
+            out.append("</cas:proxies>");
+        }
+
+        if (this.releaseAttributes) {
+            final Collection<?> attributes = (Collection<?>)
+                    model.get(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_FORMATTED_ATTRIBUTES);
+            if (attributes != null && !attributes.isEmpty()) {
+                out.append("<cas:attributes>");
+                for (final Object attribute : attributes) {
+                    out.append(String.valueOf(attribute));
+                }
+                out.append("</cas:attributes>");
+            }
+        }
+        out.append("</cas:authenticationSuccess></cas:serviceResponse>");
+    }
+
+    /**
+     * Values are tested the way the templates test them with {@code th:if}.
+     */
+    private static boolean isTrue(final Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        final String text = value.toString();
+        return !"false".equalsIgnoreCase(text) && !"off".equalsIgnoreCase(text) && !"no".equalsIgnoreCase(text);
+    }
+
+    private static void appendEscaped(final Appendable out, final String text) throws IOException {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                case '\'':
+                    out.append("&#39;");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.apereo.cas.web.view;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apereo.cas.CasProtocolConstants;
+import org.apereo.cas.CasViewConstants;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.TestUtils;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.validation.ImmutableAssertion;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.View;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link CasServiceValidationJsonStreamingView}. The JSON it writes, and the JSON written by the
+ * view {@link Cas30JsonResponseView} delegates to by default, are compared with the same expected response.
+ * Both render the model that {@link Cas30JsonResponseView} prepares.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class CasServiceValidationJsonStreamingViewTests {
+
+    private static final String EXPECTED = "protocol/casServiceValidationSuccess.json";
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    public void verifyResponse() throws Exception {
+        final Authentication authentication = createAuthentication();
+        final MockHttpServletResponse response = render(new CasServiceValidationJsonStreamingView(), createModel(authentication));
+        assertEquals(readExpected(authentication), MAPPER.readTree(response.getContentAsByteArray()));
+        assertFalse(response.getContentAsString().contains("\n"));
+    }
+
+    @Test
+    public void verifyDefaultViewResponse() throws Exception {
+        final Authentication authentication = createAuthentication();
+        final MockHttpServletResponse response = render(new Cas30JsonResponseView().getView(), createModel(authentication));
+        assertEquals(readExpected(authentication), MAPPER.readTree(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void verifyHeaders() throws Exception {
+        final MockHttpServletResponse response = render(new CasServiceValidationJsonStreamingView(), createModel(createAuthentication()));
+        assertEquals("application/json;charset=UTF-8", response.getContentType());
+        assertEquals("no-cache", response.getHeader("Pragma"));
+        assertEquals("no-cache, no-store, max-age=0", response.getHeader("Cache-Control"));
+        assertNotNull(response.getHeader("Expires"));
+    }
+
+    /**
+     * Prepare the model of a successful validation the way {@link Cas30JsonResponseView} does
+     * before handing it to the view it delegates to.
+     *
+     * @param authentication         the primary authentication
+     * @param proxies                the authentications of the proxies, most recent first
+     * @param proxyGrantingTicketIou the proxy-granting ticket IOU, if any
+     * @return the model
+     * @throws Exception if the model cannot be prepared
+     */
+    static Map<String, Object> prepareModel(final Authentication authentication, final List<Authentication> proxies,
+                                            final String proxyGrantingTicketIou) throws Exception {
+        final Service service = TestUtils.getService();
+        final List<Authentication> chained = new ArrayList<>(proxies);
+        chained.add(authentication);
+
+        final Map<String, Object> model = new HashMap<>();
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_ASSERTION, new ImmutableAssertion(authentication, chained, service, true));
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_SERVICE, service);
+        if (proxyGrantingTicketIou != null) {
+            model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_PROXY_GRANTING_TICKET_IOU, proxyGrantingTicketIou);
+        }
+
+        final ServicesManager servicesManager = mock(ServicesManager.class);
+        when(servicesManager.findServiceBy(any(Service.class))).thenReturn(TestUtils.getRegisteredService());
+
+        final Map<String, Object> prepared = new HashMap<>();
+        final Cas30JsonResponseView view = new Cas30JsonResponseView();
+        view.setServicesManager(servicesManager);
+        view.setCasAttributeEncoder((attributes, s) -> attributes);
+        view.setView(new View() {
+            @Override
+            public String getContentType() {
+                return "application/json";
+            }
+
+            @Override
+            public void render(final Map<String, ?> map, final HttpServletRequest request, final HttpServletResponse response) {
+                prepared.putAll(map);
+            }
+        });
+        view.render(model, new MockHttpServletRequest(), new MockHttpServletResponse());
+        return prepared;
+    }
+
+    private static Authentication createAuthentication() {
+        final Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("email", Collections.singletonList("casuser@example.org"));
+        attributes.put("memberOf", Arrays.asList("faculty", "staff & students"));
+        return TestUtils.getAuthentication(TestUtils.getPrincipal("casuser & <friends>", attributes));
+    }
+
+    private static Map<String, Object> createModel(final Authentication authentication) throws Exception {
+        return prepareModel(authentication,
+                Collections.singletonList(TestUtils.getAuthentication("https://proxy.example.org/callback?a=1&b=2")),
+                "PGTIOU-1-cas.example.org");
+    }
+
+    private static MockHttpServletResponse render(final View view, final Map<String, Object> model) throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(model, new MockHttpServletRequest(), response);
+        return response;
+    }
+
+    /**
+     * How the authentication date is written depends on the Jackson modules found on the classpath,
+     * so the date in the expected response is replaced by the date of the authentication as the mapper writes it.
+     */
+    private static JsonNode readExpected(final Authentication authentication) throws Exception {
+        final JsonNode expected = MAPPER.readTree(new ClassPathResource(EXPECTED).getInputStream());
+        final ObjectNode attributes = (ObjectNode) expected.get("serviceResponse").get("authenticationSuccess").get("attributes");
+        assertTrue(attributes.has(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_AUTHENTICATION_DATE));
+        attributes.set(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_AUTHENTICATION_DATE,
+                MAPPER.valueToTree(Collections.singleton(authentication.getAuthenticationDate())));
+        return expected;
+    }
+}
@@ -0,0 +1,168 @@
+package org.apereo.cas.web.view;
+
+import org.apereo.cas.CasProtocolConstants;
+import org.apereo.cas.CasViewConstants;
+import org.apereo.cas.authentication.TestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring4.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of rendering a successful CAS 3.0 validation response with a principal
+ * that has a dozen attributes. Compares the {@code casServiceValidationSuccess} template, rendered
+ * with caching on as in production, with {@link CasServiceValidationSuccessStreamingView}, and the
+ * view {@link Cas30JsonResponseView} delegates to by default with {@link CasServiceValidationJsonStreamingView}.
+ * Run with {@code main} from the module directory, so that the templates of the web application are found.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class CasServiceValidationResponseBenchmark {
+
+    private static final String TEMPLATES = "../cas-server-webapp/src/main/resources/templates/";
+
+    private static final String TEMPLATE = "protocol/3.0/casServiceValidationSuccess";
+
+    private static final int ATTRIBUTES = 12;
+
+    private Map<String, Object> model;
+
+    private Map<String, Object> jsonModel;
+
+    private SpringTemplateEngine templateEngine;
+
+    private View streamingView;
+
+    private View jsonView;
+
+    private View jsonStreamingView;
+
+    /**
+     * Build the models, the template engine and the views.
+     *
+     * @throws Exception if the JSON model cannot be prepared
+     */
+    @Setup
+    public void setup() throws Exception {
+        final List<String> formattedAttributes = new ArrayList<>();
+        final Map<String, Object> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < ATTRIBUTES; i++) {
+            formattedAttributes.add("<cas:attribute" + i + ">value" + i + "</cas:attribute" + i + '>');
+            attributes.put("attribute" + i, Collections.singletonList("value" + i));
+        }
+        this.model = new HashMap<>();
+        this.model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_PRINCIPAL, TestUtils.getPrincipal("casuser"));
+        this.model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_PROXY_GRANTING_TICKET_IOU, "PGTIOU-1-cas.example.org");
+        this.model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_CHAINED_AUTHENTICATIONS, Collections.emptyList());
+        this.model.put(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_FORMATTED_ATTRIBUTES, formattedAttributes);
+
+        this.jsonModel = CasServiceValidationJsonStreamingViewTests.prepareModel(
+                TestUtils.getAuthentication(TestUtils.getPrincipal("casuser", attributes)),
+                Collections.emptyList(), "PGTIOU-1-cas.example.org");
+
+        final FileTemplateResolver resolver = new FileTemplateResolver();
+        resolver.setPrefix(TEMPLATES);
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode("HTML5");
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        this.templateEngine = new SpringTemplateEngine();
+        this.templateEngine.setTemplateResolver(resolver);
+
+        this.streamingView = new CasServiceValidationSuccessStreamingView(true, "UTF-8");
+        this.jsonView = new Cas30JsonResponseView().getView();
+        this.jsonStreamingView = new CasServiceValidationJsonStreamingView();
+    }
+
+    /**
+     * Render the response from the template.
+     *
+     * @return the response
+     */
+    @Benchmark
+    public String renderTemplate() {
+        return this.templateEngine.process(TEMPLATE, new Context(Locale.ENGLISH, this.model));
+    }
+
+    /**
+     * Render the response with the streaming view.
+     *
+     * @return the response
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public MockHttpServletResponse renderStreaming() throws Exception {
+        return render(this.streamingView, this.model);
+    }
+
+    /**
+     * Render the JSON response with the view {@link Cas30JsonResponseView} delegates to by default.
+     *
+     * @return the response
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public MockHttpServletResponse renderJson() throws Exception {
+        return render(this.jsonView, this.jsonModel);
+    }
+
+    /**
+     * Render the JSON response with the streaming view.
+     *
+     * @return the response
+     * @throws Exception the exception
+     */
+    @Benchmark
+    public MockHttpServletResponse renderJsonStreaming() throws Exception {
+        return render(this.jsonStreamingView, this.jsonModel);
+    }
+
+    private static MockHttpServletResponse render(final View view, final Map<String, Object> model) throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(model, new MockHttpServletRequest(), response);
+        return response;
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args the arguments
+     * @throws RunnerException the runner exception
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CasServiceValidationResponseBenchmark.class.getSimpleName()).build()).run();
+    }
+}
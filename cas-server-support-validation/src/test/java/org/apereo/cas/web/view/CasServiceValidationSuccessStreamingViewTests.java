@@ -0,0 +1,174 @@
+package org.apereo.cas.web.view;
+
+import org.apereo.cas.CasProtocolConstants;
+import org.apereo.cas.CasViewConstants;
+import org.apereo.cas.authentication.TestUtils;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring4.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+ * Tests for {@link CasServiceValidationSuccessStreamingView}. The documents it writes, and those
+ * rendered from the {@code casServiceValidationSuccess} templates of the web application, are compared
+ * with the same expected documents, ignoring whitespace between elements.
+ *
+ * @author Misagh Moayyed
+ * @since 5.0.0
+ */
+public class CasServiceValidationSuccessStreamingViewTests {
+
+    private static final String TEMPLATES = "../cas-server-webapp/src/main/resources/templates/";
+
+    private static final String CAS2_TEMPLATE = "protocol/2.0/casServiceValidationSuccess";
+
+    private static final String CAS3_TEMPLATE = "protocol/3.0/casServiceValidationSuccess";
+
+    private static final String CAS2_EXPECTED = "protocol/cas2ServiceValidationSuccess.xml";
+
+    private static final String CAS3_EXPECTED = "protocol/cas3ServiceValidationSuccess.xml";
+
+    @Test
+    public void verifyCas2Response() throws Exception {
+        assertEquals(canonicalize(read(CAS2_EXPECTED)), canonicalize(renderStreaming(false, createModel())));
+    }
+
+    @Test
+    public void verifyCas3Response() throws Exception {
+        assertEquals(canonicalize(read(CAS3_EXPECTED)), canonicalize(renderStreaming(true, createModel())));
+    }
+
+    @Test
+    public void verifyCas2TemplateResponse() throws Exception {
+        assertEquals(canonicalize(read(CAS2_EXPECTED)), canonicalize(renderTemplate(CAS2_TEMPLATE, createModel())));
+    }
+
+    @Test
+    public void verifyCas3TemplateResponse() throws Exception {
+        assertEquals(canonicalize(read(CAS3_EXPECTED)), canonicalize(renderTemplate(CAS3_TEMPLATE, createModel())));
+    }
+
+    @Test
+    public void verifyResponseWithoutProxiesOrAttributes() throws Exception {
+        final Map<String, Object> model = new HashMap<>();
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_PRINCIPAL, TestUtils.getPrincipal("casuser"));
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_CHAINED_AUTHENTICATIONS, Collections.emptyList());
+        model.put(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_FORMATTED_ATTRIBUTES, Collections.emptyList());
+
+        final String response = renderStreaming(true, model);
+        assertEquals("<cas:serviceResponse xmlns:cas=\"http://www.yale.edu/tp/cas\"><cas:authenticationSuccess>"
+                + "<cas:user>casuser</cas:user></cas:authenticationSuccess></cas:serviceResponse>", response);
+        assertEquals(canonicalize(renderTemplate(CAS3_TEMPLATE, model)), canonicalize(response));
+    }
+
+    @Test
+    public void verifyContentType() throws Exception {
+        final CasServiceValidationSuccessStreamingView view = new CasServiceValidationSuccessStreamingView(true, "UTF-8");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(createModel(), new MockHttpServletRequest(), response);
+        assertEquals("text/html;charset=UTF-8", response.getContentType());
+        assertEquals("UTF-8", response.getCharacterEncoding());
+    }
+
+    private static Map<String, Object> createModel() {
+        final Map<String, Object> model = new HashMap<>();
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_PRINCIPAL, TestUtils.getPrincipal("casuser & <friends>"));
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_PROXY_GRANTING_TICKET_IOU, "PGTIOU-1-cas.example.org");
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_CHAINED_AUTHENTICATIONS, Arrays.asList(
+                TestUtils.getAuthentication("https://proxy.example.org/callback?a=1&b=2"),
+                TestUtils.getAuthentication("https://another.example.org/callback")));
+        model.put(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_FORMATTED_ATTRIBUTES, Arrays.asList(
+                "<cas:email>casuser@example.org</cas:email>",
+                "<cas:memberOf>faculty</cas:memberOf>",
+                "<cas:memberOf>staff &amp; students</cas:memberOf>",
+                "<cas:isFromNewLogin>true</cas:isFromNewLogin>"));
+        return model;
+    }
+
+    private static String renderStreaming(final boolean releaseAttributes, final Map<String, Object> model) throws Exception {
+        final CasServiceValidationSuccessStreamingView view = new CasServiceValidationSuccessStreamingView(releaseAttributes, "UTF-8");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(model, new MockHttpServletRequest(), response);
+        return response.getContentAsString();
+    }
+
+    private static String renderTemplate(final String template, final Map<String, Object> model) {
+        assumeTrue(new File(TEMPLATES).isDirectory());
+        final FileTemplateResolver resolver = new FileTemplateResolver();
+        resolver.setPrefix(TEMPLATES);
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode("HTML5");
+        resolver.setCharacterEncoding("UTF-8");
+        final SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine.process(template, new Context(Locale.ENGLISH, model));
+    }
+
+    private static String read(final String resource) throws Exception {
+        try (InputStream in = new ClassPathResource(resource).getInputStream()) {
+            return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Describe the elements of the document with their namespaces, sorted attributes and text,
+     * leaving out whitespace around text.
+     */
+    private static String canonicalize(final String xml) throws Exception {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        final Document document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+        document.normalizeDocument();
+        final StringBuilder builder = new StringBuilder();
+        canonicalize(document.getDocumentElement(), builder);
+        return builder.toString();
+    }
+
+    private static void canonicalize(final Element element, final StringBuilder builder) {
+        builder.append('{').append(element.getNamespaceURI()).append('}').append(element.getLocalName());
+        final NamedNodeMap attributes = element.getAttributes();
+        final Map<String, String> sorted = new TreeMap<>();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final Node attribute = attributes.item(i);
+            if (!"http://www.w3.org/2000/xmlns/".equals(attribute.getNamespaceURI())) {
+                sorted.put(attribute.getNodeName(), attribute.getNodeValue());
+            }
+        }
+        builder.append(sorted).append('[');
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                canonicalize((Element) child, builder);
+            } else if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+                final String text = child.getNodeValue().trim();
+                if (!text.isEmpty()) {
+                    builder.append('"').append(text).append('"');
+                }
+            }
+        }
+        builder.append(']');
+    }
+}
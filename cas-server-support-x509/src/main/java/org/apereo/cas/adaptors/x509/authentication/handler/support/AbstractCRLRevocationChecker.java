@@ -84,7 +84,7 @@ public abstract class AbstractCRLRevocationChecker implements RevocationChecker
             logger.debug("Valid CRLs [{}] found that are not expired yet", crls);
 
             for (final X509CRL crl : crls) {
-                final X509CRLEntry entry = crl.getRevokedCertificate(cert);
+                final X509CRLEntry entry = getRevokedCertificate(crl, cert);
                 if (entry != null) {
                     revokedCrls.add(entry);
                 }
@@ -152,6 +152,19 @@ public abstract class AbstractCRLRevocationChecker implements RevocationChecker
         return null;
     }
 
+    /**
+     * Looks up the given certificate in the revocation list.
+     * Subclasses that keep CRLs around between checks may
+     * override this to consult a faster index of the revoked entries.
+     *
+     * @param crl  the revocation list
+     * @param cert the certificate
+     * @return the revoked entry for the certificate, or null if it is not revoked.
+     */
+    protected X509CRLEntry getRevokedCertificate(final X509CRL crl, final X509Certificate cert) {
+        return crl.getRevokedCertificate(cert);
+    }
+
     /**
      * Records the addition of a new CRL entry.
      * @param id the id of the entry to keep track of
@@ -3,6 +3,7 @@ package org.apereo.cas.adaptors.x509.authentication.handler.support;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.Element;
 import org.apereo.cas.adaptors.x509.util.CertUtils;
@@ -14,14 +15,30 @@ import org.bouncycastle.asn1.x509.GeneralName;
 import org.cryptacular.x509.ExtensionReader;
 import org.springframework.core.io.ByteArrayResource;
 
+import javax.annotation.PreDestroy;
+import java.math.BigInteger;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Performs CRL-based revocation checking by consulting resources defined in
@@ -31,18 +48,60 @@ import java.util.List;
  * implementation.  This implementation caches CRL resources fetched from remote
  * URLs to improve performance by avoiding CRL fetching on every revocation
  * check.
+ * <p>
+ * CRLs are kept in parsed form per distribution point, along with the set of
+ * revoked serial numbers, so that a revocation check is a lookup rather than
+ * a parse of the encoded CRL. The first check against a distribution point
+ * fetches its CRL; from then on the CRL is refreshed in the background
+ * ahead of its {@code nextUpdate} time, or at the refresh interval
+ * if that comes first. A failed refresh keeps the current CRL and is retried.
+ * CRLs of distribution points that are not consulted for the max idle time are
+ * dropped, and no longer refreshed, until they are needed again; idle CRLs are
+ * looked for at that same interval.
  *
  * @author Marvin S. Addison
  * @since 3.4.6
  */
 public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocationChecker {
-    
+
+    private static final int DEFAULT_REFRESH_INTERVAL = 3600;
+
+    private static final int DEFAULT_REFRESH_AHEAD = 300;
+
+    private static final int MIN_REFRESH_DELAY = 60;
+
+    private static final int DEFAULT_MAX_IDLE_TIME = 86400;
+
     private Cache crlCache;
     
     private CRLFetcher fetcher;
 
     private boolean throwOnFetchFailure;
 
+    private int refreshInterval = DEFAULT_REFRESH_INTERVAL;
+
+    private int refreshAhead = DEFAULT_REFRESH_AHEAD;
+
+    private int maxIdleTime = DEFAULT_MAX_IDLE_TIME;
+
+    private final ConcurrentMap<URI, X509CRL> parsedCrls = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<URI, ScheduledFuture<?>> refreshes = new ConcurrentHashMap<>();
+
+    /** When each distribution point was last consulted, in milliseconds since the epoch. */
+    private final ConcurrentMap<URI, Long> lastUsed = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+
+    /** Revoked serial numbers by CRL instance; keys are compared by identity. */
+    private final ConcurrentMap<X509CRL, Set<BigInteger>> revokedSerialNumbers = new MapMaker().weakKeys().makeMap();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "crl-distribution-point-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * Used for serialization and auto wiring.
      */
@@ -93,6 +152,36 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
         this.throwOnFetchFailure = throwOnFetchFailure;
     }
 
+    /**
+     * Sets the maximum number of seconds between two fetches of the same CRL.
+     * Defaults to one hour.
+     *
+     * @param refreshInterval the refresh interval in seconds
+     */
+    public void setRefreshInterval(final int refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Sets how many seconds ahead of its {@code nextUpdate} time a CRL is fetched again.
+     * Defaults to five minutes.
+     *
+     * @param refreshAhead the number of seconds
+     */
+    public void setRefreshAhead(final int refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+
+    /**
+     * Sets how many seconds a CRL is kept once its distribution point is no longer consulted.
+     * Defaults to one day. If zero or less, CRLs are kept for as long as the checker is.
+     *
+     * @param maxIdleTime the max idle time in seconds
+     */
+    public void setMaxIdleTime(final int maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -122,33 +211,9 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
         try {
             for (int index = 0; !stopFetching && index < urls.length; index++) {
                 final URI url = urls[index];
-                final Element item = this.crlCache.get(url);
-
-                if (item != null) {
-                    logger.debug("Found CRL in cache for {}", CertUtils.toString(cert));
-                    final byte[] encodedCrl = (byte[]) item.getObjectValue();
-                    final X509CRL crlFetched = this.fetcher.fetch(new ByteArrayResource(encodedCrl));
-
-                    if (crlFetched != null) {
-                        listOfLocations.add(crlFetched);
-                    } else {
-                        logger.warn("Could fetch X509 CRL for {}. Returned value is null", url);
-                    }
-                } else {
-                    logger.debug("CRL for {} is not cached. Fetching and caching...", CertUtils.toString(cert));
-                    try {
-                        final X509CRL crl = this.fetcher.fetch(url);
-                        if (crl != null) {
-                            logger.info("Success. Caching fetched CRL at {}.", url);
-                            addCRL(url, crl);
-                            listOfLocations.add(crl);
-                        }
-                    } catch (final Exception e) {
-                        logger.error("Error fetching CRL at {}", url, e);
-                        if (this.throwOnFetchFailure) {
-                            throw Throwables.propagate(e);
-                        }
-                    }
+                final X509CRL crl = getDistributionPointCRL(url);
+                if (crl != null) {
+                    listOfLocations.add(crl);
                 }
 
                 if (!this.checkAll && !listOfLocations.isEmpty()) {
@@ -164,15 +229,76 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
         return listOfLocations;
     }
 
+    /**
+     * Gets the parsed CRL for the distribution point. The CRL is parsed from the
+     * cache if it was put there by another checker, or fetched otherwise; in both
+     * cases that only happens the first time the distribution point is seen.
+     *
+     * @param url the distribution point
+     * @return the CRL, or null if it could not be fetched
+     */
+    private X509CRL getDistributionPointCRL(final URI url) {
+        this.lastUsed.put(url, System.currentTimeMillis());
+        final X509CRL parsed = this.parsedCrls.get(url);
+        if (parsed != null) {
+            return parsed;
+        }
+
+        final Element item = this.crlCache.get(url);
+        if (item != null) {
+            logger.debug("Found CRL in cache for {}", url);
+            try {
+                final X509CRL crl = this.fetcher.fetch(new ByteArrayResource((byte[]) item.getObjectValue()));
+                if (crl == null) {
+                    logger.warn("Could fetch X509 CRL for {}. Returned value is null", url);
+                    return null;
+                }
+                putParsedCRL(url, crl);
+                return crl;
+            } catch (final Exception e) {
+                throw Throwables.propagate(e);
+            }
+        }
+
+        logger.debug("CRL for {} is not cached. Fetching and caching...", url);
+        try {
+            final X509CRL crl = this.fetcher.fetch(url);
+            if (crl != null) {
+                logger.info("Success. Caching fetched CRL at {}.", url);
+                addCRL(url, crl);
+            }
+            return crl;
+        } catch (final Exception e) {
+            logger.error("Error fetching CRL at {}", url, e);
+            if (this.throwOnFetchFailure) {
+                throw Throwables.propagate(e);
+            }
+            return null;
+        }
+    }
+
+    @Override
+    protected X509CRLEntry getRevokedCertificate(final X509CRL crl, final X509Certificate cert) {
+        final Set<BigInteger> serialNumbers = this.revokedSerialNumbers.get(crl);
+        if (serialNumbers != null && !serialNumbers.contains(cert.getSerialNumber())) {
+            return null;
+        }
+        return super.getRevokedCertificate(crl, cert);
+    }
+
     @Override
     protected boolean addCRL(final Object id, final X509CRL crl) {
         try {
             if (crl == null) {
                 logger.debug("No CRL was passed. Removing {} from cache...", id);
+                this.parsedCrls.remove(id);
                 return this.crlCache.remove(id);
             }
 
             this.crlCache.put(new Element(id, crl.getEncoded()));
+            if (id instanceof URI) {
+                putParsedCRL((URI) id, crl);
+            }
             return this.crlCache.get(id) != null;
 
         } catch (final Exception e) {
@@ -181,6 +307,133 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
         }
     }
 
+    /**
+     * Index the revoked serial numbers of the CRL, make it the current CRL
+     * for the distribution point and schedule its refresh.
+     *
+     * @param url the distribution point
+     * @param crl the crl
+     */
+    private void putParsedCRL(final URI url, final X509CRL crl) {
+        final Set<? extends X509CRLEntry> entries = crl.getRevokedCertificates();
+        final Set<BigInteger> serialNumbers = entries == null
+                ? Collections.emptySet() : new HashSet<>(entries.size() * 2);
+        if (entries != null) {
+            entries.forEach(entry -> serialNumbers.add(entry.getSerialNumber()));
+        }
+        this.revokedSerialNumbers.put(crl, serialNumbers);
+        this.lastUsed.putIfAbsent(url, System.currentTimeMillis());
+        this.parsedCrls.put(url, crl);
+        scheduleRefresh(url, crl);
+        scheduleEviction();
+    }
+
+    /**
+     * Start looking for idle CRLs at the max idle time interval, unless that is already done.
+     */
+    private void scheduleEviction() {
+        if (this.maxIdleTime > 0 && !this.scheduler.isShutdown() && this.evictionScheduled.compareAndSet(false, true)) {
+            this.scheduler.scheduleWithFixedDelay(this::evictIdleCRLs, this.maxIdleTime, this.maxIdleTime, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Drop the CRLs of distribution points not consulted for the max idle time, and stop refreshing them.
+     * They are fetched again, or parsed again from the cache, when next needed.
+     *
+     * @return the number of distribution points whose CRL was dropped
+     */
+    public int evictIdleCRLs() {
+        if (this.maxIdleTime <= 0) {
+            return 0;
+        }
+        final long idleSince = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(this.maxIdleTime);
+        int count = 0;
+        for (final Map.Entry<URI, Long> entry : this.lastUsed.entrySet()) {
+            final URI url = entry.getKey();
+            if (entry.getValue() <= idleSince && this.lastUsed.remove(url, entry.getValue())) {
+                final ScheduledFuture<?> refresh = this.refreshes.remove(url);
+                if (refresh != null) {
+                    refresh.cancel(false);
+                }
+                if (this.parsedCrls.remove(url) != null) {
+                    logger.debug("Evicted CRL at {} that was not used for {} seconds", url, this.maxIdleTime);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Schedule the next fetch of the CRL at the distribution point,
+     * replacing the one that may already be scheduled.
+     *
+     * @param url the distribution point
+     * @param crl the current crl
+     */
+    private void scheduleRefresh(final URI url, final X509CRL crl) {
+        if (this.scheduler.isShutdown()) {
+            return;
+        }
+        final long delay = getRefreshDelay(crl);
+        logger.debug("Scheduling refresh of CRL at {} in {} seconds", url, delay);
+        final ScheduledFuture<?> previous = this.refreshes.put(url,
+                this.scheduler.schedule(() -> refresh(url), delay, TimeUnit.SECONDS));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    /**
+     * Fetch the CRL at the distribution point again. If that fails,
+     * the current CRL is kept and the fetch is retried.
+     *
+     * @param url the distribution point
+     */
+    private void refresh(final URI url) {
+        if (!this.parsedCrls.containsKey(url)) {
+            return;
+        }
+        try {
+            final X509CRL crl = this.fetcher.fetch(url);
+            if (crl != null) {
+                logger.debug("Refreshed CRL at {}", url);
+                addCRL(url, crl);
+                return;
+            }
+            logger.warn("Could not refresh X509 CRL at {}. Returned value is null", url);
+        } catch (final Exception e) {
+            logger.warn("Error refreshing CRL at {}", url, e);
+        }
+        final X509CRL current = this.parsedCrls.get(url);
+        if (current != null) {
+            scheduleRefresh(url, current);
+        }
+    }
+
+    /**
+     * Gets the number of seconds until the CRL should be fetched again,
+     * which is the refresh interval, or less if the CRL is due for an update before that.
+     *
+     * @param crl the crl
+     * @return the delay in seconds
+     */
+    private long getRefreshDelay(final X509CRL crl) {
+        if (crl.getNextUpdate() == null) {
+            return this.refreshInterval;
+        }
+        final long untilNextUpdate = Duration.between(Instant.now(), crl.getNextUpdate().toInstant()).getSeconds();
+        return Math.min(this.refreshInterval, Math.max(untilNextUpdate - this.refreshAhead, MIN_REFRESH_DELAY));
+    }
+
+    /**
+     * Stop refreshing CRLs.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
 
     /**
      * Gets the distribution points.
@@ -163,6 +163,9 @@ public class X509AuthenticationConfiguration {
                 new CRLDistributionPointRevocationChecker(this.x509CrlCache, this.x509CrlFetcher);
         c.setCheckAll(casProperties.getAuthn().getX509().isCheckAll());
         c.setThrowOnFetchFailure(casProperties.getAuthn().getX509().isThrowOnFetchFailure());
+        c.setRefreshInterval(casProperties.getAuthn().getX509().getRefreshIntervalSeconds());
+        c.setRefreshAhead(casProperties.getAuthn().getX509().getCrlRefreshAheadSeconds());
+        c.setMaxIdleTime(casProperties.getAuthn().getX509().getCrlMaxIdleSeconds());
         c.setUnavailableCRLPolicy(x509CrlUnavailableRevocationPolicy);
         c.setExpiredCRLPolicy(x509CrlExpiredRevocationPolicy);
         return c;
@@ -8,6 +8,7 @@ import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
@@ -25,6 +26,8 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import static org.junit.Assert.*;
+
 
 /**
  * Unit test for {@link CRLDistributionPointRevocationChecker} class.
@@ -209,6 +212,37 @@ public class CRLDistributionPointRevocationCheckerTests extends AbstractCRLRevoc
         logger.debug("Web server stopped [{}]", !this.webServer.isRunning());
     }
 
+    /**
+     * Once fetched, CRLs are checked in parsed form without going back to the distribution point.
+     */
+    @Test
+    public void checkCertificateWithoutFetchingAgain() {
+        checkCertificate();
+        this.webServer.stop();
+        checkCertificate();
+    }
+
+    /**
+     * CRLs not used for the max idle time are dropped, and brought back when needed again.
+     */
+    @Test
+    public void checkCertificateAfterIdleCRLsAreEvicted() throws Exception {
+        this.checker.setMaxIdleTime(1);
+        try {
+            checkCertificate();
+            assertEquals(0, this.checker.evictIdleCRLs());
+            Thread.sleep(1500);
+            final int evicted = this.checker.evictIdleCRLs();
+            assertEquals(0, this.checker.evictIdleCRLs());
+
+            checkCertificate();
+            Thread.sleep(1500);
+            assertEquals(evicted, this.checker.evictIdleCRLs());
+        } finally {
+            this.checker.setMaxIdleTime(0);
+        }
+    }
+
     @AfterClass
     public static void destroy() {
         final File file = new File("ca.crl");
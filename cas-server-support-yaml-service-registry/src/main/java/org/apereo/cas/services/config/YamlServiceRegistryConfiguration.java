@@ -30,6 +30,7 @@ public class YamlServiceRegistryConfiguration {
             final YamlServiceRegistryDao dao = new YamlServiceRegistryDao(
                     casProperties.getServiceRegistry().getConfig().getLocation(),
                     casProperties.getServiceRegistry().isWatcherEnabled());
+            dao.setLoaderParallelism(casProperties.getServiceRegistry().getLoaderParallelism());
 
             return dao;
         } catch (final Exception e) {